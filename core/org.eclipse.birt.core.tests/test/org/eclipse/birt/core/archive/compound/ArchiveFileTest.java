@@ -3,6 +3,11 @@ package org.eclipse.birt.core.archive.compound;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.ClosedChannelException;
+
+import org.eclipse.birt.core.archive.compound.v3.Ext2File;
+import org.eclipse.birt.core.archive.compound.v3.Ext2FileSystem;
 
 import org.junit.After;
 import org.junit.Before;
@@ -79,6 +84,72 @@ public class ArchiveFileTest
 		assertTrue( archive.getUsedCache( ) == 0 );
 	}
 	@Test
+    public void testAsyncWrite( ) throws IOException
+	{
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		archive.setCacheSize( 0 );
+		archive.setAsyncWrite( 16 * 1024 );
+		createArchive( archive );
+		checkArchive( archive );
+		archive.flush( );
+		createArchive( archive );
+		checkArchive( archive );
+
+		byte[] data = new byte[100 * 1024];
+		for ( int i = 0; i < data.length; i++ )
+		{
+			data[i] = (byte) i;
+		}
+		ArchiveEntry entry = archive.createEntry( "/data" );
+		entry.write( 0, data, 0, data.length );
+		entry.close( );
+		checkData( archive, data );
+		archive.close( );
+
+		archive = new ArchiveFile( ARCHIVE_FILE, "r" );
+		checkArchive( archive );
+		checkData( archive, data );
+		archive.close( );
+	}
+
+	@Test
+	public void testAsyncWriteError( ) throws IOException
+	{
+		RandomAccessFile rf = new RandomAccessFile( ARCHIVE_FILE, "rw" );
+		Ext2FileSystem fs = new Ext2FileSystem( ARCHIVE_FILE, rf, "rw" );
+		fs.setCacheSize( 0 );
+		fs.setAsyncWrite( 16 * 1024 );
+		Ext2File file = fs.createFile( "/data" );
+		file.write( new byte[64 * 1024], 0, 64 * 1024 );
+		file.close( );
+		// the background writer fails on the closed channel
+		rf.getChannel( ).close( );
+		try
+		{
+			fs.close( );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+			assertTrue( ex.getCause( ) instanceof ClosedChannelException );
+		}
+	}
+
+	void checkData( ArchiveFile archive, byte[] data ) throws IOException
+	{
+		ArchiveEntry entry = archive.openEntry( "/data" );
+		try
+		{
+			byte[] b = new byte[data.length];
+			assertEquals( data.length, entry.read( 0, b, 0, b.length ) );
+			assertArrayEquals( data, b );
+		}
+		finally
+		{
+			entry.close( );
+		}
+	}
+	@Test
     public void testTransient( ) throws IOException
 	{
 		ArchiveFile archive = new ArchiveFile( TRANSIENT_ARCHIVE_FILE, "rwt" );
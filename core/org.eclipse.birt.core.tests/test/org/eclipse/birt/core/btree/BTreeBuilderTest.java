@@ -0,0 +1,277 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class BTreeBuilderTest extends BTreeTestCase
+{
+
+	static final int KEY_COUNT = 20000;
+
+	@Test
+	public void testBuild( ) throws Exception
+	{
+		int blocks = doTestBuild( false );
+		int compressedBlocks = doTestBuild( true );
+		assertTrue( compressedBlocks < blocks );
+	}
+
+	private int doTestBuild( boolean compressed ) throws Exception
+	{
+		RAMBTreeFile file = new RAMBTreeFile( );
+		BTree<String, Integer> btree = new BTree<String, Integer>( createOption(
+				file, compressed ) );
+		BTreeBuilder<String, Integer> builder = btree.createBuilder( );
+		for ( int i = 0; i < KEY_COUNT; i++ )
+		{
+			builder.add( getKey( i ), Integer.valueOf( i ) );
+		}
+		builder.finish( );
+		assertEquals( KEY_COUNT, btree.getTotalKeys( ) );
+		assertEquals( KEY_COUNT, btree.getTotalValues( ) );
+		btree.close( );
+
+		btree = new BTree<String, Integer>( createOption( file, false ) );
+		assertEquals( KEY_COUNT, btree.getTotalKeys( ) );
+		for ( int i = 0; i < KEY_COUNT; i += 7 )
+		{
+			assertEquals( Integer.valueOf( i ), btree.getValue( getKey( i ) ) );
+		}
+		assertFalse( btree.exist( "a" ) );
+		assertFalse( btree.exist( "z" ) );
+		assertFalse( btree.exist( getKey( 10 ) + "0" ) );
+
+		BTreeCursor<String, Integer> cursor = btree.createCursor( );
+		int count = 0;
+		while ( cursor.next( ) )
+		{
+			assertEquals( getKey( count ), cursor.getKey( ) );
+			count++;
+		}
+		assertEquals( KEY_COUNT, count );
+		while ( cursor.previous( ) )
+		{
+			count--;
+			assertEquals( getKey( count ), cursor.getKey( ) );
+		}
+		assertEquals( 0, count );
+		cursor.close( );
+		btree.close( );
+		return file.getTotalBlock( );
+	}
+
+	@Test
+	public void testInsertAfterBuild( ) throws Exception
+	{
+		RAMBTreeFile file = new RAMBTreeFile( );
+		BTree<String, Integer> btree = new BTree<String, Integer>( createOption(
+				file, true ) );
+		BTreeBuilder<String, Integer> builder = btree.createBuilder( );
+		for ( int i = 0; i < KEY_COUNT; i += 2 )
+		{
+			builder.add( getKey( i ), Integer.valueOf( i ) );
+		}
+		builder.finish( );
+
+		ArrayList<Integer> odds = new ArrayList<Integer>( );
+		for ( int i = 1; i < KEY_COUNT; i += 2 )
+		{
+			odds.add( Integer.valueOf( i ) );
+		}
+		Collections.shuffle( odds, new Random( 0 ) );
+		for ( Integer i : odds )
+		{
+			btree.insert( getKey( i.intValue( ) ), i );
+		}
+		assertEquals( KEY_COUNT, btree.getTotalKeys( ) );
+		btree.close( );
+
+		btree = new BTree<String, Integer>( createOption( file, true ) );
+		BTreeCursor<String, Integer> cursor = btree.createCursor( );
+		int count = 0;
+		while ( cursor.next( ) )
+		{
+			assertEquals( getKey( count ), cursor.getKey( ) );
+			assertEquals( Integer.valueOf( count ), cursor.getValue( ) );
+			count++;
+		}
+		assertEquals( KEY_COUNT, count );
+		cursor.close( );
+		btree.close( );
+	}
+
+	@Test
+	public void testDuplicateKeys( ) throws Exception
+	{
+		RAMBTreeFile file = new RAMBTreeFile( );
+		BTreeOption<String, Integer> option = createOption( file, true );
+		option.setAllowDuplicate( true );
+		BTree<String, Integer> btree = new BTree<String, Integer>( option );
+		BTreeBuilder<String, Integer> builder = btree.createBuilder( );
+		int totalValues = 0;
+		for ( int i = 0; i < 1000; i++ )
+		{
+			// the values of the key 500 are saved out of the leaf node
+			int valueCount = i == 500 ? 2000 : i % 3 + 1;
+			for ( int j = 0; j < valueCount; j++ )
+			{
+				builder.add( getKey( i ), Integer.valueOf( j ) );
+			}
+			totalValues += valueCount;
+		}
+		builder.finish( );
+		btree.close( );
+
+		btree = new BTree<String, Integer>( option );
+		assertEquals( 1000, btree.getTotalKeys( ) );
+		assertEquals( totalValues, btree.getTotalValues( ) );
+		for ( int i = 0; i < 1000; i++ )
+		{
+			Collection<Integer> values = btree.getValues( getKey( i ) );
+			int valueCount = i == 500 ? 2000 : i % 3 + 1;
+			assertEquals( valueCount, values.size( ) );
+			int j = 0;
+			for ( Integer value : values )
+			{
+				assertEquals( Integer.valueOf( j++ ), value );
+			}
+		}
+		btree.close( );
+	}
+
+	@Test
+	public void testReplaceValue( ) throws Exception
+	{
+		BTree<String, Integer> btree = new BTree<String, Integer>( createOption(
+				new RAMBTreeFile( ), false ) );
+		BTreeBuilder<String, Integer> builder = btree.createBuilder( );
+		builder.add( "a", Integer.valueOf( 1 ) );
+		builder.add( "a", Integer.valueOf( 2 ) );
+		builder.add( "b", Integer.valueOf( 3 ) );
+		builder.finish( );
+		assertEquals( 2, btree.getTotalKeys( ) );
+		assertEquals( 2, btree.getTotalValues( ) );
+		assertEquals( Integer.valueOf( 2 ), btree.getValue( "a" ) );
+		assertEquals( Integer.valueOf( 3 ), btree.getValue( "b" ) );
+		btree.close( );
+	}
+
+	@Test
+	public void testUnsortedKeys( ) throws Exception
+	{
+		BTree<String, Integer> btree = new BTree<String, Integer>( createOption(
+				new RAMBTreeFile( ), false ) );
+		BTreeBuilder<String, Integer> builder = btree.createBuilder( );
+		builder.add( "b", Integer.valueOf( 1 ) );
+		try
+		{
+			builder.add( "a", Integer.valueOf( 2 ) );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+		}
+		builder.finish( );
+
+		try
+		{
+			btree.createBuilder( );
+			fail( );
+		}
+		catch ( IOException ex )
+		{
+		}
+		btree.close( );
+	}
+
+	@Test
+	public void testPrefixCompressionInsert( ) throws Exception
+	{
+		RAMBTreeFile file = new RAMBTreeFile( );
+		BTreeOption<String, Integer> option = createOption( file, true );
+		option.setAllowNullKey( true );
+		BTree<String, Integer> btree = new BTree<String, Integer>( option );
+		ArrayList<Integer> keys = new ArrayList<Integer>( );
+		for ( int i = 0; i < KEY_COUNT; i++ )
+		{
+			keys.add( Integer.valueOf( i ) );
+		}
+		Collections.shuffle( keys, new Random( 1 ) );
+		for ( Integer i : keys )
+		{
+			btree.insert( getKey( i.intValue( ) ), i );
+		}
+		btree.insert( null, Integer.valueOf( -1 ) );
+		btree.close( );
+
+		btree = new BTree<String, Integer>( option );
+		assertEquals( KEY_COUNT + 1, btree.getTotalKeys( ) );
+		BTreeCursor<String, Integer> cursor = btree.createCursor( );
+		assertTrue( cursor.next( ) );
+		assertEquals( null, cursor.getKey( ) );
+		int count = 0;
+		while ( cursor.next( ) )
+		{
+			assertEquals( getKey( count ), cursor.getKey( ) );
+			assertEquals( Integer.valueOf( count ), cursor.getValue( ) );
+			count++;
+		}
+		assertEquals( KEY_COUNT, count );
+		cursor.close( );
+		btree.close( );
+	}
+
+	private BTreeOption<String, Integer> createOption( RAMBTreeFile file,
+			boolean compressed )
+	{
+		BTreeOption<String, Integer> option = new BTreeOption<String, Integer>( );
+		option.setKeySerializer( new StringSerializer( ) );
+		option.setValueSerializer( new IntegerSerializer( ) );
+		option.setValueSize( 4 );
+		option.setPrefixCompression( compressed );
+		option.setFile( file );
+		return option;
+	}
+
+	private static String getKey( int i )
+	{
+		String number = String.valueOf( i );
+		return "__TOC_0_0_00000".substring( 0, 15 - number.length( ) ) + number;
+	}
+
+	static class StringSerializer implements BTreeSerializer<String>
+	{
+
+		public byte[] getBytes( String object ) throws IOException
+		{
+			return object.getBytes( "UTF-8" );
+		}
+
+		public String getObject( byte[] bytes ) throws IOException,
+				ClassNotFoundException
+		{
+			return new String( bytes, "UTF-8" );
+		}
+	}
+}
@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.ibm.icu.text.DateFormat;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Test case for ValueConverter, the converted values must be the ones of
+ * DataTypeUtil.convert.
+ */
+public class ValueConverterTest
+{
+
+	private static final String[] NUMBERS = new String[]{"1", "-12", "+7",
+			"007", " 12 ", "1.5", "-0.25", "1e3", "1E-2", "2147483647",
+			"2147483648", "-2147483649", "1,234", "1,234.5", "12abc", "abc",
+			"", " ", "NaN", "Infinity", "-Infinity", "0x10", "1d", "2.5f",
+			"\u0661\u0662", "1.7976931348623157E309", "12%", "$12"};
+
+	private static final String[] DATES = new String[]{"2005-01-01",
+			"2005-01-01 10:20", "2005-01-01T10:20", "2005-01-01 10:20:30",
+			"2005-01-01T10:20:30", "2005-01-01 10:20:30.5",
+			"2005-01-01 10:20:30.25", "2005-01-01 10:20:30.125",
+			"2005-01-01 10:20:30.1234", "2005-02-30", "2005-13-01",
+			"2005-01-01 25:00", "2005-01-01 10:60", "2005-1-1",
+			"  2005-01-01 10:20:30  ", "2005-01-01Z", "2005-01-01 10:20+08:00",
+			"2005", "2005-01", "1/2/2005", "1/2/05 10:20 AM",
+			"Jan 2, 2005", "January 2, 2005 10:20:30 AM", "1/2/2005 10:20",
+			"", "   ", "abc", "10:20", "2005-01-01abc", "0000-01-01"};
+
+	@Test
+	public void testNumbers( ) throws Exception
+	{
+		int[] types = new int[]{DataType.INTEGER_TYPE, DataType.DOUBLE_TYPE,
+				DataType.DECIMAL_TYPE};
+		for ( int type : types )
+		{
+			ValueConverter converter = new ValueConverter( type );
+			for ( int i = 0; i < 2; i++ )
+			{
+				for ( String number : NUMBERS )
+				{
+					assertSameResult( converter, number );
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDates( ) throws Exception
+	{
+		ValueConverter converter = new ValueConverter( DataType.DATE_TYPE );
+		for ( int i = 0; i < 2; i++ )
+		{
+			for ( String date : DATES )
+			{
+				assertSameResult( converter, date );
+			}
+		}
+	}
+
+	@Test
+	public void testLocaleDates( ) throws Exception
+	{
+		// the same format for all the values, so the last format is reused
+		DateFormat format = DateFormatFactory.getDateTimeInstance( DateFormat.SHORT,
+				DateFormat.SHORT,
+				ULocale.getDefault( ) );
+		ValueConverter converter = new ValueConverter( DataType.DATE_TYPE );
+		long time = 1104537600000L;
+		for ( int i = 0; i < 100; i++ )
+		{
+			String date = format.format( new Date( time ) );
+			assertSameResult( converter, date );
+			time += 86400000L * 3 + 3600000L;
+		}
+	}
+
+	@Test
+	public void testOtherValues( ) throws Exception
+	{
+		ValueConverter converter = new ValueConverter( DataType.INTEGER_TYPE );
+		assertNull( converter.convert( null ) );
+		assertEquals( Integer.valueOf( 3 ), converter.convert( new BigDecimal( "3" ) ) );
+		assertEquals( Integer.valueOf( 1 ), converter.convert( Boolean.TRUE ) );
+
+		converter = new ValueConverter( DataType.STRING_TYPE );
+		assertEquals( "abc", converter.convert( "abc" ) );
+		assertEquals( "12", converter.convert( Integer.valueOf( 12 ) ) );
+
+		converter = new ValueConverter( DataType.DATE_TYPE );
+		Date date = new Date( 1000 );
+		assertEquals( date, converter.convert( date ) );
+	}
+
+	@Test
+	public void testExistTime( )
+	{
+		assertTrue( DataTypeUtil.existTime( "2005-01-01 10:20" ) );
+		assertTrue( DataTypeUtil.existTime( "1:2" ) );
+		assertFalse( DataTypeUtil.existTime( "2005-01-01" ) );
+		assertFalse( DataTypeUtil.existTime( "a:1" ) );
+		assertFalse( DataTypeUtil.existTime( "1:" ) );
+		assertFalse( DataTypeUtil.existTime( "1:2\n" ) );
+	}
+
+	private void assertSameResult( ValueConverter converter, String value )
+	{
+		Object expected;
+		try
+		{
+			expected = DataTypeUtil.convert( value, converter.getType( ) );
+		}
+		catch ( Exception e )
+		{
+			try
+			{
+				converter.convert( value );
+				fail( "\"" + value + "\" should not be converted" );
+			}
+			catch ( Exception e1 )
+			{
+				assertEquals( e.getClass( ), e1.getClass( ) );
+			}
+			return;
+		}
+		try
+		{
+			assertEquals( "\"" + value + "\"", expected, converter.convert( value ) );
+		}
+		catch ( Exception e )
+		{
+			fail( "\"" + value + "\" is not converted" );
+		}
+	}
+}
@@ -0,0 +1,171 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.junit.Test;
+
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * FormatterCacheTest.
+ * 
+ * Tests the formatters are cached by the pattern, locale and time zone, and
+ * each caller gets its own copy which it can use and change without locking.
+ */
+public class FormatterCacheTest
+{
+
+	@Test
+	public void testNumberFormatter( )
+	{
+		NumberFormatter formatter = FormatterCache.getNumberFormatter( "#,##0.00",
+				ULocale.US );
+		NumberFormatter copy = FormatterCache.getNumberFormatter( "#,##0.00",
+				ULocale.US );
+		assertNotSame( formatter, copy );
+		assertEquals( "#,##0.00", copy.getPattern( ) );
+		assertEquals( formatter.getFormatCode( ), copy.getFormatCode( ) );
+		assertEquals( "1,234.50", formatter.format( 1234.5 ) );
+		assertEquals( "1,234.50", copy.format( 1234.5 ) );
+		assertEquals( "1.234,50",
+				FormatterCache.getNumberFormatter( "#,##0.00", ULocale.GERMANY )
+						.format( 1234.5 ) );
+		assertEquals( "1,234.5",
+				FormatterCache.getNumberFormatter( "#,##0.0", ULocale.US )
+						.format( 1234.5 ) );
+		assertEquals( new NumberFormatter( ).format( 1234.5 ),
+				FormatterCache.getNumberFormatter( null, null ).format( 1234.5 ) );
+	}
+
+	@Test
+	public void testDateFormatter( ) throws Exception
+	{
+		TimeZone gmt = TimeZone.getTimeZone( "GMT" );
+		TimeZone tokyo = TimeZone.getTimeZone( "Asia/Tokyo" );
+		DateFormatter formatter = FormatterCache.getDateFormatter( "yyyy-MM-dd HH:mm",
+				ULocale.US,
+				gmt );
+		DateFormatter copy = FormatterCache.getDateFormatter( "yyyy-MM-dd HH:mm",
+				ULocale.US,
+				TimeZone.getTimeZone( "GMT" ) );
+		assertNotSame( formatter, copy );
+		DateFormatter tokyoFormatter = FormatterCache.getDateFormatter( "yyyy-MM-dd HH:mm",
+				ULocale.US,
+				tokyo );
+		assertEquals( "1970-01-01 00:00", formatter.format( new Date( 0 ) ) );
+		assertEquals( "1970-01-01 00:00", copy.format( new Date( 0 ) ) );
+		assertEquals( "1970-01-01 09:00", tokyoFormatter.format( new Date( 0 ) ) );
+		assertEquals( new Date( 0 ), copy.parse( "1970-01-01 00:00" ) );
+	}
+
+	@Test
+	public void testStringFormatter( )
+	{
+		StringFormatter formatter = FormatterCache.getStringFormatter( ">",
+				ULocale.US );
+		assertNotSame( formatter,
+				FormatterCache.getStringFormatter( ">", ULocale.US ) );
+		assertEquals( ">", formatter.getPattern( ) );
+		assertEquals( "ABC", formatter.format( "abc" ) );
+	}
+
+	@Test
+	public void testPrivateFormatter( )
+	{
+		// the changes made by a caller don't change the cached formatters
+		NumberFormatter numberFormatter = FormatterCache.getNumberFormatter( "#,##0.00",
+				ULocale.US );
+		numberFormatter.applyPattern( "#" );
+		numberFormatter.setParseBigDecimal( true );
+		assertEquals( "1235", numberFormatter.format( 1234.6 ) );
+		assertEquals( "1,234.50",
+				FormatterCache.getNumberFormatter( "#,##0.00", ULocale.US )
+						.format( 1234.5 ) );
+
+		TimeZone gmt = TimeZone.getTimeZone( "GMT" );
+		DateFormatter dateFormatter = FormatterCache.getDateFormatter( "yyyy",
+				ULocale.US,
+				gmt );
+		dateFormatter.applyPattern( "MM" );
+		assertEquals( "01", dateFormatter.format( new Date( 0 ) ) );
+		assertEquals( "1970",
+				FormatterCache.getDateFormatter( "yyyy", ULocale.US, gmt )
+						.format( new Date( 0 ) ) );
+
+		StringFormatter stringFormatter = FormatterCache.getStringFormatter( ">",
+				ULocale.US );
+		stringFormatter.applyPattern( "<" );
+		assertEquals( "abc", stringFormatter.format( "ABC" ) );
+		assertEquals( "ABC",
+				FormatterCache.getStringFormatter( ">", ULocale.US )
+						.format( "abc" ) );
+	}
+
+	@Test
+	public void testConcurrentFormat( ) throws Exception
+	{
+		final boolean[] failed = new boolean[1];
+		Thread[] threads = new Thread[4];
+		for ( int i = 0; i < threads.length; i++ )
+		{
+			final int seed = i;
+			threads[i] = new Thread( ) {
+
+				public void run( )
+				{
+					NumberFormatter numberFormatter = FormatterCache.getNumberFormatter( "#,##0.00",
+							ULocale.US );
+					DateFormatter dateFormatter = FormatterCache.getDateFormatter( "yyyy-MM-dd",
+							ULocale.US,
+							TimeZone.getTimeZone( "GMT" ) );
+					for ( int j = 0; j < 2000; j++ )
+					{
+						int n = seed * 10000 + j;
+						String expected = String.format( "%,d.00", n );
+						if ( !expected.equals( numberFormatter.format( n ) ) )
+						{
+							failed[0] = true;
+						}
+						Date date = new Date( n * 86400000L );
+						String text = dateFormatter.format( date );
+						if ( !String.format( "%tF", toGMT( date ) )
+								.equals( text ) )
+						{
+							failed[0] = true;
+						}
+					}
+				}
+			};
+			threads[i].start( );
+		}
+		for ( int i = 0; i < threads.length; i++ )
+		{
+			threads[i].join( );
+		}
+		assertTrue( !failed[0] );
+	}
+
+	private static java.util.Calendar toGMT( Date date )
+	{
+		java.util.Calendar calendar = java.util.Calendar.getInstance( java.util.TimeZone.getTimeZone( "GMT" ),
+				java.util.Locale.US );
+		calendar.setTime( date );
+		return calendar;
+	}
+}
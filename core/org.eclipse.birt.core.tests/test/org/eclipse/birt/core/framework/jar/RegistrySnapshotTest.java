@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.birt.core.framework.PlatformConfig;
+import org.eclipse.core.runtime.IConfigurationElement;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RegistrySnapshotTest
+{
+
+	static final String MANIFEST = "Manifest-Version: 1.0\n"
+			+ "Bundle-SymbolicName: org.eclipse.birt.test;singleton:=true\n"
+			+ "Bundle-Version: 1.0.0\n";
+
+	static final String PLUGIN = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+			+ "<plugin>\n"
+			+ "<extension-point id=\"service\" name=\"%name\" schema=\"schema/service.exsd\"/>\n"
+			+ "<extension id=\"test\" name=\"%name\" point=\"org.eclipse.birt.test.service\">\n"
+			+ "<service class=\"org.eclipse.birt.Service\" label=\"%name\">\n"
+			+ "<parameter name=\"a\" value=\"1\"/>\n"
+			+ "</service>\n"
+			+ "</extension>\n"
+			+ "</plugin>\n";
+
+	private File folder;
+	private ServicePlatform platform;
+
+	@Before
+	public void setUp( ) throws Exception
+	{
+		folder = File.createTempFile( "snapshot", "" );
+		folder.delete( );
+		new File( folder, "bundle/META-INF" ).mkdirs( );
+		write( "bundle/META-INF/MANIFEST.MF", MANIFEST );
+		write( "bundle/plugin.xml", PLUGIN );
+		write( "bundle/plugin.properties", "name=Test Service\n" );
+		platform = new ServicePlatform( new PlatformConfig( ) );
+	}
+
+	@After
+	public void tearDown( )
+	{
+		platform.removeFile( folder );
+	}
+
+	private void write( String name, String content ) throws IOException
+	{
+		OutputStream out = new FileOutputStream( new File( folder, name ) );
+		try
+		{
+			out.write( content.getBytes( "UTF-8" ) );
+		}
+		finally
+		{
+			out.close( );
+		}
+	}
+
+	private List<URL> getRoots( ) throws Exception
+	{
+		List<URL> roots = new ArrayList<URL>( );
+		roots.add( new File( folder, "bundle" ).toURI( ).toURL( ) );
+		return roots;
+	}
+
+	@Test
+	public void testSaveAndLoad( ) throws Exception
+	{
+		List<URL> roots = getRoots( );
+		Bundle bundle = new BundleLoader( platform, roots.get( 0 ) ).load( );
+		List<Bundle> bundles = new ArrayList<Bundle>( );
+		bundles.add( bundle );
+
+		RegistrySnapshot snapshot = new RegistrySnapshot( platform, new File(
+				folder, "registry.snapshot" ) );
+		long checksum = snapshot.getChecksum( roots );
+		assertNull( snapshot.load( checksum ) );
+		snapshot.save( bundles, checksum );
+
+		List<Bundle> loaded = snapshot.load( checksum );
+		assertNotNull( loaded );
+		assertEquals( 1, loaded.size( ) );
+		Bundle copy = loaded.get( 0 );
+		assertEquals( bundle.root, copy.root );
+		assertEquals( "org.eclipse.birt.test", copy.getSymbolicName( ) );
+		assertEquals( "1.0.0", copy.getVersion( ) );
+
+		ExtensionPoint point = copy.getExtensionPoints( )[0];
+		assertEquals( "org.eclipse.birt.test.service",
+				point.getUniqueIdentifier( ) );
+		assertEquals( "schema/service.exsd", point.getSchemaReference( ) );
+
+		Extension extension = copy.getExtensions( )[0];
+		assertEquals( "org.eclipse.birt.test.test",
+				extension.getUniqueIdentifier( ) );
+		assertEquals( "Test Service", extension.getLabel( ) );
+		assertEquals( "org.eclipse.birt.test.service",
+				extension.getExtensionPointUniqueIdentifier( ) );
+
+		IConfigurationElement service = extension.getConfigurationElements( )[0];
+		assertEquals( "service", service.getName( ) );
+		assertEquals( "org.eclipse.birt.Service", service.getAttribute( "class" ) );
+		assertEquals( "Test Service", service.getAttribute( "label" ) );
+		assertTrue( service.getDeclaringExtension( ) == extension );
+		IConfigurationElement parameter = service.getChildren( "parameter" )[0];
+		assertEquals( "1", parameter.getAttribute( "value" ) );
+		assertTrue( parameter.getParent( ) == service );
+	}
+
+	@Test
+	public void testChecksum( ) throws Exception
+	{
+		List<URL> roots = getRoots( );
+		RegistrySnapshot snapshot = new RegistrySnapshot( platform, new File(
+				folder, "registry.snapshot" ) );
+		long checksum = snapshot.getChecksum( roots );
+		assertEquals( checksum, snapshot.getChecksum( roots ) );
+
+		write( "bundle/plugin.properties", "name=Changed\n" );
+		assertFalse( checksum == snapshot.getChecksum( roots ) );
+
+		List<Bundle> bundles = new ArrayList<Bundle>( );
+		snapshot.save( bundles, checksum );
+		assertNull( snapshot.load( snapshot.getChecksum( roots ) ) );
+		assertNotNull( snapshot.load( checksum ) );
+	}
+}
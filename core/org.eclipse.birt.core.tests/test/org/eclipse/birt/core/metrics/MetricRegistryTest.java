@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.ReflectionException;
+import javax.management.RuntimeOperationsException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MetricRegistryTest
+{
+
+	@Test
+	public void testCounter( )
+	{
+		MetricRegistry registry = new MetricRegistry( );
+		Counter counter = registry.counter( "a.counter" );
+		counter.inc( );
+		counter.inc( 5 );
+		counter.dec( );
+		assertSame( counter, registry.counter( "a.counter" ) );
+		assertEquals( 5, registry.counter( "a.counter" ).getCount( ) );
+		try
+		{
+			registry.timer( "a.counter" );
+			fail( );
+		}
+		catch ( IllegalArgumentException ex )
+		{
+		}
+	}
+
+	@Test
+	public void testTimer( )
+	{
+		Timer timer = new Timer( );
+		assertEquals( 0, timer.getPercentile( 0.5 ) );
+		for ( int i = 1; i <= 100; i++ )
+		{
+			timer.update( i * 1000L );
+		}
+		timer.update( -1 );
+		assertEquals( 100, timer.getCount( ) );
+		assertEquals( 5050000, timer.getTotalTime( ) );
+		assertEquals( 100000, timer.getMaxTime( ) );
+		assertEquals( 50500, timer.getMeanTime( ), 0.001 );
+
+		long p50 = timer.getPercentile( 0.5 );
+		assertTrue( p50 >= 50000 && p50 < 100000 );
+		assertEquals( 100000, timer.getPercentile( 0.99 ) );
+	}
+
+	@Test
+	public void testValues( )
+	{
+		MetricRegistry registry = new MetricRegistry( );
+		registry.counter( "b" ).inc( 3 );
+		registry.timer( "a" ).update( 10 );
+		registry.register( "c", new Gauge( ) {
+
+			public long getValue( )
+			{
+				return 7;
+			}
+		} );
+
+		Map<String, Number> values = registry.getValues( );
+		assertEquals( 3L, values.get( "b" ) );
+		assertEquals( 7L, values.get( "c" ) );
+		assertEquals( 1L, values.get( "a.count" ) );
+		assertEquals( 10L, values.get( "a.max" ) );
+		assertEquals( "a.count", values.keySet( ).iterator( ).next( ) );
+		assertEquals( 3, registry.getNames( ).size( ) );
+
+		assertNotNull( registry.remove( "c" ) );
+		assertNull( registry.getMetric( "c" ) );
+		assertNull( registry.remove( "c" ) );
+	}
+
+	@Test
+	public void testListener( )
+	{
+		MetricRegistry registry = new MetricRegistry( );
+		registry.counter( "a" );
+		final List<String> events = new ArrayList<String>( );
+		registry.addListener( new IMetricRegistryListener( ) {
+
+			public void metricAdded( String name, Metric metric )
+			{
+				events.add( "+" + name );
+			}
+
+			public void metricRemoved( String name, Metric metric )
+			{
+				events.add( "-" + name );
+			}
+		} );
+		registry.counter( "a" );
+		registry.timer( "b" );
+		registry.register( "b", new Counter( ) );
+		registry.remove( "a" );
+		assertEquals( "[+a, +b, -b, +b, -a]", events.toString( ) );
+	}
+
+	@Test
+	public void testMBean( ) throws Exception
+	{
+		MetricRegistry registry = new MetricRegistry( );
+		registry.counter( "engine.tasks" ).inc( 2 );
+		MetricRegistryMBean mbean = new MetricRegistryMBean( registry );
+		assertEquals( 2L, mbean.getAttribute( "engine.tasks" ) );
+		assertEquals( 1, mbean.getMBeanInfo( ).getAttributes( ).length );
+		assertEquals( 1, mbean.getAttributes( new String[]{"engine.tasks",
+				"none"} ).size( ) );
+		try
+		{
+			mbean.getAttribute( "none" );
+			fail( );
+		}
+		catch ( AttributeNotFoundException ex )
+		{
+		}
+		try
+		{
+			mbean.invoke( "reset", null, null );
+			fail( );
+		}
+		catch ( ReflectionException ex )
+		{
+			assertTrue( ex.getCause( ) instanceof NoSuchMethodException );
+		}
+		AttributeList attributes = new AttributeList( );
+		attributes.add( new Attribute( "engine.tasks", 3L ) );
+		try
+		{
+			mbean.setAttributes( attributes );
+			fail( );
+		}
+		catch ( RuntimeOperationsException ex )
+		{
+		}
+		assertEquals( 2L, mbean.getAttribute( "engine.tasks" ) );
+	}
+}
@@ -15,6 +15,8 @@ import java.text.DateFormat;
 import java.util.ArrayList;
 
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.core.metrics.Timer;
 
 import org.junit.After;
 import org.junit.Before;
@@ -71,6 +73,32 @@ public class ScriptContextTest
 				Double.MIN_VALUE );
 	}
 
+	/**
+	 * the evaluations are timed only if the detailed metrics are enabled.
+	 */
+	@Test
+	public void testEvaluateTimer( ) throws BirtException
+	{
+		MetricRegistry registry = MetricRegistry.getDefault( );
+		Timer timer = registry.timer( "script.evaluate" );
+		boolean detailed = registry.isDetailed( );
+		try
+		{
+			registry.setDetailed( false );
+			long count = timer.getCount( );
+			eval( context, "1 + 1" );
+			assertEquals( count, timer.getCount( ) );
+
+			registry.setDetailed( true );
+			eval( context, "1 + 1" );
+			assertEquals( count + 1, timer.getCount( ) );
+		}
+		finally
+		{
+			registry.setDetailed( detailed );
+		}
+	}
+
 	private Object eval( ScriptContext scriptContext, String script )
 			throws BirtException
 	{
@@ -26,6 +26,8 @@ import org.eclipse.birt.core.archive.cache.SystemCacheManager;
 import org.eclipse.birt.core.archive.compound.v3.Ext2FileSystem;
 import org.eclipse.birt.core.i18n.CoreMessages;
 import org.eclipse.birt.core.i18n.ResourceConstants;
+import org.eclipse.birt.core.metrics.Gauge;
+import org.eclipse.birt.core.metrics.MetricRegistry;
 import org.eclipse.birt.core.util.IOUtil;
 
 /**
@@ -43,6 +45,18 @@ public class ArchiveFile implements IArchiveFile
 	static final long ARCHIVE_V2_TAG = ArchiveConstants.DOCUMENT_TAG;
 	static final long ARCHIVE_V3_TAG = Ext2FileSystem.EXT2_MAGIC_TAG;
 
+	static
+	{
+		MetricRegistry.getDefault( ).register( "archive.cache.used", //$NON-NLS-1$
+				new Gauge( ) {
+
+					public long getValue( )
+					{
+						return getTotalUsedCache( );
+					}
+				} );
+	}
+
 	/**
 	 * the archive file name.
 	 */
@@ -251,6 +265,25 @@ public class ArchiveFile implements IArchiveFile
 		}
 	}
 
+	/**
+	 * write the archive into the disk file in a background thread, so the
+	 * caller doesn't wait for the disk I/O. The data is written in the same
+	 * order as it is saved, the write errors are thrown by the following
+	 * flush or close. Only the archive created in the current format supports
+	 * it, the others are written synchronously.
+	 * 
+	 * @param bufferSize
+	 *            the maximum size of the data waiting to be written, in bytes;
+	 *            0 to write synchronously.
+	 */
+	public void setAsyncWrite( long bufferSize ) throws IOException
+	{
+		if ( af instanceof ArchiveFileV3 )
+		{
+			( (ArchiveFileV3) af ).setAsyncWrite( bufferSize );
+		}
+	}
+
 	public long getUsedCache( )
 	{
 		if ( isArchiveFileAvailable( af ) )
@@ -189,6 +189,18 @@ public class ArchiveFileV3 implements IArchiveFile
 		}
 	}
 
+	/**
+	 * write the blocks into the disk file in a background thread.
+	 * 
+	 * @param bufferSize
+	 *            the maximum size of the data waiting to be written, in bytes;
+	 *            0 to write synchronously.
+	 */
+	public void setAsyncWrite( long bufferSize ) throws IOException
+	{
+		fs.setAsyncWrite( (int) Math.min( bufferSize, Integer.MAX_VALUE ) );
+	}
+
 	public long getLength( )
 	{
 		return fs == null ? 0 : fs.length( );
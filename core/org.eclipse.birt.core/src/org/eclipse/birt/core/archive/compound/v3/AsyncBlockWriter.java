@@ -0,0 +1,258 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.archive.compound.v3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Writes the blocks of a file system into the disk file in a background
+ * thread.
+ * <p>
+ * The written data is copied into a queue bounded by the size of the queued
+ * data, so the caller is blocked only if the queue is full. The blocks are written in the order they are
+ * queued, so the order of the writes to the same position is preserved. The
+ * first error of the background thread is thrown by the following write,
+ * drain or close.
+ */
+class AsyncBlockWriter implements Runnable
+{
+
+	/**
+	 * the request to stop the background thread.
+	 */
+	private static final WriteRequest STOP = new WriteRequest( -1, null );
+
+	private final FileChannel channel;
+
+	private final BlockingQueue<WriteRequest> queue;
+
+	private final Thread thread;
+
+	/**
+	 * the maximum size of the queued data in bytes.
+	 */
+	private final int maxPendingSize;
+
+	/**
+	 * the count of the queued requests which are not written yet, guarded by
+	 * this.
+	 */
+	private int pendingCount;
+
+	/**
+	 * the size of the queued data which is not written yet, guarded by this.
+	 */
+	private long pendingSize;
+
+	private volatile IOException error;
+
+	private boolean closed;
+
+	/**
+	 * @param maxPendingSize
+	 *            the maximum size of the queued data in bytes. A write larger
+	 *            than it is queued once the queue is empty.
+	 */
+	AsyncBlockWriter( RandomAccessFile rf, int maxPendingSize )
+	{
+		this.channel = rf.getChannel( );
+		this.maxPendingSize = maxPendingSize;
+		this.queue = new LinkedBlockingQueue<WriteRequest>( );
+		this.thread = new Thread( this, "BIRT Archive Writer" ); //$NON-NLS-1$
+		thread.setDaemon( true );
+		thread.start( );
+	}
+
+	/**
+	 * queue the data to be written at the position of the file.
+	 */
+	void write( long position, byte[] buffer, int offset, int size )
+			throws IOException
+	{
+		checkError( );
+		byte[] data = new byte[size];
+		System.arraycopy( buffer, offset, data, 0, size );
+		synchronized ( this )
+		{
+			try
+			{
+				while ( pendingCount > 0 && pendingSize + size > maxPendingSize
+						&& thread.isAlive( ) )
+				{
+					wait( );
+				}
+			}
+			catch ( InterruptedException ex )
+			{
+				Thread.currentThread( ).interrupt( );
+				throw new InterruptedIOException( ex.getMessage( ) );
+			}
+			checkError( );
+			pendingCount++;
+			pendingSize += size;
+		}
+		put( new WriteRequest( position, data ) );
+	}
+
+	/**
+	 * wait until all the queued data is written into the file.
+	 */
+	void drain( ) throws IOException
+	{
+		synchronized ( this )
+		{
+			try
+			{
+				while ( pendingCount > 0 && thread.isAlive( ) )
+				{
+					wait( );
+				}
+			}
+			catch ( InterruptedException ex )
+			{
+				Thread.currentThread( ).interrupt( );
+				throw new InterruptedIOException( ex.getMessage( ) );
+			}
+		}
+		checkError( );
+	}
+
+	/**
+	 * write all the queued data and stop the background thread.
+	 */
+	void close( ) throws IOException
+	{
+		if ( closed )
+		{
+			return;
+		}
+		closed = true;
+		put( STOP );
+		try
+		{
+			thread.join( );
+		}
+		catch ( InterruptedException ex )
+		{
+			Thread.currentThread( ).interrupt( );
+			throw new InterruptedIOException( ex.getMessage( ) );
+		}
+		checkError( );
+	}
+
+	/**
+	 * stop the background thread, the queued data is discarded.
+	 */
+	void abort( )
+	{
+		closed = true;
+		queue.clear( );
+		thread.interrupt( );
+	}
+
+	public void run( )
+	{
+		try
+		{
+			while ( true )
+			{
+				WriteRequest request = queue.take( );
+				if ( request == STOP )
+				{
+					return;
+				}
+				if ( error == null )
+				{
+					try
+					{
+						ByteBuffer buffer = ByteBuffer.wrap( request.data );
+						long position = request.position;
+						while ( buffer.hasRemaining( ) )
+						{
+							position += channel.write( buffer, position );
+						}
+					}
+					catch ( IOException ex )
+					{
+						error = ex;
+					}
+					catch ( RuntimeException ex )
+					{
+						IOException ioex = new IOException( ex.getMessage( ) );
+						ioex.initCause( ex );
+						error = ioex;
+					}
+				}
+				synchronized ( this )
+				{
+					pendingCount--;
+					pendingSize -= request.data.length;
+					notifyAll( );
+				}
+			}
+		}
+		catch ( InterruptedException ex )
+		{
+			// aborted
+		}
+		finally
+		{
+			synchronized ( this )
+			{
+				notifyAll( );
+			}
+		}
+	}
+
+	private void put( WriteRequest request ) throws IOException
+	{
+		try
+		{
+			queue.put( request );
+		}
+		catch ( InterruptedException ex )
+		{
+			Thread.currentThread( ).interrupt( );
+			throw new InterruptedIOException( ex.getMessage( ) );
+		}
+	}
+
+	private void checkError( ) throws IOException
+	{
+		IOException ex = error;
+		if ( ex != null )
+		{
+			IOException ioex = new IOException( ex.getMessage( ) );
+			ioex.initCause( ex );
+			throw ioex;
+		}
+	}
+
+	private static class WriteRequest
+	{
+
+		final long position;
+		final byte[] data;
+
+		WriteRequest( long position, byte[] data )
+		{
+			this.position = position;
+			this.data = data;
+		}
+	}
+}
@@ -72,6 +72,18 @@ public class Ext2FileSystem
 	 */
 	private final HashSet<Ext2File> openedFiles = new HashSet<Ext2File>( );
 
+	/**
+	 * the maximum size in bytes of the data queued by the asynchronous writer,
+	 * 0 if the blocks are written synchronously.
+	 */
+	private int asyncBufferSize;
+
+	/**
+	 * the writer which writes the blocks in background, created by the first
+	 * write if the asynchronous write is enabled.
+	 */
+	private AsyncBlockWriter asyncWriter;
+
 	/**
 	 * mode
 	 * 
@@ -209,6 +221,16 @@ public class Ext2FileSystem
 				freeTable.write( );
 				nodeTable.write( NodeTable.INODE_FREE_TABLE );
 				cacheManager.touchAllCaches( );
+			}
+			if ( asyncWriter != null )
+			{
+				// all the blocks must be on the disk before the header
+				AsyncBlockWriter writer = asyncWriter;
+				asyncWriter = null;
+				writer.close( );
+			}
+			if ( !readOnly && !removeOnExit )
+			{
 				writeHeader( );
 			}
 
@@ -220,6 +242,11 @@ public class Ext2FileSystem
 		}
 		finally
 		{
+			if ( asyncWriter != null )
+			{
+				asyncWriter.abort( );
+				asyncWriter = null;
+			}
 			if ( rf != null )
 			{
 				rf.close( );
@@ -266,6 +293,10 @@ public class Ext2FileSystem
 			freeTable.write( );
 			nodeTable.write( NodeTable.INODE_FREE_TABLE );
 			cacheManager.touchAllCaches( new Ext2FileSystemCacheListener( ) );
+			if ( asyncWriter != null )
+			{
+				asyncWriter.drain( );
+			}
 		}
 	}
 
@@ -299,6 +330,31 @@ public class Ext2FileSystem
 		cacheManager.setMaxCacheSize( cacheSize );
 	}
 
+	/**
+	 * enable or disable writing the blocks into the disk file in a background
+	 * thread. The blocks are queued in memory until they are written, the
+	 * errors are thrown by the following flush or close.
+	 * 
+	 * @param bufferSize
+	 *            the maximum size of the queued data in bytes, 0 to write the
+	 *            blocks synchronously.
+	 */
+	synchronized public void setAsyncWrite( int bufferSize ) throws IOException
+	{
+		if ( readOnly )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.FILE_IN_READONLY_MODE ) );
+		}
+		if ( asyncWriter != null )
+		{
+			AsyncBlockWriter writer = asyncWriter;
+			asyncWriter = null;
+			writer.close( );
+		}
+		asyncBufferSize = bufferSize > 0 ? bufferSize : 0;
+	}
+
 	public int getUsedCacheSize( )
 	{
 		return cacheManager.getUsedCacheSize( );
@@ -600,6 +656,11 @@ public class Ext2FileSystem
 		long position = ( ( (long) blockId ) << BLOCK_SIZE_BITS ) + blockOff;
 		if ( position < length )
 		{
+			if ( asyncWriter != null )
+			{
+				// the block may be still in the queue
+				asyncWriter.drain( );
+			}
 			long remainSize = length - position;
 			rf.seek( position );
 			if ( remainSize < size )
@@ -629,8 +690,19 @@ public class Ext2FileSystem
 
 		ensureFileOpened( );
 		long position = ( ( (long) blockId ) << BLOCK_SIZE_BITS ) + blockOff;
-		rf.seek( position );
-		rf.write( buffer, offset, size );
+		if ( asyncBufferSize > 0 )
+		{
+			if ( asyncWriter == null )
+			{
+				asyncWriter = new AsyncBlockWriter( rf, asyncBufferSize );
+			}
+			asyncWriter.write( position, buffer, offset, size );
+		}
+		else
+		{
+			rf.seek( position );
+			rf.write( buffer, offset, size );
+		}
 		position += size;
 		if ( position > length )
 		{
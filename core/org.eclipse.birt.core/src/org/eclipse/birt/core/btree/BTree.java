@@ -89,7 +89,9 @@ public class BTree<K, V> implements BTreeConstants
 		this.valueSerializer = option.valueSerializer;
 		this.readOnly = option.readOnly;
 
-		this.version = BTREE_VERSION_0;
+		this.version = option.prefixCompression
+				? BTREE_VERSION_1
+				: BTREE_VERSION_0;
 		this.rootNodeId = -1;
 		this.freeNodeId = -1;
 		this.totalLevels = 0;
@@ -481,6 +483,29 @@ public class BTree<K, V> implements BTreeConstants
 		return new BTreeCursor<K, V>( this );
 	}
 
+	/**
+	 * create a builder which loads the entries into this empty tree in the
+	 * key order.
+	 * 
+	 * @return the builder, it must be finished before the tree is used.
+	 * @throws IOException
+	 *             if the tree is read only or is not empty.
+	 */
+	public BTreeBuilder<K, V> createBuilder( ) throws IOException
+	{
+		if ( readOnly )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.READ_ONLY_TREE ) );
+		}
+		if ( rootNodeId != -1 )
+		{
+			throw new IOException(
+					CoreMessages.getString( ResourceConstants.NOT_EMPTY_TREE ) );
+		}
+		return new BTreeBuilder<K, V>( this );
+	}
+
 	int compare( BTreeValue<K> k1, BTreeValue<K> k2 ) throws IOException
 	{
 		K key1 = getKey( k1 );
@@ -813,6 +838,174 @@ public class BTree<K, V> implements BTreeConstants
 		return size + bytes.length;
 	}
 
+	/**
+	 * write the key of an entry, if the keys are front coded only the bytes
+	 * which are not shared with the previous key are written:
+	 * 
+	 * <pre>
+	 * IS_NULL			BOOLEAN		if the tree allows null key
+	 * PREFIX_SIZE		VARINT		the count of the bytes shared with the previous key
+	 * SUFFIX_SIZE		VARINT		if the key size is not fixed
+	 * SUFFIX			...			the remaining bytes
+	 * </pre>
+	 * 
+	 * @param out
+	 * @param prevKey
+	 *            the key of the previous entry in the node, null for the
+	 *            first entry.
+	 * @param key
+	 * @return the written size
+	 * @throws IOException
+	 */
+	int writeKey( DataOutput out, BTreeValue<K> prevKey, BTreeValue<K> key )
+			throws IOException
+	{
+		if ( version != BTREE_VERSION_1 )
+		{
+			return writeKey( out, key );
+		}
+		int size = 0;
+		if ( allowNullKey )
+		{
+			if ( key == NULL_KEY )
+			{
+				out.writeBoolean( true );
+				return 1;
+			}
+			out.writeBoolean( false );
+			size = 1;
+		}
+		byte[] bytes = key.getBytes( );
+		int keySize = getKeySize( );
+		if ( keySize != 0 && keySize != bytes.length )
+		{
+			throw new IOException(
+					CoreMessages
+							.getString( ResourceConstants.MISMATCH_KEY_LENGTH ) );
+		}
+		int prefixSize = getPrefixSize( prevKey, key );
+		int suffixSize = bytes.length - prefixSize;
+		size += writeVarInt( out, prefixSize );
+		if ( keySize == 0 )
+		{
+			size += writeVarInt( out, suffixSize );
+		}
+		out.write( bytes, prefixSize, suffixSize );
+		return size + suffixSize;
+	}
+
+	/**
+	 * read the key written by writeKey( out, prevKey, key ).
+	 */
+	BTreeValue<K> readKey( DataInput in, BTreeValue<K> prevKey )
+			throws IOException
+	{
+		if ( version != BTREE_VERSION_1 )
+		{
+			return readKey( in );
+		}
+		if ( allowNullKey )
+		{
+			boolean isNull = in.readBoolean( );
+			if ( isNull )
+			{
+				return NULL_KEY;
+			}
+		}
+		int prefixSize = readVarInt( in );
+		int keySize = getKeySize( );
+		int suffixSize = keySize == 0 ? readVarInt( in ) : keySize
+				- prefixSize;
+		byte[] keyBytes = new byte[prefixSize + suffixSize];
+		if ( prefixSize > 0 )
+		{
+			System.arraycopy( prevKey.getBytes( ), 0, keyBytes, 0, prefixSize );
+		}
+		in.readFully( keyBytes, prefixSize, suffixSize );
+		return new BTreeValue<K>( keyBytes );
+	}
+
+	/**
+	 * return the size written by writeKey( out, prevKey, key ).
+	 */
+	int getKeySize( BTreeValue<K> prevKey, BTreeValue<K> key )
+	{
+		if ( version != BTREE_VERSION_1 )
+		{
+			return getKeySize( key );
+		}
+		int size = allowNullKey ? 1 : 0;
+		if ( key == NULL_KEY )
+		{
+			return size;
+		}
+		int length = key.getBytes( ).length;
+		int prefixSize = getPrefixSize( prevKey, key );
+		size += getVarIntSize( prefixSize );
+		if ( keySize == 0 )
+		{
+			size += getVarIntSize( length - prefixSize );
+		}
+		return size + length - prefixSize;
+	}
+
+	private int getPrefixSize( BTreeValue<K> prevKey, BTreeValue<K> key )
+	{
+		if ( prevKey == null || prevKey == NULL_KEY )
+		{
+			return 0;
+		}
+		byte[] prevBytes = prevKey.getBytes( );
+		byte[] bytes = key.getBytes( );
+		int length = Math.min( prevBytes.length, bytes.length );
+		int size = 0;
+		while ( size < length && prevBytes[size] == bytes[size] )
+		{
+			size++;
+		}
+		return size;
+	}
+
+	private static int writeVarInt( DataOutput out, int value )
+			throws IOException
+	{
+		int size = 1;
+		while ( ( value & ~0x7F ) != 0 )
+		{
+			out.writeByte( ( value & 0x7F ) | 0x80 );
+			value >>>= 7;
+			size++;
+		}
+		out.writeByte( value );
+		return size;
+	}
+
+	private static int readVarInt( DataInput in ) throws IOException
+	{
+		int value = 0;
+		for ( int shift = 0; shift < 32; shift += 7 )
+		{
+			int b = in.readUnsignedByte( );
+			value |= ( b & 0x7F ) << shift;
+			if ( ( b & 0x80 ) == 0 )
+			{
+				return value;
+			}
+		}
+		throw new IOException( "Malformed variable length integer" ); //$NON-NLS-1$
+	}
+
+	private static int getVarIntSize( int value )
+	{
+		int size = 1;
+		while ( ( value & ~0x7F ) != 0 )
+		{
+			value >>>= 7;
+			size++;
+		}
+		return size;
+	}
+
 	BTreeValue<K> readKey( DataInput in ) throws IOException
 	{
 		if ( allowNullKey )
@@ -856,7 +1049,7 @@ public class BTree<K, V> implements BTreeConstants
 		return v;
 	}
 
-	private BTreeValue<V> createValue( V value ) throws IOException
+	BTreeValue<V> createValue( V value ) throws IOException
 	{
 		byte[] valueBytes = valueSerializer.getBytes( value );
 		int valueSize = getValueSize( );
@@ -964,11 +1157,25 @@ public class BTree<K, V> implements BTreeConstants
 		return allowDuplicate;
 	}
 
+	boolean allowNullKey( )
+	{
+		return allowNullKey;
+	}
+
 	int getRootNodeId( )
 	{
 		return rootNodeId;
 	}
 
+	/**
+	 * set the root of the nodes loaded by a BTreeBuilder.
+	 */
+	void setRootNode( int rootNodeId, int totalLevels )
+	{
+		this.rootNodeId = rootNodeId;
+		this.totalLevels = totalLevels;
+	}
+
 	protected class ReusableBTreeFile implements NodeFile
 	{
 
@@ -1042,12 +1249,13 @@ public class BTree<K, V> implements BTreeConstants
 					new Object[]{Long.toHexString( tag )} ) );
 		}
 		version = in.readInt( );
-		if ( version != BTREE_VERSION_0 )
+		if ( version != BTREE_VERSION_0 && version != BTREE_VERSION_1 )
 		{
 			throw new IOException( CoreMessages.getFormattedString(
 					ResourceConstants.UNSUPPORTED_VERSION,
 					new Object[]{version} ) );
 		}
+		// the version 1 only changes the node format
 		readV0( in );
 	}
 
@@ -1068,7 +1276,7 @@ public class BTree<K, V> implements BTreeConstants
 	protected void writeTreeHead( DataOutput out ) throws IOException
 	{
 		out.writeLong( MAGIC_TAG );
-		out.writeInt( BTREE_VERSION_0 );
+		out.writeInt( version );
 		out.writeBoolean( allowDuplicate );
 		out.writeInt( keySize );
 		out.writeBoolean( hasValue );
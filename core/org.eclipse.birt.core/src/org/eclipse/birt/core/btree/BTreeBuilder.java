@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.btree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+
+import org.eclipse.birt.core.i18n.CoreMessages;
+import org.eclipse.birt.core.i18n.ResourceConstants;
+
+/**
+ * Loads the entries into an empty btree in the key order.
+ * <p>
+ * The builder fills the leaf nodes one by one and adds the first key of each
+ * new leaf node to the last index node of the level above, so each node is
+ * written once and no node is split. The nodes are full except the last node
+ * of each level, a tree which is loaded by the builder is as large as the
+ * tree created by inserting the sorted entries, but an entry inserted later
+ * splits the full node it goes to.
+ * <p>
+ * The entries of the same key are merged as the insert of the tree: the
+ * values are appended if the tree allows duplicate, otherwise the last value
+ * is kept.
+ *
+ * <pre>
+ * BTreeBuilder&lt;K, V&gt; builder = btree.createBuilder( );
+ * for ( ... )
+ * {
+ * 	builder.add( key, value );
+ * }
+ * builder.finish( );
+ * </pre>
+ *
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ */
+public class BTreeBuilder<K, V> implements BTreeConstants
+{
+
+	private BTree<K, V> btree;
+
+	// the entry which is not added to the leaf node as it may have more values
+	private BTreeValue<K> key;
+	private BTreeValues<V> values;
+	private int valueCount;
+
+	// the last node of each level, they are locked until the next node of
+	// the level is created
+	private LeafNode<K, V> leafNode;
+	private ArrayList<IndexNode<K, V>> indexNodes = new ArrayList<IndexNode<K, V>>( );
+
+	private boolean finished;
+
+	BTreeBuilder( BTree<K, V> btree )
+	{
+		this.btree = btree;
+	}
+
+	/**
+	 * add an entry.
+	 *
+	 * @param k
+	 *            the key, it can't be less than the key of the previous entry.
+	 * @param v
+	 *            the value
+	 * @throws IOException
+	 *             if the key is less than the previous key.
+	 */
+	public void add( K k, V v ) throws IOException
+	{
+		BTreeValue<K> newKey = checkKey( k );
+		if ( btree.hasValue( ) )
+		{
+			addValue( btree.createValue( v ) );
+		}
+		key = newKey;
+	}
+
+	/**
+	 * add the values of a key.
+	 *
+	 * @param k
+	 *            the key, it can't be less than the key of the previous entry.
+	 * @param vs
+	 *            the values
+	 * @throws IOException
+	 *             if the key is less than the previous key.
+	 */
+	public void add( K k, V[] vs ) throws IOException
+	{
+		BTreeValue<K> newKey = checkKey( k );
+		if ( btree.hasValue( ) && vs != null )
+		{
+			for ( V v : vs )
+			{
+				addValue( btree.createValue( v ) );
+			}
+		}
+		key = newKey;
+	}
+
+	/**
+	 * add the last entry and set the root of the tree. The tree can't be used
+	 * until the builder is finished.
+	 *
+	 * @throws IOException
+	 */
+	public void finish( ) throws IOException
+	{
+		if ( finished )
+		{
+			return;
+		}
+		finished = true;
+		try
+		{
+			if ( key != null )
+			{
+				appendEntry( );
+			}
+			if ( leafNode == null )
+			{
+				return;
+			}
+			if ( indexNodes.isEmpty( ) )
+			{
+				btree.setRootNode( leafNode.getNodeId( ), 1 );
+			}
+			else
+			{
+				IndexNode<K, V> root = indexNodes.get( indexNodes.size( ) - 1 );
+				btree.setRootNode( root.getNodeId( ), indexNodes.size( ) + 1 );
+			}
+		}
+		finally
+		{
+			if ( leafNode != null )
+			{
+				leafNode.unlock( );
+			}
+			for ( IndexNode<K, V> indexNode : indexNodes )
+			{
+				indexNode.unlock( );
+			}
+		}
+	}
+
+	/**
+	 * create the key and add the previous entry if the key is greater than
+	 * the previous key.
+	 */
+	private BTreeValue<K> checkKey( K k ) throws IOException
+	{
+		if ( finished )
+		{
+			throw new IllegalStateException( "the builder is finished" ); //$NON-NLS-1$
+		}
+		if ( k == null && !btree.allowNullKey( ) )
+		{
+			throw new NullPointerException( "key can not be null" ); //$NON-NLS-1$
+		}
+		BTreeValue<K> newKey = btree.createKey( k );
+		if ( key != null )
+		{
+			int result = btree.compare( key, newKey );
+			if ( result > 0 )
+			{
+				throw new IOException(
+						CoreMessages
+								.getString( ResourceConstants.UNSORTED_KEYS ) );
+			}
+			if ( result == 0 )
+			{
+				return key;
+			}
+			appendEntry( );
+		}
+		return newKey;
+	}
+
+	private void addValue( BTreeValue<V> value ) throws IOException
+	{
+		if ( !btree.allowDuplicate( ) )
+		{
+			values = new SingleValueList<K, V>( btree, value );
+			valueCount = 1;
+			return;
+		}
+		if ( values == null )
+		{
+			values = new InlineValueList<K, V>( btree );
+		}
+		values.append( value );
+		valueCount++;
+		if ( values.getType( ) == BTreeValues.INLINE_VALUES
+				&& values.getValueSize( ) > MAX_NODE_SIZE / 2 )
+		{
+			values = btree.createExternalValueList( values );
+		}
+	}
+
+	private void appendEntry( ) throws IOException
+	{
+		if ( btree.hasValue( ) && values == null )
+		{
+			// the value of insert( k, null ) in a tree which has value
+			addValue( btree.createValue( null ) );
+		}
+		if ( leafNode == null )
+		{
+			leafNode = btree.createLeafNode( );
+		}
+		if ( leafNode.append( key, values ) == null )
+		{
+			LeafNode<K, V> prevNode = leafNode;
+			leafNode = btree.createLeafNode( );
+			leafNode.setPrevNodeId( prevNode.getNodeId( ) );
+			prevNode.setNextNodeId( leafNode.getNodeId( ) );
+			prevNode.unlock( );
+			leafNode.append( key, values );
+			addIndex( 0, key, leafNode.getNodeId( ), prevNode.getNodeId( ) );
+		}
+		btree.increaseTotalKeys( );
+		if ( btree.hasValue( ) )
+		{
+			btree.increaseTotalValues( valueCount );
+		}
+		key = null;
+		values = null;
+		valueCount = 0;
+	}
+
+	/**
+	 * add the first key of a new node to the level above the node.
+	 *
+	 * @param level
+	 *            the index level, 0 is the level above the leaf nodes.
+	 * @param childKey
+	 *            the first key of the new node
+	 * @param childNodeId
+	 *            the new node
+	 * @param prevNodeId
+	 *            the previous node of the new node, it is the first child of
+	 *            the index node if the level is created
+	 */
+	private void addIndex( int level, BTreeValue<K> childKey, int childNodeId,
+			int prevNodeId ) throws IOException
+	{
+		if ( level == indexNodes.size( ) )
+		{
+			IndexNode<K, V> indexNode = btree.createIndexNode( );
+			indexNode.setFirstChild( prevNodeId );
+			indexNodes.add( indexNode );
+		}
+		IndexNode<K, V> indexNode = indexNodes.get( level );
+		if ( !indexNode.append( childKey, childNodeId ) )
+		{
+			// as the split of the index node, the key is moved to the upper
+			// level
+			IndexNode<K, V> newNode = btree.createIndexNode( );
+			newNode.setFirstChild( childNodeId );
+			newNode.setPrevNodeId( indexNode.getNodeId( ) );
+			indexNode.setNextNodeId( newNode.getNodeId( ) );
+			indexNode.unlock( );
+			indexNodes.set( level, newNode );
+			addIndex( level + 1, childKey, newNode.getNodeId( ), indexNode
+					.getNodeId( ) );
+		}
+	}
+}
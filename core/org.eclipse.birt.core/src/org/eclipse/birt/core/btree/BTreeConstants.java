@@ -17,6 +17,8 @@ public interface BTreeConstants
 	// HEX value of 'BTREE'
 	static final long MAGIC_TAG = 0x4254524545L;
 	static final int BTREE_VERSION_0 = 0;
+	// the keys in the index and leaf nodes are front coded
+	static final int BTREE_VERSION_1 = 1;
 
 	static final int BLOCK_SIZE = 4096;
 
@@ -27,6 +27,7 @@ public class BTreeOption<K, V>
 	BTreeSerializer<V> valueSerializer;
 	BTreeFile file;
 	boolean shareFile;
+	boolean prefixCompression;
 
 	int headNodeId;
 	int cacheSize;
@@ -130,4 +131,18 @@ public class BTreeOption<K, V>
 	{
 		this.cacheSize = cacheSize;
 	}
+
+	/**
+	 * set if the key of an entry is saved as the bytes it doesn't share with
+	 * the key of the previous entry in the node. It saves the space of the
+	 * keys which have long common prefixes, such as the bookmarks and the
+	 * instance ids, but the tree can't be read by the versions which only
+	 * support BTREE_VERSION_0. It is ignored if the tree already exists.
+	 * 
+	 * @param prefixCompression
+	 */
+	public void setPrefixCompression( boolean prefixCompression )
+	{
+		this.prefixCompression = prefixCompression;
+	}
 }
@@ -35,7 +35,7 @@ import org.eclipse.birt.core.i18n.ResourceConstants;
  * NEXT_NODE_ID		INT			next node id
  * KEY_COUNT		INT			key count saved in this node
  * FIRST_CHILD		INT			child contains keys which are less than the first key
- * KEY_1			...			first key
+ * KEY_1			...			first key, front coded if the tree is BTREE_VERSION_1
  * CHILD_ID_1		INT			child node contains keys which are greater or equal than the first key 
  * KEY_2			...			second key
  * CHILD_ID_2		INT			child node contains keys which are greater than or equal to the second key
@@ -123,6 +123,12 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 
 	public int getLastChild( )
 	{
+		if ( entries.isEmpty( ) )
+		{
+			// the last node of a level loaded by the BTreeBuilder may only
+			// have the first child
+			return firstChild;
+		}
 		return entries.get( entries.size( ) - 1 ).getChildNodeId( );
 	}
 
@@ -263,13 +269,50 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 		// insert at the last entry
 		IndexEntry<K, V> newEntry = new IndexEntry<K, V>( this, insertKey,
 				childNodeId );
+		BTreeValue<K> prevKey = index > 0
+				? entries.get( index - 1 ).getKey( )
+				: null;
+		if ( index < entries.size( ) )
+		{
+			// the front coded key of the next entry depends on its previous key
+			BTreeValue<K> nextKey = entries.get( index ).getKey( );
+			nodeSize += btree.getKeySize( insertKey, nextKey )
+					- btree.getKeySize( prevKey, nextKey );
+		}
 		entries.add( index, newEntry );
-		nodeSize += getEntrySize( newEntry );
+		nodeSize += getEntrySize( prevKey, newEntry );
 
 		dirty = true;
 		return;
 	}
 
+	/**
+	 * append an entry after the last entry of the node. It is used to load
+	 * the entries in the key order, the key must be greater than the last
+	 * key.
+	 * 
+	 * @param key
+	 * @param childNodeId
+	 *            the node contains the keys greater than or equal to the key
+	 * @return false if the node would be split with the entry.
+	 */
+	boolean append( BTreeValue<K> key, int childNodeId )
+	{
+		IndexEntry<K, V> entry = new IndexEntry<K, V>( this, key, childNodeId );
+		BTreeValue<K> prevKey = entries.isEmpty( ) ? null : getLastEntry( )
+				.getKey( );
+		int entrySize = getEntrySize( prevKey, entry );
+		if ( nodeSize + entrySize > MAX_NODE_SIZE
+				&& entries.size( ) >= MIN_ENTRY_COUNT )
+		{
+			return false;
+		}
+		entries.add( entry );
+		nodeSize += entrySize;
+		dirty = true;
+		return true;
+	}
+
 	public boolean needSplit( )
 	{
 		return nodeSize > MAX_NODE_SIZE && entries.size( ) > MIN_ENTRY_COUNT;
@@ -278,9 +321,11 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 	protected void resetNodeSize( )
 	{
 		nodeSize = EMPTY_NODE_SIZE;
+		BTreeValue<K> prevKey = null;
 		for ( IndexEntry<K, V> entry : entries )
 		{
-			nodeSize += getEntrySize( entry );
+			nodeSize += getEntrySize( prevKey, entry );
+			prevKey = entry.getKey( );
 		}
 	}
 
@@ -348,10 +393,12 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 		firstChild = in.readInt( );
 		entries.clear( );
 		entries.ensureCapacity( entryCount );
+		BTreeValue<K> prevKey = null;
 		for ( int i = 0; i < entryCount; i++ )
 		{
-			IndexEntry<K, V> entry = readEntry( in );
+			IndexEntry<K, V> entry = readEntry( in, prevKey );
 			entries.add( entry );
+			prevKey = entry.getKey( );
 		}
 	}
 
@@ -362,29 +409,32 @@ public class IndexNode<K, V> extends BTreeNode<K, V>
 		out.writeInt( nextNodeId );
 		out.writeInt( entries.size( ) );
 		out.writeInt( firstChild );
+		BTreeValue<K> prevKey = null;
 		for ( IndexEntry<K, V> entry : entries )
 		{
-			writeEntry( out, entry );
+			writeEntry( out, prevKey, entry );
+			prevKey = entry.getKey( );
 		}
 	}
 
-	private IndexEntry<K, V> readEntry( DataInput in ) throws IOException
+	private IndexEntry<K, V> readEntry( DataInput in, BTreeValue<K> prevKey )
+			throws IOException
 	{
-		BTreeValue<K> key = btree.readKey( in );
+		BTreeValue<K> key = btree.readKey( in, prevKey );
 		int childNodeId = in.readInt( );
 		return new IndexEntry<K, V>( this, key, childNodeId );
 	}
 
-	private void writeEntry( DataOutput out, IndexEntry<K, V> entry )
-			throws IOException
+	private void writeEntry( DataOutput out, BTreeValue<K> prevKey,
+			IndexEntry<K, V> entry ) throws IOException
 	{
-		btree.writeKey( out, entry.getKey( ) );
+		btree.writeKey( out, prevKey, entry.getKey( ) );
 		out.writeInt( entry.getChildNodeId( ) );
 	}
 
-	private int getEntrySize( IndexEntry<K, V> entry )
+	private int getEntrySize( BTreeValue<K> prevKey, IndexEntry<K, V> entry )
 	{
-		return 4 + btree.getKeySize( entry.getKey( ) );
+		return 4 + btree.getKeySize( prevKey, entry.getKey( ) );
 	}
 
 	public void dumpNode( ) throws IOException
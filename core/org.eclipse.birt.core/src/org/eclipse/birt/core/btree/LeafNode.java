@@ -35,7 +35,7 @@ import org.eclipse.birt.core.i18n.ResourceConstants;
  * PREV_NODE_ID		INT			previous node id
  * NEXT_NODE_ID		INT			next node id
  * KEY_COUNT		INT			key count saved in this node
- * KEY_1			...			key
+ * KEY_1			...			key, front coded if the tree is BTREE_VERSION_1
  * VALUES_TYPE  	INT			can be INLINE/EXTERNAL
  * VALUES			...			values
  * 
@@ -268,9 +268,39 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		if ( next != null )
 		{
 			next.setPrev( entry );
+			// the front coded key of the next entry depends on its previous key
+			nodeSize += btree.getKeySize( entry.getKey( ), next.getKey( ) )
+					- btree.getKeySize( prev == null ? null : prev.getKey( ),
+							next.getKey( ) );
 		}
 
-		nodeSize += getEntrySize( entry );
+		nodeSize += getEntrySize( prev, entry );
+	}
+
+	/**
+	 * append an entry after the last entry of the node. It is used to load
+	 * the entries in the key order, the key must be greater than the last
+	 * key.
+	 * 
+	 * @param key
+	 * @param values
+	 *            the values of the key, null if the tree has no value.
+	 * @return the appended entry, null if the node would be split with the
+	 *         entry.
+	 * @throws IOException
+	 */
+	LeafEntry<K, V> append( BTreeValue<K> key, BTreeValues<V> values )
+			throws IOException
+	{
+		LeafEntry<K, V> entry = new LeafEntry<K, V>( this, key, values );
+		if ( nodeSize + getEntrySize( getLastEntry( ), entry ) > MAX_NODE_SIZE
+				&& entries.size( ) >= MIN_ENTRY_COUNT )
+		{
+			return null;
+		}
+		insert( entries.size( ), entry );
+		dirty = true;
+		return entry;
 	}
 
 	public boolean needSplit( )
@@ -281,9 +311,11 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 	private void resetNodeSize( ) throws IOException
 	{
 		nodeSize = EMPTY_NODE_SIZE;
+		LeafEntry<K, V> prev = null;
 		for ( LeafEntry<K, V> entry : entries )
 		{
-			nodeSize += getEntrySize( entry );
+			nodeSize += getEntrySize( prev, entry );
+			prev = entry;
 		}
 	}
 	
@@ -359,7 +391,7 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		LeafEntry<K, V> prev = null;
 		for ( int i = 0; i < entryCount; i++ )
 		{
-			LeafEntry<K, V> entry = readEntry( in );
+			LeafEntry<K, V> entry = readEntry( in, prev );
 			entry.setPrev( prev );
 			if ( prev != null )
 			{
@@ -376,15 +408,18 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		out.writeInt( prevNodeId );
 		out.writeInt( nextNodeId );
 		out.writeInt( entries.size( ) );
+		LeafEntry<K, V> prev = null;
 		for ( LeafEntry<K, V> entry : entries )
 		{
-			writeEntry( out, entry );
+			writeEntry( out, prev, entry );
+			prev = entry;
 		}
 	}
 
-	private int getEntrySize( LeafEntry<K, V> entry )
+	private int getEntrySize( LeafEntry<K, V> prev, LeafEntry<K, V> entry )
 	{
-		int keySize = btree.getKeySize( entry.getKey( ) );
+		int keySize = btree.getKeySize( prev == null ? null : prev.getKey( ),
+				entry.getKey( ) );
 		if ( btree.hasValue( ) )
 		{
 			BTreeValues<V> values = entry.getValues( );
@@ -397,9 +432,11 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		return keySize;
 	}
 
-	protected LeafEntry<K, V> readEntry( DataInput in ) throws IOException
+	protected LeafEntry<K, V> readEntry( DataInput in, LeafEntry<K, V> prev )
+			throws IOException
 	{
-		BTreeValue<K> key = btree.readKey( in );
+		BTreeValue<K> key = btree.readKey( in, prev == null ? null : prev
+				.getKey( ) );
 		BTreeValues<V> values = readValues( in );
 		return new LeafEntry<K, V>( this, key, values );
 	}
@@ -437,10 +474,11 @@ class LeafNode<K, V> extends BTreeNode<K, V>
 		return null;
 	}
 
-	private void writeEntry( DataOutput out, LeafEntry<K, V> entry )
-			throws IOException
+	private void writeEntry( DataOutput out, LeafEntry<K, V> prev,
+			LeafEntry<K, V> entry ) throws IOException
 	{
-		btree.writeKey( out, entry.getKey( ) );
+		btree.writeKey( out, prev == null ? null : prev.getKey( ),
+				entry.getKey( ) );
 		if ( btree.hasValue( ) )
 		{
 			BTreeValues<V> values = entry.getValues( );
@@ -22,6 +22,7 @@ import com.ibm.icu.text.DateFormat;
 import com.ibm.icu.text.SimpleDateFormat;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import com.ibm.icu.util.Calendar;
 import com.ibm.icu.util.TimeZone;
 
@@ -30,7 +31,6 @@ import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.regex.Pattern;
 
 import javax.sql.rowset.serial.SerialBlob;
 
@@ -58,8 +58,6 @@ public final class DataTypeUtil
 	private static ULocale JRE_DEFAULT_LOCALE = ULocale.getDefault( );
 	private static SimpleDateFormat MysqlUSDateFormatter = new SimpleDateFormat( "M/d/yyyy HH:mm" );
 	
-	private static Pattern p1 = Pattern.compile( ".*[0-9]+:[0-9]+:[0-9]+.*" );
-	private static Pattern p2 = Pattern.compile( ".*[0-9]+:[0-9]+.*" );
 	
 	// cache DateFormatter of ICU
 	private static Map dfMap = new HashMap( );
@@ -67,6 +65,11 @@ public final class DataTypeUtil
 	// Default Date/Time Style
 	private static int DEFAULT_DATE_STYLE = DateFormat.FULL;
 
+	/**
+	 * the time style of a date format, which has no time.
+	 */
+	static final int NO_TIME_STYLE = -1;
+
 	// resource bundle for exception messages 
 	public static ResourceBundle resourceBundle = ( new ResourceHandle( JRE_DEFAULT_LOCALE ) ).getUResourceBundle( );
 
@@ -244,49 +247,53 @@ public final class DataTypeUtil
 			return Integer.valueOf( (int) longValue );
 		}
 		else if ( source instanceof String )
+		{
+			return toInteger( (String) source, null );
+		}
+		else
+		{
+			throw new CoreException( ResourceConstants.CONVERT_FAILS,
+					new Object[]{
+							source.toString( ), "Integer"
+					} );
+		}
+	}
+
+	/**
+	 * Converts a string to Integer, the string is parsed by
+	 * Integer.valueOf() first and then by the number format.
+	 * 
+	 * @param source
+	 * @param numberFormat
+	 *            the number format of the JRE default locale, null to create
+	 *            it when needed
+	 * @return
+	 * @throws BirtException
+	 */
+	static Integer toInteger( String source, NumberFormat numberFormat )
+			throws BirtException
+	{
+		if ( isJavaNumber( source ) )
 		{
 			try
 			{
-				return Integer.valueOf( (String) source );
+				return Integer.valueOf( source );
 			}
 			catch ( NumberFormatException e )
 			{
-				try
-				{
-					Number number = NumberFormat.getInstance( JRE_DEFAULT_LOCALE ).parse( (String)source );
-					if( number != null )
-					{
-						if ( !isConvertableToInteger( number ))
-						{
-							throw new CoreException( ResourceConstants.CONVERT_FAILS,
-									new Object[]{
-											source.toString( ), "Integer"
-									} );
-						}
-						return Integer.valueOf( number.intValue( ));
-					}
-					
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "Integer"
-							} );
-				}
-				catch ( ParseException e1 )
-				{
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "Integer"
-							} );
-				}
 			}
 		}
-		else
+		Number number = parseNumber( numberFormat == null
+				? NumberFormat.getInstance( JRE_DEFAULT_LOCALE )
+				: numberFormat, source );
+		if ( number == null || !isConvertableToInteger( number ) )
 		{
 			throw new CoreException( ResourceConstants.CONVERT_FAILS,
 					new Object[]{
-							source.toString( ), "Integer"
+							source, "Integer"
 					} );
 		}
+		return Integer.valueOf( number.intValue( ) );
 	}
 
 	/**
@@ -350,46 +357,57 @@ public final class DataTypeUtil
 		}
 		else if ( source instanceof String )
 		{
-			//if empty string, return null
-			if( ( (String) source ).length( )==0 )
-			{
-				return null;
-			}
+			return toBigDecimal( (String) source, null );
+		}
+		else
+		{
+			throw new CoreException(
+					ResourceConstants.CONVERT_FAILS,
+					new Object[]{
+							source.toString( ), "BigDecimal"
+					} );
+		}
+	}
+
+	/**
+	 * Converts a string to BigDecimal, an empty string is converted to null.
+	 * 
+	 * @param source
+	 * @param numberFormat
+	 *            the number format of the JRE default locale, null to create
+	 *            it when needed
+	 * @return
+	 * @throws BirtException
+	 */
+	static BigDecimal toBigDecimal( String source, NumberFormat numberFormat )
+			throws BirtException
+	{
+		//if empty string, return null
+		if ( source.length( ) == 0 )
+		{
+			return null;
+		}
+		if ( isJavaNumber( source ) )
+		{
 			try
 			{
-				return new BigDecimal( (String) source );
+				return new BigDecimal( source );
 			}
 			catch ( NumberFormatException e )
 			{
-				try
-				{
-					Number number = NumberFormat.getInstance( JRE_DEFAULT_LOCALE )
-							.parse( (String) source );
-					if( number != null )
-						return new BigDecimal( number.toString( ) );
-					
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "BigDecimal"
-							} );
-				}
-				catch ( ParseException e1 )
-				{
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "BigDecimal"
-							} );
-				}
 			}
 		}
-		else
+		Number number = parseNumber( numberFormat == null
+				? NumberFormat.getInstance( JRE_DEFAULT_LOCALE )
+				: numberFormat, source );
+		if ( number == null )
 		{
-			throw new CoreException(
-					ResourceConstants.CONVERT_FAILS,
+			throw new CoreException( ResourceConstants.CONVERT_FAILS,
 					new Object[]{
-							source.toString( ), "BigDecimal"
+							source, "BigDecimal"
 					} );
 		}
+		return new BigDecimal( number.toString( ) );
 	}
 
 	/**
@@ -821,76 +839,201 @@ public final class DataTypeUtil
 		if ( source == null )
 			return null;
 
-		DateFormat dateFormat = null;
-		Date resultDate = null;
-		
-		boolean existTime = p1.matcher( source ).matches( )
-				|| p2.matcher( source ).matches( );
+		Date resultDate = parseDate( source, locale, timeZone, null );
+		// for the String can not be parsed, throws a BirtException
+		if ( resultDate == null )
+		{
+			throw new CoreException( 
+					ResourceConstants.CONVERT_FAILS,
+					new Object[]{
+							source.toString( ), "Date"
+					} );
+		}
+		return resultDate;
+	}
 
+	/**
+	 * Parses a string by the date time formats of the locale, from the FULL
+	 * to the SHORT style. The date formats are tried too if the string
+	 * contains no time.
+	 * 
+	 * @param source
+	 * @param locale
+	 * @param timeZone
+	 *            the time zone, null for the one of the formats
+	 * @param styles
+	 *            receives the date style and the time style of the format
+	 *            that parses the string, the time style is NO_TIME_STYLE for
+	 *            a date format. Can be null.
+	 * @return the date, null if no format parses the string
+	 */
+	static Date parseDate( String source, ULocale locale, TimeZone timeZone,
+			int[] styles )
+	{
+		boolean existTime = existTime( source );
 		for ( int i = DEFAULT_DATE_STYLE; i <= DateFormat.SHORT; i++ )
 		{
 			for ( int j = DEFAULT_DATE_STYLE; j <= DateFormat.SHORT; j++ )
 			{
-				dateFormat = DateFormatFactory.getDateTimeInstance( i, j, locale );
-				TimeZone savedTimeZone = null; 
-				if( timeZone != null )
+				Date resultDate = parseDate( source, locale, timeZone, i, j );
+				if ( resultDate != null )
 				{
-					savedTimeZone = dateFormat.getTimeZone( );
-					dateFormat.setTimeZone( timeZone );
-				}
-				try
-				{
-					resultDate = dateFormat.parse( source );
+					if ( styles != null )
+					{
+						styles[0] = i;
+						styles[1] = j;
+					}
 					return resultDate;
 				}
-				catch ( ParseException e1 )
-				{
-				}
-				finally 
-				{
-					if( savedTimeZone != null )
-						dateFormat.setTimeZone( savedTimeZone );
-				}
 			}
 
 			// only Date, no Time 
 			if ( !existTime )
 			{
-				dateFormat = DateFormatFactory.getDateInstance( i, locale );
-				TimeZone savedTimeZone = null; 
-				if( timeZone != null )
+				Date resultDate = parseDate( source,
+						locale,
+						timeZone,
+						i,
+						NO_TIME_STYLE );
+				if ( resultDate != null )
 				{
-					savedTimeZone = dateFormat.getTimeZone( );
-					dateFormat.setTimeZone( timeZone );
-				}
-				try
-				{
-					resultDate = dateFormat.parse( source );
+					if ( styles != null )
+					{
+						styles[0] = i;
+						styles[1] = NO_TIME_STYLE;
+					}
 					return resultDate;
 				}
-				catch ( ParseException e1 )
-				{
-				}
-				finally 
-				{
-					if( savedTimeZone != null )
-						dateFormat.setTimeZone( savedTimeZone );
-				}
 			}
 		}
+		return null;
+	}
 
-		// for the String can not be parsed, throws a BirtException
-		if ( resultDate == null )
+	/**
+	 * Parses a string by the format of the given styles.
+	 * 
+	 * @param source
+	 * @param locale
+	 * @param timeZone
+	 *            the time zone, null for the one of the format
+	 * @param dateStyle
+	 * @param timeStyle
+	 *            the time style, NO_TIME_STYLE for the date format
+	 * @return the date, null if the format doesn't parse the string
+	 */
+	static Date parseDate( String source, ULocale locale, TimeZone timeZone,
+			int dateStyle, int timeStyle )
+	{
+		DateFormat dateFormat = timeStyle == NO_TIME_STYLE
+				? DateFormatFactory.getDateInstance( dateStyle, locale )
+				: DateFormatFactory.getDateTimeInstance( dateStyle,
+						timeStyle,
+						locale );
+		TimeZone savedTimeZone = null;
+		if ( timeZone != null )
 		{
-			throw new CoreException( 
-					ResourceConstants.CONVERT_FAILS,
-					new Object[]{
-							source.toString( ), "Date"
-					} );
+			savedTimeZone = dateFormat.getTimeZone( );
+			dateFormat.setTimeZone( timeZone );
 		}
+		try
+		{
+			ParsePosition position = new ParsePosition( 0 );
+			Date resultDate = dateFormat.parse( source, position );
+			return position.getIndex( ) == 0 ? null : resultDate;
+		}
+		finally
+		{
+			if ( savedTimeZone != null )
+				dateFormat.setTimeZone( savedTimeZone );
+		}
+	}
 
-		// never access here
-		return resultDate;
+	/**
+	 * Returns whether the string contains a time, that is digits separated
+	 * by a colon. As the former ".*[0-9]+:[0-9]+.*" pattern, a string of
+	 * several lines contains no time.
+	 */
+	static boolean existTime( String source )
+	{
+		boolean found = false;
+		for ( int i = 0; i < source.length( ); i++ )
+		{
+			char c = source.charAt( i );
+			if ( c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028'
+					|| c == '\u2029' )
+			{
+				return false;
+			}
+			if ( !found
+					&& c == ':' && i > 0 && i + 1 < source.length( )
+					&& isDigit( source.charAt( i - 1 ) )
+					&& isDigit( source.charAt( i + 1 ) ) )
+			{
+				found = true;
+			}
+		}
+		return found;
+	}
+
+	private static boolean isDigit( char c )
+	{
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Returns false if the string contains a character that can't be in a
+	 * number of Double.valueOf(), Integer.valueOf() or new BigDecimal(), so
+	 * the string can be parsed by the number format directly instead of
+	 * throwing a NumberFormatException.
+	 */
+	static boolean isJavaNumber( String source )
+	{
+		for ( int i = 0; i < source.length( ); i++ )
+		{
+			char c = source.charAt( i );
+			// Integer.valueOf() and new BigDecimal() accept all the unicode
+			// digits
+			if ( c <= ' ' || Character.isDigit( c ) )
+			{
+				continue;
+			}
+			switch ( c )
+			{
+				case '+' :
+				case '-' :
+				case '.' :
+				case 'x' :
+				case 'X' :
+				case 'p' :
+				case 'P' :
+				case 'N' :
+				case 'I' :
+				case 'n' :
+				case 'i' :
+				case 't' :
+				case 'y' :
+					continue;
+				default :
+					if ( ( c >= 'a' && c <= 'f' ) || ( c >= 'A' && c <= 'F' ) )
+					{
+						continue;
+					}
+					return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Parses a number without throwing an exception.
+	 * 
+	 * @return the number, null if the string can not be parsed
+	 */
+	static Number parseNumber( NumberFormat numberFormat, String source )
+	{
+		ParsePosition position = new ParsePosition( 0 );
+		Number number = numberFormat.parse( source, position );
+		return position.getIndex( ) == 0 ? null : number;
 	}
 
 	/**
@@ -904,23 +1047,22 @@ public final class DataTypeUtil
 	public static Date toDate( String source, TimeZone timeZone ) throws BirtException
 	{
 		assert timeZone != null;
-		try
+		if ( source == null || source.trim( ).length( ) == 0 )
+		{
+			return null;
+		}
+		Date resultDate = DateFormatISO8601.tryParse( source, timeZone );
+		if ( resultDate == null )
 		{
-			return toDateISO8601( source, timeZone );
+			// format the String for JRE default locale
+			resultDate = parseDate( source, JRE_DEFAULT_LOCALE, timeZone, null );
 		}
-		catch ( BirtException e )
+		if ( resultDate == null )
 		{
-			try
-			{
-				// format the String for JRE default locale
-				return toDate( source, JRE_DEFAULT_LOCALE, timeZone );
-			}
-			catch ( BirtException use )
-			{
-				// format the String for Locale.US
-				return toDate( source, DEFAULT_LOCALE, timeZone );
-			}
+			// format the String for Locale.US
+			return toDate( source, DEFAULT_LOCALE, timeZone );
 		}
+		return resultDate;
 	}
 	
 	/**
@@ -1019,52 +1161,59 @@ public final class DataTypeUtil
 			return new Double( doubleValue );
 		}
 		else if ( source instanceof String )
+		{
+			return toDouble( (String) source, locale, null );
+		}
+		else
+		{
+			throw new CoreException(
+					ResourceConstants.CONVERT_FAILS,
+					new Object[]{
+							source.toString( ), "Double"
+					});
+		}
+	}
+
+	/**
+	 * Converts a string to Double, the string is parsed by Double.valueOf()
+	 * first and then by the number format of the locale.
+	 * 
+	 * @param source
+	 * @param locale
+	 *            the locale of the string, null for the JRE default locale
+	 * @param numberFormat
+	 *            the number format of the locale, null to create it when
+	 *            needed
+	 * @return
+	 * @throws CoreException
+	 */
+	static Double toDouble( String source, ULocale locale,
+			NumberFormat numberFormat ) throws CoreException
+	{
+		if ( isJavaNumber( source ) )
 		{
 			try
 			{
-				return Double.valueOf( (String) source );
+				return Double.valueOf( source );
 			}
 			catch ( NumberFormatException e )
 			{
-				try
-				{
-					Number number = NumberFormat.getInstance( locale == null
-							? JRE_DEFAULT_LOCALE : locale )
-							.parse( (String) source );
-					if( number != null )
-					{
-						if ( !isConvertableToDouble( number ) )
-						{
-							throw new CoreException( ResourceConstants.CONVERT_FAILS,
-									new Object[]{
-											source.toString( ), "Double"
-									} );
-						}
-						return new Double( number.doubleValue( ));
-					}
-					
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "Double"
-							} );
-				}
-				catch ( ParseException e1 )
-				{
-					throw new CoreException( ResourceConstants.CONVERT_FAILS,
-							new Object[]{
-									source.toString( ), "Double"
-							} );
-				}
 			}
 		}
-		else
+		if ( numberFormat == null )
 		{
-			throw new CoreException(
-					ResourceConstants.CONVERT_FAILS,
+			numberFormat = NumberFormat.getInstance( locale == null
+					? JRE_DEFAULT_LOCALE : locale );
+		}
+		Number number = parseNumber( numberFormat, source );
+		if ( number == null || !isConvertableToDouble( number ) )
+		{
+			throw new CoreException( ResourceConstants.CONVERT_FAILS,
 					new Object[]{
-							source.toString( ), "Double"
-					});
+							source, "Double"
+					} );
 		}
+		return new Double( number.doubleValue( ) );
 	}
 	/**
 	 * Boolean -> Double
@@ -1515,67 +1664,35 @@ public final class DataTypeUtil
 	private static Date toDate( String source ) throws BirtException
 	{
 		source = source.trim( );
-		try
+		if ( source.length( ) == 0 )
 		{
-			return toDateISO8601( source, null );
+			return null;
 		}
-		catch ( BirtException e )
+		// the formats are tried without exception, a column of dates in a
+		// local format would otherwise throw several exceptions per value
+		Date resultDate = DateFormatISO8601.tryParse( source, null );
+		if ( resultDate == null )
 		{
-			try
-			{
-				// format the String for JRE default locale
-				return toDate( source, JRE_DEFAULT_LOCALE );
-			}
-			catch ( BirtException use )
-			{
-				try
-				{
-					// format the String for Locale.US
-					return toDate( source, DEFAULT_LOCALE );
-				}
-				catch ( BirtException de )
-				{
-					return toDateForSpecialFormat( source );
-				}
-			}
+			// format the String for JRE default locale
+			resultDate = parseDate( source, JRE_DEFAULT_LOCALE, null, null );
 		}
-	}
-
-	/**
-	 * convert String with ISO8601 date format to java.util.Date
-	 * 
-	 * @param source
-	 *            the String to be convert
-	 * @param locate
-	 * 			  the locate of the string
-	 * @return result Date
-	 */
-	private static Date toDateISO8601( String source, TimeZone timeZone ) throws BirtException
-	{
-		Date resultDate = null;
-
-		try
+		if ( resultDate == null )
 		{
-			resultDate = DateFormatISO8601.parse( source, timeZone );
-			return resultDate;
+			// format the String for Locale.US
+			resultDate = parseDate( source, DEFAULT_LOCALE, null, null );
 		}
-		catch ( ParseException e1 )
+		if ( resultDate == null )
 		{
-			throw new CoreException( 
-					ResourceConstants.CONVERT_FAILS,
-					new Object[]{
-							source.toString( ), "Date"
-					} );
+			return toDateForSpecialFormat( source );
 		}
+		return resultDate;
 	}
 
-	private static Date toDateForSpecialFormat( String source ) throws BirtException
+	static Date toDateForSpecialFormat( String source ) throws BirtException
 	{
-		try
-		{
-			return MysqlUSDateFormatter.parse( source );
-		}
-		catch ( ParseException e1 )
+		ParsePosition position = new ParsePosition( 0 );
+		Date resultDate = MysqlUSDateFormatter.parse( source, position );
+		if ( position.getIndex( ) == 0 )
 		{
 			throw new CoreException( 
 					ResourceConstants.CONVERT_FAILS,
@@ -1583,6 +1700,7 @@ public final class DataTypeUtil
 							source.toString( ), "Date"
 					} );
 		}
+		return resultDate;
 	}
 	
 	/**
@@ -1763,7 +1881,7 @@ public final class DataTypeUtil
 		return odaType;
 	}
 	
-	private static boolean isConvertableToInteger( Number n )
+	static boolean isConvertableToInteger( Number n )
 	{
 		assert n != null;
 		
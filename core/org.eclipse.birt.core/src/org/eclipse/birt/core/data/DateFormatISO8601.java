@@ -12,6 +12,7 @@
 package org.eclipse.birt.core.data;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.util.Date;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -47,41 +48,48 @@ public class DateFormatISO8601
 		{
 			return null;
 		}
-		Date resultDate = null;
+		Date resultDate = tryParse( source, timeZone );
+		// for the String can not be parsed, throws a BirtException
+		if ( resultDate == null )
+		{
+			throw new CoreException( ResourceConstants.CONVERT_FAILS,
+					new Object[]{cleanDate( source ), "Date"} );
+		}
+		return resultDate;
+	}
+
+	/**
+	 * Parses a non empty date/time string without throwing an exception.
+	 * 
+	 * @param source
+	 * @param timeZone
+	 * @return the date, null if the string can not be parsed
+	 */
+	static Date tryParse( String source, TimeZone timeZone )
+	{
 		source = cleanDate( source );
-		Object simpleDateFormatter = DateFormatFactory.getPatternInstance( PatternKey.getPatterKey( source ) );
-		if ( simpleDateFormatter != null )
+		SimpleDateFormat dateFormat = DateFormatFactory.getPatternInstance( PatternKey.getPatterKey( source ) );
+		if ( dateFormat == null )
 		{
-			SimpleDateFormat dateFormat = (SimpleDateFormat) simpleDateFormatter;
-			TimeZone savedTimeZone = null;
-			try
-			{
-				if ( timeZone != null )
-				{
-					savedTimeZone = dateFormat.getTimeZone( );
-					dateFormat.setTimeZone( timeZone );
-				}
-				resultDate = dateFormat.parse( source );
-				return resultDate;
-			}
-			catch ( ParseException e1 )
-			{
-			}
-			finally
+			return null;
+		}
+		TimeZone savedTimeZone = null;
+		try
+		{
+			if ( timeZone != null )
 			{
-				if ( savedTimeZone != null )
-					dateFormat.setTimeZone( savedTimeZone );
+				savedTimeZone = dateFormat.getTimeZone( );
+				dateFormat.setTimeZone( timeZone );
 			}
+			ParsePosition position = new ParsePosition( 0 );
+			Date resultDate = dateFormat.parse( source, position );
+			return position.getIndex( ) == 0 ? null : resultDate;
 		}
-		// for the String can not be parsed, throws a BirtException
-		if ( resultDate == null )
+		finally
 		{
-			throw new CoreException( ResourceConstants.CONVERT_FAILS,
-					new Object[]{source.toString( ), "Date"} );
+			if ( savedTimeZone != null )
+				dateFormat.setTimeZone( savedTimeZone );
 		}
-
-		// never access here
-		return resultDate;
 	}
 	
 	/**
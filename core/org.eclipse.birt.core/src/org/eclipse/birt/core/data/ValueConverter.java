@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.data;
+
+import java.util.Date;
+
+import org.eclipse.birt.core.exception.BirtException;
+
+import com.ibm.icu.text.NumberFormat;
+import com.ibm.icu.text.SimpleDateFormat;
+import com.ibm.icu.util.Calendar;
+import com.ibm.icu.util.GregorianCalendar;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Converts the values of a column to a fixed data type as
+ * DataTypeUtil.convert( value, toType ).
+ * <p>
+ * A converter keeps what DataTypeUtil looks up for every value: the number
+ * format, and the styles of the date format that parsed the last date
+ * string, which is tried first for the next string as the values of a column
+ * usually share one format. If the date strings of a column are in several
+ * formats, a string parsed by both the last format and a format DataTypeUtil
+ * tries before it may give another date. The ISO8601 date strings of the
+ * common "yyyy-MM-dd[ HH:mm[:ss[.SSS]]]" form are parsed without any
+ * formatter.
+ * <p>
+ * A converter is not thread safe, use one converter per column and thread.
+ */
+public class ValueConverter
+{
+
+	private static final ULocale JRE_DEFAULT_LOCALE = ULocale.getDefault( );
+
+	private int toType;
+	private NumberFormat numberFormat;
+	private Calendar isoCalendar;
+	private boolean isoUnsupported;
+
+	// the styles of the date format which parsed the last string
+	private boolean hasDateStyles;
+	private int[] dateStyles = new int[2];
+
+	/**
+	 * @param toType
+	 *            the DataType of the converted values
+	 */
+	public ValueConverter( int toType )
+	{
+		this.toType = toType;
+	}
+
+	public int getType( )
+	{
+		return toType;
+	}
+
+	/**
+	 * Converts a value.
+	 *
+	 * @param source
+	 * @return the converted value
+	 * @throws BirtException
+	 *             if the value can't be converted
+	 */
+	public Object convert( Object source ) throws BirtException
+	{
+		if ( source instanceof String )
+		{
+			String s = (String) source;
+			switch ( toType )
+			{
+				case DataType.INTEGER_TYPE :
+					return DataTypeUtil.toInteger( s, getNumberFormat( ) );
+				case DataType.DECIMAL_TYPE :
+					return DataTypeUtil.toBigDecimal( s, getNumberFormat( ) );
+				case DataType.DOUBLE_TYPE :
+					return DataTypeUtil.toDouble( s,
+							JRE_DEFAULT_LOCALE,
+							getNumberFormat( ) );
+				case DataType.DATE_TYPE :
+					return toDate( s );
+				case DataType.STRING_TYPE :
+					return s;
+			}
+		}
+		return DataTypeUtil.convert( source, toType );
+	}
+
+	private NumberFormat getNumberFormat( )
+	{
+		if ( numberFormat == null )
+		{
+			numberFormat = NumberFormat.getInstance( JRE_DEFAULT_LOCALE );
+		}
+		return numberFormat;
+	}
+
+	/**
+	 * Converts a string to date as DataTypeUtil.toDate( Object ): the string
+	 * is parsed as ISO8601 first, then by the date formats of the JRE default
+	 * locale and of Locale.US, and at last by the "M/d/yyyy HH:mm" format.
+	 */
+	private Date toDate( String source ) throws BirtException
+	{
+		source = source.trim( );
+		if ( source.length( ) == 0 )
+		{
+			return null;
+		}
+		Date resultDate = parseISO( source );
+		if ( resultDate == null )
+		{
+			resultDate = DateFormatISO8601.tryParse( source, null );
+		}
+		if ( resultDate != null )
+		{
+			return resultDate;
+		}
+
+		// the format of the last string is tried first, it is only kept for
+		// the JRE default locale whose formats are tried before the Locale.US
+		// ones
+		if ( hasDateStyles
+				&& ( dateStyles[1] != DataTypeUtil.NO_TIME_STYLE || !DataTypeUtil.existTime( source ) ) )
+		{
+			resultDate = DataTypeUtil.parseDate( source,
+					JRE_DEFAULT_LOCALE,
+					null,
+					dateStyles[0],
+					dateStyles[1] );
+			if ( resultDate != null )
+			{
+				return resultDate;
+			}
+		}
+
+		resultDate = DataTypeUtil.parseDate( source,
+				JRE_DEFAULT_LOCALE,
+				null,
+				dateStyles );
+		hasDateStyles = resultDate != null;
+		if ( resultDate == null )
+		{
+			resultDate = DataTypeUtil.parseDate( source, ULocale.US, null, null );
+		}
+		if ( resultDate == null )
+		{
+			return DataTypeUtil.toDateForSpecialFormat( source );
+		}
+		return resultDate;
+	}
+
+	/**
+	 * Parses the "yyyy-MM-dd[( |T)HH:mm[:ss[.S{1,3}]]]" strings by the
+	 * calendar of the ISO8601 formatter.
+	 *
+	 * @return the date, null if the string is in another form or is not a
+	 *         valid date
+	 */
+	private Date parseISO( String s )
+	{
+		int length = s.length( );
+		if ( isoUnsupported
+				|| ( length != 10 && length != 16 && length != 19 && ( length < 21 || length > 23 ) ) )
+		{
+			return null;
+		}
+		int year = digits( s, 0, 4 );
+		int month = digits( s, 5, 2 );
+		int day = digits( s, 8, 2 );
+		if ( year < 0 || month < 0 || day < 0 || s.charAt( 4 ) != '-'
+				|| s.charAt( 7 ) != '-' )
+		{
+			return null;
+		}
+		int hour = 0, minute = 0, second = 0, millisecond = 0;
+		if ( length > 10 )
+		{
+			char separator = s.charAt( 10 );
+			hour = digits( s, 11, 2 );
+			minute = digits( s, 14, 2 );
+			if ( ( separator != ' ' && separator != 'T' ) || hour < 0
+					|| minute < 0 || s.charAt( 13 ) != ':' )
+			{
+				return null;
+			}
+			if ( length > 16 )
+			{
+				second = digits( s, 17, 2 );
+				if ( second < 0 || s.charAt( 16 ) != ':' )
+				{
+					return null;
+				}
+			}
+			if ( length > 19 )
+			{
+				// the fraction is left justified as the SSS field
+				millisecond = digits( s, 20, length - 20 );
+				if ( millisecond < 0 || s.charAt( 19 ) != '.' )
+				{
+					return null;
+				}
+				for ( int i = length - 20; i < 3; i++ )
+				{
+					millisecond *= 10;
+				}
+			}
+		}
+
+		Calendar calendar = getISOCalendar( );
+		if ( calendar == null )
+		{
+			return null;
+		}
+		calendar.clear( );
+		calendar.set( year, month - 1, day, hour, minute, second );
+		calendar.set( Calendar.MILLISECOND, millisecond );
+		try
+		{
+			return calendar.getTime( );
+		}
+		catch ( IllegalArgumentException e )
+		{
+			// a field is out of its range
+			return null;
+		}
+	}
+
+	/**
+	 * @return the value of the digits, -1 if a character is not a digit
+	 */
+	private static int digits( String s, int offset, int count )
+	{
+		int value = 0;
+		for ( int i = offset; i < offset + count; i++ )
+		{
+			char c = s.charAt( i );
+			if ( c < '0' || c > '9' )
+			{
+				return -1;
+			}
+			value = value * 10 + ( c - '0' );
+		}
+		return value;
+	}
+
+	private Calendar getISOCalendar( )
+	{
+		if ( isoCalendar == null )
+		{
+			SimpleDateFormat format = DateFormatFactory.getPatternInstance( PatternKey.getPatterKey( "2000-01-01" ) ); //$NON-NLS-1$
+			if ( format == null
+					|| !( format.getCalendar( ) instanceof GregorianCalendar ) )
+			{
+				isoUnsupported = true;
+				return null;
+			}
+			isoCalendar = (Calendar) format.getCalendar( ).clone( );
+		}
+		return isoCalendar;
+	}
+}
@@ -141,6 +141,29 @@ public class DateFormatter implements IFormatter
 		this( pattern, ULocale.forLocale( localeLoc ) );
 	}
 
+	/**
+	 * Creates a copy of the formatter, the pattern isn't compiled again.
+	 * 
+	 * @param formatter
+	 *            the formatter to copy
+	 */
+	DateFormatter( DateFormatter formatter )
+	{
+		formatPattern = formatter.formatPattern;
+		locale = formatter.locale;
+		timeZone = formatter.timeZone;
+		dateTimeFormat = copy( formatter.dateTimeFormat );
+		dateFormat = copy( formatter.dateFormat );
+		timeFormat = copy( formatter.timeFormat );
+	}
+
+	private static com.ibm.icu.text.DateFormat copy(
+			com.ibm.icu.text.DateFormat format )
+	{
+		return format == null ? null : (com.ibm.icu.text.DateFormat) format
+				.clone( );
+	}
+
 	/**
 	 * get the string pattern
 	 * 
@@ -590,7 +613,8 @@ public class DateFormatter implements IFormatter
 	}
 
 	/**
-	 * Returns format code according to format type and current locale
+	 * Returns format code according to format type and current locale. A new
+	 * formatter is created on each call, so the caller may change it.
 	 */
 	public SimpleDateFormat getFormatter( )
 	{
@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.format;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.icu.util.TimeZone;
+import com.ibm.icu.util.ULocale;
+
+/**
+ * A JVM wide cache of the formatters keyed by the pattern, the locale and the
+ * time zone, so the patterns are compiled once instead of once for each task
+ * or each value.
+ * <p>
+ * The cached formatters are never changed once their patterns are compiled.
+ * Each call returns a private copy of the cached formatter, so the callers
+ * may use and change it without any locking. Copying a formatter is much
+ * cheaper than compiling its pattern. Callers which format many values
+ * should keep the copy they get, like ExecutionContext does.
+ */
+public class FormatterCache
+{
+
+	/**
+	 * the max number of the formatters cached, the cache is cleared when it
+	 * is full as the patterns used are usually far less than that.
+	 */
+	static final int MAX_FORMATTERS = 1024;
+
+	private static ConcurrentHashMap<Key, IFormatter> formatters = new ConcurrentHashMap<Key, IFormatter>( );
+
+	private static final int NUMBER = 0;
+	private static final int DATE = 1;
+	private static final int STRING = 2;
+
+	private FormatterCache( )
+	{
+	}
+
+	/**
+	 * @param pattern
+	 *            the number format pattern, null for the default format.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @return a copy of the cached number formatter
+	 */
+	public static NumberFormatter getNumberFormatter( String pattern,
+			ULocale locale )
+	{
+		if ( locale == null )
+		{
+			locale = ULocale.getDefault( );
+		}
+		Key key = new Key( NUMBER, pattern, locale, null );
+		NumberFormatter formatter = (NumberFormatter) formatters.get( key );
+		if ( formatter == null )
+		{
+			formatter = new NumberFormatter( pattern, locale );
+			formatter = (NumberFormatter) put( key, formatter );
+		}
+		return new NumberFormatter( formatter );
+	}
+
+	/**
+	 * @param pattern
+	 *            the date format pattern, null for the default format.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @param timeZone
+	 *            the time zone, null for the default time zone.
+	 * @return a copy of the cached date formatter
+	 */
+	public static DateFormatter getDateFormatter( String pattern,
+			ULocale locale, TimeZone timeZone )
+	{
+		if ( locale == null )
+		{
+			locale = ULocale.getDefault( );
+		}
+		// the formatter without time zone uses the default time zone when
+		// it is created
+		String timeZoneId = timeZone != null ? timeZone.getID( ) : TimeZone
+				.getDefault( ).getID( );
+		Key key = new Key( DATE, pattern, locale, timeZoneId );
+		DateFormatter formatter = (DateFormatter) formatters.get( key );
+		if ( formatter == null )
+		{
+			formatter = new DateFormatter( pattern, locale, timeZone );
+			formatter = (DateFormatter) put( key, formatter );
+		}
+		return new DateFormatter( formatter );
+	}
+
+	/**
+	 * @param pattern
+	 *            the string format pattern, null for the default format.
+	 * @param locale
+	 *            the locale, null for the default locale.
+	 * @return a copy of the cached string formatter
+	 */
+	public static StringFormatter getStringFormatter( String pattern,
+			ULocale locale )
+	{
+		if ( locale == null )
+		{
+			locale = ULocale.getDefault( );
+		}
+		Key key = new Key( STRING, pattern, locale, null );
+		StringFormatter formatter = (StringFormatter) formatters.get( key );
+		if ( formatter == null )
+		{
+			formatter = new StringFormatter( pattern, locale );
+			formatter = (StringFormatter) put( key, formatter );
+		}
+		return new StringFormatter( formatter );
+	}
+
+	/**
+	 * Removes all the cached formatters.
+	 */
+	public static void clear( )
+	{
+		formatters.clear( );
+	}
+
+	private static IFormatter put( Key key, IFormatter formatter )
+	{
+		if ( formatters.size( ) >= MAX_FORMATTERS )
+		{
+			formatters.clear( );
+		}
+		IFormatter existing = formatters.putIfAbsent( key, formatter );
+		return existing != null ? existing : formatter;
+	}
+
+	private static class Key
+	{
+
+		int type;
+		String pattern;
+		ULocale locale;
+		String timeZone;
+		int hash;
+
+		Key( int type, String pattern, ULocale locale, String timeZone )
+		{
+			this.type = type;
+			this.pattern = pattern;
+			this.locale = locale;
+			this.timeZone = timeZone;
+			int h = type;
+			h = h * 31 + ( pattern == null ? 0 : pattern.hashCode( ) );
+			h = h * 31 + locale.hashCode( );
+			h = h * 31 + ( timeZone == null ? 0 : timeZone.hashCode( ) );
+			this.hash = h;
+		}
+
+		public int hashCode( )
+		{
+			return hash;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( !( obj instanceof Key ) )
+			{
+				return false;
+			}
+			Key key = (Key) obj;
+			return type == key.type && equals( pattern, key.pattern )
+					&& locale.equals( key.locale )
+					&& equals( timeZone, key.timeZone );
+		}
+
+		private static boolean equals( String s1, String s2 )
+		{
+			return s1 == null ? s2 == null : s1.equals( s2 );
+		}
+	}
+}
@@ -19,6 +19,7 @@ import java.text.NumberFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -44,6 +45,11 @@ public class NumberFormatter implements IFormatter
 	static protected Logger logger = Logger.getLogger( NumberFormatter.class
 			.getName( ) );
 
+	/**
+	 * the decimal format symbols of the locales
+	 */
+	private static ConcurrentHashMap<ULocale, DecimalFormatSymbols> decimalFormatSymbols = new ConcurrentHashMap<ULocale, DecimalFormatSymbols>( );
+
 	/**
 	 * the format pattern
 	 */
@@ -157,6 +163,33 @@ public class NumberFormatter implements IFormatter
 		this( pattern, ULocale.forLocale( locale ) );
 	}
 
+	/**
+	 * Creates a copy of the formatter, the pattern isn't compiled again.
+	 * 
+	 * @param formatter
+	 *            the formatter to copy
+	 */
+	NumberFormatter( NumberFormatter formatter )
+	{
+		formatPattern = formatter.formatPattern;
+		parseBigDecimal = formatter.parseBigDecimal;
+		locale = formatter.locale;
+		if ( formatter.numberFormat != null )
+		{
+			numberFormat = (NumberFormat) formatter.numberFormat.clone( );
+		}
+		if ( formatter.decimalFormat != null )
+		{
+			decimalFormat = (DecimalFormat) formatter.decimalFormat.clone( );
+		}
+		decimalSeparator = formatter.decimalSeparator;
+		hexFlag = formatter.hexFlag;
+		roundPrecision = formatter.roundPrecision;
+		realPattern = formatter.realPattern;
+		digitSubstitution = formatter.digitSubstitution;
+		roundingMode = formatter.roundingMode;
+	}
+
 	/**
 	 * returns the original format string.
 	 */
@@ -191,11 +224,10 @@ public class NumberFormatter implements IFormatter
 			{
 				numberFormat = NumberFormat.getInstance( locale.toLocale( ) );
 				numberFormat.setGroupingUsed( false );
-				DecimalFormatSymbols symbols = new DecimalFormatSymbols( locale
-						.toLocale( ) );
+				DecimalFormatSymbols symbols = getDecimalFormatSymbols( );
 				decimalSeparator = symbols.getDecimalSeparator( );
 				decimalFormat = new DecimalFormat( "", //$NON-NLS-1$
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				decimalFormat.setMinimumIntegerDigits( 1 );
 				decimalFormat.setGroupingUsed( false );
 				roundPrecision = getRoundPrecision( numberFormat );
@@ -315,7 +347,7 @@ public class NumberFormatter implements IFormatter
 
 			if ( hexFlag == true )
 			{
-				return Long.toHexString( new Double( num ).longValue( ) );
+				return Long.toHexString( (long) num );
 			}
 			
 			if ( num == 0 )
@@ -447,25 +479,25 @@ public class NumberFormatter implements IFormatter
 			case 'f' :
 				realPattern = "#0.00"; //$NON-NLS-1$
 				numberFormat = new DecimalFormat( realPattern, 
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				return;
 			case 'N' :
 			case 'n' :
 				realPattern = "###,##0.00"; //$NON-NLS-1$
 				numberFormat = new DecimalFormat( realPattern,
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				return;
 			case 'P' :
 			case 'p' :
 				realPattern = "###,##0.00 %"; //$NON-NLS-1$
 				numberFormat = new DecimalFormat( realPattern,
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				return;
 			case 'E' :
 			case 'e' :
 				realPattern = "0.000000E00"; //$NON-NLS-1$
 				numberFormat = new DecimalFormat( realPattern,
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				roundPrecision = -2;
 				return;
 			case 'X' :
@@ -479,12 +511,27 @@ public class NumberFormatter implements IFormatter
 				String str = new String( data );
 
 				numberFormat = new DecimalFormat( str,
-						new DecimalFormatSymbols( locale.toLocale( ) ) );
+						getDecimalFormatSymbols( ) );
 				return;
 			}
 		}
 	}
 
+	/**
+	 * Returns the symbols of the locale, the symbols are shared and must not
+	 * be changed. DecimalFormat copies the symbols it is given.
+	 */
+	private DecimalFormatSymbols getDecimalFormatSymbols( )
+	{
+		DecimalFormatSymbols symbols = decimalFormatSymbols.get( locale );
+		if ( symbols == null )
+		{
+			symbols = new DecimalFormatSymbols( locale.toLocale( ) );
+			decimalFormatSymbols.putIfAbsent( locale, symbols );
+		}
+		return symbols;
+	}
+
 	private DecimalFormatSymbols getICUDecimalSymbols( Locale locale )
 	{
 		DecimalFormatSymbols symbols = new DecimalFormatSymbols( locale );
@@ -535,7 +582,7 @@ public class NumberFormatter implements IFormatter
 			numberFormat.setGroupingUsed( false );
 			return;
 		}
-		DecimalFormatSymbols symbols = new DecimalFormatSymbols( locale.toLocale( ) );
+		DecimalFormatSymbols symbols = getDecimalFormatSymbols( );
 		if ( patternStr.equals( "Fixed" ) ) //$NON-NLS-1$
 		{
 			realPattern = "#0.00"; //$NON-NLS-1$
@@ -606,7 +653,8 @@ public class NumberFormatter implements IFormatter
 	 *             if the beginning of the specified string cannot be parsed.
 	 */
 
-	public Number parse( String number ) throws ParseException
+	public Number parse( String number )
+			throws ParseException
 	{
 		if ( numberFormat instanceof DecimalFormat )
 		{
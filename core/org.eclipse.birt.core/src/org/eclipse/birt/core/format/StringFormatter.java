@@ -126,6 +126,23 @@ public class StringFormatter implements IFormatter
 	{
 		this(format, ULocale.forLocale(locale));
 	}
+
+	/**
+	 * Creates a copy of the formatter.
+	 * 
+	 * @param formatter
+	 *            the formatter to copy
+	 */
+	StringFormatter( StringFormatter formatter )
+	{
+		formatPattern = formatter.formatPattern;
+		locale = formatter.locale;
+		chcase = formatter.chcase;
+		nand = formatter.nand;
+		natt = formatter.natt;
+		dir = formatter.dir;
+		trim = formatter.trim;
+	}
 	
 	
 	/**
@@ -22,6 +22,7 @@ public class Extension implements IExtension
 {
 
 	protected Bundle bundle;
+	protected String id;
 	protected String namespace;
 	protected String uniqueId;
 	protected String name;
@@ -33,6 +34,7 @@ public class Extension implements IExtension
 	Extension( Bundle bundle, String id )
 	{
 		this.bundle = bundle;
+		this.id = id;
 		int dotAt = id.lastIndexOf( '.' );
 		if ( dotAt == -1 )
 		{
@@ -25,6 +25,7 @@ public class ExtensionPoint implements IExtensionPoint
 {
 
 	protected Bundle bundle;
+	protected String id;
 	protected String uniqueId;
 	protected String namespace;
 	protected String name;
@@ -34,6 +35,7 @@ public class ExtensionPoint implements IExtensionPoint
 	ExtensionPoint( Bundle bundle, String id )
 	{
 		this.bundle = bundle;
+		this.id = id;
 		int dotAt = id.lastIndexOf( '.' );
 		if ( dotAt == -1 )
 		{
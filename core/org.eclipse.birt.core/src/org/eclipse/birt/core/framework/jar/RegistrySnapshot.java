@@ -0,0 +1,301 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.framework.jar;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.eclipse.birt.core.util.IOUtil;
+
+/**
+ * A binary snapshot of the bundles installed by the ServiceLauncher, so the
+ * next JVM can restore the extension registry without parsing the
+ * plugin.xml of every bundle again.
+ * <p>
+ * The snapshot records a checksum of the bundle roots and of the manifest,
+ * plugin.xml and plugin.properties of each bundle. A snapshot whose checksum
+ * doesn't match the bundles in the class path is ignored and rewritten.
+ */
+class RegistrySnapshot
+{
+
+	static final int MAGIC = 0x42495254; // BIRT
+	static final int VERSION = 1;
+
+	protected ServicePlatform platform;
+	protected File file;
+
+	RegistrySnapshot( ServicePlatform platform, File file )
+	{
+		this.platform = platform;
+		this.file = file;
+	}
+
+	/**
+	 * Computes the checksum of the bundles under the roots.
+	 *
+	 * @param roots
+	 *            the bundle roots in the install order
+	 * @return the checksum
+	 */
+	long getChecksum( List<URL> roots )
+	{
+		CRC32 crc = new CRC32( );
+		byte[] buffer = new byte[8192];
+		for ( URL root : roots )
+		{
+			update( crc, root.toExternalForm( ) );
+			update( crc, root, BundleLoader.MANIFEST_ENTRY, buffer );
+			update( crc, root, BundleLoader.PLUGIN_ENTRY, buffer );
+			update( crc, root, BundleLoader.PROPERTIES_ENTRY, buffer );
+		}
+		return ( (long) roots.size( ) << 32 ) ^ crc.getValue( );
+	}
+
+	private void update( CRC32 crc, String value )
+	{
+		for ( int i = 0; i < value.length( ); i++ )
+		{
+			char ch = value.charAt( i );
+			crc.update( ch >>> 8 );
+			crc.update( ch );
+		}
+	}
+
+	private void update( CRC32 crc, URL root, String entry, byte[] buffer )
+	{
+		update( crc, entry );
+		try
+		{
+			InputStream in = new URL( root, entry ).openStream( );
+			try
+			{
+				int size = in.read( buffer );
+				while ( size != -1 )
+				{
+					crc.update( buffer, 0, size );
+					size = in.read( buffer );
+				}
+			}
+			finally
+			{
+				in.close( );
+			}
+		}
+		catch ( IOException ex )
+		{
+			// the entry doesn't exist
+			crc.update( 0 );
+		}
+	}
+
+	/**
+	 * Loads the bundles from the snapshot.
+	 *
+	 * @param checksum
+	 *            the checksum of the bundles in the class path
+	 * @return the bundles, null if the snapshot doesn't exist or is out of
+	 *         date.
+	 * @throws IOException
+	 */
+	List<Bundle> load( long checksum ) throws IOException
+	{
+		if ( !file.isFile( ) )
+		{
+			return null;
+		}
+		DataInputStream in = new DataInputStream( new BufferedInputStream(
+				new FileInputStream( file ) ) );
+		try
+		{
+			if ( IOUtil.readInt( in ) != MAGIC
+					|| IOUtil.readInt( in ) != VERSION
+					|| IOUtil.readLong( in ) != checksum )
+			{
+				return null;
+			}
+			int count = IOUtil.readInt( in );
+			ArrayList<Bundle> bundles = new ArrayList<Bundle>( count );
+			for ( int i = 0; i < count; i++ )
+			{
+				bundles.add( readBundle( in ) );
+			}
+			return bundles;
+		}
+		finally
+		{
+			in.close( );
+		}
+	}
+
+	/**
+	 * Saves the bundles to the snapshot. The snapshot is written to a
+	 * temporary file first and then renamed, so the JVMs started at the same
+	 * time never read a partial snapshot.
+	 *
+	 * @param bundles
+	 *            the bundles in the install order
+	 * @param checksum
+	 *            the checksum of the bundles
+	 * @throws IOException
+	 */
+	void save( List<Bundle> bundles, long checksum ) throws IOException
+	{
+		File folder = file.getAbsoluteFile( ).getParentFile( );
+		if ( folder != null )
+		{
+			folder.mkdirs( );
+		}
+		File temp = File.createTempFile( file.getName( ), ".tmp", folder ); //$NON-NLS-1$
+		try
+		{
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream( new FileOutputStream( temp ) ) );
+			try
+			{
+				IOUtil.writeInt( out, MAGIC );
+				IOUtil.writeInt( out, VERSION );
+				IOUtil.writeLong( out, checksum );
+				IOUtil.writeInt( out, bundles.size( ) );
+				for ( Bundle bundle : bundles )
+				{
+					writeBundle( out, bundle );
+				}
+			}
+			finally
+			{
+				out.close( );
+			}
+			file.delete( );
+			if ( !temp.renameTo( file ) )
+			{
+				throw new IOException( "Failed to rename " + temp + " to " //$NON-NLS-1$ //$NON-NLS-2$
+						+ file );
+			}
+		}
+		finally
+		{
+			temp.delete( );
+		}
+	}
+
+	protected void writeBundle( DataOutputStream out, Bundle bundle )
+			throws IOException
+	{
+		IOUtil.writeString( out, bundle.root.toExternalForm( ) );
+		IOUtil.writeString( out, bundle.getSymbolicName( ) );
+		IOUtil.writeString( out, bundle.version );
+
+		ExtensionPoint[] points = bundle.getExtensionPoints( );
+		IOUtil.writeInt( out, points.length );
+		for ( ExtensionPoint point : points )
+		{
+			IOUtil.writeString( out, point.id );
+			IOUtil.writeString( out, point.schema );
+		}
+
+		Extension[] extensions = bundle.getExtensions( );
+		IOUtil.writeInt( out, extensions.length );
+		for ( Extension extension : extensions )
+		{
+			IOUtil.writeString( out, extension.id );
+			IOUtil.writeString( out, extension.label );
+			IOUtil.writeString( out, extension.extensionPointId );
+			writeConfigurations( out, extension.configuration );
+		}
+	}
+
+	protected Bundle readBundle( DataInputStream in ) throws IOException
+	{
+		URL root = new URL( IOUtil.readString( in ) );
+		String name = IOUtil.readString( in );
+		Bundle bundle = new Bundle( platform, root, name );
+		bundle.version = IOUtil.readString( in );
+
+		int count = IOUtil.readInt( in );
+		bundle.extensionPoints = new ExtensionPoint[count];
+		for ( int i = 0; i < count; i++ )
+		{
+			ExtensionPoint point = new ExtensionPoint( bundle,
+					IOUtil.readString( in ) );
+			point.schema = IOUtil.readString( in );
+			bundle.extensionPoints[i] = point;
+		}
+
+		count = IOUtil.readInt( in );
+		bundle.extensions = new Extension[count];
+		for ( int i = 0; i < count; i++ )
+		{
+			Extension extension = new Extension( bundle,
+					IOUtil.readString( in ) );
+			extension.label = IOUtil.readString( in );
+			extension.extensionPointId = IOUtil.readString( in );
+			extension.configuration = readConfigurations( in, extension );
+			bundle.extensions[i] = extension;
+		}
+		return bundle;
+	}
+
+	protected void writeConfigurations( DataOutputStream out,
+			ConfigurationElement[] configs ) throws IOException
+	{
+		IOUtil.writeInt( out, configs.length );
+		for ( ConfigurationElement config : configs )
+		{
+			IOUtil.writeString( out, config.name );
+			IOUtil.writeInt( out, config.attributes.size( ) );
+			for ( Map.Entry<String, String> entry : config.attributes
+					.entrySet( ) )
+			{
+				IOUtil.writeString( out, entry.getKey( ) );
+				IOUtil.writeString( out, entry.getValue( ) );
+			}
+			writeConfigurations( out, config.children );
+		}
+	}
+
+	protected ConfigurationElement[] readConfigurations( DataInputStream in,
+			Object parent ) throws IOException
+	{
+		int count = IOUtil.readInt( in );
+		ConfigurationElement[] configs = new ConfigurationElement[count];
+		for ( int i = 0; i < count; i++ )
+		{
+			ConfigurationElement config = new ConfigurationElement( );
+			config.parent = parent;
+			config.name = IOUtil.readString( in );
+			int attrCount = IOUtil.readInt( in );
+			config.attributes = new HashMap<String, String>( );
+			for ( int j = 0; j < attrCount; j++ )
+			{
+				String name = IOUtil.readString( in );
+				config.attributes.put( name, IOUtil.readString( in ) );
+			}
+			config.children = readConfigurations( in, config );
+			configs[i] = config;
+		}
+		return configs;
+	}
+}
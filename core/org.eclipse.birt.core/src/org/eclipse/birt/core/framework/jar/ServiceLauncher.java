@@ -11,9 +11,12 @@
 
 package org.eclipse.birt.core.framework.jar;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -32,6 +35,14 @@ public class ServiceLauncher extends PlatformLauncher
 
 	static final String MANIFEST_ENTRY = "META-INF/MANIFEST.MF";
 
+	/**
+	 * the file to save the extension registry to, so the next start up needn't
+	 * parse the plugin.xml of all the bundles. It can be set by the platform
+	 * config or a system property, the value is a file or a file name. The
+	 * snapshot is rebuilt whenever the bundles in the class path change.
+	 */
+	public static final String REGISTRY_SNAPSHOT = "org.eclipse.birt.core.framework.jar.registrySnapshot"; //$NON-NLS-1$
+
 	static Logger logger = Logger.getLogger( Platform.class.getName( ) );
 
 	private ServicePlatform platform;
@@ -50,6 +61,7 @@ public class ServiceLauncher extends PlatformLauncher
 			Enumeration<URL> plugins = ServiceLauncher.class.getClassLoader( )
 					.getResources( MANIFEST_ENTRY );
 
+			ArrayList<URL> roots = new ArrayList<URL>( );
 			while ( plugins.hasMoreElements( ) )
 			{
 				// the wsjar:// URL in websphere doesn't support .. to get the
@@ -67,14 +79,67 @@ public class ServiceLauncher extends PlatformLauncher
 				{
 					root = new URL( url, ".." );
 				}
+				roots.add( root );
+			}
+
+			RegistrySnapshot snapshot = null;
+			long checksum = 0;
+			List<Bundle> bundles = null;
+			File snapshotFile = getSnapshotFile( config );
+			if ( snapshotFile != null )
+			{
+				snapshot = new RegistrySnapshot( platform, snapshotFile );
+				checksum = snapshot.getChecksum( roots );
 				try
 				{
-					platform.installBundle( root );
+					bundles = snapshot.load( checksum );
+				}
+				catch ( IOException ex )
+				{
+					logger.log( Level.WARNING, "Failed to load the registry snapshot from "
+							+ snapshotFile, ex );
+				}
+			}
+
+			if ( bundles != null )
+			{
+				for ( Bundle bundle : bundles )
+				{
+					platform.addBundle( bundle );
+				}
+			}
+			else
+			{
+				bundles = new ArrayList<Bundle>( );
+				for ( URL root : roots )
+				{
+					try
+					{
+						Bundle bundle = new BundleLoader( platform, root )
+								.load( );
+						if ( bundle != null )
+						{
+							platform.addBundle( bundle );
+							bundles.add( bundle );
+						}
+					}
+					catch ( Exception ex )
+					{
+						logger.log( Level.WARNING, "Failed to install plugin from "
+								+ root, ex );
+					}
 				}
-				catch ( Exception ex )
+				if ( snapshot != null )
 				{
-					logger.log( Level.WARNING, "Failed to install plugin from "
-							+ root, ex );
+					try
+					{
+						snapshot.save( bundles, checksum );
+					}
+					catch ( IOException ex )
+					{
+						logger.log( Level.WARNING, "Failed to save the registry snapshot to "
+								+ snapshotFile, ex );
+					}
 				}
 			}
 			platform.startup( );
@@ -103,6 +168,28 @@ public class ServiceLauncher extends PlatformLauncher
 
 	}
 
+	/**
+	 * Returns the snapshot file defined by the platform config or the system
+	 * property, null if the snapshot isn't used.
+	 */
+	protected File getSnapshotFile( PlatformConfig config )
+	{
+		Object file = config.getProperty( REGISTRY_SNAPSHOT );
+		if ( file == null )
+		{
+			file = System.getProperty( REGISTRY_SNAPSHOT );
+		}
+		if ( file instanceof File )
+		{
+			return (File) file;
+		}
+		if ( file instanceof String && ( (String) file ).length( ) > 0 )
+		{
+			return new File( (String) file );
+		}
+		return null;
+	}
+
 	public void shutdown( )
 	{
 		Platform.setPlatform( null );
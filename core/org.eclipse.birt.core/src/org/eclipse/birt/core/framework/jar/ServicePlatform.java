@@ -57,11 +57,16 @@ public class ServicePlatform implements IPlatform
 		Bundle bundle = new BundleLoader( this, root ).load( );
 		if ( bundle != null )
 		{
-			bundles.put( bundle.getSymbolicName( ), bundle );
-			extensionRegistry.addBundle( bundle );
+			addBundle( bundle );
 		}
 	}
 
+	void addBundle( Bundle bundle )
+	{
+		bundles.put( bundle.getSymbolicName( ), bundle );
+		extensionRegistry.addBundle( bundle );
+	}
+
 	public IBundle getBundle( String symbolicName )
 	{
 		return bundles.get( symbolicName );
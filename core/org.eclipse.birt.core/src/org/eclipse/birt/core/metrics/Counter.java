@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread safe counter, which can be incremented and decremented.
+ */
+public class Counter extends Metric
+{
+
+	private final AtomicLong count = new AtomicLong( );
+
+	public void inc( )
+	{
+		count.incrementAndGet( );
+	}
+
+	public void inc( long n )
+	{
+		count.addAndGet( n );
+	}
+
+	public void dec( )
+	{
+		count.decrementAndGet( );
+	}
+
+	public long getCount( )
+	{
+		return count.get( );
+	}
+
+	public void collect( String name, Map<String, Number> values )
+	{
+		values.put( name, Long.valueOf( count.get( ) ) );
+	}
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.Map;
+
+/**
+ * A metric whose value is read from the monitored object when the metric is
+ * collected, for example the size of a cache.
+ */
+public abstract class Gauge extends Metric
+{
+
+	public abstract long getValue( );
+
+	public void collect( String name, Map<String, Number> values )
+	{
+		values.put( name, Long.valueOf( getValue( ) ) );
+	}
+}
@@ -0,0 +1,24 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+/**
+ * Listener notified when a metric is added to or removed from a metric
+ * registry. It is used to plug the registry into another monitoring system.
+ */
+public interface IMetricRegistryListener
+{
+
+	void metricAdded( String name, Metric metric );
+
+	void metricRemoved( String name, Metric metric );
+}
@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.Map;
+
+/**
+ * A metric of the metric registry. A metric outputs one or more values, each
+ * value is named by the name of the metric and an optional suffix.
+ */
+public abstract class Metric
+{
+
+	/**
+	 * output the current values of the metric.
+	 * 
+	 * @param name
+	 *            the name the metric is registered with.
+	 * @param values
+	 *            the map to put the values in.
+	 */
+	public abstract void collect( String name, Map<String, Number> values );
+}
@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A registry of named metrics. The components of BIRT publish their counters,
+ * gauges and timers into the default registry, whose values are pulled by
+ * getValues() or exported to JMX by MetricRegistryMBean. A monitoring system
+ * can be plugged in by a registry listener.
+ * <p>
+ * The metric names are dot separated, the first part is the component which
+ * publishes the metric, for example "engine.tasks.running".
+ */
+public class MetricRegistry
+{
+
+	private static final MetricRegistry defaultRegistry = new MetricRegistry( );
+
+	private final ConcurrentHashMap<String, Metric> metrics = new ConcurrentHashMap<String, Metric>( );
+
+	private final CopyOnWriteArrayList<IMetricRegistryListener> listeners = new CopyOnWriteArrayList<IMetricRegistryListener>( );
+
+	private volatile boolean detailed;
+
+	/**
+	 * @return the registry shared by all the components of BIRT.
+	 */
+	public static MetricRegistry getDefault( )
+	{
+		return defaultRegistry;
+	}
+
+	/**
+	 * @return true if the detailed metrics are recorded.
+	 */
+	public boolean isDetailed( )
+	{
+		return detailed;
+	}
+
+	/**
+	 * enable or disable the detailed metrics. They are updated in the hot
+	 * paths, for example for each evaluated expression, so the components
+	 * skip them, and their timing, unless they are enabled. They are disabled
+	 * by default.
+	 */
+	public void setDetailed( boolean detailed )
+	{
+		this.detailed = detailed;
+	}
+
+	/**
+	 * get the counter of the name, the counter is created if it doesn't exist.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if another kind of metric is registered with the name.
+	 */
+	public Counter counter( String name )
+	{
+		Metric metric = metrics.get( name );
+		if ( metric == null )
+		{
+			metric = add( name, new Counter( ) );
+		}
+		if ( metric instanceof Counter )
+		{
+			return (Counter) metric;
+		}
+		throw new IllegalArgumentException( name + " is not a counter" ); //$NON-NLS-1$
+	}
+
+	/**
+	 * get the timer of the name, the timer is created if it doesn't exist.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if another kind of metric is registered with the name.
+	 */
+	public Timer timer( String name )
+	{
+		Metric metric = metrics.get( name );
+		if ( metric == null )
+		{
+			metric = add( name, new Timer( ) );
+		}
+		if ( metric instanceof Timer )
+		{
+			return (Timer) metric;
+		}
+		throw new IllegalArgumentException( name + " is not a timer" ); //$NON-NLS-1$
+	}
+
+	/**
+	 * register a metric, for example a gauge. The metric replaces the metric
+	 * registered with the same name.
+	 */
+	public void register( String name, Metric metric )
+	{
+		Metric old = metrics.put( name, metric );
+		for ( IMetricRegistryListener listener : listeners )
+		{
+			if ( old != null )
+			{
+				listener.metricRemoved( name, old );
+			}
+			listener.metricAdded( name, metric );
+		}
+	}
+
+	/**
+	 * remove the metric of the name.
+	 *
+	 * @return the removed metric, null if no metric is registered with the
+	 *         name.
+	 */
+	public Metric remove( String name )
+	{
+		Metric metric = metrics.remove( name );
+		if ( metric != null )
+		{
+			for ( IMetricRegistryListener listener : listeners )
+			{
+				listener.metricRemoved( name, metric );
+			}
+		}
+		return metric;
+	}
+
+	public Metric getMetric( String name )
+	{
+		return metrics.get( name );
+	}
+
+	/**
+	 * @return the names of the registered metrics, sorted.
+	 */
+	public SortedSet<String> getNames( )
+	{
+		return new TreeSet<String>( metrics.keySet( ) );
+	}
+
+	/**
+	 * collect the current values of all the metrics.
+	 *
+	 * @return the values sorted by name. A counter or a gauge has one value
+	 *         named by the metric, a timer has the values named by the metric
+	 *         followed by ".count", ".total", ".mean", ".max", ".p50", ".p95"
+	 *         and ".p99", the times are in nanoseconds.
+	 */
+	public SortedMap<String, Number> getValues( )
+	{
+		SortedMap<String, Number> values = new TreeMap<String, Number>( );
+		for ( Map.Entry<String, Metric> entry : metrics.entrySet( ) )
+		{
+			entry.getValue( ).collect( entry.getKey( ), values );
+		}
+		return values;
+	}
+
+	/**
+	 * add a listener, which is notified of the metrics registered before too.
+	 */
+	public void addListener( IMetricRegistryListener listener )
+	{
+		listeners.add( listener );
+		for ( Map.Entry<String, Metric> entry : metrics.entrySet( ) )
+		{
+			listener.metricAdded( entry.getKey( ), entry.getValue( ) );
+		}
+	}
+
+	public void removeListener( IMetricRegistryListener listener )
+	{
+		listeners.remove( listener );
+	}
+
+	private Metric add( String name, Metric metric )
+	{
+		Metric old = metrics.putIfAbsent( name, metric );
+		if ( old != null )
+		{
+			return old;
+		}
+		for ( IMetricRegistryListener listener : listeners )
+		{
+			listener.metricAdded( name, metric );
+		}
+		return metric;
+	}
+}
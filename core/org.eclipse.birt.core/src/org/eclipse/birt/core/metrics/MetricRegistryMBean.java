@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.RuntimeOperationsException;
+
+/**
+ * Exports the values of a metric registry to JMX as the read only attributes
+ * of a dynamic MBean. The attributes are the values of
+ * MetricRegistry.getValues(), so the metrics registered later are exported
+ * too.
+ */
+public class MetricRegistryMBean implements DynamicMBean
+{
+
+	/**
+	 * the name of the MBean of the default registry.
+	 */
+	public static final String DEFAULT_OBJECT_NAME = "org.eclipse.birt:type=Metrics"; //$NON-NLS-1$
+
+	private static Logger logger = Logger.getLogger( MetricRegistryMBean.class
+			.getName( ) );
+
+	private final MetricRegistry registry;
+
+	public MetricRegistryMBean( MetricRegistry registry )
+	{
+		this.registry = registry;
+	}
+
+	/**
+	 * register the MBean of the default registry into the platform MBean
+	 * server. Nothing is done if it has been registered.
+	 *
+	 * @return true if the MBean is registered.
+	 */
+	public static synchronized boolean registerDefault( )
+	{
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer( );
+			ObjectName name = new ObjectName( DEFAULT_OBJECT_NAME );
+			if ( !server.isRegistered( name ) )
+			{
+				server.registerMBean( new MetricRegistryMBean( MetricRegistry
+						.getDefault( ) ), name );
+			}
+			return true;
+		}
+		catch ( JMException ex )
+		{
+			logger.log( Level.WARNING, "Failed to register the metrics MBean", //$NON-NLS-1$
+					ex );
+			return false;
+		}
+	}
+
+	/**
+	 * unregister the MBean of the default registry from the platform MBean
+	 * server.
+	 */
+	public static synchronized void unregisterDefault( )
+	{
+		try
+		{
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer( );
+			ObjectName name = new ObjectName( DEFAULT_OBJECT_NAME );
+			if ( server.isRegistered( name ) )
+			{
+				server.unregisterMBean( name );
+			}
+		}
+		catch ( JMException ex )
+		{
+			logger.log( Level.WARNING,
+					"Failed to unregister the metrics MBean", ex ); //$NON-NLS-1$
+		}
+	}
+
+	public Object getAttribute( String attribute )
+			throws AttributeNotFoundException
+	{
+		Number value = registry.getValues( ).get( attribute );
+		if ( value == null )
+		{
+			throw new AttributeNotFoundException( attribute );
+		}
+		return value;
+	}
+
+	public AttributeList getAttributes( String[] attributes )
+	{
+		Map<String, Number> values = registry.getValues( );
+		AttributeList list = new AttributeList( );
+		for ( String attribute : attributes )
+		{
+			Number value = values.get( attribute );
+			if ( value != null )
+			{
+				list.add( new Attribute( attribute, value ) );
+			}
+		}
+		return list;
+	}
+
+	public MBeanInfo getMBeanInfo( )
+	{
+		List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>( );
+		for ( Map.Entry<String, Number> entry : registry.getValues( )
+				.entrySet( ) )
+		{
+			attributes.add( new MBeanAttributeInfo( entry.getKey( ), entry
+					.getValue( ).getClass( ).getName( ), entry.getKey( ),
+					true, false, false ) );
+		}
+		return new MBeanInfo( getClass( ).getName( ),
+				"BIRT metrics", //$NON-NLS-1$
+				attributes.toArray( new MBeanAttributeInfo[attributes.size( )] ),
+				null,
+				new MBeanOperationInfo[0],
+				null );
+	}
+
+	public Object invoke( String actionName, Object[] params, String[] signature )
+			throws ReflectionException
+	{
+		throw new ReflectionException( new NoSuchMethodException( actionName ) );
+	}
+
+	public void setAttribute( Attribute attribute )
+			throws AttributeNotFoundException
+	{
+		throw new AttributeNotFoundException( attribute.getName( ) );
+	}
+
+	/**
+	 * the attributes are read only, no attribute is set.
+	 * 
+	 * @throws RuntimeOperationsException
+	 *             if any attribute is given.
+	 */
+	public AttributeList setAttributes( AttributeList attributes )
+	{
+		if ( attributes != null && !attributes.isEmpty( ) )
+		{
+			Attribute attribute = (Attribute) attributes.get( 0 );
+			throw new RuntimeOperationsException(
+					new IllegalArgumentException( attribute.getName( )
+							+ " is read only" ) ); //$NON-NLS-1$
+		}
+		return new AttributeList( );
+	}
+}
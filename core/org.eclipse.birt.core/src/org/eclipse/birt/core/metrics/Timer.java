@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread safe timer which records durations in nanoseconds. Besides the
+ * count, the total and the maximum, it keeps a histogram of the durations
+ * whose buckets are the powers of 2, so a percentile is an upper bound within
+ * twice the exact value. Updating the timer doesn't allocate objects.
+ */
+public class Timer extends Metric
+{
+
+	private static final int BUCKET_COUNT = 64;
+
+	private final AtomicLong count = new AtomicLong( );
+	private final AtomicLong total = new AtomicLong( );
+	private final AtomicLong max = new AtomicLong( );
+	private final AtomicLongArray buckets = new AtomicLongArray( BUCKET_COUNT );
+
+	/**
+	 * record a duration.
+	 *
+	 * @param duration
+	 *            the duration in nanoseconds, a negative duration is ignored.
+	 */
+	public void update( long duration )
+	{
+		if ( duration < 0 )
+		{
+			return;
+		}
+		count.incrementAndGet( );
+		total.addAndGet( duration );
+		buckets.incrementAndGet( getBucket( duration ) );
+		long current = max.get( );
+		while ( duration > current )
+		{
+			if ( max.compareAndSet( current, duration ) )
+			{
+				break;
+			}
+			current = max.get( );
+		}
+	}
+
+	/**
+	 * record the duration since the start time.
+	 *
+	 * @param startTime
+	 *            the start time returned by System.nanoTime().
+	 */
+	public void updateSince( long startTime )
+	{
+		update( System.nanoTime( ) - startTime );
+	}
+
+	public long getCount( )
+	{
+		return count.get( );
+	}
+
+	public long getTotalTime( )
+	{
+		return total.get( );
+	}
+
+	public long getMaxTime( )
+	{
+		return max.get( );
+	}
+
+	public double getMeanTime( )
+	{
+		long n = count.get( );
+		return n == 0 ? 0 : (double) total.get( ) / n;
+	}
+
+	/**
+	 * get the upper bound of a percentile of the durations.
+	 *
+	 * @param quantile
+	 *            the quantile, between 0 and 1.
+	 * @return the upper bound of the bucket which contains the percentile,
+	 *         limited by the maximum duration; 0 if no duration is recorded.
+	 */
+	public long getPercentile( double quantile )
+	{
+		long n = 0;
+		long[] counts = new long[BUCKET_COUNT];
+		for ( int i = 0; i < BUCKET_COUNT; i++ )
+		{
+			counts[i] = buckets.get( i );
+			n += counts[i];
+		}
+		if ( n == 0 )
+		{
+			return 0;
+		}
+		long rank = (long) Math.ceil( quantile * n );
+		long seen = 0;
+		for ( int i = 0; i < BUCKET_COUNT; i++ )
+		{
+			seen += counts[i];
+			if ( seen >= rank && counts[i] > 0 )
+			{
+				long bound = i >= 62 ? Long.MAX_VALUE : ( 2L << i ) - 1;
+				return Math.min( bound, max.get( ) );
+			}
+		}
+		return max.get( );
+	}
+
+	public void collect( String name, Map<String, Number> values )
+	{
+		values.put( name + ".count", Long.valueOf( getCount( ) ) ); //$NON-NLS-1$
+		values.put( name + ".total", Long.valueOf( getTotalTime( ) ) ); //$NON-NLS-1$
+		values.put( name + ".mean", Double.valueOf( getMeanTime( ) ) ); //$NON-NLS-1$
+		values.put( name + ".max", Long.valueOf( getMaxTime( ) ) ); //$NON-NLS-1$
+		values.put( name + ".p50", Long.valueOf( getPercentile( 0.5 ) ) ); //$NON-NLS-1$
+		values.put( name + ".p95", Long.valueOf( getPercentile( 0.95 ) ) ); //$NON-NLS-1$
+		values.put( name + ".p99", Long.valueOf( getPercentile( 0.99 ) ) ); //$NON-NLS-1$
+	}
+
+	/**
+	 * the bucket i contains the durations from 2^i to 2^(i+1) - 1, the bucket
+	 * 0 contains 0 too.
+	 */
+	private static int getBucket( long duration )
+	{
+		return duration == 0 ? 0 : 63 - Long.numberOfLeadingZeros( duration );
+	}
+}
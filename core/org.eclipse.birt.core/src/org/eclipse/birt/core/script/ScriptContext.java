@@ -20,12 +20,23 @@ import java.util.Map.Entry;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.exception.CoreException;
 import org.eclipse.birt.core.i18n.ResourceConstants;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.core.metrics.Timer;
 
 import com.ibm.icu.util.TimeZone;
 
 public class ScriptContext implements IScriptContext
 {
 
+	private static final MetricRegistry METRICS = MetricRegistry.getDefault( );
+
+	/**
+	 * a detailed metric, it is updated only if the detailed metrics are
+	 * enabled.
+	 */
+	private static final Timer EVALUATE_TIMER = METRICS
+			.timer( "script.evaluate" ); //$NON-NLS-1$
+
 	private Locale locale = Locale.getDefault( );
 	private TimeZone timeZone = TimeZone.getDefault( );
 	private ClassLoader applicationClassLoader;
@@ -156,7 +167,19 @@ public class ScriptContext implements IScriptContext
 	public Object evaluate( ICompiledScript script ) throws BirtException
 	{
 		IScriptEngine engine = getScriptEngine( script.getLanguage( ) );
-		return engine.evaluate( this, script );
+		if ( !METRICS.isDetailed( ) )
+		{
+			return engine.evaluate( this, script );
+		}
+		long start = System.nanoTime( );
+		try
+		{
+			return engine.evaluate( this, script );
+		}
+		finally
+		{
+			EVALUATE_TIMER.updateSince( start );
+		}
 	}
 
 	public void setLocale( Locale locale )
@@ -419,6 +419,55 @@ public class IOUtil
 		outputStream.writeLong( value );
 	}
 
+	/**
+	 * Read a variable length encoded long value from an input stream. The
+	 * value must be written by <code>writeVarLong</code>.
+	 *
+	 * @param inputStream
+	 * @return long value
+	 * @throws IOException
+	 */
+	public final static long readVarLong( InputStream inputStream )
+			throws IOException
+	{
+		long value = 0;
+		int shift = 0;
+		while ( shift < 64 )
+		{
+			int ch = inputStream.read( );
+			if ( ch == -1 )
+			{
+				throw new EOFException( );
+			}
+			value |= (long) ( ch & 0x7F ) << shift;
+			if ( ( ch & 0x80 ) == 0 )
+			{
+				return value;
+			}
+			shift += 7;
+		}
+		throw new IOException( "Malformed variable length long" );
+	}
+
+	/**
+	 * Write a long value to an output stream using 7 bits per byte, so small
+	 * positive values take one or two bytes instead of eight.
+	 *
+	 * @param outputStream
+	 * @param value
+	 * @throws IOException
+	 */
+	public final static void writeVarLong( OutputStream outputStream,
+			long value ) throws IOException
+	{
+		while ( ( value & ~0x7FL ) != 0 )
+		{
+			outputStream.write( (int) ( ( value & 0x7F ) | 0x80 ) );
+			value >>>= 7;
+		}
+		outputStream.write( (int) value );
+	}
+
 	/**
 	 * Write a byte array to an output stream only with its raw content.
 	 * 
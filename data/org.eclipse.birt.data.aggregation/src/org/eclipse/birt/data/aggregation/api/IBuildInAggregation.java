@@ -49,5 +49,9 @@ public interface IBuildInAggregation
 	public static final String TOTAL_RUNNINGCOUNT_FUNC = "RUNNINGCOUNT";//$NON-NLS-1$
 	public static final String TOTAL_CONCATENATE_FUNC = "CONCATENATE";//$NON-NLS-1$
 	public static final String TOTAL_RANGE_FUNC = "RANGE";//$NON-NLS-1$
+	public static final String TOTAL_APPROX_COUNTDISTINCT_FUNC = "APPROXCOUNTDISTINCT";//$NON-NLS-1$
+	public static final String TOTAL_APPROX_MEDIAN_FUNC = "APPROXMEDIAN";//$NON-NLS-1$
+	public static final String TOTAL_APPROX_PERCENTILE_FUNC = "APPROXPERCENTILE";//$NON-NLS-1$
+	public static final String TOTAL_APPROX_QUARTILE_FUNC = "APPROXQUARTILE";//$NON-NLS-1$
 
 }
\ No newline at end of file
@@ -46,6 +46,23 @@ public class NumberCalculator implements ICalculator
 		return (Double) a + (Double) b;
 	}
 
+	/**
+	 * Adds two primitive values the same way as add(Object, Object): if one of
+	 * them is NaN or infinite, the result is NaN.
+	 * 
+	 * @param a
+	 * @param b
+	 * @return the sum
+	 */
+	public static double add( double a, double b )
+	{
+		if ( Double.isNaN( a )
+				|| Double.isInfinite( a ) || Double.isNaN( b )
+				|| Double.isInfinite( b ) )
+			return Double.NaN;
+		return a + b;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
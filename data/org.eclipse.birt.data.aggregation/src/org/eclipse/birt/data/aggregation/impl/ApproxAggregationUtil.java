@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Utility methods shared by the approximate aggregations.
+ */
+class ApproxAggregationUtil
+{
+
+	/** name of the optional relative error parameter */
+	static final String ERROR_NAME = "error"; //$NON-NLS-1$
+
+	private ApproxAggregationUtil( )
+	{
+	}
+
+	/**
+	 * @return the definition of the optional relative error parameter
+	 */
+	static ParameterDefn newErrorParameterDefn( )
+	{
+		return new ParameterDefn( ERROR_NAME,
+				Messages.getString( "Approx.param.error" ), //$NON-NLS-1$
+				true,
+				false,
+				SupportedDataTypes.CALCULATABLE,
+				"" ); //$NON-NLS-1$
+	}
+
+	/**
+	 * Returns the relative error of the approximation.
+	 * 
+	 * @param args
+	 *            the arguments of the aggregation
+	 * @param index
+	 *            index of the error argument
+	 * @param defaultError
+	 *            used if the argument isn't specified
+	 * @return the error, greater than 0 and less than 1
+	 * @throws DataException
+	 */
+	static double getError( Object[] args, int index, double defaultError )
+			throws DataException
+	{
+		if ( args.length <= index || args[index] == null )
+		{
+			return defaultError;
+		}
+		double error;
+		try
+		{
+			error = DataTypeUtil.toDouble( args[index] ).doubleValue( );
+		}
+		catch ( BirtException e )
+		{
+			throw DataException.wrap( new AggrException( ResourceConstants.INVALID_APPROXIMATE_ERROR_ARGUMENT,
+					e ) );
+		}
+		if ( !( error > 0 && error < 1 ) )
+		{
+			throw DataException.wrap( new AggrException( ResourceConstants.INVALID_APPROXIMATE_ERROR_ARGUMENT ) );
+		}
+		return error;
+	}
+}
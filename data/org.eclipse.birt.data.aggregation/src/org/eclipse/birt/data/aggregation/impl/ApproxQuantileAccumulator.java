@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.birt.data.aggregation.calculator.ICalculator;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Accumulator of the approximate median, percentile and quartile. Instead of
+ * caching all the values as PercentileAccumulator, the values are added to a
+ * QuantileSketch, so the memory is bounded whatever the row count. The result
+ * is exact while the row count doesn't exceed the sketch capacity.
+ */
+abstract class ApproxQuantileAccumulator extends SummaryAccumulator
+		implements
+			IMergeableAccumulator
+{
+
+	/** default normalized rank error */
+	static final double DEFAULT_ERROR = 0.01;
+
+	private QuantileSketch sketch;
+	private double fraction;
+	private Object ret;
+
+	ApproxQuantileAccumulator( ICalculator calc )
+	{
+		super( calc );
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#start()
+	 */
+	public void start( )
+	{
+		super.start( );
+		sketch = null;
+		fraction = -1;
+		ret = null;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.Accumulator#onRow(java.lang.Object[])
+	 */
+	public void onRow( Object[] args ) throws DataException
+	{
+		assert ( args.length > 0 );
+		if ( sketch == null )
+		{
+			fraction = getFraction( args );
+			sketch = new QuantileSketch( QuantileSketch.getK( ApproxAggregationUtil.getError( args,
+					getErrorIndex( ),
+					DEFAULT_ERROR ) ) );
+		}
+		if ( args[0] != null )
+		{
+			Object value = calculator.getTypedObject( args[0] );
+			if ( value != null )
+			{
+				sketch.add( ( (Number) value ).doubleValue( ) );
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+	 */
+	public void merge( Accumulator other )
+	{
+		ApproxQuantileAccumulator acc = (ApproxQuantileAccumulator) other;
+		merge( acc.sketch, acc.fraction );
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+	 */
+	public void saveState( DataOutputStream out ) throws IOException
+	{
+		out.writeBoolean( sketch != null );
+		if ( sketch != null )
+		{
+			out.writeDouble( fraction );
+			sketch.write( out );
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+	 */
+	public void mergeState( DataInputStream in ) throws IOException
+	{
+		if ( in.readBoolean( ) )
+		{
+			double otherFraction = in.readDouble( );
+			merge( QuantileSketch.read( in ), otherFraction );
+		}
+	}
+
+	private void merge( QuantileSketch other, double otherFraction )
+	{
+		if ( other == null )
+		{
+			return;
+		}
+		if ( sketch == null )
+		{
+			fraction = otherFraction;
+			sketch = new QuantileSketch( other.getK( ) );
+		}
+		sketch.merge( other );
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#finish()
+	 */
+	public void finish( ) throws DataException
+	{
+		if ( sketch != null && sketch.getCount( ) > 0 )
+		{
+			ret = calculator.getTypedObject( Double.valueOf( sketch.getQuantile( fraction ) ) );
+		}
+		super.finish( );
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#getSummaryValue()
+	 */
+	public Object getSummaryValue( )
+	{
+		return ret;
+	}
+
+	/**
+	 * @param args
+	 *            the arguments of the first row
+	 * @return the fraction of the quantile, between 0 and 1
+	 * @throws DataException
+	 */
+	protected abstract double getFraction( Object[] args ) throws DataException;
+
+	/**
+	 * @return the index of the optional error argument
+	 */
+	protected abstract int getErrorIndex( );
+}
@@ -144,6 +144,23 @@ public class BuildInAggregationFactory implements IAggregationFactory
 		final TotalRange totalRange = new TotalRange( );
 		aggrMap.put( IBuildInAggregation.TOTAL_RANGE_FUNC, totalRange );
 		aggregations.add( totalRange );
+
+		final TotalApproxCountDistinct totalApproxCountDistinct = new TotalApproxCountDistinct( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC,
+				totalApproxCountDistinct );
+		aggregations.add( totalApproxCountDistinct );
+		final TotalApproxMedian totalApproxMedian = new TotalApproxMedian( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC,
+				totalApproxMedian );
+		aggregations.add( totalApproxMedian );
+		final TotalApproxPercentile totalApproxPercentile = new TotalApproxPercentile( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC,
+				totalApproxPercentile );
+		aggregations.add( totalApproxPercentile );
+		final TotalApproxQuartile totalApproxQuartile = new TotalApproxQuartile( );
+		aggrMap.put( IBuildInAggregation.TOTAL_APPROX_QUARTILE_FUNC,
+				totalApproxQuartile );
+		aggregations.add( totalApproxQuartile );
 	}
 
 	/**
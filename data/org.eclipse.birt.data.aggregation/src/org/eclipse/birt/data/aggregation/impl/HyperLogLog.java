@@ -0,0 +1,446 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * A HyperLogLog sketch that estimates the number of distinct values in a
+ * bounded amount of memory: at most 2^precision one byte registers. The
+ * relative standard error of the estimation is about 1.04 / sqrt(
+ * 2^precision ).
+ * <p>
+ * A sketch starts sparse, only the registers which are set are kept in a
+ * small hash table, as most groups have few distinct values. It switches to
+ * the dense registers once the table would take more memory than them.
+ *
+ * Two sketches of the same precision can be merged, the result is the same
+ * as if all the values were added to one sketch.
+ */
+public class HyperLogLog
+{
+
+	public static final int MIN_PRECISION = 4;
+	public static final int MAX_PRECISION = 18;
+
+	/**
+	 * the initial capacity of the sparse table, a power of 2
+	 */
+	private static final int SPARSE_CAPACITY = 8;
+
+	/**
+	 * the bits of the rank in a sparse entry, the rank is at most 64 -
+	 * MIN_PRECISION + 1
+	 */
+	private static final int RANK_BITS = 6;
+	private static final int RANK_MASK = ( 1 << RANK_BITS ) - 1;
+
+	private int precision;
+
+	/**
+	 * the dense registers, null while the sketch is sparse
+	 */
+	private byte[] registers;
+
+	/**
+	 * the sparse registers, an open addressing table of index << RANK_BITS |
+	 * rank, 0 for the empty slots. null once the sketch is dense.
+	 */
+	private int[] sparse;
+	private int sparseSize;
+
+	/**
+	 * @param precision
+	 *            the number of index bits, between MIN_PRECISION and
+	 *            MAX_PRECISION
+	 */
+	public HyperLogLog( int precision )
+	{
+		if ( precision < MIN_PRECISION || precision > MAX_PRECISION )
+		{
+			throw new IllegalArgumentException( "precision: " + precision ); //$NON-NLS-1$
+		}
+		this.precision = precision;
+		if ( isSparseSmaller( SPARSE_CAPACITY ) )
+		{
+			this.sparse = new int[SPARSE_CAPACITY];
+		}
+		else
+		{
+			this.registers = new byte[1 << precision];
+		}
+	}
+
+	/**
+	 * Returns the smallest precision whose standard error doesn't exceed the
+	 * given relative error.
+	 *
+	 * @param error
+	 *            relative standard error, greater than 0 and less than 1
+	 * @return the precision
+	 */
+	public static int getPrecision( double error )
+	{
+		double m = ( 1.04 / error ) * ( 1.04 / error );
+		int precision = (int) Math.ceil( Math.log( m ) / Math.log( 2 ) );
+		return Math.min( MAX_PRECISION, Math.max( MIN_PRECISION, precision ) );
+	}
+
+	public int getPrecision( )
+	{
+		return precision;
+	}
+
+	/**
+	 * Adds a non null value.
+	 *
+	 * @param value
+	 */
+	public void add( Object value )
+	{
+		addHash( hash( value ) );
+	}
+
+	/**
+	 * Adds a value by its 64 bits hash code.
+	 *
+	 * @param hash
+	 */
+	public void addHash( long hash )
+	{
+		int index = (int) ( hash >>> ( 64 - precision ) );
+		// the sentinel bit bounds the rank when the remaining bits are zero
+		long w = ( hash << precision ) | ( 1L << ( precision - 1 ) );
+		update( index, Long.numberOfLeadingZeros( w ) + 1 );
+	}
+
+	/**
+	 * Sets the register to the rank if the rank is greater.
+	 */
+	private void update( int index, int rank )
+	{
+		if ( registers != null )
+		{
+			if ( rank > registers[index] )
+			{
+				registers[index] = (byte) rank;
+			}
+			return;
+		}
+		// the index is taken from the top bits of the hash, so it is
+		// already spread over the table
+		int mask = sparse.length - 1;
+		int slot = index & mask;
+		while ( sparse[slot] != 0 )
+		{
+			if ( sparse[slot] >>> RANK_BITS == index )
+			{
+				if ( rank > ( sparse[slot] & RANK_MASK ) )
+				{
+					sparse[slot] = index << RANK_BITS | rank;
+				}
+				return;
+			}
+			slot = ( slot + 1 ) & mask;
+		}
+		sparse[slot] = index << RANK_BITS | rank;
+		sparseSize++;
+		if ( sparseSize * 2 > sparse.length )
+		{
+			// keeps the table at most half full
+			if ( isSparseSmaller( sparse.length * 2 ) )
+			{
+				int[] entries = sparse;
+				sparse = new int[entries.length * 2];
+				sparseSize = 0;
+				for ( int i = 0; i < entries.length; i++ )
+				{
+					if ( entries[i] != 0 )
+					{
+						update( entries[i] >>> RANK_BITS, entries[i]
+								& RANK_MASK );
+					}
+				}
+			}
+			else
+			{
+				toDense( );
+			}
+		}
+	}
+
+	/**
+	 * Checks if a sparse table of the capacity takes less memory than the
+	 * dense registers.
+	 */
+	private boolean isSparseSmaller( int capacity )
+	{
+		return capacity * 4 < 1 << precision;
+	}
+
+	private void toDense( )
+	{
+		if ( registers != null )
+		{
+			return;
+		}
+		registers = new byte[1 << precision];
+		for ( int i = 0; i < sparse.length; i++ )
+		{
+			if ( sparse[i] != 0 )
+			{
+				registers[sparse[i] >>> RANK_BITS] = (byte) ( sparse[i] & RANK_MASK );
+			}
+		}
+		sparse = null;
+		sparseSize = 0;
+	}
+
+	/**
+	 * @return true if the sketch keeps the registers set only
+	 */
+	public boolean isSparse( )
+	{
+		return registers == null;
+	}
+
+	/**
+	 * Merges the registers of another sketch into this one.
+	 *
+	 * @param other
+	 *            a sketch of the same precision
+	 */
+	public void merge( HyperLogLog other )
+	{
+		if ( other.precision != precision )
+		{
+			throw new IllegalArgumentException( "precision: " + other.precision ); //$NON-NLS-1$
+		}
+		if ( other.registers == null )
+		{
+			for ( int i = 0; i < other.sparse.length; i++ )
+			{
+				if ( other.sparse[i] != 0 )
+				{
+					update( other.sparse[i] >>> RANK_BITS, other.sparse[i]
+							& RANK_MASK );
+				}
+			}
+			return;
+		}
+		toDense( );
+		for ( int i = 0; i < registers.length; i++ )
+		{
+			if ( other.registers[i] > registers[i] )
+			{
+				registers[i] = other.registers[i];
+			}
+		}
+	}
+
+	/**
+	 * @return the estimated number of distinct values added
+	 */
+	public long estimate( )
+	{
+		int m = 1 << precision;
+		double sum = 0;
+		int zeros = 0;
+		if ( registers == null )
+		{
+			zeros = m - sparseSize;
+			sum = zeros;
+			for ( int i = 0; i < sparse.length; i++ )
+			{
+				if ( sparse[i] != 0 )
+				{
+					sum += 1.0 / ( 1L << ( sparse[i] & RANK_MASK ) );
+				}
+			}
+		}
+		else
+		{
+			for ( int i = 0; i < m; i++ )
+			{
+				sum += 1.0 / ( 1L << registers[i] );
+				if ( registers[i] == 0 )
+				{
+					zeros++;
+				}
+			}
+		}
+		double estimate = getAlpha( m ) * m * m / sum;
+		if ( zeros > 0 && estimate <= 2.5 * m )
+		{
+			// linear counting is more accurate for the small cardinalities
+			estimate = m * Math.log( (double) m / zeros );
+		}
+		return Math.round( estimate );
+	}
+
+	/**
+	 * Writes the sketch, it can be read by read(). A sparse sketch writes
+	 * only the registers which are set.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write( DataOutputStream out ) throws IOException
+	{
+		out.writeByte( precision );
+		out.writeBoolean( registers == null );
+		if ( registers == null )
+		{
+			out.writeInt( sparseSize );
+			for ( int i = 0; i < sparse.length; i++ )
+			{
+				if ( sparse[i] != 0 )
+				{
+					out.writeInt( sparse[i] );
+				}
+			}
+		}
+		else
+		{
+			out.write( registers );
+		}
+	}
+
+	/**
+	 * Reads a sketch written by write().
+	 *
+	 * @param in
+	 * @return the sketch
+	 * @throws IOException
+	 */
+	public static HyperLogLog read( DataInputStream in ) throws IOException
+	{
+		HyperLogLog sketch = new HyperLogLog( in.readByte( ) );
+		if ( in.readBoolean( ) )
+		{
+			int size = in.readInt( );
+			for ( int i = 0; i < size; i++ )
+			{
+				int entry = in.readInt( );
+				sketch.update( entry >>> RANK_BITS, entry & RANK_MASK );
+			}
+		}
+		else
+		{
+			sketch.toDense( );
+			in.readFully( sketch.registers );
+		}
+		return sketch;
+	}
+
+	/**
+	 * Returns the registers, a sparse sketch is switched to the dense
+	 * registers first.
+	 * 
+	 * @return the registers, shared with the sketch
+	 */
+	public byte[] getRegisters( )
+	{
+		toDense( );
+		return registers;
+	}
+
+	private static double getAlpha( int m )
+	{
+		switch ( m )
+		{
+			case 16 :
+				return 0.673;
+			case 32 :
+				return 0.697;
+			case 64 :
+				return 0.709;
+			default :
+				return 0.7213 / ( 1 + 1.079 / m );
+		}
+	}
+
+	/**
+	 * Returns a 64 bits hash of the value. Unlike hashCode, the hash of the
+	 * strings and the numbers is computed from all their bits so the large
+	 * cardinalities don't collide. The strings and the unscaled values of the
+	 * decimals are hashed by FNV-1a, then all the hashes are spread by the
+	 * same mixer.
+	 *
+	 * @param value
+	 * @return the hash
+	 */
+	public static long hash( Object value )
+	{
+		long h;
+		if ( value instanceof String )
+		{
+			String s = (String) value;
+			h = 0xcbf29ce484222325L;
+			for ( int i = 0; i < s.length( ); i++ )
+			{
+				h = ( h ^ s.charAt( i ) ) * 0x100000001b3L;
+			}
+		}
+		else if ( value instanceof Double || value instanceof Float )
+		{
+			h = Double.doubleToLongBits( ( (Number) value ).doubleValue( ) );
+		}
+		else if ( value instanceof Long
+				|| value instanceof Integer
+				|| value instanceof Short
+				|| value instanceof Byte )
+		{
+			h = ( (Number) value ).longValue( );
+		}
+		else if ( value instanceof BigDecimal )
+		{
+			BigDecimal d = (BigDecimal) value;
+			byte[] bytes = d.unscaledValue( ).toByteArray( );
+			h = 0xcbf29ce484222325L;
+			for ( int i = 0; i < bytes.length; i++ )
+			{
+				h = ( h ^ ( bytes[i] & 0xFF ) ) * 0x100000001b3L;
+			}
+			h = mix( h ) ^ d.scale( );
+		}
+		else if ( value instanceof Date )
+		{
+			h = ( (Date) value ).getTime( );
+		}
+		else
+		{
+			h = value.hashCode( );
+		}
+		// the values equal to each other only if they are of the same class
+		h ^= value.getClass( ).getName( ).hashCode( ) * 0xc2b2ae3d27d4eb4fL;
+		return mix( h );
+	}
+
+	/**
+	 * The finalizer of MurmurHash3, spreads every input bit to all the
+	 * output bits.
+	 */
+	private static long mix( long h )
+	{
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
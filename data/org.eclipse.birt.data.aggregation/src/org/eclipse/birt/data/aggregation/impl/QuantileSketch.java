@@ -0,0 +1,346 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * A KLL quantile sketch of double values. The values are kept in a hierarchy
+ * of compactors, a value in the compactor of level h stands for 2^h input
+ * values. When a compactor is full, it is sorted and every other value is
+ * promoted to the next level, so the memory is bounded by about 3k values
+ * whatever the number of values added, and the rank error of a quantile is
+ * about 2 / k of the value count.
+ *
+ * Until the first compaction all the values are kept, and the quantiles are
+ * exact. The compactions are driven by a random generator of a fixed seed,
+ * so the same values always give the same result.
+ */
+public class QuantileSketch
+{
+
+	public static final int MIN_K = 8;
+	public static final int MAX_K = 65535;
+
+	private static final double CAPACITY_DECAY = 2.0 / 3.0;
+	private static final long SEED = 0x5DEECE66DL;
+
+	private int k;
+	private double[][] levels;
+	private int[] sizes;
+	private int levelCount;
+	private long count;
+	private Random random = new Random( SEED );
+
+	/**
+	 * @param k
+	 *            the capacity of the top level compactor, between MIN_K and
+	 *            MAX_K
+	 */
+	public QuantileSketch( int k )
+	{
+		if ( k < MIN_K || k > MAX_K )
+		{
+			throw new IllegalArgumentException( "k: " + k ); //$NON-NLS-1$
+		}
+		this.k = k;
+		this.levels = new double[4][];
+		this.sizes = new int[4];
+		this.levelCount = 0;
+		grow( );
+	}
+
+	/**
+	 * Returns the compactor capacity for the given normalized rank error.
+	 *
+	 * @param error
+	 *            rank error, greater than 0 and less than 1
+	 * @return the capacity
+	 */
+	public static int getK( double error )
+	{
+		double k = Math.ceil( 2 / error );
+		return (int) Math.min( MAX_K, Math.max( MIN_K, k ) );
+	}
+
+	public int getK( )
+	{
+		return k;
+	}
+
+	/**
+	 * @return the number of values added
+	 */
+	public long getCount( )
+	{
+		return count;
+	}
+
+	/**
+	 * Adds a value, NaN is ignored.
+	 *
+	 * @param value
+	 */
+	public void add( double value )
+	{
+		if ( Double.isNaN( value ) )
+		{
+			return;
+		}
+		if ( sizes[0] >= capacity( 0 ) )
+		{
+			compress( );
+		}
+		ensureSize( 0, sizes[0] + 1 );
+		levels[0][sizes[0]++] = value;
+		count++;
+	}
+
+	/**
+	 * Merges another sketch into this one.
+	 *
+	 * @param other
+	 */
+	public void merge( QuantileSketch other )
+	{
+		while ( levelCount < other.levelCount )
+		{
+			grow( );
+		}
+		for ( int h = 0; h < other.levelCount; h++ )
+		{
+			ensureSize( h, sizes[h] + other.sizes[h] );
+			System.arraycopy( other.levels[h],
+					0,
+					levels[h],
+					sizes[h],
+					other.sizes[h] );
+			sizes[h] += other.sizes[h];
+		}
+		count += other.count;
+		compress( );
+	}
+
+	/**
+	 * Writes the sketch, it can be read by read().
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write( DataOutputStream out ) throws IOException
+	{
+		out.writeInt( k );
+		out.writeLong( count );
+		out.writeInt( levelCount );
+		for ( int h = 0; h < levelCount; h++ )
+		{
+			out.writeInt( sizes[h] );
+			for ( int i = 0; i < sizes[h]; i++ )
+			{
+				out.writeDouble( levels[h][i] );
+			}
+		}
+	}
+
+	/**
+	 * Reads a sketch written by write().
+	 *
+	 * @param in
+	 * @return the sketch
+	 * @throws IOException
+	 */
+	public static QuantileSketch read( DataInputStream in ) throws IOException
+	{
+		QuantileSketch sketch = new QuantileSketch( in.readInt( ) );
+		sketch.count = in.readLong( );
+		int levelCount = in.readInt( );
+		while ( sketch.levelCount < levelCount )
+		{
+			sketch.grow( );
+		}
+		for ( int h = 0; h < levelCount; h++ )
+		{
+			int size = in.readInt( );
+			sketch.ensureSize( h, size );
+			for ( int i = 0; i < size; i++ )
+			{
+				sketch.levels[h][i] = in.readDouble( );
+			}
+			sketch.sizes[h] = size;
+		}
+		return sketch;
+	}
+
+	/**
+	 * Returns the quantile by the linear interpolation between the values of
+	 * the closest ranks, which is the same as the Excel PERCENTILE function
+	 * when the sketch is exact.
+	 *
+	 * @param fraction
+	 *            between 0 and 1
+	 * @return the quantile, or NaN if the sketch is empty
+	 */
+	public double getQuantile( double fraction )
+	{
+		if ( count == 0 )
+		{
+			return Double.NaN;
+		}
+		int total = 0;
+		for ( int h = 0; h < levelCount; h++ )
+		{
+			total += sizes[h];
+		}
+		double[] values = new double[total];
+		long[] weights = new long[total];
+		sortByValue( values, weights );
+
+		double position = fraction * ( count - 1 );
+		long rank = (long) Math.floor( position );
+		double lower = valueAt( values, weights, rank );
+		double delta = position - rank;
+		if ( delta == 0 || rank + 1 >= count )
+		{
+			return lower;
+		}
+		return lower + delta * ( valueAt( values, weights, rank + 1 ) - lower );
+	}
+
+	/**
+	 * Collects the retained values sorted by value with their weights.
+	 */
+	private void sortByValue( double[] values, long[] weights )
+	{
+		// each level is sorted and then merged, which is cheaper than sorting
+		// the pairs
+		int size = 0;
+		for ( int h = 0; h < levelCount; h++ )
+		{
+			Arrays.sort( levels[h], 0, sizes[h] );
+			double[] merged = new double[size + sizes[h]];
+			long[] mergedWeights = new long[size + sizes[h]];
+			int i = 0, j = 0, n = 0;
+			while ( i < size || j < sizes[h] )
+			{
+				if ( j >= sizes[h] || ( i < size && values[i] <= levels[h][j] ) )
+				{
+					merged[n] = values[i];
+					mergedWeights[n++] = weights[i++];
+				}
+				else
+				{
+					merged[n] = levels[h][j++];
+					mergedWeights[n++] = 1L << h;
+				}
+			}
+			System.arraycopy( merged, 0, values, 0, n );
+			System.arraycopy( mergedWeights, 0, weights, 0, n );
+			size = n;
+		}
+	}
+
+	/**
+	 * @return the value whose weight covers the zero based rank
+	 */
+	private static double valueAt( double[] values, long[] weights, long rank )
+	{
+		long cumulative = 0;
+		for ( int i = 0; i < values.length; i++ )
+		{
+			cumulative += weights[i];
+			if ( rank < cumulative )
+			{
+				return values[i];
+			}
+		}
+		return values[values.length - 1];
+	}
+
+	private int capacity( int level )
+	{
+		int depth = levelCount - level - 1;
+		return Math.max( 2, (int) Math.ceil( Math.pow( CAPACITY_DECAY, depth ) * k ) );
+	}
+
+	private void grow( )
+	{
+		if ( levelCount == levels.length )
+		{
+			levels = Arrays.copyOf( levels, levelCount * 2 );
+			sizes = Arrays.copyOf( sizes, levelCount * 2 );
+		}
+		levels[levelCount] = new double[0];
+		sizes[levelCount] = 0;
+		levelCount++;
+	}
+
+	private void ensureSize( int level, int size )
+	{
+		if ( levels[level].length < size )
+		{
+			levels[level] = Arrays.copyOf( levels[level],
+					Math.max( size, Math.max( 8, levels[level].length * 2 ) ) );
+		}
+	}
+
+	/**
+	 * Compacts the full levels from the bottom, a compaction may fill the
+	 * next level.
+	 */
+	private void compress( )
+	{
+		for ( int h = 0; h < levelCount; h++ )
+		{
+			if ( sizes[h] >= capacity( h ) )
+			{
+				compact( h );
+			}
+		}
+	}
+
+	/**
+	 * Promotes the odd or even values of the sorted level to the next level,
+	 * the weight is kept as each promoted value stands for two values. A
+	 * value is left at the level if its size is odd.
+	 */
+	private void compact( int level )
+	{
+		if ( level + 1 == levelCount )
+		{
+			grow( );
+		}
+		double[] values = levels[level];
+		int size = sizes[level];
+		Arrays.sort( values, 0, size );
+		int pairs = size / 2;
+		int next = level + 1;
+		ensureSize( next, sizes[next] + pairs );
+		int offset = random.nextBoolean( ) ? 1 : 0;
+		for ( int i = 0; i < pairs; i++ )
+		{
+			levels[next][sizes[next]++] = values[2 * i + offset];
+		}
+		if ( size % 2 == 1 )
+		{
+			values[0] = values[size - 1];
+			sizes[level] = 1;
+		}
+		else
+		{
+			sizes[level] = 0;
+		}
+	}
+}
@@ -0,0 +1,207 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Implements the built-in Total.approxCountDistinct aggregation. Unlike
+ * Total.countDistinct, the distinct values are not kept but estimated by a
+ * HyperLogLog sketch, whose size depends only on the relative error.
+ */
+public class TotalApproxCountDistinct extends AggrFunction
+{
+
+	/** default relative standard error, 4K registers */
+	static final double DEFAULT_ERROR = 0.02;
+
+	public String getName( )
+	{
+		return IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC;
+	}
+
+	public int getType( )
+	{
+		return SUMMARY_AGGR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggregation#getDateType()
+	 */
+	public int getDataType( )
+	{
+		return DataType.INTEGER_TYPE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getParameterDefn()
+	 */
+	public IParameterDefn[] getParameterDefn( )
+	{
+		return new IParameterDefn[]{
+				new ParameterDefn( Constants.EXPRESSION_NAME,
+						Constants.EXPRESSION_DISPLAY_NAME,
+						false,
+						true,
+						SupportedDataTypes.ANY,
+						"" ), //$NON-NLS-1$
+				ApproxAggregationUtil.newErrorParameterDefn( )
+		};
+	}
+
+	public Accumulator newAccumulator( )
+	{
+		return new MyAccumulator( );
+	}
+
+	private static class MyAccumulator extends SummaryAccumulator
+			implements
+				IMergeableAccumulator
+	{
+
+		private HyperLogLog sketch;
+		private boolean hasNullValue = false;
+
+		public void start( )
+		{
+			super.start( );
+			sketch = null;
+			this.hasNullValue = false;
+		}
+
+		public void onRow( Object[] args ) throws DataException
+		{
+			assert ( args.length > 0 );
+			if ( sketch == null )
+			{
+				sketch = new HyperLogLog( HyperLogLog.getPrecision( ApproxAggregationUtil.getError( args,
+						1,
+						DEFAULT_ERROR ) ) );
+			}
+			if ( args[0] instanceof Comparable )
+			{
+				sketch.add( args[0] );
+			}
+			else if ( args[0] == null )
+			{
+				this.hasNullValue = true;
+			}
+			else
+			{
+				throw new DataException( ResourceConstants.UNSUPPORTED_DATA_TYPE,
+						args[0].getClass( ).getName( ) );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+		 */
+		public void merge( Accumulator other )
+		{
+			MyAccumulator acc = (MyAccumulator) other;
+			merge( acc.sketch, acc.hasNullValue );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+		 */
+		public void saveState( DataOutputStream out ) throws IOException
+		{
+			out.writeBoolean( hasNullValue );
+			out.writeBoolean( sketch != null );
+			if ( sketch != null )
+			{
+				sketch.write( out );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+		 */
+		public void mergeState( DataInputStream in ) throws IOException
+		{
+			boolean otherHasNullValue = in.readBoolean( );
+			merge( in.readBoolean( ) ? HyperLogLog.read( in ) : null,
+					otherHasNullValue );
+		}
+
+		private void merge( HyperLogLog other, boolean otherHasNullValue )
+		{
+			this.hasNullValue |= otherHasNullValue;
+			if ( other == null )
+			{
+				return;
+			}
+			if ( sketch == null )
+			{
+				sketch = new HyperLogLog( other.getPrecision( ) );
+			}
+			sketch.merge( other );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.eclipse.birt.data.aggregation.impl.SummaryAccumulator#getSummaryValue()
+		 */
+		public Object getSummaryValue( )
+		{
+			long count = sketch == null ? 0 : sketch.estimate( );
+			if ( this.hasNullValue )
+			{
+				count++;
+			}
+			return Integer.valueOf( (int) Math.min( Integer.MAX_VALUE, count ) );
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDescription()
+	 */
+	public String getDescription( )
+	{
+		return Messages.getString( "TotalApproxCountDistinct.description" ); //$NON-NLS-1$
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDisplayName()
+	 */
+	public String getDisplayName( )
+	{
+		return Messages.getString( "TotalApproxCountDistinct.displayName" ); //$NON-NLS-1$
+	}
+
+	/* (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.AggrFunction#getDefaultValue()
+	 */
+	public Object getDefaultValue( )
+	{
+		return Integer.valueOf( 0 );
+	}
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
+import org.eclipse.birt.data.aggregation.calculator.ICalculator;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+
+/**
+ * Implements the built-in Total.approxMedian aggregation, the median estimated
+ * by a quantile sketch of bounded memory.
+ */
+public class TotalApproxMedian extends AggrFunction
+{
+
+	public String getName( )
+	{
+		return IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC;
+	}
+
+	public int getType( )
+	{
+		return SUMMARY_AGGR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggregation#getDateType()
+	 */
+	public int getDataType( )
+	{
+		return DataType.DOUBLE_TYPE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getParameterDefn()
+	 */
+	public IParameterDefn[] getParameterDefn( )
+	{
+		return new IParameterDefn[]{
+				new ParameterDefn( Constants.EXPRESSION_NAME,
+						Constants.EXPRESSION_DISPLAY_NAME,
+						false,
+						true,
+						SupportedDataTypes.CALCULATABLE,
+						"" ), //$NON-NLS-1$
+				ApproxAggregationUtil.newErrorParameterDefn( )
+		};
+	}
+
+	public Accumulator newAccumulator( )
+	{
+		return new MyAccumulator( CalculatorFactory.getCalculator( getDataType( ) ) );
+	}
+
+	private static class MyAccumulator extends ApproxQuantileAccumulator
+	{
+
+		MyAccumulator( ICalculator calc )
+		{
+			super( calc );
+		}
+
+		protected double getFraction( Object[] args )
+		{
+			return 0.5;
+		}
+
+		protected int getErrorIndex( )
+		{
+			return 1;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDescription()
+	 */
+	public String getDescription( )
+	{
+		return Messages.getString( "TotalApproxMedian.description" ); //$NON-NLS-1$
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDisplayName()
+	 */
+	public String getDisplayName( )
+	{
+		return Messages.getString( "TotalApproxMedian.displayName" ); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.aggregation.impl;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
+import org.eclipse.birt.data.aggregation.calculator.ICalculator;
+import org.eclipse.birt.data.aggregation.i18n.Messages;
+import org.eclipse.birt.data.aggregation.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Implements the built-in Total.approxPercentile aggregation, the percentile
+ * estimated by a quantile sketch of bounded memory.
+ */
+public class TotalApproxPercentile extends AggrFunction
+{
+
+	public String getName( )
+	{
+		return IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC;
+	}
+
+	public int getType( )
+	{
+		return SUMMARY_AGGR;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggregation#getDataType()
+	 */
+	public int getDataType( )
+	{
+		return DataType.DOUBLE_TYPE;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getParameterDefn()
+	 */
+	public IParameterDefn[] getParameterDefn( )
+	{
+		return new IParameterDefn[]{
+				new ParameterDefn( Constants.EXPRESSION_NAME,
+						Constants.EXPRESSION_DISPLAY_NAME,
+						false,
+						true,
+						SupportedDataTypes.CALCULATABLE,
+						"" ), //$NON-NLS-1$
+				new ParameterDefn( "percentage", Messages.getString( "TotalPercentile.param.percentage" ), false, false, SupportedDataTypes.CALCULATABLE, "" ), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				ApproxAggregationUtil.newErrorParameterDefn( )
+		};
+	}
+
+	public Accumulator newAccumulator( )
+	{
+		return new MyAccumulator( CalculatorFactory.getCalculator( getDataType( ) ) );
+	}
+
+	private static class MyAccumulator extends ApproxQuantileAccumulator
+	{
+
+		MyAccumulator( ICalculator calc )
+		{
+			super( calc );
+		}
+
+		protected double getFraction( Object[] args ) throws DataException
+		{
+			Double pct = toDouble( args.length > 1 ? args[1] : null );
+			if ( pct == null
+					|| pct.isNaN( ) || pct.doubleValue( ) < 0
+					|| pct.doubleValue( ) > 1 )
+				throw DataException.wrap( new AggrException( ResourceConstants.INVALID_PERCENTILE_ARGUMENT ) );
+			return pct.doubleValue( );
+		}
+
+		protected int getErrorIndex( )
+		{
+			return 2;
+		}
+
+		private static Double toDouble( Object value ) throws DataException
+		{
+			try
+			{
+				return DataTypeUtil.toDouble( value );
+			}
+			catch ( BirtException e )
+			{
+				throw DataException.wrap( new AggrException( ResourceConstants.INVALID_PERCENTILE_ARGUMENT,
+						e ) );
+			}
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDescription()
+	 */
+	public String getDescription( )
+	{
+		return Messages.getString( "TotalApproxPercentile.description" ); //$NON-NLS-1$
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.eclipse.birt.data.engine.api.aggregation.IAggrFunction#getDisplayName()
+	 */
+	public String getDisplayName( )
+	{
+		return Messages.getString( "TotalApproxPercentile.displayName" ); //$NON-NLS-1$
+	}
+}
@@ -14,13 +14,22 @@
 
 package org.eclipse.birt.data.aggregation.impl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
 import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
 import org.eclipse.birt.data.aggregation.calculator.ICalculator;
+import org.eclipse.birt.data.aggregation.calculator.NumberCalculator;
 import org.eclipse.birt.data.aggregation.i18n.Messages;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 
 /**
@@ -70,10 +79,17 @@ public class TotalAve extends AggrFunction
 		return new MyAccumulator( CalculatorFactory.getCalculator( getDataType( ) ) );
 	}
 
+	/**
+	 * The sum is kept as a primitive, so the rows passed by the typed methods
+	 * are accumulated without allocation.
+	 */
 	private static class MyAccumulator extends SummaryAccumulator
+			implements
+				IMergeableAccumulator,
+				ITypedAccumulator
 	{
 
-		private Number sum = null;
+		private double sum = 0;
 
 		private int count = 0;
 		
@@ -85,7 +101,7 @@ public class TotalAve extends AggrFunction
 		public void start( )
 		{
 			super.start( );
-			sum = null;
+			sum = 0;
 			count = 0;
 		}
 
@@ -99,8 +115,93 @@ public class TotalAve extends AggrFunction
 			assert ( args.length > 0 );
 			if ( args[0] != null )
 			{
-				sum = calculator.add( sum, calculator.getTypedObject( args[0] ) );
-				count++;
+				add( ( (Number) calculator.getTypedObject( args[0] ) ).doubleValue( ), 1 );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDouble(double, boolean)
+		 */
+		public void onDouble( double value, boolean isNull )
+		{
+			if ( !isNull )
+			{
+				add( value, 1 );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onLong(long, boolean)
+		 */
+		public void onLong( long value, boolean isNull )
+		{
+			if ( !isNull )
+			{
+				add( value, 1 );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDecimal(java.math.BigDecimal, boolean)
+		 */
+		public void onDecimal( BigDecimal value, boolean isNull )
+				throws DataException
+		{
+			if ( !isNull )
+			{
+				add( ( (Number) calculator.getTypedObject( value ) ).doubleValue( ), 1 );
+			}
+		}
+
+		private void add( double value, int valueCount )
+		{
+			sum = count == 0 ? value : NumberCalculator.add( sum, value );
+			count += valueCount;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+		 */
+		public void merge( Accumulator other )
+		{
+			MyAccumulator acc = (MyAccumulator) other;
+			if ( acc.count > 0 )
+			{
+				add( acc.sum, acc.count );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+		 */
+		public void saveState( DataOutputStream out ) throws IOException
+		{
+			IOUtil.writeObject( out, count > 0 ? Double.valueOf( sum ) : null );
+			IOUtil.writeInt( out, count );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+		 */
+		public void mergeState( DataInputStream in ) throws IOException
+		{
+			Object value = IOUtil.readObject( in );
+			int valueCount = IOUtil.readInt( in );
+			if ( value != null && valueCount > 0 )
+			{
+				add( ( (Number) value ).doubleValue( ), valueCount );
 			}
 		}
 
@@ -113,7 +214,7 @@ public class TotalAve extends AggrFunction
 		{
 			if ( count > 0 )
 			{
-				return calculator.divide( sum, calculator.getTypedObject( count ) );
+				return calculator.divide( Double.valueOf( sum ), calculator.getTypedObject( count ) );
 			}
 			else
 			{
@@ -14,11 +14,20 @@
 
 package org.eclipse.birt.data.aggregation.impl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
 import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.i18n.Messages;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
 
 /**
  * Implements the built-in Total.count aggregation
@@ -70,6 +79,9 @@ public class TotalCount extends AggrFunction
 	}
 
 	private static class MyAccumulator extends SummaryAccumulator
+			implements
+				IMergeableAccumulator,
+				ITypedAccumulator
 	{
 
 		private int count = 0;
@@ -97,6 +109,76 @@ public class TotalCount extends AggrFunction
 			}
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDouble(double, boolean)
+		 */
+		public void onDouble( double value, boolean isNull )
+		{
+			onValue( isNull );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onLong(long, boolean)
+		 */
+		public void onLong( long value, boolean isNull )
+		{
+			onValue( isNull );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDecimal(java.math.BigDecimal, boolean)
+		 */
+		public void onDecimal( BigDecimal value, boolean isNull )
+		{
+			onValue( isNull );
+		}
+
+		private void onValue( boolean isNull )
+		{
+			// same as onRow with one argument
+			if ( !countByColumn || !isNull )
+			{
+				++count;
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+		 */
+		public void merge( Accumulator other )
+		{
+			count += ( (MyAccumulator) other ).count;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+		 */
+		public void saveState( DataOutputStream out ) throws IOException
+		{
+			IOUtil.writeInt( out, count );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+		 */
+		public void mergeState( DataInputStream in ) throws IOException,
+				DataException
+		{
+			count += IOUtil.readInt( in );
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
@@ -13,11 +13,18 @@
  */
 package org.eclipse.birt.data.aggregation.impl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.i18n.Messages;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.core.DataException;
 
 /**
  * 
@@ -91,6 +98,8 @@ public class TotalFirst extends AggrFunction
     }
 
     private class MyAccumulator extends SummaryAccumulator
+            implements
+                IMergeableAccumulator
     {
         private Object first = null;
 
@@ -121,6 +130,41 @@ public class TotalFirst extends AggrFunction
             }
         }
 
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+         */
+        public void merge( Accumulator other )
+        {
+            onRow( new Object[]{
+                ( (MyAccumulator) other ).first
+            } );
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+         */
+        public void saveState( DataOutputStream out ) throws IOException
+        {
+            IOUtil.writeObject( out, first );
+        }
+
+        /*
+         * (non-Javadoc)
+         * 
+         * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+         */
+        public void mergeState( DataInputStream in ) throws IOException,
+                DataException
+        {
+            onRow( new Object[]{
+                IOUtil.readObject( in )
+            } );
+        }
+
         /*
          * (non-Javadoc)
          * 
@@ -14,13 +14,22 @@
 
 package org.eclipse.birt.data.aggregation.impl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+
 import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
 import org.eclipse.birt.data.aggregation.calculator.ICalculator;
+import org.eclipse.birt.data.aggregation.calculator.NumberCalculator;
 import org.eclipse.birt.data.aggregation.i18n.Messages;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
+import org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 
 /**
@@ -87,9 +96,18 @@ public class TotalSum extends AggrFunction
 		return new MyAccumulator( CalculatorFactory.getCalculator( getDataType( ) ) );
 	}
 
+	/**
+	 * The sum is kept as a primitive, so the rows passed by the typed methods
+	 * are accumulated without allocation. It follows the calculator: null
+	 * values are ignored and a NaN or infinite operand makes the sum NaN.
+	 */
 	private static class MyAccumulator extends SummaryAccumulator
+			implements
+				IMergeableAccumulator,
+				ITypedAccumulator
 	{
-		private Number sum = null;
+		private double sum;
+		private boolean hasValue = false;
 
 		MyAccumulator( ICalculator calc )
 		{
@@ -99,9 +117,9 @@ public class TotalSum extends AggrFunction
 		public void start( )
 		{
 			super.start( );
-			// Initialize sum with null so TotalSum can actually be null.
-			// Calculators must be able to handle null-values appropriately.
-			sum = null;
+			// the sum is null until a non null value is accumulated
+			sum = 0;
+			hasValue = false;
 		}
 
 		/*
@@ -114,7 +132,98 @@ public class TotalSum extends AggrFunction
 			assert ( args.length > 0 );
 			if ( args[0] != null ) // ignore nulls in calculations
 			{
-				sum = calculator.add( sum, calculator.getTypedObject( args[0] ) );
+				add( ( (Number) calculator.getTypedObject( args[0] ) ).doubleValue( ) );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDouble(double, boolean)
+		 */
+		public void onDouble( double value, boolean isNull )
+		{
+			if ( !isNull )
+			{
+				add( value );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onLong(long, boolean)
+		 */
+		public void onLong( long value, boolean isNull )
+		{
+			if ( !isNull )
+			{
+				add( value );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator#onDecimal(java.math.BigDecimal, boolean)
+		 */
+		public void onDecimal( BigDecimal value, boolean isNull )
+				throws DataException
+		{
+			if ( !isNull )
+			{
+				add( ( (Number) calculator.getTypedObject( value ) ).doubleValue( ) );
+			}
+		}
+
+		private void add( double value )
+		{
+			if ( !hasValue )
+			{
+				sum = value;
+				hasValue = true;
+			}
+			else
+			{
+				sum = NumberCalculator.add( sum, value );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+		 */
+		public void merge( Accumulator other )
+		{
+			MyAccumulator acc = (MyAccumulator) other;
+			if ( acc.hasValue )
+			{
+				add( acc.sum );
+			}
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+		 */
+		public void saveState( DataOutputStream out ) throws IOException
+		{
+			IOUtil.writeObject( out, getSummaryValue( ) );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+		 */
+		public void mergeState( DataInputStream in ) throws IOException
+		{
+			Object value = IOUtil.readObject( in );
+			if ( value != null )
+			{
+				add( ( (Number) value ).doubleValue( ) );
 			}
 		}
 
@@ -125,7 +234,7 @@ public class TotalSum extends AggrFunction
 		 */
 		public Object getSummaryValue( )
 		{
-			return sum;
+			return hasValue ? Double.valueOf( sum ) : null;
 		}
 
 	}
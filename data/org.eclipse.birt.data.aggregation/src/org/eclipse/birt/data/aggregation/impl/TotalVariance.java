@@ -14,13 +14,19 @@
 
 package org.eclipse.birt.data.aggregation.impl;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
 import org.eclipse.birt.core.data.DataType;
 import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.calculator.CalculatorFactory;
 import org.eclipse.birt.data.aggregation.calculator.ICalculator;
 import org.eclipse.birt.data.aggregation.i18n.Messages;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
 import org.eclipse.birt.data.engine.core.DataException;
 
@@ -89,6 +95,8 @@ public class TotalVariance extends AggrFunction
 	}
 
 	private static class MyAccumulator extends SummaryAccumulator
+			implements
+				IMergeableAccumulator
 	{
 
 		private Number sum = 0.0D;
@@ -128,6 +136,44 @@ public class TotalVariance extends AggrFunction
 			}
 		}
 
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#merge(org.eclipse.birt.data.engine.api.aggregation.Accumulator)
+		 */
+		public void merge( Accumulator other ) throws DataException
+		{
+			MyAccumulator acc = (MyAccumulator) other;
+			sum = calculator.add( sum, acc.sum );
+			squareSum = calculator.add( squareSum, acc.squareSum );
+			count += acc.count;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#saveState(java.io.DataOutputStream)
+		 */
+		public void saveState( DataOutputStream out ) throws IOException
+		{
+			IOUtil.writeObject( out, sum );
+			IOUtil.writeObject( out, squareSum );
+			IOUtil.writeInt( out, count );
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator#mergeState(java.io.DataInputStream)
+		 */
+		public void mergeState( DataInputStream in ) throws IOException,
+				DataException
+		{
+			sum = calculator.add( sum, IOUtil.readObject( in ) );
+			squareSum = calculator.add( squareSum, IOUtil.readObject( in ) );
+			count += IOUtil.readInt( in );
+		}
+
 		/*
 		 * (non-Javadoc)
 		 * 
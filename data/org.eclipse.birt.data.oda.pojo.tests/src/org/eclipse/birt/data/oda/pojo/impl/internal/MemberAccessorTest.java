@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.data.oda.pojo.impl.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.eclipse.birt.data.oda.pojo.input.pojos.Dean;
+import org.eclipse.birt.data.oda.pojo.input.pojos.Teacher;
+import org.eclipse.birt.data.oda.pojo.querymodel.FieldSource;
+import org.eclipse.birt.data.oda.pojo.querymodel.MethodSource;
+import org.junit.Test;
+
+/**
+ *
+ */
+
+public class MemberAccessorTest
+{
+
+	@SuppressWarnings("nls")
+	@Test
+	public void testMethodSource( ) throws Exception
+	{
+		ClassMethodFieldBuffer buffer = new ClassMethodFieldBuffer( );
+		ClassLoader loader = getClass( ).getClassLoader( );
+		MethodSource ms = new MethodSource( "getName", null );
+		ms.prepareParameterValues( null, loader );
+
+		// the accessor is resolved again for the objects of another class
+		for ( int i = 0; i < 10; i++ )
+		{
+			Object from = i % 3 == 0 ? new Dean( i, "dean" + i ) : new Teacher( i,
+					"teacher" + i );
+			String expected = ( i % 3 == 0 ? "dean" : "teacher" ) + i;
+			assertEquals( expected, ms.fetchValue( from, loader, buffer ) );
+		}
+		assertNull( ms.fetchValue( null, loader, buffer ) );
+
+		// the public method of a non public class
+		ms = new MethodSource( "getValue", null );
+		ms.prepareParameterValues( null, loader );
+		assertEquals( "hidden", ms.fetchValue( new Hidden( ), loader, buffer ) );
+	}
+
+	@SuppressWarnings("nls")
+	@Test
+	public void testFieldSource( ) throws Exception
+	{
+		ClassMethodFieldBuffer buffer = new ClassMethodFieldBuffer( );
+		ClassLoader loader = getClass( ).getClassLoader( );
+		FieldSource fs = new FieldSource( "age" );
+		for ( int i = 0; i < 10; i++ )
+		{
+			Teacher t = new Teacher( i, "teacher" + i );
+			t.setAge( 30 + i );
+			assertEquals( Integer.valueOf( 30 + i ), fs.fetchValue( t,
+					loader,
+					buffer ) );
+		}
+	}
+
+	private static class Hidden
+	{
+
+		@SuppressWarnings({"unused", "nls"})
+		public String getValue( )
+		{
+			return "hidden";
+		}
+	}
+}
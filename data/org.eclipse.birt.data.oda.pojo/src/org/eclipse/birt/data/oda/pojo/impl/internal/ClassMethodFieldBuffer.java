@@ -63,6 +63,28 @@ public class ClassMethodFieldBuffer
 		return f == null ? saveField( c, fieldName) : f;
 	}
 	
+	/**
+	 * @return the accessor which invokes the method on the instances of the
+	 *         class
+	 * @throws OdaException
+	 */
+	@SuppressWarnings("unchecked")
+	public MemberAccessor getMethodAccessor( Class c, MethodIdentifier mi ) throws OdaException
+	{
+		return MemberAccessor.newInstance( c, getMethod( c, mi ) );
+	}
+	
+	/**
+	 * @return the accessor which reads the field of the instances of the
+	 *         class
+	 * @throws OdaException
+	 */
+	@SuppressWarnings("unchecked")
+	public MemberAccessor getFieldAccessor( Class c, String fieldName ) throws OdaException
+	{
+		return MemberAccessor.newInstance( c, getField( c, fieldName ) );
+	}
+	
 	@SuppressWarnings("unchecked")
 	private Method findMethod( Class c, MethodIdentifier mi )
 	{
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.oda.pojo.impl.internal;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Reads a value from the instances of a class by a resolved method or field.
+ * The accessor is resolved once for a class and a mapping source, so reading a
+ * column of a row only invokes the member: the access check of the member is
+ * suppressed, and whether the method returns void is known beforehand.
+ */
+public abstract class MemberAccessor
+{
+	@SuppressWarnings("unchecked")
+	private final Class type;
+
+	@SuppressWarnings("unchecked")
+	MemberAccessor( Class type )
+	{
+		this.type = type;
+	}
+
+	/**
+	 * @return the class whose instances are read by the accessor
+	 */
+	@SuppressWarnings("unchecked")
+	public Class getType( )
+	{
+		return type;
+	}
+
+	/**
+	 * @param from
+	 *            an instance of the class of the accessor
+	 * @param args
+	 *            the method arguments
+	 * @return the value
+	 * @throws IllegalAccessException
+	 * @throws InvocationTargetException
+	 */
+	public abstract Object getValue( Object from, Object[] args )
+			throws IllegalAccessException, InvocationTargetException;
+
+	@SuppressWarnings("unchecked")
+	static MemberAccessor newInstance( Class type, Method method )
+	{
+		return new MethodAccessor( type, method );
+	}
+
+	@SuppressWarnings("unchecked")
+	static MemberAccessor newInstance( Class type, Field field )
+	{
+		return new FieldAccessor( type, field );
+	}
+
+	/**
+	 * Suppresses the access check of the member, the public member of a non
+	 * public class can be invoked then.
+	 */
+	private static void setAccessible( AccessibleObject member )
+	{
+		try
+		{
+			member.setAccessible( true );
+		}
+		catch ( SecurityException e )
+		{
+			// keep the access check
+		}
+	}
+
+	private static class MethodAccessor extends MemberAccessor
+	{
+
+		private final Method method;
+		private final boolean isVoid;
+
+		@SuppressWarnings("unchecked")
+		MethodAccessor( Class type, Method method )
+		{
+			super( type );
+			this.method = method;
+			this.isVoid = method.getReturnType( ).equals( Void.TYPE );
+			setAccessible( method );
+		}
+
+		public Object getValue( Object from, Object[] args )
+				throws IllegalAccessException, InvocationTargetException
+		{
+			return isVoid ? null : method.invoke( from, args );
+		}
+	}
+
+	private static class FieldAccessor extends MemberAccessor
+	{
+
+		private final Field field;
+
+		@SuppressWarnings("unchecked")
+		FieldAccessor( Class type, Field field )
+		{
+			super( type );
+			this.field = field;
+			setAccessible( field );
+		}
+
+		public Object getValue( Object from, Object[] args )
+				throws IllegalAccessException
+		{
+			return field.get( from );
+		}
+	}
+}
@@ -10,11 +10,12 @@
  *******************************************************************************/
 package org.eclipse.birt.data.oda.pojo.querymodel;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.Map;
 
 import org.eclipse.birt.data.oda.pojo.api.Constants;
 import org.eclipse.birt.data.oda.pojo.impl.internal.ClassMethodFieldBuffer;
+import org.eclipse.birt.data.oda.pojo.impl.internal.MemberAccessor;
 import org.eclipse.datatools.connectivity.oda.OdaException;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -28,6 +29,9 @@ public class FieldSource implements IMappingSource
 {
 	private String name; //the filed name
 	
+	// the field of the class of the last fetched object
+	private MemberAccessor accessor;
+	
 	/**
 	 * @param name: the field name
 	 * @throws NullPointerException if <code>name</code> is null
@@ -52,10 +56,15 @@ public class FieldSource implements IMappingSource
 		{
 			return null;
 		}
-		Field f = cmfbInstance.getField( from.getClass( ), getName( ) );
+		MemberAccessor ma = accessor;
+		if ( ma == null || ma.getType( ) != from.getClass( ) )
+		{
+			ma = cmfbInstance.getFieldAccessor( from.getClass( ), getName( ) );
+			accessor = ma;
+		}
 		try
 		{
-			return f.get( from );
+			return ma.getValue( from, null );
 		}
 		catch ( IllegalArgumentException e )
 		{
@@ -65,6 +74,11 @@ public class FieldSource implements IMappingSource
 		{
 			throw new OdaException( e );
 		}
+		catch ( InvocationTargetException e )
+		{
+			// never happens when reading a field
+			throw new OdaException( e );
+		}
 	}
 	
 
@@ -11,13 +11,13 @@
 package org.eclipse.birt.data.oda.pojo.querymodel;
 
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Map;
 
 import org.eclipse.birt.data.oda.pojo.api.Constants;
 import org.eclipse.birt.data.oda.pojo.i18n.Messages;
 import org.eclipse.birt.data.oda.pojo.impl.internal.ClassMethodFieldBuffer;
+import org.eclipse.birt.data.oda.pojo.impl.internal.MemberAccessor;
 import org.eclipse.birt.data.oda.pojo.impl.internal.MethodIdentifier;
 import org.eclipse.datatools.connectivity.oda.OdaException;
 import org.w3c.dom.Document;
@@ -39,6 +39,9 @@ public class MethodSource implements IMappingSource
 	
 	private Object[] parameterValues; 
 	
+	// the method of the class of the last fetched object
+	private MemberAccessor accessor;
+	
 	/**
 	 * @param name: the method name
 	 */
@@ -76,15 +79,19 @@ public class MethodSource implements IMappingSource
 		{
 			return null;
 		}
-		if ( mi == null )
+		MemberAccessor ma = accessor;
+		if ( ma == null || ma.getType( ) != from.getClass( ) )
 		{
-			mi = MethodIdentifier.newInstance( this, pojoClassLoader );
+			if ( mi == null )
+			{
+				mi = MethodIdentifier.newInstance( this, pojoClassLoader );
+			}
+			ma = cmfbInstance.getMethodAccessor( from.getClass( ), mi );
+			accessor = ma;
 		}
-		Method m = cmfbInstance.getMethod( from.getClass( ), mi );
 		try
 		{
-			return m.getReturnType( ).equals( Void.TYPE ) ? 
-					null : m.invoke( from, parameterValues );
+			return ma.getValue( from, parameterValues );
 		}
 		catch ( IllegalArgumentException e )
 		{
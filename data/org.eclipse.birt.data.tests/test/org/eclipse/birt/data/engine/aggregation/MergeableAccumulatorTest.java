@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.aggregation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.math.BigDecimal;
+
+import org.eclipse.birt.data.aggregation.impl.BuildInAggregationFactory;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test that merging the partial states of the mergeable accumulators gives
+ * the same value as accumulating all the rows by one accumulator.
+ */
+public class MergeableAccumulatorTest
+{
+
+	private static final String[] MERGEABLE_FUNCTIONS = {
+			"sum",
+			"count",
+			"min",
+			"max",
+			"ave",
+			"variance",
+			"stddev",
+			"first",
+			"last"
+	};
+
+	private static final String[] APPROXIMATE_FUNCTIONS = {
+			"approxcountdistinct", "approxmedian"
+	};
+
+	private BuildInAggregationFactory factory = new BuildInAggregationFactory( );
+
+	private Object[][] getRows( )
+	{
+		Object[][] rows = new Object[1000][];
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			// some nulls are mixed in
+			rows[i] = new Object[]{
+				i % 17 == 0 ? null : new Double( ( i * 31 ) % 101 )
+			};
+		}
+		return rows;
+	}
+
+	@Test
+	public void testMerge( ) throws Exception
+	{
+		Object[][] rows = getRows( );
+		for ( int f = 0; f < MERGEABLE_FUNCTIONS.length; f++ )
+		{
+			String name = MERGEABLE_FUNCTIONS[f];
+			Object expected = accumulate( name, rows, 0, rows.length ).getValue( );
+
+			int[] splits = {0, 1, 250, 999, 1000};
+			for ( int s = 0; s < splits.length; s++ )
+			{
+				Accumulator first = accumulate( name, rows, 0, splits[s] );
+				Accumulator second = accumulate( name, rows, splits[s], rows.length );
+				( (IMergeableAccumulator) first ).merge( second );
+				first.finish( );
+				assertEquals( name + " split at " + splits[s],
+						expected,
+						first.getValue( ) );
+			}
+		}
+	}
+
+	@Test
+	public void testMergeState( ) throws Exception
+	{
+		Object[][] rows = getRows( );
+		for ( int f = 0; f < MERGEABLE_FUNCTIONS.length; f++ )
+		{
+			String name = MERGEABLE_FUNCTIONS[f];
+			Object expected = accumulate( name, rows, 0, rows.length ).getValue( );
+
+			// the states of three partitions are saved, and merged into a
+			// fresh accumulator in the row order
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+			DataOutputStream out = new DataOutputStream( buffer );
+			int[] bounds = {0, 300, 301, rows.length};
+			for ( int p = 0; p + 1 < bounds.length; p++ )
+			{
+				Accumulator partial = accumulate( name, rows, bounds[p], bounds[p + 1] );
+				( (IMergeableAccumulator) partial ).saveState( out );
+			}
+			out.close( );
+
+			Accumulator merged = factory.getAggregation( name ).newAccumulator( );
+			merged.start( );
+			DataInputStream in = new DataInputStream( new ByteArrayInputStream( buffer.toByteArray( ) ) );
+			for ( int p = 0; p + 1 < bounds.length; p++ )
+			{
+				( (IMergeableAccumulator) merged ).mergeState( in );
+			}
+			merged.finish( );
+			assertEquals( name, expected, merged.getValue( ) );
+		}
+	}
+
+	@Test
+	public void testMergeApproximate( ) throws Exception
+	{
+		Object[][] rows = getRows( );
+		for ( int f = 0; f < APPROXIMATE_FUNCTIONS.length; f++ )
+		{
+			String name = APPROXIMATE_FUNCTIONS[f];
+			double expected = ( (Number) accumulate( name, rows, 0, rows.length ).getValue( ) ).doubleValue( );
+
+			Accumulator first = accumulate( name, rows, 0, 250 );
+			Accumulator second = accumulate( name, rows, 250, 600 );
+			Accumulator third = accumulate( name, rows, 600, rows.length );
+			( (IMergeableAccumulator) first ).merge( second );
+
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+			DataOutputStream out = new DataOutputStream( buffer );
+			( (IMergeableAccumulator) third ).saveState( out );
+			out.close( );
+			( (IMergeableAccumulator) first ).mergeState( new DataInputStream( new ByteArrayInputStream( buffer.toByteArray( ) ) ) );
+			first.finish( );
+			// the sketches compacted in a different order are within the
+			// error of each other
+			assertEquals( name,
+					expected,
+					( (Number) first.getValue( ) ).doubleValue( ),
+					expected * 0.05 );
+		}
+	}
+
+	@Test
+	public void testMergeStateOfObjects( ) throws Exception
+	{
+		Object[][] rows = {
+				{new BigDecimal( "1.5" )},
+				{new BigDecimal( "12.25" )},
+				{new BigDecimal( "2.75" )}
+		};
+		String[] names = {"min", "max", "first", "last"};
+		Object[] expected = {rows[0][0], rows[1][0], rows[0][0], rows[2][0]};
+		for ( int f = 0; f < names.length; f++ )
+		{
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+			DataOutputStream out = new DataOutputStream( buffer );
+			for ( int i = 0; i < rows.length; i++ )
+			{
+				Accumulator partial = accumulate( names[f], rows, i, i + 1 );
+				( (IMergeableAccumulator) partial ).saveState( out );
+			}
+			out.close( );
+
+			Accumulator merged = factory.getAggregation( names[f] ).newAccumulator( );
+			merged.start( );
+			DataInputStream in = new DataInputStream( new ByteArrayInputStream( buffer.toByteArray( ) ) );
+			for ( int i = 0; i < rows.length; i++ )
+			{
+				( (IMergeableAccumulator) merged ).mergeState( in );
+			}
+			merged.finish( );
+			assertEquals( names[f], expected[f], merged.getValue( ) );
+		}
+	}
+
+	@Test
+	public void testNotMergeable( ) throws Exception
+	{
+		assertFalse( factory.getAggregation( "median" ).newAccumulator( ) instanceof IMergeableAccumulator );
+		assertFalse( factory.getAggregation( "runningsum" ).newAccumulator( ) instanceof IMergeableAccumulator );
+	}
+
+	/**
+	 * @return a started accumulator which has processed the rows between
+	 *         start and end, not finished
+	 */
+	private Accumulator accumulate( String name, Object[][] rows, int start,
+			int end ) throws Exception
+	{
+		Accumulator accumulator = factory.getAggregation( name ).newAccumulator( );
+		accumulator.start( );
+		for ( int i = start; i < end; i++ )
+		{
+			accumulator.onRow( rows[i] );
+		}
+		if ( start == 0 && end == rows.length )
+		{
+			accumulator.finish( );
+		}
+		return accumulator;
+	}
+}
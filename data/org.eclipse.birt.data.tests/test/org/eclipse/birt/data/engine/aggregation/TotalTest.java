@@ -10,6 +10,7 @@ import java.util.LinkedHashSet;
 
 import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
 import org.eclipse.birt.data.aggregation.impl.BuildInAggregationFactory;
+import org.eclipse.birt.data.aggregation.impl.HyperLogLog;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
 import org.eclipse.birt.data.engine.core.DataException;
@@ -2287,4 +2288,229 @@ public class TotalTest {
         assertEquals( new Integer( 8 ), ac.getValue( ) );
     }
 
+	@Test
+    public void testTotalApproxCountDistinct() throws Exception
+    {
+        IAggrFunction ag = buildInAggrFactory.getAggregation("approxcountdistinct");
+        Accumulator ac = ag.newAccumulator();
+        assertEquals(IBuildInAggregation.TOTAL_APPROX_COUNTDISTINCT_FUNC, ag.getName());
+        assertEquals(IAggrFunction.SUMMARY_AGGR, ag.getType());
+        assertEquals(2, ag.getParameterDefn().length);
+        assertFalse(ag.getParameterDefn()[0].isOptional());
+        assertTrue(ag.getParameterDefn()[1].isOptional());
+
+        // small cardinalities are counted exactly by the linear counting
+        ac.start();
+        for(int i=0; i<str4.length; i++)
+        {
+            ac.onRow(new Object[]{str4[i]});
+        }
+        ac.finish();
+        assertEquals(new Integer(5), ac.getValue());
+
+        ac.start( );
+        for ( int i = 0; i < anyObjectArray2.length; i++ )
+        {
+            ac.onRow( new Object[]{
+                anyObjectArray2[i]
+            } );
+        }
+        ac.finish( );
+        assertEquals( new Integer( 8 ), ac.getValue( ) );
+
+        ac.start();
+        ac.finish();
+        assertEquals(new Integer(0), ac.getValue());
+
+        // the estimation is within 3 standard errors
+        int[] distincts = {1000, 100000};
+        double[] errors = {0.02, 0.01};
+        for ( int d = 0; d < distincts.length; d++ )
+        {
+            ac.start( );
+            for ( int i = 0; i < distincts[d] * 3; i++ )
+            {
+                ac.onRow( new Object[]{
+                        Integer.valueOf( i % distincts[d] ), new Double( errors[d] )
+                } );
+            }
+            ac.finish( );
+            int value = ( (Integer) ac.getValue( ) ).intValue( );
+            assertEquals( distincts[d], value, distincts[d] * errors[d] * 3 );
+        }
+
+        try
+        {
+            ac.start( );
+            ac.onRow( new Object[]{
+                    "a", new Double( 1.5 )
+            } );
+            fail( "should not arrive here" );
+        }
+        catch ( DataException e )
+        {
+        }
+    }
+
+	@Test
+    public void testHyperLogLogSparse() throws Exception
+    {
+        HyperLogLog sketch = new HyperLogLog( 12 );
+        HyperLogLog dense = new HyperLogLog( 12 );
+        dense.getRegisters( );
+        assertTrue( sketch.isSparse( ) );
+        assertFalse( dense.isSparse( ) );
+        assertEquals( 0, sketch.estimate( ) );
+
+        // the sparse sketch estimates the same as the dense one
+        for ( int i = 0; i < 2000; i++ )
+        {
+            sketch.add( Integer.valueOf( i ) );
+            dense.add( Integer.valueOf( i ) );
+            if ( i == 100 )
+            {
+                assertTrue( sketch.isSparse( ) );
+                assertEquals( dense.estimate( ), sketch.estimate( ) );
+            }
+        }
+        // the sketch turns dense once the sparse table is as large
+        assertFalse( sketch.isSparse( ) );
+        assertEquals( dense.estimate( ), sketch.estimate( ) );
+
+        // merges the sparse and the dense sketches
+        HyperLogLog small1 = new HyperLogLog( 12 );
+        HyperLogLog small2 = new HyperLogLog( 12 );
+        for ( int i = 0; i < 20; i++ )
+        {
+            small1.add( "v" + i );
+            small2.add( "v" + ( i + 10 ) );
+        }
+        small1.merge( small2 );
+        assertTrue( small1.isSparse( ) );
+        assertEquals( 30, small1.estimate( ) );
+        long estimate = dense.estimate( );
+        dense.merge( new HyperLogLog( 12 ) );
+        assertEquals( estimate, dense.estimate( ) );
+        small2.merge( dense );
+        assertFalse( small2.isSparse( ) );
+    }
+
+	@Test
+    public void testTotalApproxMedian() throws Exception
+    {
+        IAggrFunction ag = buildInAggrFactory.getAggregation("approxmedian");
+        Accumulator ac = ag.newAccumulator();
+        assertEquals(IBuildInAggregation.TOTAL_APPROX_MEDIAN_FUNC, ag.getName());
+        assertEquals(IAggrFunction.SUMMARY_AGGR, ag.getType());
+        assertEquals(2, ag.getParameterDefn().length);
+        assertTrue(ag.getParameterDefn()[1].isOptional());
+
+        // exact while the values fit in the sketch
+        ac.start();
+        for(int i=0; i<doubleArray1.length; i++)
+        {
+            ac.onRow(new Double[]{new Double(doubleArray1[i])});
+        }
+        ac.finish();
+        assertEquals(new Double(5.0), ac.getValue());
+
+        ac.start();
+        for(int i=0; i<str1.length; i++)
+        {
+            ac.onRow(new Object[]{str1[i]});
+        }
+        ac.finish();
+        assertEquals(new Double(3.5D), ac.getValue());
+
+        ac.start();
+        for ( int i = 0; i < dates.length; i++ )
+        {
+            ac.onRow( new Object[]{dates[i]} );
+        }
+        ac.finish();
+        assertEquals( 2500000D, ac.getValue() );
+
+        ac.start();
+        ac.finish();
+        assertEquals(null, ac.getValue());
+
+        // the rank error is bounded for the large row count
+        int count = 200000;
+        ac.start( );
+        for ( int i = 0; i < count; i++ )
+        {
+            // a permutation of 0..count-1
+            ac.onRow( new Object[]{
+                    new Double( ( i * 7919L ) % count ), new Double( 0.01 )
+            } );
+        }
+        ac.finish( );
+        double median = ( (Double) ac.getValue( ) ).doubleValue( );
+        assertEquals( count / 2D, median, count * 0.01 * 2 );
+    }
+
+	@Test
+    public void testTotalApproxPercentileAndQuartile() throws Exception
+    {
+        IAggrFunction percentile = buildInAggrFactory.getAggregation("approxpercentile");
+        IAggrFunction quartile = buildInAggrFactory.getAggregation("approxquartile");
+        assertEquals(IBuildInAggregation.TOTAL_APPROX_PERCENTILE_FUNC, percentile.getName());
+        assertEquals(IBuildInAggregation.TOTAL_APPROX_QUARTILE_FUNC, quartile.getName());
+        assertEquals(3, percentile.getParameterDefn().length);
+        assertFalse(percentile.getParameterDefn()[1].isOptional());
+        assertTrue(percentile.getParameterDefn()[2].isOptional());
+
+        // same as Total.Percentile while the values fit in the sketch
+        double[] pcts = {0, 0.1, 0.35, 0.7, 1};
+        double[] expected = {10, 10, 17.5, 70, 300};
+        Accumulator ac = percentile.newAccumulator( );
+        for ( int p = 0; p < pcts.length; p++ )
+        {
+            ac.start( );
+            for ( int i = 0; i < doubleArray3.length; i++ )
+            {
+                ac.onRow( new Object[]{
+                        doubleArray3[i], new Double( pcts[p] )
+                } );
+            }
+            ac.finish( );
+            assertEquals( new Double( expected[p] ), ac.getValue( ) );
+        }
+
+        try
+        {
+            ac.start( );
+            ac.onRow( new Object[]{
+                    doubleArray3[0], new Double( 1.1 )
+            } );
+            fail( "should not arrive here" );
+        }
+        catch ( DataException e )
+        {
+        }
+
+        ac = quartile.newAccumulator( );
+        ac.start( );
+        for ( int i = 0; i < doubleArray4.length; i++ )
+        {
+            ac.onRow( new Object[]{
+                    new Double( doubleArray4[i] ), new Integer( 1 )
+            } );
+        }
+        ac.finish( );
+        assertEquals( new Double( 3.25 ), ac.getValue( ) );
+
+        int count = 100000;
+        ac.start( );
+        for ( int i = 0; i < count; i++ )
+        {
+            ac.onRow( new Object[]{
+                    new Double( ( i * 7919L ) % count ), new Integer( 3 ), new Double( 0.005 )
+            } );
+        }
+        ac.finish( );
+        double value = ( (Double) ac.getValue( ) ).doubleValue( );
+        assertEquals( count * 0.75, value, count * 0.005 * 2 );
+    }
+
 }
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.aggregation;
+
+import java.math.BigDecimal;
+
+import org.eclipse.birt.data.aggregation.impl.BuildInAggregationFactory;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator;
+import org.eclipse.birt.data.engine.executor.aggregation.AccumulatorUtil;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test that the typed accumulation gives the same values as onRow().
+ */
+public class TypedAccumulatorTest
+{
+
+	private static final String[] TYPED_FUNCTIONS = {
+			"sum", "ave", "count"
+	};
+
+	private BuildInAggregationFactory factory = new BuildInAggregationFactory( );
+
+	private Object[][] values = {
+			{},
+			{null, null},
+			{Integer.valueOf( 3 ), null, Double.valueOf( 1.5 ), Long.valueOf( 7 )},
+			{new BigDecimal( "0.1" ), new BigDecimal( "2.5" ), Integer.valueOf( -4 )},
+			{Double.valueOf( 1 ), Double.valueOf( Double.NaN ), Double.valueOf( 2 )},
+			{Double.valueOf( Double.POSITIVE_INFINITY ), Double.valueOf( 1 )},
+			// strings are not typed and are passed to onRow
+			{"4", Integer.valueOf( 5 ), "-1.5"}
+	};
+
+	@Test
+	public void testTypedSameAsOnRow( ) throws Exception
+	{
+		for ( int f = 0; f < TYPED_FUNCTIONS.length; f++ )
+		{
+			String name = TYPED_FUNCTIONS[f];
+			assertTrue( factory.getAggregation( name ).newAccumulator( ) instanceof ITypedAccumulator );
+			for ( int v = 0; v < values.length; v++ )
+			{
+				Accumulator generic = factory.getAggregation( name ).newAccumulator( );
+				Accumulator typed = factory.getAggregation( name ).newAccumulator( );
+				generic.start( );
+				typed.start( );
+				for ( int i = 0; i < values[v].length; i++ )
+				{
+					generic.onRow( new Object[]{
+						values[v][i]
+					} );
+					AccumulatorUtil.onRow( typed, new Object[]{
+						values[v][i]
+					} );
+				}
+				generic.finish( );
+				typed.finish( );
+				assertEquals( name + " of values " + v,
+						generic.getValue( ),
+						typed.getValue( ) );
+			}
+		}
+	}
+
+	@Test
+	public void testTypedSum( ) throws Exception
+	{
+		Accumulator acc = factory.getAggregation( "sum" ).newAccumulator( );
+		ITypedAccumulator typed = (ITypedAccumulator) acc;
+		acc.start( );
+		typed.onLong( 2, false );
+		typed.onDouble( 0.5, false );
+		typed.onDouble( 100, true );
+		typed.onDecimal( new BigDecimal( "1.25" ), false );
+		acc.finish( );
+		assertEquals( Double.valueOf( 3.75 ), acc.getValue( ) );
+
+		acc.start( );
+		typed.onLong( 0, true );
+		acc.finish( );
+		assertNull( acc.getValue( ) );
+	}
+}
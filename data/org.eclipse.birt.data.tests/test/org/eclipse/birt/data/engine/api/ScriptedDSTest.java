@@ -27,6 +27,10 @@ import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSetDesign;
 import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSourceDesign;
 import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
 import org.eclipse.birt.data.engine.api.querydefn.SortDefinition;
+import org.eclipse.birt.data.engine.api.script.IDataRow;
+import org.eclipse.birt.data.engine.api.script.IDataSetInstanceHandle;
+import org.eclipse.birt.data.engine.api.script.IScriptDataSetBatchEventHandler;
+import org.eclipse.birt.data.engine.api.script.IScriptDataSetMetaDataDefinition;
 import org.eclipse.birt.data.engine.core.DataException;
 
 import org.junit.After;
@@ -616,6 +620,172 @@ public class ScriptedDSTest extends APITestCase
 		}
 	}
 	
+	/**
+	 * Tests a script data set whose rows are fetched in batches by a Java event
+	 * handler.
+	 */
+	@Test
+    public void testBatchFetch( ) throws Exception
+	{
+		assertEquals( 2500, fetchBatchDataSet( 2500, 0, false ) );
+	}
+
+	/**
+	 * Tests the RowFetchLimit of a script data set whose rows are fetched in
+	 * batches.
+	 */
+	@Test
+    public void testBatchFetchLimit( ) throws Exception
+	{
+		assertEquals( 1500, fetchBatchDataSet( 2500, 1500, false ) );
+	}
+
+	/**
+	 * Tests the RowFetchLimit of a script data set whose event handler
+	 * replaces the rows of the batch by new arrays.
+	 */
+	@Test
+    public void testBatchFetchLimitNewRows( ) throws Exception
+	{
+		assertEquals( 1500, fetchBatchDataSet( 2500, 1500, true ) );
+	}
+
+	/**
+	 * Iterates the rows of a script data set fetched in batches, and checks
+	 * the values of the rows.
+	 * 
+	 * @return the row count
+	 */
+	private int fetchBatchDataSet( int rowCount, int fetchLimit,
+			boolean newRows ) throws Exception
+	{
+		dsource = new ScriptDataSourceDesign( "JUST as place folder" );
+		dataEngine.defineDataSource( dsource );
+
+		ScriptDataSetDesign batchDataSet = new ScriptDataSetDesign( "batchDataSet" );
+		batchDataSet.setDataSource( dsource.getName( ) );
+		batchDataSet.getResultSetHints( ).addAll( getColumnHints( ) );
+		batchDataSet.addComputedColumn( new ComputedColumn( "CP1",
+				"dataSetRow.NUM * 2",
+				DataType.INTEGER_TYPE ) );
+		batchDataSet.setRowFetchLimit( fetchLimit );
+		batchDataSet.setEventHandler( new BatchEventHandler( rowCount,
+				newRows ) );
+		dataEngine.defineDataSet( batchDataSet );
+
+		QueryDefinition rqDefn = new QueryDefinition( );
+		rqDefn.setDataSetName( batchDataSet.getName( ) );
+		rqDefn.addResultSetExpression( "NUM",
+				new ScriptExpression( "dataSetRow.NUM" ) );
+		rqDefn.addResultSetExpression( "SQUARE",
+				new ScriptExpression( "dataSetRow.SQUARE" ) );
+		rqDefn.addResultSetExpression( "STR",
+				new ScriptExpression( "dataSetRow.STR" ) );
+		rqDefn.addResultSetExpression( "CP1",
+				new ScriptExpression( "dataSetRow.CP1" ) );
+
+		IQueryResults qr = dataEngine.prepare( rqDefn ).execute( null );
+		IResultIterator ri = qr.getResultIterator( );
+		int count = 0;
+		while ( ri.next( ) )
+		{
+			count++;
+			assertEquals( Integer.valueOf( count ), ri.getValue( "NUM" ) );
+			// the Integer values are converted to the DOUBLE column type
+			assertEquals( new Double( count * count ), ri.getValue( "SQUARE" ) );
+			assertEquals( "row#" + count, ri.getValue( "STR" ) );
+			assertEquals( Integer.valueOf( count * 2 ), ri.getValue( "CP1" ) );
+		}
+		ri.close( );
+		qr.close( );
+		return count;
+	}
+
+	/**
+	 * Fetches the rows NUM, NUM * NUM, "row#" + NUM, null in batches.
+	 */
+	private static class BatchEventHandler
+			implements
+				IScriptDataSetBatchEventHandler
+	{
+
+		private int rowCount;
+		private boolean newRows;
+		private int num;
+
+		BatchEventHandler( int rowCount, boolean newRows )
+		{
+			this.rowCount = rowCount;
+			this.newRows = newRows;
+		}
+
+		public void handleOpen( IDataSetInstanceHandle dataSet )
+		{
+			num = 0;
+		}
+
+		public boolean isBatchFetch( IDataSetInstanceHandle dataSet )
+		{
+			return true;
+		}
+
+		public int handleFetchBatch( IDataSetInstanceHandle dataSet,
+				Object[][] rows )
+		{
+			int count = 0;
+			while ( count < rows.length && num < rowCount )
+			{
+				num++;
+				if ( newRows )
+				{
+					rows[count] = new Object[rows[count].length];
+				}
+				Object[] row = rows[count++];
+				row[0] = Integer.valueOf( num );
+				row[1] = Integer.valueOf( num * num );
+				row[2] = "row#" + num;
+				row[3] = null;
+			}
+			return count;
+		}
+
+		public boolean handleFetch( IDataSetInstanceHandle dataSet, IDataRow row )
+		{
+			fail( "The rows should be fetched in batches" );
+			return false;
+		}
+
+		public boolean handleDescribe( IDataSetInstanceHandle dataSet,
+				IScriptDataSetMetaDataDefinition metaData )
+		{
+			return false;
+		}
+
+		public void handleClose( IDataSetInstanceHandle dataSet )
+		{
+		}
+
+		public void handleBeforeOpen( IDataSetInstanceHandle dataSet )
+		{
+		}
+
+		public void handleBeforeClose( IDataSetInstanceHandle dataSet )
+		{
+		}
+
+		public void handleAfterOpen( IDataSetInstanceHandle dataSet )
+		{
+		}
+
+		public void handleAfterClose( IDataSetInstanceHandle dataSet )
+		{
+		}
+
+		public void handleOnFetch( IDataSetInstanceHandle dataSet, IDataRow row )
+		{
+		}
+	}
+
 	/**
 	 * Tests get/set/manipulate date/time values. Verifies fixes to bugzilla 122860, 123153
 	 */
@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.querydefn.OdaDataSetDesign;
+import org.eclipse.datatools.connectivity.oda.spec.QuerySpecification;
+import org.eclipse.datatools.connectivity.oda.spec.result.FilterExpression;
+import org.eclipse.datatools.connectivity.oda.spec.result.ResultSetSpecification;
+import org.eclipse.datatools.connectivity.oda.spec.result.filter.AndExpression;
+import org.eclipse.datatools.connectivity.oda.spec.result.filter.NotExpression;
+import org.eclipse.datatools.connectivity.oda.spec.util.QuerySpecificationHelper;
+import org.junit.Test;
+
+/**
+ * Test case for StatementCache
+ */
+public class StatementCacheTest
+{
+
+	private Object design = new Object( );
+
+	private StatementCache.Key key( Object design, String queryText,
+			String[] projection )
+	{
+		return new StatementCache.Key( design, new Object[]{queryText,
+				"type", Collections.emptyMap( ), projection, new Object[0]} );
+	}
+
+	@Test
+	public void testKey( )
+	{
+		assertEquals( key( design, "select 1", new String[]{"a"} ),
+				key( design, "select 1", new String[]{"a"} ) );
+		assertEquals( key( design, "select 1", null ).hashCode( ),
+				key( design, "select 1", null ).hashCode( ) );
+		assertFalse( key( design, "select 1", null ).equals( key( design,
+				"select 2",
+				null ) ) );
+		assertFalse( key( design, "select 1", new String[]{"a"} ).equals( key( design,
+				"select 1",
+				new String[]{"b"} ) ) );
+		// the designs are compared by identity
+		assertFalse( key( design, "select 1", null ).equals( key( new Object( ),
+				"select 1",
+				null ) ) );
+	}
+
+	@Test
+	public void testQuerySpecificationKey( )
+	{
+		OdaDataSetDesign dataSet = new OdaDataSetDesign( "dataSet" );
+
+		// the parameter values used to prepare the statement are in the key
+		StatementCache.Key key1 = statementKey( dataSet, 1, null );
+		assertNotNull( key1 );
+		assertEquals( key1, statementKey( dataSet, 1, null ) );
+		assertFalse( key1.equals( statementKey( dataSet, 2, null ) ) );
+
+		// the statements of the pushed down filters are never reused
+		assertNull( statementKey( dataSet, 1, new AndExpression( ) ) );
+		assertNull( statementKey( dataSet,
+				1,
+				new NotExpression( new AndExpression( ) ) ) );
+	}
+
+	private StatementCache.Key statementKey( OdaDataSetDesign dataSet,
+			int parameterValue, FilterExpression filter )
+	{
+		QuerySpecificationHelper helper = new QuerySpecificationHelper( (String) null );
+		QuerySpecification spec = helper.createQuerySpecification( );
+		spec.setParameterValue( 1, Integer.valueOf( parameterValue ) );
+		if ( filter != null )
+		{
+			ResultSetSpecification resultSpec = helper.createResultSetSpecification( );
+			resultSpec.setFilterSpecification( filter );
+			spec.setResultSetSpecification( resultSpec );
+		}
+		DataSourceQuery query = new DataSourceQuery( null,
+				"type",
+				"select * from t where a = ?",
+				null,
+				null );
+		query.setQuerySpecification( spec );
+		return query.createStatementKey( dataSet );
+	}
+
+	@Test
+	public void testGetAndPut( )
+	{
+		long hits = StatementCache.CACHE_HITS.getCount( );
+		long misses = StatementCache.CACHE_MISSES.getCount( );
+		StatementCache<String> cache = new StatementCache<String>( 2 );
+		assertTrue( cache.isEnabled( ) );
+		assertNull( cache.get( key( design, "q1", null ) ) );
+		assertTrue( cache.put( key( design, "q1", null ), "s1" ).isEmpty( ) );
+		assertEquals( "s1", cache.get( key( design, "q1", null ) ) );
+		// the statement is removed while it is used
+		assertNull( cache.get( key( design, "q1", null ) ) );
+		assertEquals( 1, cache.getHitCount( ) );
+		assertEquals( 2, cache.getMissCount( ) );
+		assertEquals( hits + 1, MetricRegistry.getDefault( )
+				.counter( "data.statementCache.hits" ).getCount( ) );
+		assertEquals( misses + 2, MetricRegistry.getDefault( )
+				.counter( "data.statementCache.misses" ).getCount( ) );
+	}
+
+	@Test
+	public void testEviction( )
+	{
+		StatementCache<String> cache = new StatementCache<String>( 2 );
+		cache.put( key( design, "q1", null ), "s1" );
+		cache.put( key( design, "q2", null ), "s2" );
+		// q1 becomes the most recently used
+		assertEquals( "s1", cache.get( key( design, "q1", null ) ) );
+		cache.put( key( design, "q1", null ), "s1" );
+		List<String> evicted = cache.put( key( design, "q3", null ), "s3" );
+		assertEquals( Arrays.asList( "s2" ), evicted );
+		assertEquals( 2, cache.size( ) );
+		assertEquals( 1, cache.getEvictionCount( ) );
+
+		// a second statement of the same key replaces the first one
+		evicted = cache.put( key( design, "q3", null ), "s4" );
+		assertEquals( Arrays.asList( "s3" ), evicted );
+
+		assertEquals( "s1", cache.removeEldest( ) );
+		assertEquals( Arrays.asList( "s4" ), cache.clear( ) );
+		assertNull( cache.removeEldest( ) );
+	}
+
+	@Test
+	public void testSize( )
+	{
+		// the cache is disabled by default
+		assertEquals( 0, StatementCache.getSize( null ) );
+		Map<String, Object> appContext = new HashMap<String, Object>( );
+		appContext.put( DataEngine.ODA_STATEMENT_CACHE_SIZE, "3" );
+		assertEquals( 3, StatementCache.getSize( appContext ) );
+		appContext.put( DataEngine.ODA_STATEMENT_CACHE_SIZE, Integer.valueOf( 0 ) );
+		assertEquals( 0, StatementCache.getSize( appContext ) );
+		assertFalse( new StatementCache<String>( 0 ).isEnabled( ) );
+	}
+}
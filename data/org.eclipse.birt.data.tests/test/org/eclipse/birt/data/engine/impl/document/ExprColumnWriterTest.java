@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.birt.core.archive.RAFileInputStream;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.impl.document.util.ExprColumnReader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExprColumnWriterTest
+{
+
+	private static final int ROW_COUNT = 3000;
+
+	private File file;
+	private RandomAccessFile raf;
+
+	@Before
+	public void setUp( ) throws IOException
+	{
+		file = File.createTempFile( "ExprColumn", ".tmp" );
+	}
+
+	@After
+	public void tearDown( ) throws IOException
+	{
+		if ( raf != null )
+		{
+			raf.close( );
+		}
+		file.delete( );
+	}
+
+	@Test
+	public void testReadValues( ) throws Exception
+	{
+		writeRows( ROW_COUNT );
+		ExprColumnReader reader = openReader( );
+		assertEquals( ROW_COUNT, reader.getRowCount( ) );
+		assertEquals( 3, reader.getBlockCount( ) );
+		assertTrue( Arrays.asList( reader.getColumnNames( ) ).contains( "id" ) );
+
+		// backward and across the blocks
+		for ( int i = ROW_COUNT - 1; i >= 0; i -= 7 )
+		{
+			assertEquals( getId( i ), reader.getValue( i, "id" ) );
+			assertEquals( getCategory( i ), reader.getValue( i, "category" ) );
+			assertEquals( getNote( i ), reader.getValue( i, "note" ) );
+		}
+		reader.close( );
+	}
+
+	@Test
+	public void testRowValue( ) throws Exception
+	{
+		writeRows( 10 );
+		ExprColumnReader reader = openReader( );
+		Map other = new HashMap( );
+		other.put( "column", "value" );
+
+		Map row = reader.getRowValue( 5, other );
+		assertTrue( row.containsKey( "id" ) );
+		assertTrue( row.containsKey( "column" ) );
+		assertFalse( row.containsKey( "unknown" ) );
+		assertEquals( Integer.valueOf( 5 ), row.get( "id" ) );
+		assertTrue( row.get( "error" ) instanceof DataException );
+		assertEquals( 5, row.size( ) );
+
+		// the empty row has no saved value
+		Map empty = reader.getRowValue( 3, other );
+		assertFalse( empty.containsKey( "id" ) );
+		assertEquals( "value", empty.get( "column" ) );
+		assertEquals( 1, empty.size( ) );
+		reader.close( );
+	}
+
+	@Test
+	public void testZoneMap( ) throws Exception
+	{
+		writeRows( ROW_COUNT );
+		ExprColumnReader reader = openReader( );
+
+		// the ids of the block 1 are 1024 to 2047
+		assertEquals( Integer.valueOf( 1024 ), reader.getMin( 1, "id" ) );
+		assertEquals( Integer.valueOf( 2047 ), reader.getMax( 1, "id" ) );
+		assertTrue( reader.mayContain( 1, "id", Integer.valueOf( 1500 ) ) );
+		assertFalse( reader.mayContain( 0, "id", Integer.valueOf( 1500 ) ) );
+		assertFalse( reader.mayOverlap( 2, "id", null, Integer.valueOf( 2000 ) ) );
+		assertTrue( reader.mayOverlap( 2, "id", Integer.valueOf( 2040 ), null ) );
+
+		// the note is null every 10 rows except the empty rows
+		assertEquals( 103, reader.getNullCount( 0, "note" ) );
+		assertTrue( reader.mayContain( 0, "note", null ) );
+		assertFalse( reader.mayContain( 0, "id", null ) );
+
+		assertEquals( 2500, reader.findRow( "id", Integer.valueOf( 2500 ), 0 ) );
+		assertEquals( -1, reader.findRow( "id", Integer.valueOf( 2500 ), 2501 ) );
+		assertEquals( -1, reader.findRow( "id", Integer.valueOf( ROW_COUNT ), 0 ) );
+		assertEquals( 2, reader.findRow( "category", "C", 0 ) );
+		assertEquals( 9, reader.findRow( "category", "C", 3 ) );
+		reader.close( );
+	}
+
+	@Test
+	public void testIncompleteStream( ) throws Exception
+	{
+		FileOutputStream out = new FileOutputStream( file );
+		ExprColumnWriter writer = new ExprColumnWriter( out,
+				Arrays.asList( new String[]{
+					"id"
+				} ) );
+		for ( int i = 0; i < 2000; i++ )
+		{
+			Map values = new HashMap( );
+			values.put( "id", Integer.valueOf( i ) );
+			writer.addRow( values );
+		}
+		// the stream is being written, it has no index
+		out.flush( );
+		assertNull( openReader( ) );
+		out.close( );
+	}
+
+	/**
+	 * writes the rows, the row 3 and every 1000th row are empty.
+	 */
+	private void writeRows( int rowCount ) throws IOException
+	{
+		ExprColumnWriter writer = new ExprColumnWriter( new FileOutputStream( file ),
+				Arrays.asList( new String[]{
+						"id", "category", "note", "error"
+				} ) );
+		for ( int i = 0; i < rowCount; i++ )
+		{
+			if ( i == 3 || i % 1000 == 999 )
+			{
+				writer.addEmptyRow( );
+				continue;
+			}
+			Map values = new HashMap( );
+			values.put( "id", getId( i ) );
+			values.put( "category", getCategory( i ) );
+			values.put( "note", getNote( i ) );
+			values.put( "error",
+					new DataException( "error" ) );
+			writer.addRow( values );
+		}
+		assertEquals( rowCount, writer.getRowCount( ) );
+		writer.close( );
+	}
+
+	private ExprColumnReader openReader( ) throws Exception
+	{
+		if ( raf != null )
+		{
+			raf.close( );
+		}
+		raf = new RandomAccessFile( file, "r" );
+		return ExprColumnReader.open( new RAFileInputStream( raf,
+				0,
+				raf.length( ) ) );
+	}
+
+	private static Integer getId( int i )
+	{
+		return i == 3 || i % 1000 == 999 ? null : Integer.valueOf( i );
+	}
+
+	private static String getCategory( int i )
+	{
+		return i == 3 || i % 1000 == 999 ? null : String.valueOf( (char) ( 'A'
+				+ i % 7 ) );
+	}
+
+	private static String getNote( int i )
+	{
+		return i == 3 || i % 1000 == 999 || i % 10 == 0 ? null : "note "
+				+ i;
+	}
+}
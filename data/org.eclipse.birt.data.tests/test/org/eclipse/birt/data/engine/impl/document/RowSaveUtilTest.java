@@ -0,0 +1,322 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl.document;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.birt.core.archive.RAFileInputStream;
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.impl.document.stream.VersionManager;
+import org.eclipse.birt.data.engine.impl.document.util.ExprColumnReader;
+import org.eclipse.birt.data.engine.impl.document.util.ExprDataResultSet1;
+import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaInfo;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Reads the binding values saved by RowSaveUtil through ExprDataResultSet1,
+ * from the columns and from the rows.
+ */
+public class RowSaveUtilTest
+{
+
+	private static final int ROW_COUNT = 3000;
+
+	// the row which is not saved
+	private static final int EMPTY_ROW = 3;
+
+	private File rowFile;
+	private File columnFile;
+	private List<RandomAccessFile> files = new ArrayList<RandomAccessFile>( );
+
+	@Before
+	public void setUp( ) throws IOException
+	{
+		rowFile = File.createTempFile( "ExprValue", ".tmp" );
+		columnFile = File.createTempFile( "ExprColumn", ".tmp" );
+	}
+
+	@After
+	public void tearDown( ) throws IOException
+	{
+		for ( int i = 0; i < files.size( ); i++ )
+		{
+			files.get( i ).close( );
+		}
+		rowFile.delete( );
+		columnFile.delete( );
+	}
+
+	@Test
+	public void testReadAllRows( ) throws Exception
+	{
+		save( true );
+		assertRows( new int[]{
+				0, ROW_COUNT
+		}, openResultSet( true ) );
+		assertRows( new int[]{
+				0, ROW_COUNT
+		}, openResultSet( false ) );
+	}
+
+	@Test
+	public void testRangeFilter( ) throws Exception
+	{
+		save( true );
+		ExprDataResultSet1 resultSet = openResultSet( true );
+		resultSet.addRangeFilter( "id",
+				Integer.valueOf( 1500 ),
+				Integer.valueOf( 1510 ) );
+		assertRows( new int[]{
+				1500, 1511
+		}, resultSet );
+
+		resultSet = openResultSet( true );
+		resultSet.addRangeFilter( "id", Integer.valueOf( 2990 ), null );
+		assertRows( new int[]{
+				2990, ROW_COUNT
+		}, resultSet );
+
+		// the row which is not saved has no value in the range
+		resultSet = openResultSet( true );
+		resultSet.addRangeFilter( "id", null, Integer.valueOf( 5 ) );
+		assertRows( new int[]{
+				0, 3, 4, 6
+		}, resultSet );
+	}
+
+	@Test
+	public void testValueFilter( ) throws Exception
+	{
+		save( true );
+		ExprDataResultSet1 resultSet = openResultSet( true );
+		resultSet.addValueFilter( "id", Integer.valueOf( 2500 ) );
+		assertRows( new int[]{
+				2500, 2501
+		}, resultSet );
+
+		// the notes of the rows from 2000 are null
+		resultSet = openResultSet( true );
+		resultSet.addValueFilter( "note", null );
+		resultSet.addRangeFilter( "id", null, Integer.valueOf( 2001 ) );
+		assertRows( new int[]{
+				2000, 2002
+		}, resultSet );
+
+		resultSet = openResultSet( true );
+		resultSet.addValueFilter( "category", "C" );
+		int count = 0;
+		IResultObject row;
+		while ( ( row = resultSet.next( ) ) != null )
+		{
+			assertEquals( "C", row.getFieldValue( "category" ) );
+			count++;
+		}
+		resultSet.close( );
+		// the rows 2, 9, ..., 2998
+		assertEquals( 429, count );
+	}
+
+	@Test
+	public void testFilterWithoutColumns( ) throws Exception
+	{
+		// the documents of the older versions have no column
+		save( false );
+		ExprDataResultSet1 resultSet = openResultSet( false );
+		resultSet.addRangeFilter( "id",
+				Integer.valueOf( 1500 ),
+				Integer.valueOf( 1510 ) );
+		assertRows( new int[]{
+				1500, 1511
+		}, resultSet );
+
+		resultSet = openResultSet( false );
+		resultSet.addValueFilter( "id", Integer.valueOf( 2500 ) );
+		assertRows( new int[]{
+				2500, 2501
+		}, resultSet );
+	}
+
+	@Test
+	public void testReferencedBindings( ) throws Exception
+	{
+		save( true );
+		ExprDataResultSet1 resultSet = openResultSet( true, new String[]{
+			"id"
+		} );
+		assertEquals( 2, resultSet.getResultClass( ).getFieldCount( ) );
+		resultSet.addValueFilter( "category", "B" );
+		IResultObject row = resultSet.next( );
+		assertEquals( Integer.valueOf( 1 ), row.getFieldValue( "id" ) );
+		assertEquals( Integer.valueOf( 8 ), resultSet.next( ).getFieldValue( "id" ) );
+		resultSet.close( );
+	}
+
+	@Test
+	public void testColumnsOfPartOfRows( ) throws Exception
+	{
+		// the rows after the saved columns are read from the row stream, which
+		// has to be moved past the rows read from the columns
+		save( true );
+		FileOutputStream out = new FileOutputStream( columnFile );
+		ExprColumnWriter writer = new ExprColumnWriter( out,
+				Arrays.asList( new String[]{
+						"id", "category", "note"
+				} ) );
+		for ( int i = 0; i < 1500; i++ )
+		{
+			if ( i == EMPTY_ROW )
+				writer.addEmptyRow( );
+			else
+				writer.addRow( getValues( i ) );
+		}
+		writer.close( );
+
+		assertRows( new int[]{
+				0, ROW_COUNT
+		}, openResultSet( true ) );
+
+		ExprDataResultSet1 resultSet = openResultSet( true );
+		resultSet.addRangeFilter( "id",
+				Integer.valueOf( 1495 ),
+				Integer.valueOf( 1505 ) );
+		assertRows( new int[]{
+				1495, 1506
+		}, resultSet );
+	}
+
+	/**
+	 * Asserts the rows of the result set.
+	 *
+	 * @param ranges
+	 *            the ranges of the row indexes, [start, end), the empty row
+	 *            is only returned when no filter is added
+	 */
+	private static void assertRows( int[] ranges, ExprDataResultSet1 resultSet )
+			throws Exception
+	{
+		for ( int i = 0; i < ranges.length; i += 2 )
+		{
+			for ( int j = ranges[i]; j < ranges[i + 1]; j++ )
+			{
+				IResultObject row = resultSet.next( );
+				if ( j == EMPTY_ROW )
+				{
+					assertNull( row.getFieldValue( "id" ) );
+					continue;
+				}
+				assertEquals( Integer.valueOf( j ), row.getFieldValue( "id" ) );
+				assertEquals( getCategory( j ), row.getFieldValue( "category" ) );
+				assertEquals( getNote( j ), row.getFieldValue( "note" ) );
+			}
+		}
+		assertNull( resultSet.next( ) );
+		resultSet.close( );
+	}
+
+	private void save( boolean saveColumns ) throws Exception
+	{
+		Set names = new LinkedHashSet( );
+		Map types = new HashMap( );
+		names.add( "id" );
+		types.put( "id", Integer.valueOf( DataType.INTEGER_TYPE ) );
+		names.add( "category" );
+		types.put( "category", Integer.valueOf( DataType.STRING_TYPE ) );
+		names.add( "note" );
+		types.put( "note", Integer.valueOf( DataType.STRING_TYPE ) );
+
+		RowSaveUtil rowSaveUtil = new RowSaveUtil( ROW_COUNT,
+				new FileOutputStream( rowFile ),
+				new ByteArrayOutputStream( ),
+				names,
+				new HashMap( ),
+				types,
+				VersionManager.getLatestVersion( ) );
+		if ( saveColumns )
+			rowSaveUtil.setColumnStream( new FileOutputStream( columnFile ) );
+		for ( int i = 0; i < ROW_COUNT; i++ )
+		{
+			if ( i != EMPTY_ROW )
+				rowSaveUtil.saveExprValue( i, getValues( i ) );
+		}
+		rowSaveUtil.saveFinish( ROW_COUNT );
+	}
+
+	private ExprDataResultSet1 openResultSet( boolean readColumns )
+			throws Exception
+	{
+		return openResultSet( readColumns, new String[]{
+				"id", "category", "note"
+		} );
+	}
+
+	private ExprDataResultSet1 openResultSet( boolean readColumns,
+			String[] bindings ) throws Exception
+	{
+		ExprMetaInfo[] exprMetas = new ExprMetaInfo[bindings.length];
+		for ( int i = 0; i < bindings.length; i++ )
+		{
+			exprMetas[i] = new ExprMetaInfo( );
+			exprMetas[i].setName( bindings[i] );
+			exprMetas[i].setDataType( "id".equals( bindings[i] )
+					? DataType.INTEGER_TYPE : DataType.STRING_TYPE );
+		}
+		return new ExprDataResultSet1( open( rowFile ),
+				readColumns ? ExprColumnReader.open( open( columnFile ) )
+						: null,
+				exprMetas,
+				VersionManager.getLatestVersion( ),
+				null );
+	}
+
+	private RAFileInputStream open( File file ) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile( file, "r" );
+		files.add( raf );
+		return new RAFileInputStream( raf, 0, raf.length( ) );
+	}
+
+	private static Map getValues( int i )
+	{
+		Map values = new HashMap( );
+		values.put( "id", Integer.valueOf( i ) );
+		values.put( "category", getCategory( i ) );
+		values.put( "note", getNote( i ) );
+		return values;
+	}
+
+	private static String getCategory( int i )
+	{
+		return String.valueOf( (char) ( 'A' + i % 7 ) );
+	}
+
+	private static String getNote( int i )
+	{
+		return i >= 2000 ? null : "note " + i;
+	}
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.olap.data.impl.aggregation;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.data.aggregation.api.IBuildInAggregation;
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.olap.data.impl.AggregationFunctionDefinition;
+import org.eclipse.birt.data.engine.olap.data.impl.dimension.Member;
+
+import testutil.BaseTestCase;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MergeRow4AggregationTest extends BaseTestCase
+{
+
+	private static final String[] KEYS = new String[]{
+			"a", "b", "c", "a", "b", "a", "c", "a"
+	};
+
+	@Test
+	public void testSimpleFunctionSegments( ) throws IOException,
+			DataException
+	{
+		MergeRow4Aggregation merge = new MergeRow4Aggregation( 1,
+				new AggregationFunctionDefinition( "m",
+						IBuildInAggregation.TOTAL_SUM_FUNC ),
+				0,
+				-1 );
+		List<Row4Aggregation> rows = pushAll( merge );
+
+		// the cache of one row splits the groups into segments
+		assertTrue( rows.size( ) > 3 );
+		Map<Object, Integer> sums = new HashMap<Object, Integer>( );
+		for ( int i = 0; i < rows.size( ); i++ )
+		{
+			Row4Aggregation row = rows.get( i );
+			Object key = row.getLevelMembers( )[0].getKeyValues( )[0];
+			int value = ( (Number) row.getMeasures( )[0] ).intValue( );
+			Integer sum = sums.get( key );
+			sums.put( key, Integer.valueOf( sum == null ? value : sum.intValue( ) + value ) );
+		}
+		assertEquals( Integer.valueOf( 0 + 3 + 5 + 7 ), sums.get( "a" ) );
+		assertEquals( Integer.valueOf( 1 + 4 ), sums.get( "b" ) );
+		assertEquals( Integer.valueOf( 2 + 6 ), sums.get( "c" ) );
+	}
+
+	@Test
+	public void testMergeableFunctionSegments( ) throws IOException,
+			DataException
+	{
+		MergeRow4Aggregation merge = new MergeRow4Aggregation( 1,
+				new AggregationFunctionDefinition( "m",
+						IBuildInAggregation.TOTAL_AVE_FUNC ),
+				0,
+				-1,
+				true );
+		List<Row4Aggregation> rows = pushAll( merge );
+
+		assertTrue( rows.size( ) > 3 );
+		Map<Object, Accumulator> accumulators = new HashMap<Object, Accumulator>( );
+		for ( int i = 0; i < rows.size( ); i++ )
+		{
+			Row4Aggregation row = rows.get( i );
+			Object key = row.getLevelMembers( )[0].getKeyValues( )[0];
+			Accumulator accumulator = accumulators.get( key );
+			if ( accumulator == null )
+			{
+				accumulator = AggregationManager.getInstance( )
+						.getAggregation( IBuildInAggregation.TOTAL_AVE_FUNC )
+						.newAccumulator( );
+				accumulator.start( );
+				accumulators.put( key, accumulator );
+			}
+			// the popped rows carry the accumulator state of the segment
+			assertTrue( row.getMeasures( )[0] instanceof byte[] );
+			( (IMergeableAccumulator) accumulator ).mergeState( new DataInputStream( new ByteArrayInputStream( (byte[]) row.getMeasures( )[0] ) ) );
+		}
+		assertEquals( ( 0 + 3 + 5 + 7 ) / 4.0, getValue( accumulators, "a" ), 0 );
+		assertEquals( ( 1 + 4 ) / 2.0, getValue( accumulators, "b" ), 0 );
+		assertEquals( ( 2 + 6 ) / 2.0, getValue( accumulators, "c" ), 0 );
+	}
+
+	private static double getValue( Map<Object, Accumulator> accumulators,
+			Object key ) throws DataException
+	{
+		Accumulator accumulator = accumulators.get( key );
+		accumulator.finish( );
+		return ( (Number) accumulator.getValue( ) ).doubleValue( );
+	}
+
+	private static List<Row4Aggregation> pushAll( MergeRow4Aggregation merge )
+			throws IOException, DataException
+	{
+		List<Row4Aggregation> result = new ArrayList<Row4Aggregation>( );
+		for ( int i = 0; i < KEYS.length; i++ )
+		{
+			Member member = new Member( );
+			member.setKeyValues( new Object[]{
+				KEYS[i]
+			} );
+			Row4Aggregation row = new Row4Aggregation( );
+			row.setLevelMembers( new Member[]{
+				member
+			} );
+			row.setMeasures( new Object[]{
+				Integer.valueOf( i )
+			} );
+			Row4Aggregation popRow = merge.push( row );
+			if ( popRow != null )
+			{
+				result.add( popRow );
+			}
+		}
+		result.addAll( merge.getAll( ) );
+		return result;
+	}
+}
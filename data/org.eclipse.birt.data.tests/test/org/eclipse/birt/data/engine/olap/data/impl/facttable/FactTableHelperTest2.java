@@ -897,6 +897,65 @@ public class FactTableHelperTest2 extends BaseTestCase
 	}
 	
 	private void testMaxAggregation( IDocumentManager documentManager ) throws IOException, BirtException, DataException
+	{
+		AggregationDefinition[] aggregations = new AggregationDefinition[1];
+		AggregationFunctionDefinition[] funcitons = new AggregationFunctionDefinition[1];
+		funcitons[0] = new AggregationFunctionDefinition( "max", "measure1", IBuildInAggregation.TOTAL_MAX_FUNC );
+		aggregations[0] = new AggregationDefinition( null, null, funcitons );
+
+		IDataSet4Aggregation dataSet4Aggregation = createDataSet4Aggregation( documentManager );
+		AggregationExecutor aggregationCalculatorExecutor = 
+				new AggregationExecutor( null, dataSet4Aggregation,
+						aggregations
+						, 10*1024*1024);
+		IAggregationResultSet[] resultSet = aggregationCalculatorExecutor.execute( new StopSign( ) );
+		assertEquals( resultSet[0].length( ), 1 );
+		
+		resultSet[0].seek( 0 );
+		assertEquals( resultSet[0].getAggregationValue( 0 ), 11 );
+		closeResultSets( resultSet );
+	}
+	
+	/**
+	 * The cache of the pre-aggregated rows is smaller than the groups, so the
+	 * groups are popped in segments whose accumulator states are merged.
+	 * 
+	 * @throws IOException
+	 * @throws BirtException
+	 */
+	@Test
+    public void testMergeableAggregation( ) throws IOException, BirtException
+	{
+		IDocumentManager documentManager = DocumentManagerFactory.createFileDocumentManager( );
+		
+		AggregationDefinition[] aggregations = new AggregationDefinition[1];
+		int[] sortType = new int[]{IDimensionSortDefn.SORT_ASC};
+		AggregationFunctionDefinition[] funcitons = new AggregationFunctionDefinition[1];
+		funcitons[0] = new AggregationFunctionDefinition( "ave", "measure1", IBuildInAggregation.TOTAL_AVE_FUNC );
+		aggregations[0] = new AggregationDefinition( new DimLevel[]{dimLevel11}, sortType, funcitons );
+
+		// the negative memory size keeps the fact rows pre-aggregated
+		AggregationExecutor aggregationCalculatorExecutor = 
+				new AggregationExecutor( null, createDataSet4Aggregation( documentManager ),
+						aggregations, -200 );
+		IAggregationResultSet[] resultSet = aggregationCalculatorExecutor.execute( new StopSign( ) );
+		assertEquals( resultSet[0].length( ), 3 );
+		
+		resultSet[0].seek( 0 );
+		assertEquals( resultSet[0].getLevelKeyValue( 0 )[0], new Integer(1) );
+		assertEquals( resultSet[0].getAggregationValue( 0 ), new Double(1.5) );
+		resultSet[0].seek( 1 );
+		assertEquals( resultSet[0].getLevelKeyValue( 0 )[0], new Integer(2) );
+		assertEquals( resultSet[0].getAggregationValue( 0 ), new Double(5.5) );
+		resultSet[0].seek( 2 );
+		assertEquals( resultSet[0].getLevelKeyValue( 0 )[0], new Integer(3) );
+		assertEquals( resultSet[0].getAggregationValue( 0 ), new Double(9.5) );
+		closeResultSets( resultSet );
+		
+		documentManager.close( );
+	}
+	
+	private IDataSet4Aggregation createDataSet4Aggregation( IDocumentManager documentManager ) throws IOException, BirtException, DataException
 	{
 		Dimension[] dimensions = new Dimension[3];
 		
@@ -989,23 +1048,7 @@ public class FactTableHelperTest2 extends BaseTestCase
 				positionsForFilter,
 				new StopSign( ) );
 		assertTrue( facttableRowIterator != null );
-		AggregationDefinition[] aggregations = new AggregationDefinition[1];
-		AggregationFunctionDefinition[] funcitons = new AggregationFunctionDefinition[1];
-		funcitons[0] = new AggregationFunctionDefinition( "max", "measure1", IBuildInAggregation.TOTAL_MAX_FUNC );
-		aggregations[0] = new AggregationDefinition( null, null, funcitons );
-
-		IDataSet4Aggregation dataSet4Aggregation 
-			= new DataSetFromOriginalCube( facttableRowIterator, dimesionResultSets, null );
-		AggregationExecutor aggregationCalculatorExecutor = 
-				new AggregationExecutor( null, dataSet4Aggregation,
-						aggregations
-						, 10*1024*1024);
-		IAggregationResultSet[] resultSet = aggregationCalculatorExecutor.execute( new StopSign( ) );
-		assertEquals( resultSet[0].length( ), 1 );
-		
-		resultSet[0].seek( 0 );
-		assertEquals( resultSet[0].getAggregationValue( 0 ), 11 );
-		closeResultSets( resultSet );
+		return new DataSetFromOriginalCube( facttableRowIterator, dimesionResultSets, null );
 	}
 	
 	/**
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.perf.bench;
+
+/**
+ * A benchmark run by BenchmarkRunner. The setUp and tearDown are called once
+ * around all the iterations, each invocation of run is one operation.
+ */
+public abstract class Benchmark
+{
+	/** benchmark name used in the report */
+	private String name;
+
+	/**
+	 * @param name
+	 *            name of the benchmark, should be stable between the runs so
+	 *            the reports can be compared.
+	 */
+	public Benchmark( String name )
+	{
+		this.name = name;
+	}
+
+	/**
+	 * @return benchmark name
+	 */
+	public String getName( )
+	{
+		return name;
+	}
+
+	/**
+	 * Prepare the benchmark, not measured.
+	 *
+	 * @throws Exception
+	 */
+	public void setUp( ) throws Exception
+	{
+	}
+
+	/**
+	 * Run one operation of the benchmark.
+	 *
+	 * @return a value computed from the result, it is accumulated by the
+	 *         runner so the work can't be eliminated, and is reported so the
+	 *         runs can be checked to process the same data.
+	 * @throws Exception
+	 */
+	public abstract long run( ) throws Exception;
+
+	/**
+	 * Release the resources of the benchmark, not measured.
+	 *
+	 * @throws Exception
+	 */
+	public void tearDown( ) throws Exception
+	{
+	}
+}
@@ -0,0 +1,285 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.perf.bench;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Runs the benchmarks in the JMH style: every benchmark is warmed up before
+ * the measured iterations, and the time per operation of the iterations is
+ * reported together with the deviation.
+ *
+ * The runner is configured by the system properties:
+ * <ul>
+ * <li>birt.perf.warmup: warm up iterations, 3 by default</li>
+ * <li>birt.perf.iterations: measured iterations, 10 by default</li>
+ * <li>birt.perf.report: the file to write the report to</li>
+ * <li>birt.perf.revision: the revision recorded in the report</li>
+ * </ul>
+ *
+ * The report is a CSV file with the environment as the leading comment
+ * lines, the benchmarks are reported in the run order so the reports of two
+ * revisions can be compared line by line.
+ */
+public class BenchmarkRunner
+{
+	public static final String WARMUP_ITERATIONS = "birt.perf.warmup";
+	public static final String MEASURE_ITERATIONS = "birt.perf.iterations";
+	public static final String REPORT_FILE = "birt.perf.report";
+	public static final String REVISION = "birt.perf.revision";
+
+	private static final Logger logger = Logger.getLogger( BenchmarkRunner.class.getName( ) );
+
+	private int warmupIterations;
+	private int measureIterations;
+	private Map<String, String> parameters = new LinkedHashMap<String, String>( );
+	private List<Result> results = new ArrayList<Result>( );
+
+	public BenchmarkRunner( )
+	{
+		warmupIterations = Integer.getInteger( WARMUP_ITERATIONS, 3 )
+				.intValue( );
+		measureIterations = Math.max( 1,
+				Integer.getInteger( MEASURE_ITERATIONS, 10 ).intValue( ) );
+	}
+
+	/**
+	 * Record a parameter of the benchmarks in the report.
+	 */
+	public void setParameter( String name, Object value )
+	{
+		parameters.put( name, String.valueOf( value ) );
+	}
+
+	/**
+	 * Run a benchmark and keep its result.
+	 *
+	 * @param benchmark
+	 * @return the result
+	 * @throws Exception
+	 */
+	public Result run( Benchmark benchmark ) throws Exception
+	{
+		Result result = new Result( benchmark.getName( ) );
+		benchmark.setUp( );
+		try
+		{
+			for ( int i = 0; i < warmupIterations; i++ )
+			{
+				benchmark.run( );
+			}
+			result.times = new long[measureIterations];
+			for ( int i = 0; i < measureIterations; i++ )
+			{
+				System.gc( );
+				long start = System.nanoTime( );
+				long checksum = benchmark.run( );
+				result.times[i] = System.nanoTime( ) - start;
+				if ( i == 0 )
+				{
+					result.checksum = checksum;
+				}
+				else if ( checksum != result.checksum )
+				{
+					result.stable = false;
+				}
+			}
+		}
+		finally
+		{
+			benchmark.tearDown( );
+		}
+		results.add( result );
+		logger.info( result.toString( ) );
+		return result;
+	}
+
+	/**
+	 * @return the results of the benchmarks run.
+	 */
+	public List<Result> getResults( )
+	{
+		return results;
+	}
+
+	/**
+	 * Write the report to the file specified by the birt.perf.report system
+	 * property, nothing is done if the property isn't set.
+	 *
+	 * @throws IOException
+	 */
+	public void writeReport( ) throws IOException
+	{
+		String fileName = System.getProperty( REPORT_FILE );
+		if ( fileName == null || fileName.length( ) == 0 )
+		{
+			return;
+		}
+		File file = new File( fileName );
+		if ( file.getParentFile( ) != null )
+		{
+			file.getParentFile( ).mkdirs( );
+		}
+		PrintWriter writer = new PrintWriter( new OutputStreamWriter(
+				new FileOutputStream( file ), "UTF-8" ) ); //$NON-NLS-1$
+		try
+		{
+			writeReport( writer );
+		}
+		finally
+		{
+			writer.close( );
+		}
+	}
+
+	public void writeReport( PrintWriter writer )
+	{
+		writer.println( "# revision=" + System.getProperty( REVISION, "" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.println( "# java.version=" + System.getProperty( "java.version" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.println( "# java.vm.name=" + System.getProperty( "java.vm.name" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+		writer.println( "# os=" + System.getProperty( "os.name" ) + " " //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				+ System.getProperty( "os.arch" ) ); //$NON-NLS-1$
+		writer.println( "# processors=" //$NON-NLS-1$
+				+ Runtime.getRuntime( ).availableProcessors( ) );
+		writer.println( "# max.memory=" + Runtime.getRuntime( ).maxMemory( ) ); //$NON-NLS-1$
+		writer.println( "# warmup=" + warmupIterations ); //$NON-NLS-1$
+		writer.println( "# iterations=" + measureIterations ); //$NON-NLS-1$
+		for ( Map.Entry<String, String> entry : parameters.entrySet( ) )
+		{
+			writer.println( "# " + entry.getKey( ) + "=" + entry.getValue( ) ); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		writer.println( "benchmark,mean_ms,stddev_ms,min_ms,max_ms,checksum,stable" ); //$NON-NLS-1$
+		for ( Result result : results )
+		{
+			writer.println( result.toCSV( ) );
+		}
+	}
+
+	/**
+	 * The measured times of a benchmark.
+	 */
+	public static class Result
+	{
+		private String name;
+		private long[] times = new long[0];
+		private long checksum;
+		private boolean stable = true;
+
+		Result( String name )
+		{
+			this.name = name;
+		}
+
+		public String getName( )
+		{
+			return name;
+		}
+
+		/**
+		 * @return mean time per operation in milliseconds
+		 */
+		public double getMean( )
+		{
+			double total = 0;
+			for ( int i = 0; i < times.length; i++ )
+			{
+				total += times[i];
+			}
+			return times.length == 0 ? 0 : total / times.length / 1000000d;
+		}
+
+		/**
+		 * @return sample standard deviation in milliseconds
+		 */
+		public double getStdDev( )
+		{
+			if ( times.length < 2 )
+			{
+				return 0;
+			}
+			double mean = getMean( );
+			double total = 0;
+			for ( int i = 0; i < times.length; i++ )
+			{
+				double diff = times[i] / 1000000d - mean;
+				total += diff * diff;
+			}
+			return Math.sqrt( total / ( times.length - 1 ) );
+		}
+
+		public double getMin( )
+		{
+			long min = Long.MAX_VALUE;
+			for ( int i = 0; i < times.length; i++ )
+			{
+				min = Math.min( min, times[i] );
+			}
+			return times.length == 0 ? 0 : min / 1000000d;
+		}
+
+		public double getMax( )
+		{
+			long max = 0;
+			for ( int i = 0; i < times.length; i++ )
+			{
+				max = Math.max( max, times[i] );
+			}
+			return max / 1000000d;
+		}
+
+		public long getChecksum( )
+		{
+			return checksum;
+		}
+
+		/**
+		 * @return whether all the iterations returned the same checksum
+		 */
+		public boolean isStable( )
+		{
+			return stable;
+		}
+
+		String toCSV( )
+		{
+			return String.format( Locale.US,
+					"%s,%.3f,%.3f,%.3f,%.3f,%d,%b", //$NON-NLS-1$
+					name,
+					getMean( ),
+					getStdDev( ),
+					getMin( ),
+					getMax( ),
+					checksum,
+					stable );
+		}
+
+		public String toString( )
+		{
+			return String.format( Locale.US,
+					"%-40s %10.3f ms/op +- %8.3f (min %.3f, max %.3f)", //$NON-NLS-1$
+					name,
+					getMean( ),
+					getStdDev( ),
+					getMin( ),
+					getMax( ) );
+		}
+	}
+}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.data.engine.perf.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.data.engine.api.APITestCase;
+import org.eclipse.birt.data.engine.api.DataEngine;
+import org.eclipse.birt.data.engine.api.IJoinCondition;
+import org.eclipse.birt.data.engine.api.IJointDataSetDesign;
+import org.eclipse.birt.data.engine.api.IPreparedQuery;
+import org.eclipse.birt.data.engine.api.IQueryResults;
+import org.eclipse.birt.data.engine.api.IResultIterator;
+import org.eclipse.birt.data.engine.api.ISortDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.Binding;
+import org.eclipse.birt.data.engine.api.querydefn.ColumnDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.FilterDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.GroupDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.JoinCondition;
+import org.eclipse.birt.data.engine.api.querydefn.JointDataSetDesign;
+import org.eclipse.birt.data.engine.api.querydefn.QueryDefinition;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSetDesign;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptDataSourceDesign;
+import org.eclipse.birt.data.engine.api.querydefn.ScriptExpression;
+import org.eclipse.birt.data.engine.api.querydefn.SortDefinition;
+import org.eclipse.birt.data.engine.executor.ResultClass;
+import org.eclipse.birt.data.engine.executor.ResultFieldMetadata;
+import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
+import org.eclipse.birt.data.engine.impl.DataEngineImpl;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+
+import org.junit.Test;
+
+/**
+ * Benchmarks of the data engine queries on a synthetic scripted data set.
+ *
+ * The class isn't picked by the default test includes, it is run by the perf
+ * profile of this bundle:
+ *
+ * <pre>
+ * mvn -o verify -Pperf -Dbirt.perf.revision=`git rev-parse HEAD`
+ * </pre>
+ *
+ * The rows of the data set are generated by a seeded pseudo random sequence,
+ * so every run processes the same data and reports the same checksums. The
+ * number of rows is set by the birt.perf.rows system property.
+ */
+public class DataEngineBenchmarks extends APITestCase
+{
+	public static final String ROW_COUNT = "birt.perf.rows";
+
+	private static final String DATA_SOURCE = "perfSource";
+	private static final String DATA_SET = "perfData";
+	private static final String LOOKUP_SET = "perfLookup";
+	private static final String JOINT_SET = "perfJoint";
+
+	private static final int SEED = 12345;
+	private static final int CATEGORY_COUNT = 50;
+
+	private static final String[] COLUMN_NAMES = new String[]{
+			"ID", "CATEGORY", "AMOUNT", "NAME"
+	};
+	private static final int[] COLUMN_TYPES = new int[]{
+			DataType.INTEGER_TYPE,
+			DataType.INTEGER_TYPE,
+			DataType.DOUBLE_TYPE,
+			DataType.STRING_TYPE
+	};
+
+	private int rowCount;
+
+	/*
+	 * @see org.eclipse.birt.data.engine.api.APITestCase#getDataSourceInfo()
+	 */
+	protected DataSourceInfo getDataSourceInfo( )
+	{
+		return null;
+	}
+
+	@Test
+	public void runBenchmarks( ) throws Exception
+	{
+		rowCount = Integer.getInteger( ROW_COUNT, 20000 ).intValue( );
+		defineDataSets( );
+
+		BenchmarkRunner runner = new BenchmarkRunner( );
+		runner.setParameter( ROW_COUNT, Integer.valueOf( rowCount ) );
+
+		runner.run( new QueryBenchmark( "query.scan", //$NON-NLS-1$
+				newQuery( DATA_SET ),
+				null ) );
+
+		QueryDefinition filter = newQuery( DATA_SET );
+		filter.addFilter( new FilterDefinition( new ScriptExpression( "row.AMOUNT > 500" ) ) ); //$NON-NLS-1$
+		runner.run( new QueryBenchmark( "query.filter", filter, null ) ); //$NON-NLS-1$
+
+		runner.run( new QueryBenchmark( "query.sort", //$NON-NLS-1$
+				newSortQuery( ),
+				null ) );
+
+		runner.run( new QueryBenchmark( "query.group.aggregation", //$NON-NLS-1$
+				newGroupQuery( ),
+				null ) );
+
+		// the sort is done by the smart cache, either in memory or spilled to
+		// the disk
+		Map memoryContext = new HashMap( );
+		memoryContext.put( DataEngine.MEMORY_BUFFER_SIZE, "512" ); //$NON-NLS-1$
+		runner.run( new QueryBenchmark( "smartcache.memory", //$NON-NLS-1$
+				newSortQuery( ),
+				memoryContext ) );
+
+		Map diskContext = new HashMap( );
+		diskContext.put( "birt.data.engine.test.memcachesize", "100000" ); //$NON-NLS-1$ //$NON-NLS-2$
+		runner.run( new QueryBenchmark( "smartcache.disk", //$NON-NLS-1$
+				newSortQuery( ),
+				diskContext ) );
+
+		QueryDefinition joint = new QueryDefinition( );
+		joint.setDataSetName( JOINT_SET );
+		joint.addBinding( new Binding( "ID", new ScriptExpression( "dataSetRow[\"" + DATA_SET + "::ID\"]" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		joint.addBinding( new Binding( "LABEL", new ScriptExpression( "dataSetRow[\"" + LOOKUP_SET + "::LABEL\"]" ) ) ); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		runner.run( new QueryBenchmark( "jointdataset.inner", joint, null ) ); //$NON-NLS-1$
+
+		runner.run( new SerializationBenchmark( "resultobject.serialization" ) ); //$NON-NLS-1$
+
+		runner.writeReport( );
+	}
+
+	/**
+	 * Define the synthetic data set, the lookup data set of its categories
+	 * and the joint data set of them.
+	 */
+	private void defineDataSets( ) throws Exception
+	{
+		ScriptDataSourceDesign source = new ScriptDataSourceDesign( DATA_SOURCE );
+		dataEngine.defineDataSource( source );
+
+		ScriptDataSetDesign data = new ScriptDataSetDesign( DATA_SET );
+		data.setDataSource( DATA_SOURCE );
+		data.setOpenScript( "perfSeed = " + SEED + "; perfIndex = 0;" ); //$NON-NLS-1$ //$NON-NLS-2$
+		// Park-Miller generator, the products are exact in double
+		data.setFetchScript( "if ( perfIndex >= " + rowCount + " ) return false; " //$NON-NLS-1$ //$NON-NLS-2$
+				+ "perfSeed = ( perfSeed * 16807 ) % 2147483647; " //$NON-NLS-1$
+				+ "row.ID = perfIndex; " //$NON-NLS-1$
+				+ "row.CATEGORY = perfSeed % " + CATEGORY_COUNT + "; " //$NON-NLS-1$ //$NON-NLS-2$
+				+ "row.AMOUNT = ( perfSeed % 100000 ) / 100; " //$NON-NLS-1$
+				+ "row.NAME = \"name\" + ( perfSeed % 1000 ); " //$NON-NLS-1$
+				+ "perfIndex++; return true;" ); //$NON-NLS-1$
+		for ( int i = 0; i < COLUMN_NAMES.length; i++ )
+		{
+			ColumnDefinition column = new ColumnDefinition( COLUMN_NAMES[i] );
+			column.setDataType( COLUMN_TYPES[i] );
+			data.getResultSetHints( ).add( column );
+		}
+		dataEngine.defineDataSet( data );
+
+		ScriptDataSetDesign lookup = new ScriptDataSetDesign( LOOKUP_SET );
+		lookup.setDataSource( DATA_SOURCE );
+		lookup.setOpenScript( "lookupIndex = 0;" ); //$NON-NLS-1$
+		lookup.setFetchScript( "if ( lookupIndex >= " + CATEGORY_COUNT + " ) return false; " //$NON-NLS-1$ //$NON-NLS-2$
+				+ "row.CATEGORY = lookupIndex; " //$NON-NLS-1$
+				+ "row.LABEL = \"category\" + lookupIndex; " //$NON-NLS-1$
+				+ "lookupIndex++; return true;" ); //$NON-NLS-1$
+		ColumnDefinition category = new ColumnDefinition( "CATEGORY" ); //$NON-NLS-1$
+		category.setDataType( DataType.INTEGER_TYPE );
+		lookup.getResultSetHints( ).add( category );
+		ColumnDefinition label = new ColumnDefinition( "LABEL" ); //$NON-NLS-1$
+		label.setDataType( DataType.STRING_TYPE );
+		lookup.getResultSetHints( ).add( label );
+		dataEngine.defineDataSet( lookup );
+
+		List conditions = new ArrayList( );
+		conditions.add( new JoinCondition( new ScriptExpression( "dataSetRow.CATEGORY" ), //$NON-NLS-1$
+				new ScriptExpression( "dataSetRow.CATEGORY" ), //$NON-NLS-1$
+				IJoinCondition.OP_EQ ) );
+		JointDataSetDesign joint = new JointDataSetDesign( JOINT_SET,
+				DATA_SET,
+				LOOKUP_SET,
+				IJointDataSetDesign.INNER_JOIN,
+				conditions );
+		dataEngine.defineDataSet( joint );
+	}
+
+	/**
+	 * @return a query binding all the columns of the data set
+	 */
+	private QueryDefinition newQuery( String dataSetName ) throws Exception
+	{
+		QueryDefinition query = new QueryDefinition( );
+		query.setDataSetName( dataSetName );
+		for ( int i = 0; i < COLUMN_NAMES.length; i++ )
+		{
+			query.addBinding( new Binding( COLUMN_NAMES[i],
+					new ScriptExpression( "dataSetRow." + COLUMN_NAMES[i] ) ) ); //$NON-NLS-1$
+		}
+		return query;
+	}
+
+	private QueryDefinition newSortQuery( ) throws Exception
+	{
+		QueryDefinition query = newQuery( DATA_SET );
+		SortDefinition byName = new SortDefinition( );
+		byName.setExpression( "row.NAME" ); //$NON-NLS-1$
+		byName.setSortDirection( ISortDefinition.SORT_ASC );
+		query.addSort( byName );
+		SortDefinition byAmount = new SortDefinition( );
+		byAmount.setExpression( "row.AMOUNT" ); //$NON-NLS-1$
+		byAmount.setSortDirection( ISortDefinition.SORT_DESC );
+		query.addSort( byAmount );
+		return query;
+	}
+
+	private QueryDefinition newGroupQuery( ) throws Exception
+	{
+		QueryDefinition query = newQuery( DATA_SET );
+		GroupDefinition group = new GroupDefinition( "byCategory" ); //$NON-NLS-1$
+		group.setKeyExpression( "row.CATEGORY" ); //$NON-NLS-1$
+		query.addGroup( group );
+
+		String[] functions = new String[]{"SUM", "COUNT", "AVE", "MAX"}; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		for ( int i = 0; i < functions.length; i++ )
+		{
+			Binding aggregation = new Binding( "group_" + functions[i], //$NON-NLS-1$
+					new ScriptExpression( "dataSetRow.AMOUNT" ) ); //$NON-NLS-1$
+			aggregation.setAggrFunction( functions[i] );
+			aggregation.addAggregateOn( "byCategory" ); //$NON-NLS-1$
+			query.addBinding( aggregation );
+		}
+		Binding total = new Binding( "total_SUM", //$NON-NLS-1$
+				new ScriptExpression( "dataSetRow.AMOUNT" ) ); //$NON-NLS-1$
+		total.setAggrFunction( "SUM" ); //$NON-NLS-1$
+		query.addBinding( total );
+		return query;
+	}
+
+	/**
+	 * Prepares and executes the query, and iterates all the rows.
+	 */
+	private class QueryBenchmark extends Benchmark
+	{
+		private QueryDefinition query;
+		private Map appContext;
+
+		QueryBenchmark( String name, QueryDefinition query, Map appContext )
+		{
+			super( name );
+			this.query = query;
+			this.appContext = appContext;
+		}
+
+		public long run( ) throws Exception
+		{
+			IPreparedQuery preparedQuery = dataEngine.prepare( query,
+					appContext );
+			IQueryResults queryResults = preparedQuery.execute( jsScope );
+			try
+			{
+				IResultIterator iterator = queryResults.getResultIterator( );
+				long checksum = 0;
+				while ( iterator.next( ) )
+				{
+					Object value = iterator.getValue( COLUMN_NAMES[0] );
+					checksum = checksum * 31
+							+ ( value == null ? 0 : value.hashCode( ) );
+				}
+				iterator.close( );
+				return checksum;
+			}
+			finally
+			{
+				queryResults.close( );
+			}
+		}
+	}
+
+	/**
+	 * Writes the rows with ResultObjectUtil and reads them back, as done
+	 * when the smart cache spills the rows to the disk.
+	 */
+	private class SerializationBenchmark extends Benchmark
+	{
+		private ResultObjectUtil util;
+		private IResultObject[] rows;
+
+		SerializationBenchmark( String name )
+		{
+			super( name );
+		}
+
+		public void setUp( ) throws Exception
+		{
+			Class[] classes = new Class[]{
+					Integer.class, Integer.class, Double.class, String.class
+			};
+			List fields = new ArrayList( );
+			for ( int i = 0; i < COLUMN_NAMES.length; i++ )
+			{
+				fields.add( new ResultFieldMetadata( i + 1,
+						COLUMN_NAMES[i],
+						COLUMN_NAMES[i],
+						classes[i],
+						null,
+						false ) );
+			}
+			ResultClass resultClass = new ResultClass( fields );
+			util = ResultObjectUtil.newInstance( resultClass,
+					( (DataEngineImpl) dataEngine ).getSession( ) );
+
+			rows = new IResultObject[rowCount];
+			long seed = SEED;
+			for ( int i = 0; i < rowCount; i++ )
+			{
+				seed = ( seed * 16807 ) % 2147483647;
+				rows[i] = util.newResultObject( new Object[]{
+						Integer.valueOf( i ),
+						Integer.valueOf( (int) ( seed % CATEGORY_COUNT ) ),
+						Double.valueOf( ( seed % 100000 ) / 100d ),
+						"name" + ( seed % 1000 ) //$NON-NLS-1$
+				} );
+			}
+		}
+
+		public long run( ) throws Exception
+		{
+			ByteArrayOutputStream out = new ByteArrayOutputStream( );
+			util.writeData( out, rows, rows.length );
+			byte[] bytes = out.toByteArray( );
+			IResultObject[] read = util.readData( new ByteArrayInputStream( bytes ),
+					getClass( ).getClassLoader( ),
+					rows.length );
+			return bytes.length * 31L + read.length;
+		}
+
+		public void tearDown( )
+		{
+			rows = null;
+		}
+	}
+}
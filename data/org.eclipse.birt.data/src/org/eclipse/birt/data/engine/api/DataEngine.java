@@ -155,7 +155,21 @@ abstract public class DataEngine
 	 * of materialized cube exceed the assigned memory size, the disk will automatically be used. 
 	 */
 	public static String IN_MEMORY_CUBE_SIZE = "org.eclipse.birt.data.engine.cube.inmemory.size";
-	
+
+	/**
+	 * The number of the prepared ODA statements kept open by a data source
+	 * once their query is closed, so the same data set executed again, for
+	 * example for each row of an outer table, only binds its parameters.
+	 *
+	 * Positive integer: the size of the statement cache.
+	 * Zero: Disable the statement cache, the default.
+	 * 
+	 * The hits and misses of the caches are counted by the
+	 * "data.statementCache.hits" and "data.statementCache.misses" counters of
+	 * org.eclipse.birt.core.metrics.MetricRegistry.getDefault().
+	 */
+	public static String ODA_STATEMENT_CACHE_SIZE = "org.eclipse.birt.data.oda.StatementCacheSize";
+
 	/**
 	 * Creates a new instance of DataEngine, using the specified
 	 * DataEngineContext as its running environment
@@ -108,6 +108,9 @@ public class DataEngineContext
 	
 	public final static int EXPR_ROWLEN_STREAM = 33;
 	
+	// the expression values saved column wise in blocks
+	public final static int EXPR_COLUMN_STREAM = 34;
+	
 	public final static int GROUP_INFO_STREAM = 41;
 	
 	public final static int SUBQUERY_INFO_STREAM = 42;
@@ -696,6 +699,9 @@ public class DataEngineContext
 			case EXPR_ROWLEN_STREAM :
 				relativePath = "ExprRowLen"; //$NON-NLS-1$
 				break;
+			case EXPR_COLUMN_STREAM :
+				relativePath = "ExprColumn"; //$NON-NLS-1$
+				break;
 			case EXPR_META_STREAM :
 				relativePath = "ExprMetaInfo"; //$NON-NLS-1$
 				break;
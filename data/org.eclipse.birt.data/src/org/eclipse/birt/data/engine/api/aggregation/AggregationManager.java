@@ -70,6 +70,8 @@ public class AggregationManager
 			"STDDEV",
 			"VARIANCE",
 			"RANGE",
+			"APPROXCOUNTDISTINCT",
+			"APPROXMEDIAN",
 	//		"RANK",
 	//		"RUNNINGSUM"
 	};
@@ -87,7 +89,9 @@ public class AggregationManager
 			"MIN", //$NON-NLS-1$
 			"FIRST", //$NON-NLS-1$
 			"LAST", //$NON-NLS-1$
-			"COUNT" //$NON-NLS-1$
+			"COUNT", //$NON-NLS-1$
+			"APPROXCOUNTDISTINCT", //$NON-NLS-1$
+			"APPROXMEDIAN" //$NON-NLS-1$
 //			"RANGE", //$NON-NLS-1$
 //			"COUNTDISTINCT"//$NON-NLS-1$	// Temporarily remove count distinct aggregation function. 
 	};
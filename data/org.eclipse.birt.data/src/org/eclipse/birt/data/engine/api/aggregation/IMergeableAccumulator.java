@@ -0,0 +1,65 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.api.aggregation;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * An optional extension of Accumulator for the aggregations whose partial
+ * results can be combined, such as sum, count, min and max. The rows of a
+ * group can then be split among several accumulators, which may run on
+ * different threads or at different times, and the partial states merged
+ * into one accumulator before calling finish() and getValue().
+ * <p>
+ * The partial state is the state after the onRow() calls since the last
+ * start(), and before finish(). Merging a state appends the rows of the
+ * state after the rows already processed, so the order sensitive
+ * aggregations, such as first and last, merge the partial states in the row
+ * order.
+ */
+public interface IMergeableAccumulator
+{
+
+	/**
+	 * Merges the partial state of another accumulator into this one.
+	 *
+	 * @param other
+	 *            an accumulator created by the same aggregation function with
+	 *            the same arguments
+	 * @throws DataException
+	 */
+	public void merge( Accumulator other ) throws DataException;
+
+	/**
+	 * Writes the partial state, which can be merged later by mergeState(),
+	 * possibly in another accumulator.
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+	public void saveState( DataOutputStream out ) throws IOException;
+
+	/**
+	 * Reads a partial state written by saveState() of an accumulator created
+	 * by the same aggregation function and merges it into this one.
+	 *
+	 * @param in
+	 * @throws IOException
+	 * @throws DataException
+	 */
+	public void mergeState( DataInputStream in ) throws IOException,
+			DataException;
+}
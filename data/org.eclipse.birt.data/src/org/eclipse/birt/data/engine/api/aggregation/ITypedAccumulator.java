@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.api.aggregation;
+
+import java.math.BigDecimal;
+
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * An optional extension of Accumulator for the aggregations of one numeric
+ * argument, such as sum, average and count. When the argument value of a row
+ * is a number, the data engine passes it by one of these methods instead of
+ * onRow(), so the accumulator neither receives an argument array nor converts
+ * the value again.
+ * <p>
+ * Each method must have the same effect as onRow() called with the value as
+ * the only argument, a null value is passed with isNull set to true.
+ */
+public interface ITypedAccumulator
+{
+
+	/**
+	 * Accumulates a double value.
+	 *
+	 * @param value
+	 *            the value, ignored if isNull
+	 * @param isNull
+	 *            whether the value is null
+	 * @throws DataException
+	 */
+	public void onDouble( double value, boolean isNull ) throws DataException;
+
+	/**
+	 * Accumulates an integer value.
+	 *
+	 * @param value
+	 *            the value, ignored if isNull
+	 * @param isNull
+	 *            whether the value is null
+	 * @throws DataException
+	 */
+	public void onLong( long value, boolean isNull ) throws DataException;
+
+	/**
+	 * Accumulates a decimal value.
+	 *
+	 * @param value
+	 *            the value, ignored if isNull
+	 * @param isNull
+	 *            whether the value is null
+	 * @throws DataException
+	 */
+	public void onDecimal( BigDecimal value, boolean isNull )
+			throws DataException;
+}
@@ -0,0 +1,53 @@
+/*
+ *************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *
+ *************************************************************************
+ */
+package org.eclipse.birt.data.engine.api.script;
+
+import org.eclipse.birt.core.exception.BirtException;
+
+/**
+ * Event handler for a Script Data Set which can provide its data rows in
+ * batches of Java values. When batch fetch is used, data engine fills its
+ * result set from the batches and does not fire the per row fetch event.
+ */
+public interface IScriptDataSetBatchEventHandler
+		extends
+			IScriptDataSetEventHandler
+{
+
+	/**
+	 * Called by data engine after the open event to decide how the data rows
+	 * are obtained.
+	 *
+	 * @return true if the data rows are obtained by handleFetchBatch; false if
+	 *         they are obtained by handleFetch
+	 */
+	public boolean isBatchFetch( IDataSetInstanceHandle dataSet )
+			throws BirtException;
+
+	/**
+	 * Called by data engine to obtain the next data rows. Implementation
+	 * should fill in the rows of the batch from the first one; the values of
+	 * a row are the values of the data set columns, in the order of the
+	 * columns. The batch is reused from a call to another, so all the values
+	 * of a filled row should be set. A row may also be replaced by a new array
+	 * of the values.
+	 *
+	 * @param rows
+	 *            the batch, which has a fixed number of rows
+	 * @return the number of rows which have been filled; 0 if no more data row
+	 *         is available
+	 */
+	public int handleFetchBatch( IDataSetInstanceHandle dataSet,
+			Object[][] rows ) throws BirtException;
+}
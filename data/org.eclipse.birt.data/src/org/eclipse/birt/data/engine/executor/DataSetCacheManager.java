@@ -17,6 +17,8 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
 import org.eclipse.birt.data.engine.api.DataEngineContext;
 import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
 import org.eclipse.birt.data.engine.api.IBaseDataSourceDesign;
@@ -55,6 +57,11 @@ import org.eclipse.birt.data.engine.odi.IResultClass;
 public class DataSetCacheManager
 {
 
+	private static final Counter CACHE_HITS = MetricRegistry.getDefault( )
+			.counter( "data.dataSetCache.hits" ); //$NON-NLS-1$
+	private static final Counter CACHE_MISSES = MetricRegistry.getDefault( )
+			.counter( "data.dataSetCache.misses" ); //$NON-NLS-1$
+
 	// data set id and its cache count
 	private IBaseDataSourceDesign dataSourceDesign;
 	private IBaseDataSetDesign dataSetDesign;
@@ -207,10 +214,19 @@ public class DataSetCacheManager
 				parameterHints,
 				appContext);
 		switchCacheMap( dataSetDesign );
-		return cacheMapManager.doesLoadFromCache( DataSourceAndDataSet.newInstance( this.dataSourceDesign,
+		boolean loaded = cacheMapManager.doesLoadFromCache( DataSourceAndDataSet.newInstance( this.dataSourceDesign,
 				dataSetDesign,
 				parameterHints, this.cacheID, this.enableSamplePreview ),
 				dscc.getCacheCapability( ));
+		if ( loaded )
+		{
+			CACHE_HITS.inc( );
+		}
+		else
+		{
+			CACHE_MISSES.inc( );
+		}
+		return loaded;
 	}
 
 	/**
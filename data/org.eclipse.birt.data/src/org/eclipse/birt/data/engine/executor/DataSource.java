@@ -55,6 +55,11 @@ class DataSource implements IDataSource
 	// Currently active oda Statements. This is a map from PreparedStatement to OpenConnection
 	private HashMap statementMap = new HashMap();
 	
+	// The idle statements kept open for the next queries of the same key, they
+	// are still counted by the current statements of their connection
+	private StatementCache<PreparedStatement> statementCache;
+	private HashMap<PreparedStatement, CacheConnection> idleStatementMap = new HashMap<PreparedStatement, CacheConnection>( );
+	
 	private static String className = DataSource.class.getName();
 	private static Logger logger = Logger.getLogger( className ); 
 
@@ -236,12 +241,21 @@ class DataSource implements IDataSource
      */
     public CacheConnection getAvailableConnection() throws DataException
 	{
-    	Iterator it = this.getOdaConnections( true ).iterator();
-    	while ( it.hasNext() )
+    	while ( true )
     	{
-    		CacheConnection c = (CacheConnection) (it.next());
-    		if ( c.odaConn.isOpen( ) && c.currentStatements < c.maxStatements )
-    			return c;
+	    	Iterator it = this.getOdaConnections( true ).iterator();
+	    	while ( it.hasNext() )
+	    	{
+	    		CacheConnection c = (CacheConnection) (it.next());
+	    		if ( c.odaConn.isOpen( ) && c.currentStatements < c.maxStatements )
+	    			return c;
+	    	}
+	    	
+	    	// Close an idle statement before opening another connection
+	    	PreparedStatement idle = statementCache == null ? null : statementCache.removeEldest( );
+	    	if ( idle == null )
+	    		break;
+	    	closeIdleStatement( idle );
     	}
     	
     	// No more available connections; create a new one
@@ -307,6 +321,82 @@ class DataSource implements IDataSource
         return stmt;
     }
     
+    /**
+     * Returns the idle statement of the key, which is prepared by a closed query
+     * of the same key. Returned PreparedStatement must be closed by calling
+     * closeStatement.
+     * 
+     * @return the statement, null if there is no idle statement of the key
+     */
+    synchronized PreparedStatement getCachedStatement( StatementCache.Key key )
+    		throws DataException
+    {
+    	if ( !ensureStatementCache( ).isEnabled( ) )
+    		return null;
+    	PreparedStatement stmt = statementCache.get( key );
+    	if ( stmt != null )
+    	{
+    		CacheConnection conn = idleStatementMap.get( stmt );
+    		if ( conn.odaConn == null || !conn.odaConn.isOpen( ) )
+    		{
+    			closeIdleStatement( stmt );
+    			return null;
+    		}
+    		idleStatementMap.remove( stmt );
+    		this.statementMap.put( stmt, conn );
+    	}
+    	return stmt;
+    }
+    
+    /**
+     * Closes a PreparedStatement returned by the prepareStatement or
+     * getCachedStatement call. The statement is kept open for the next query
+     * of the same key if the statement cache is enabled.
+     * 
+     * @param stmt
+     * @param key
+     *            the key of the statement, null if it can't be reused
+     */
+    synchronized void closeStatement( PreparedStatement stmt,
+			StatementCache.Key key )
+	{
+		if ( key == null || !ensureStatementCache( ).isEnabled( )
+				|| !statementMap.containsKey( stmt ) )
+		{
+			closeStatement( stmt );
+			return;
+		}
+		CacheConnection conn = (CacheConnection) statementMap.remove( stmt );
+		idleStatementMap.put( stmt, conn );
+		for ( PreparedStatement evicted : statementCache.put( key, stmt ) )
+		{
+			closeIdleStatement( evicted );
+		}
+	}
+    
+    private StatementCache<PreparedStatement> ensureStatementCache( )
+    {
+    	if ( statementCache == null )
+    		statementCache = new StatementCache<PreparedStatement>( StatementCache.getSize( appContext ) );
+    	return statementCache;
+    }
+    
+    private void closeIdleStatement( PreparedStatement stmt )
+    {
+    	CacheConnection conn = idleStatementMap.remove( stmt );
+    	if ( conn != null )
+    		-- conn.currentStatements;
+    	try
+		{
+    		stmt.close();
+		}
+        catch ( DataException e )
+        {
+    		logger.logp( Level.FINE, className, "closeIdleStatement",
+    					"Exception at PreparedStatement.close()", e );
+        }
+    }
+    
     /**
      * Closes a PreparedStatement returned by the prepareStatement call. Frees the associated
      * ODA Connection and make it available for new statements. 
@@ -391,6 +481,16 @@ class DataSource implements IDataSource
 
 				statementMap.clear( );
 			}
+			
+			if ( statementCache != null )
+			{
+				if ( logger.isLoggable( Level.FINE ) )
+					logger.fine( "ODA statement cache: " + statementCache );
+				for ( PreparedStatement stmt : statementCache.clear( ) )
+				{
+					closeIdleStatement( stmt );
+				}
+			}
 
 			// Close all open connections
 			Set<CacheConnection> it = getOdaConnections( false );
@@ -17,6 +17,7 @@ import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +61,7 @@ import org.eclipse.birt.data.engine.odi.IResultIterator;
 import org.eclipse.datatools.connectivity.oda.IBlob;
 import org.eclipse.datatools.connectivity.oda.IClob;
 import org.eclipse.datatools.connectivity.oda.spec.QuerySpecification;
+import org.eclipse.datatools.connectivity.oda.spec.QuerySpecification.ParameterIdentifier;
 import org.eclipse.datatools.connectivity.oda.spec.basequery.CombinedQuery;
 
 /**
@@ -177,6 +179,10 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
 	
 	private IQueryContextVisitor qcv;
 	
+	// the key of the statement in the statement cache of the data source, null
+	// if the statement can't be reused
+	private StatementCache.Key statementKey;
+	
 	private static Logger logger = Logger.getLogger( DataSourceQuery.class.getName( ) );
 
 
@@ -284,6 +290,13 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
         // create and populate a query specification for preparing a statement
         populateQuerySpecification();
         
+		IOdaDataSetDesign design = null;
+    	if( session.getDataSetCacheManager( ).getCurrentDataSetDesign( ) instanceof IOdaDataSetDesign )
+    		design = (IOdaDataSetDesign)session.getDataSetCacheManager( ).getCurrentDataSetDesign( );
+    	
+		// A statement prepared for the same data set and query by a closed
+		// query is reused, only the parameter values need to be set.
+		boolean reused = false;
 		if ( this.querySpecificaton != null
 				&& this.querySpecificaton.getBaseQuery( ) instanceof CombinedQuery )
 		{
@@ -293,30 +306,36 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
 		}
 		else
 		{
-			odaStatement = dataSource.prepareStatement( queryText,
-					queryType,
-					this.querySpecificaton );
+			statementKey = createStatementKey( design );
+			if ( statementKey != null )
+				odaStatement = dataSource.getCachedStatement( statementKey );
+			reused = odaStatement != null;
+			if ( !reused )
+				odaStatement = dataSource.prepareStatement( queryText,
+						queryType,
+						this.querySpecificaton );
 		}
         
         // Add custom properties to odaStatement
-        addPropertiesToPreparedStatement( );
+        if ( !reused )
+        	addPropertiesToPreparedStatement( );
         
         // Adds input and output parameter hints to odaStatement.
         // This step must be done before odaStatement.setColumnsProjection()
         // for some jdbc driver need to carry out a query execution before the metadata can be achieved
         // and only when the Parameters are successfully set the query execution can succeed.
-        addParameterDefns();
+        addParameterDefns( !reused );
      
         //Here the "max rows" means the max number of rows that can fetch from data source.
       	odaStatement.setMaxRows( this.getRowFetchLimit( ) );
       		
-        IOdaDataSetDesign design = null;
-    	if( session.getDataSetCacheManager( ).getCurrentDataSetDesign( ) instanceof IOdaDataSetDesign )
-    		design = (IOdaDataSetDesign)session.getDataSetCacheManager( ).getCurrentDataSetDesign( );
-    	
     	ICancellable queryCanceller = new OdaQueryCanceller( odaStatement, dataSource, session.getStopSign(), this );
     	
-        if ( design != null )
+    	if ( reused )
+    	{
+    		// the columns are already declared and projected
+    	}
+    	else if ( design != null )
 		{
 			if ( canAccessResultSetByName( design ) )
 			{
@@ -572,10 +591,71 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
         }
     }
     
+	/**
+	 * Returns the key of the statement in the statement cache of the data
+	 * source. The parameter hints, column hints and custom fields come from
+	 * the data set design, the other values set on the statement or on the
+	 * query specification used to prepare it are part of the key. A statement
+	 * prepared with a result set specification is never reused, since the
+	 * filters, sorts and projection pushed down to the driver can't be
+	 * compared.
+	 * 
+	 * @return the key, null if the statement can't be reused
+	 */
+	@SuppressWarnings("restriction")
+	StatementCache.Key createStatementKey( IOdaDataSetDesign design )
+	{
+		if ( design == null || queryText == null )
+			return null;
+		if ( this.querySpecificaton != null
+				&& this.querySpecificaton.hasResultSetSpecification( ) )
+			return null;
+		List<String> fields = new ArrayList<String>( );
+		if ( customFields != null )
+		{
+			Iterator it = customFields.iterator( );
+			while ( it.hasNext( ) )
+			{
+				CustomField field = (CustomField) it.next( );
+				fields.add( field.getName( ) + ":" + field.getDataType( ) ); //$NON-NLS-1$
+			}
+		}
+		Map<String, String> properties = new HashMap<String, String>( );
+		Map<String, Object> parameterValues = new HashMap<String, Object>( );
+		if ( this.querySpecificaton != null )
+		{
+			for ( Entry<String, Object> property : this.querySpecificaton.getProperties( )
+					.entrySet( ) )
+			{
+				properties.put( property.getKey( ),
+						property.getValue( ) == null ? null : property.getValue( ).toString( ) );
+			}
+			// the driver may use the parameter values to prepare the statement
+			for ( Entry<ParameterIdentifier, Object> parameter : this.querySpecificaton.getParameterValues( )
+					.entrySet( ) )
+			{
+				ParameterIdentifier id = parameter.getKey( );
+				parameterValues.put( id.hasName( ) ? id.getParameterName( )
+						: "#" + id.getParameterId( ), parameter.getValue( ) ); //$NON-NLS-1$
+			}
+		}
+		return new StatementCache.Key( design, new Object[]{
+				queryText,
+				queryType,
+				properties,
+				parameterValues,
+				projectedFields,
+				fields.toArray( )
+		} );
+	}
+	
 	/** 
 	 * Adds input and output parameter hints to odaStatement
+	 * 
+	 * @param addHints
+	 *            false if the hints are already added to the reused statement
 	 */
-	private void addParameterDefns() throws DataException
+	private void addParameterDefns( boolean addHints ) throws DataException
 	{
 		assert odaStatement!= null;
 		
@@ -587,7 +667,8 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
 		while ( it.hasNext( ) )
 		{
 			ParameterHint parameterHint = (ParameterHint) it.next();
-			odaStatement.addParameterHint( parameterHint );
+			if ( addHints )
+				odaStatement.addParameterHint( parameterHint );
 			
 			//If the parameter is input parameter then add it to input value list.
 			if ( parameterHint.isInputMode( ) )
@@ -1307,7 +1388,9 @@ public class DataSourceQuery extends BaseQuery implements IDataSourceQuery, IPre
     {
         if ( odaStatement != null )
         {
-        	this.dataSource.closeStatement( odaStatement );
+        	// a cancelled statement is not reused
+        	this.dataSource.closeStatement( odaStatement,
+        			session.getStopSign( ).isStopped( ) ? null : statementKey );
 	        odaStatement = null;
         }
         
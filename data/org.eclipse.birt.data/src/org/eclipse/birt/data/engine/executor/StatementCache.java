@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.data.engine.api.DataEngine;
+
+/**
+ * The prepared ODA statements of a data source which are no more used by a
+ * query, kept open so a query of the same data set, query text and
+ * projection, such as the query of a nested table executed for each outer
+ * row, only binds its parameter values instead of preparing the statement
+ * again.
+ * <p>
+ * The cache keeps at most one statement per key and evicts the least
+ * recently used statement when it is full. The evicted statements are
+ * returned to the data source which closes them.
+ * <p>
+ * The cache is disabled unless the DataEngine.ODA_STATEMENT_CACHE_SIZE
+ * option is set. The hits and misses of all the caches are counted by the
+ * "data.statementCache.hits" and "data.statementCache.misses" metrics of
+ * the default MetricRegistry.
+ * 
+ * @param <S>
+ *            the type of the statements
+ */
+class StatementCache<S>
+{
+
+	/**
+	 * the default number of the idle statements of a data source, the cache
+	 * is disabled by default.
+	 */
+	static final int DEFAULT_SIZE = 0;
+
+	static final Counter CACHE_HITS = MetricRegistry.getDefault( )
+			.counter( "data.statementCache.hits" ); //$NON-NLS-1$
+	static final Counter CACHE_MISSES = MetricRegistry.getDefault( )
+			.counter( "data.statementCache.misses" ); //$NON-NLS-1$
+
+	private int maxSize;
+	private LinkedHashMap<Key, S> statements = new LinkedHashMap<Key, S>( 16,
+			0.75f,
+			true );
+
+	private int hitCount;
+	private int missCount;
+	private int evictionCount;
+
+	StatementCache( int maxSize )
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Returns the size of the statement cache set by the
+	 * DataEngine.ODA_STATEMENT_CACHE_SIZE application context option.
+	 */
+	static int getSize( Map appContext )
+	{
+		Object value = appContext == null
+				? null : appContext.get( DataEngine.ODA_STATEMENT_CACHE_SIZE );
+		if ( value instanceof Number )
+		{
+			return Math.max( 0, ( (Number) value ).intValue( ) );
+		}
+		if ( value instanceof String )
+		{
+			try
+			{
+				return Math.max( 0, Integer.parseInt( ( (String) value ).trim( ) ) );
+			}
+			catch ( NumberFormatException e )
+			{
+			}
+		}
+		return DEFAULT_SIZE;
+	}
+
+	boolean isEnabled( )
+	{
+		return maxSize > 0;
+	}
+
+	/**
+	 * Removes the idle statement of the key from the cache.
+	 *
+	 * @return the statement, null if there is no idle statement of the key
+	 */
+	S get( Key key )
+	{
+		S stmt = statements.remove( key );
+		if ( stmt == null )
+		{
+			missCount++;
+			CACHE_MISSES.inc( );
+		}
+		else
+		{
+			hitCount++;
+			CACHE_HITS.inc( );
+		}
+		return stmt;
+	}
+
+	/**
+	 * Adds an idle statement.
+	 *
+	 * @return the statements evicted from the cache, they must be closed
+	 */
+	List<S> put( Key key, S stmt )
+	{
+		List<S> evicted = new ArrayList<S>( );
+		S old = statements.put( key, stmt );
+		if ( old != null )
+		{
+			evicted.add( old );
+		}
+		while ( statements.size( ) > maxSize )
+		{
+			evicted.add( removeEldest( ) );
+		}
+		return evicted;
+	}
+
+	/**
+	 * Removes the least recently used idle statement.
+	 *
+	 * @return the statement, null if the cache is empty
+	 */
+	S removeEldest( )
+	{
+		Iterator<S> it = statements.values( ).iterator( );
+		if ( !it.hasNext( ) )
+		{
+			return null;
+		}
+		S stmt = it.next( );
+		it.remove( );
+		evictionCount++;
+		return stmt;
+	}
+
+	/**
+	 * Removes all the idle statements.
+	 *
+	 * @return the statements, they must be closed
+	 */
+	List<S> clear( )
+	{
+		List<S> result = new ArrayList<S>( statements.values( ) );
+		statements.clear( );
+		return result;
+	}
+
+	int size( )
+	{
+		return statements.size( );
+	}
+
+	int getHitCount( )
+	{
+		return hitCount;
+	}
+
+	int getMissCount( )
+	{
+		return missCount;
+	}
+
+	int getEvictionCount( )
+	{
+		return evictionCount;
+	}
+
+	public String toString( )
+	{
+		return "statements: " + statements.size( ) + ", hits: " + hitCount //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", misses: " + missCount + ", evictions: " + evictionCount; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	/**
+	 * The key of a statement: the data set design, which defines the
+	 * parameter, column hints and custom fields set on the statement, and the
+	 * values of the query that may change between the executions of the data
+	 * set.
+	 */
+	static final class Key
+	{
+
+		private Object design;
+		private Object[] values;
+		private int hashCode;
+
+		/**
+		 * @param design
+		 *            the data set design, compared by identity
+		 * @param values
+		 *            the query text, type, properties, projection and custom
+		 *            fields
+		 */
+		Key( Object design, Object[] values )
+		{
+			this.design = design;
+			this.values = values;
+			this.hashCode = System.identityHashCode( design ) * 31
+					+ Arrays.deepHashCode( values );
+		}
+
+		public int hashCode( )
+		{
+			return hashCode;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( this == obj )
+				return true;
+			if ( !( obj instanceof Key ) )
+				return false;
+			Key other = (Key) obj;
+			return design == other.design
+					&& Arrays.deepEquals( values, other.values );
+		}
+	}
+}
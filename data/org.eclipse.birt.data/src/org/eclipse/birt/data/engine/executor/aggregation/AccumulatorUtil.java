@@ -0,0 +1,71 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.executor.aggregation;
+
+import java.math.BigDecimal;
+
+import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
+import org.eclipse.birt.data.engine.api.aggregation.ITypedAccumulator;
+import org.eclipse.birt.data.engine.core.DataException;
+
+/**
+ * Passes the arguments of a row to an accumulator, by the typed methods if
+ * the accumulator supports them.
+ */
+public final class AccumulatorUtil
+{
+
+	private AccumulatorUtil( )
+	{
+	}
+
+	/**
+	 * Passes the arguments to the accumulator. If the accumulator is an
+	 * ITypedAccumulator, the single argument is null or a number of the known
+	 * types, it is passed by the typed method, otherwise onRow() is called.
+	 *
+	 * @param acc
+	 * @param args
+	 * @throws DataException
+	 */
+	public static void onRow( Accumulator acc, Object[] args )
+			throws DataException
+	{
+		if ( acc instanceof ITypedAccumulator
+				&& args != null && args.length == 1 )
+		{
+			ITypedAccumulator typed = (ITypedAccumulator) acc;
+			Object value = args[0];
+			if ( value == null )
+			{
+				typed.onDouble( 0, true );
+				return;
+			}
+			if ( value instanceof Double )
+			{
+				typed.onDouble( ( (Double) value ).doubleValue( ), false );
+				return;
+			}
+			if ( value instanceof Integer || value instanceof Long )
+			{
+				typed.onLong( ( (Number) value ).longValue( ), false );
+				return;
+			}
+			if ( value instanceof BigDecimal )
+			{
+				typed.onDecimal( (BigDecimal) value, false );
+				return;
+			}
+		}
+		acc.onRow( args );
+	}
+}
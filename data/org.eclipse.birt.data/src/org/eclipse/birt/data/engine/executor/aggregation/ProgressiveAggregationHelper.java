@@ -259,7 +259,7 @@ public class ProgressiveAggregationHelper implements IProgressiveAggregationHelp
 							aggrInfo.getName( ) );
 					currentRoundAggrValue[aggrIndex].add( e );
 				}
-				acc.onRow( aggrArgs[aggrIndex] );
+				AccumulatorUtil.onRow( acc, aggrArgs[aggrIndex] );
 				newGroup = false;
 			}
 			catch ( DataException e )
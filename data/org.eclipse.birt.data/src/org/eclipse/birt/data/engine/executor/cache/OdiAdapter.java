@@ -11,10 +11,8 @@
 
 package org.eclipse.birt.data.engine.executor.cache;
 
-import java.util.HashSet;
-import java.util.Set;
-
 import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.data.ValueConverter;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ResultObject;
@@ -65,7 +63,8 @@ public class OdiAdapter
 	
 	private IResultClass resultClass;
 	
-	private Set columnIndexListForTypeConvert = null ;
+	// the converter of each column whose type is not the driver provided one
+	private ValueConverter[] converters = null;
 	/**
 	 * Construction
 	 * 
@@ -86,9 +85,10 @@ public class OdiAdapter
 						|| ( resultClass.getFieldMetaData( i ).getDataType( ) != resultClass.getFieldMetaData( i )
 								.getDriverProvidedDataType( ) ) )
 				{
-					if ( columnIndexListForTypeConvert == null )
-						columnIndexListForTypeConvert = new HashSet( );
-					columnIndexListForTypeConvert.add( Integer.valueOf( i ) );
+					if ( converters == null )
+						converters = new ValueConverter[resultClass.getFieldCount( )];
+					converters[i - 1] = new ValueConverter( DataTypeUtil.toApiDataType( resultClass.getFieldMetaData( i )
+							.getDataType( ) ) );
 				}
 			}
 			catch ( DataException e )
@@ -172,18 +172,16 @@ public class OdiAdapter
 	{
 		if ( resultObject == null )
 			return null;
-		if ( columnIndexListForTypeConvert == null )
+		if ( converters == null )
 			return resultObject;
 		Object[] obj = new Object[resultClass.getFieldCount( )];
 		for ( int i = 1; i <= resultClass.getFieldCount( ); i++ )
 		{
-			if ( columnIndexListForTypeConvert.contains( i ) )
+			if ( converters[i - 1] != null )
 			{
 				try
 				{
-					obj[i - 1] = DataTypeUtil.convert( resultObject.getFieldValue( i ),
-							DataTypeUtil.toApiDataType( resultClass.getFieldMetaData( i )
-									.getDataType( ) ) );
+					obj[i - 1] = converters[i - 1].convert( resultObject.getFieldValue( i ) );
 				}
 				catch ( BirtException e )
 				{
@@ -16,6 +16,8 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.core.security.FileSecurity;
 import org.eclipse.birt.data.engine.executor.cache.ResultObjectUtil;
@@ -27,6 +29,11 @@ import org.eclipse.birt.data.engine.odi.IResultObject;
  */
 class DataFileWriter
 {
+	private static final Counter SPILLED_ROWS = MetricRegistry.getDefault( )
+			.counter( "data.diskSpill.rows" ); //$NON-NLS-1$
+	private static final Counter SPILLED_BYTES = MetricRegistry.getDefault( )
+			.counter( "data.diskSpill.bytes" ); //$NON-NLS-1$
+
 	private File file;
 	private boolean isOpen;
 
@@ -103,6 +110,7 @@ class DataFileWriter
 		}
 
 		resultObjectUtil.writeData( bos, resultObjects, count );
+		SPILLED_ROWS.inc( count );
 	}
 
 	/**
@@ -117,6 +125,7 @@ class DataFileWriter
 			try
 			{
 				bos.close( );
+				SPILLED_BYTES.inc( file.length( ) );
 				fos.close( );
 				isOpen = false;
 			}
@@ -19,6 +19,8 @@ import java.util.Map;
 import java.util.logging.Level;
 
 import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.api.IBaseDataSetDesign;
 import org.eclipse.birt.data.engine.api.IColumnDefinition;
 import org.eclipse.birt.data.engine.api.IComputedColumn;
@@ -231,6 +233,10 @@ class PreparedScriptDSQuery extends PreparedDataSourceQuery
 		 */
 		private final class CustomDataSet implements ICustomDataSet
 		{
+			// the number of the data set columns when the rows are fetched
+			// in batches, -1 otherwise
+			private int batchColumnCount = -1;
+
 			/*
 			 * @see org.eclipse.birt.data.engine.odi.ICustomDataSet#getResultClass()
 			 */
@@ -244,7 +250,13 @@ class PreparedScriptDSQuery extends PreparedDataSourceQuery
 			 */
 			public void open( ) throws DataException
 			{
-				((ScriptDataSetRuntime) dataSet).open();
+				ScriptDataSetRuntime scriptDataSet = (ScriptDataSetRuntime) dataSet;
+				scriptDataSet.open( );
+				if ( scriptDataSet.isBatchFetch( ) )
+				{
+					batchColumnCount = resultClass.getFieldCount( )
+							- dataSet.getComputedColumns( ).size( );
+				}
 			}
 			
 			/*
@@ -252,6 +264,10 @@ class PreparedScriptDSQuery extends PreparedDataSourceQuery
 			 */
 			public IResultObject fetch( ) throws DataException
 			{
+				if ( batchColumnCount >= 0 )
+				{
+					return fetchFromBatch( );
+				}
 				Object[] fields = new Object[resultClass.getFieldCount( )];
 				ResultObject resultObject = new ResultObject( resultClass,
 						fields );
@@ -264,6 +280,44 @@ class PreparedScriptDSQuery extends PreparedDataSourceQuery
 	
 				return resultObject;
 			}
+
+			/**
+			 * Makes the result object of the next row of the batches, the
+			 * values are converted to the column types as the values set to
+			 * the row object by the fetch event.
+			 */
+			private IResultObject fetchFromBatch( ) throws DataException
+			{
+				Object[] values = ( (ScriptDataSetRuntime) dataSet ).fetchBatchRow( batchColumnCount );
+				if ( values == null )
+				{
+					return null;
+				}
+				Object[] fields = new Object[resultClass.getFieldCount( )];
+				for ( int i = 0; i < batchColumnCount; i++ )
+				{
+					Object value = values[i];
+					Class fieldClass = resultClass.getFieldValueClass( i + 1 );
+					if ( value != null
+							&& fieldClass != DataType.AnyType.class
+							&& !fieldClass.isInstance( value ) )
+					{
+						try
+						{
+							value = DataTypeUtil.convert( value, fieldClass );
+						}
+						catch ( BirtException e )
+						{
+							throw DataException.wrap( e );
+						}
+					}
+					fields[i] = value;
+				}
+				ResultObject resultObject = new ResultObject( resultClass,
+						fields );
+				dataSet.setRowObject( resultObject, true );
+				return resultObject;
+			}
 			
 			/*
 			 * @see org.eclipse.birt.data.engine.odi.ICustomDataSet#close()
@@ -22,6 +22,7 @@ import java.util.logging.Logger;
 import org.eclipse.birt.core.data.DataType;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.api.IScriptDataSetDesign;
+import org.eclipse.birt.data.engine.api.script.IScriptDataSetBatchEventHandler;
 import org.eclipse.birt.data.engine.api.script.IScriptDataSetEventHandler;
 import org.eclipse.birt.data.engine.api.script.IScriptDataSetMetaDataDefinition;
 import org.eclipse.birt.data.engine.core.DataException;
@@ -36,6 +37,17 @@ public class ScriptDataSetRuntime extends DataSetRuntime
 {
 	private IScriptDataSetEventHandler scriptEventHandler;
 	private int rowIndex = 0;
+
+	/** The number of rows of a batch fetched by a batch event handler */
+	static final int FETCH_BATCH_SIZE = 1000;
+
+	/** The batch of rows when the rows are fetched in batches */
+	private Object[][] batch;
+	/** The rows passed to the event handler, shorter than the batch if the
+	 * row fetch limit is reached */
+	private Object[][] batchRows;
+	private int batchRowCount;
+	private int batchRowIndex;
 	
 	/** Columns defined by the describe event handler. 
 	 * A list of ResultFieldMetadata objects*/
@@ -86,6 +98,82 @@ public class ScriptDataSetRuntime extends DataSetRuntime
 		}
 	}
 
+	/**
+	 * Tells whether the rows are fetched in batches, it should be called
+	 * after the open script.
+	 */
+	public boolean isBatchFetch( ) throws DataException
+	{
+		if ( scriptEventHandler instanceof IScriptDataSetBatchEventHandler )
+		{
+			try
+			{
+				return ( (IScriptDataSetBatchEventHandler) scriptEventHandler ).isBatchFetch( this );
+			}
+			catch ( BirtException e )
+			{
+				throw DataException.wrap( e );
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the values of the next row when the rows are fetched in
+	 * batches. The returned array belongs to the batch, it is reused by the
+	 * next batch.
+	 * 
+	 * @param columnCount
+	 *            the number of the data set columns
+	 * @return the values of the data set columns; null if no more row is
+	 *         available
+	 */
+	public Object[] fetchBatchRow( int columnCount ) throws DataException
+	{
+		if ( batchRowIndex == batchRowCount )
+		{
+			int batchSize = FETCH_BATCH_SIZE;
+			if ( this.getDesign( ).getRowFetchLimit( ) > 0 )
+			{
+				batchSize = Math.min( batchSize, this.getDesign( )
+						.getRowFetchLimit( ) - this.rowIndex );
+			}
+			if ( batchSize <= 0 )
+			{
+				return null;
+			}
+			if ( batch == null )
+			{
+				batch = new Object[FETCH_BATCH_SIZE][columnCount];
+			}
+			Object[][] rows = batch;
+			if ( batchSize < FETCH_BATCH_SIZE )
+			{
+				rows = new Object[batchSize][];
+				System.arraycopy( batch, 0, rows, 0, batchSize );
+			}
+			try
+			{
+				batchRowCount = ( (IScriptDataSetBatchEventHandler) scriptEventHandler ).handleFetchBatch( this,
+						rows );
+			}
+			catch ( BirtException e )
+			{
+				throw DataException.wrap( e );
+			}
+			batchRows = rows;
+			batchRowIndex = 0;
+			if ( batchRowCount <= 0 )
+			{
+				batchRowCount = 0;
+				return null;
+			}
+			batchRowCount = Math.min( batchRowCount, batchSize );
+		}
+		this.rowIndex++;
+		return batchRows[batchRowIndex++];
+	}
+
 	/** Executes the fetch script; returns the result */
 	public boolean fetch() throws DataException
 	{
@@ -127,6 +215,9 @@ public class ScriptDataSetRuntime extends DataSetRuntime
 				throw DataException.wrap(e);
 			}
 		}
+		batch = null;
+		batchRowCount = 0;
+		batchRowIndex = 0;
 		super.close();
 	}
 
@@ -26,6 +26,7 @@ import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
 import org.eclipse.birt.data.engine.api.aggregation.IParameterDefn;
 import org.eclipse.birt.data.engine.cache.BasicCachedList;
 import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.executor.aggregation.AccumulatorUtil;
 import org.eclipse.birt.data.engine.expression.ExprEvaluateUtil;
 import org.eclipse.birt.data.engine.impl.DataEngineSession;
 import org.eclipse.birt.data.engine.odi.IResultIterator;
@@ -295,7 +296,7 @@ class AggregateCalculator
 						newGroup,
 						argDefs );
 
-				acc.onRow( aggrArgs[aggrIndex] );
+				AccumulatorUtil.onRow( acc, aggrArgs[aggrIndex] );
 			}
 			catch ( DataException e )
 			{
@@ -0,0 +1,233 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl.document;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.impl.document.util.ExprColumnReader;
+
+/**
+ * Writes the saved binding values of a query column wise, in blocks of
+ * ExprColumnReader.BLOCK_SIZE rows, so a reader only reads the blocks of the
+ * bindings it refers to. Each block is described in the index at the end of
+ * the stream by its offset, its null count and the min and max of its values,
+ * which tell a reader the blocks it can skip for a value lookup.
+ * <p>
+ * The stream layout:
+ *
+ * <pre>
+ * block data: for each block, for each binding, the values of the rows
+ * index: format version, row count, block size, binding names, block count,
+ *        for each block the empty rows and for each binding the offset,
+ *        length, null count, min and max of its values
+ * footer: index offset, magic
+ * </pre>
+ *
+ * The rows skipped by the query, which are saved as rows of no value in
+ * EXPR_VALUE_STREAM, are the empty rows of their block.
+ */
+class ExprColumnWriter
+{
+	private DataOutputStream columnDos;
+	private long offset;
+
+	private String[] names;
+	private Object[][] values;
+	private int blockRowCount;
+	private List<Integer> emptyRows = new ArrayList<Integer>( );
+
+	private int rowCount;
+	private int blockCount;
+	private ByteArrayOutputStream indexBaos = new ByteArrayOutputStream( );
+	private DataOutputStream indexDos = new DataOutputStream( indexBaos );
+
+	/**
+	 * @param columnOs
+	 *            the EXPR_COLUMN_STREAM
+	 * @param names
+	 *            the saved bindings, in the order of EXPR_VALUE_STREAM
+	 */
+	ExprColumnWriter( OutputStream columnOs, List<String> names )
+	{
+		this.columnDos = new DataOutputStream( columnOs );
+		this.names = names.toArray( new String[names.size( )] );
+		this.values = new Object[this.names.length][ExprColumnReader.BLOCK_SIZE];
+	}
+
+	/**
+	 * Adds the binding values of the next row.
+	 *
+	 * @param valueMap
+	 * @throws IOException
+	 */
+	void addRow( Map valueMap ) throws IOException
+	{
+		for ( int i = 0; i < names.length; i++ )
+		{
+			values[i][blockRowCount] = valueMap.get( names[i] );
+		}
+		nextRow( );
+	}
+
+	/**
+	 * Adds a row which has no saved value.
+	 *
+	 * @throws IOException
+	 */
+	void addEmptyRow( ) throws IOException
+	{
+		for ( int i = 0; i < names.length; i++ )
+		{
+			values[i][blockRowCount] = null;
+		}
+		emptyRows.add( Integer.valueOf( blockRowCount ) );
+		nextRow( );
+	}
+
+	/**
+	 * @return the count of the added rows
+	 */
+	int getRowCount( )
+	{
+		return rowCount;
+	}
+
+	/**
+	 * Writes the last block and the index, and closes the stream.
+	 *
+	 * @throws IOException
+	 */
+	void close( ) throws IOException
+	{
+		if ( blockRowCount > 0 )
+		{
+			writeBlock( );
+		}
+		indexDos.flush( );
+
+		long indexOffset = offset;
+		IOUtil.writeInt( columnDos, ExprColumnReader.FORMAT_VERSION );
+		IOUtil.writeInt( columnDos, rowCount );
+		IOUtil.writeInt( columnDos, ExprColumnReader.BLOCK_SIZE );
+		IOUtil.writeInt( columnDos, names.length );
+		for ( int i = 0; i < names.length; i++ )
+		{
+			IOUtil.writeString( columnDos, names[i] );
+		}
+		IOUtil.writeInt( columnDos, blockCount );
+		IOUtil.writeRawBytes( columnDos, indexBaos.toByteArray( ) );
+		IOUtil.writeLong( columnDos, indexOffset );
+		IOUtil.writeInt( columnDos, ExprColumnReader.MAGIC );
+		columnDos.close( );
+	}
+
+	private void nextRow( ) throws IOException
+	{
+		rowCount++;
+		blockRowCount++;
+		if ( blockRowCount == ExprColumnReader.BLOCK_SIZE )
+		{
+			writeBlock( );
+		}
+	}
+
+	private void writeBlock( ) throws IOException
+	{
+		IOUtil.writeInt( indexDos, emptyRows.size( ) );
+		for ( int i = 0; i < emptyRows.size( ); i++ )
+		{
+			IOUtil.writeInt( indexDos, emptyRows.get( i ).intValue( ) );
+		}
+
+		ByteArrayOutputStream blockBaos = new ByteArrayOutputStream( );
+		DataOutputStream blockDos = new DataOutputStream( blockBaos );
+		for ( int i = 0; i < names.length; i++ )
+		{
+			Object[] columnValues = values[i];
+			int nullCount = 0;
+			Comparable min = null;
+			Comparable max = null;
+			boolean comparable = true;
+			int emptyRowIndex = 0;
+			for ( int j = 0; j < blockRowCount; j++ )
+			{
+				Object value = columnValues[j];
+				columnValues[j] = null;
+				if ( emptyRowIndex < emptyRows.size( )
+						&& emptyRows.get( emptyRowIndex ).intValue( ) == j )
+				{
+					emptyRowIndex++;
+					IOUtil.writeObject( blockDos, null );
+					continue;
+				}
+				if ( value instanceof BirtException )
+				{
+					IOUtil.writeObject( blockDos,
+							RowSaveUtil.EXCEPTION_INDICATOR );
+					continue;
+				}
+				IOUtil.writeObject( blockDos, value );
+				if ( value == null )
+				{
+					nullCount++;
+				}
+				else if ( comparable )
+				{
+					if ( !( value instanceof Comparable )
+							|| ( min != null && min.getClass( ) != value.getClass( ) ) )
+					{
+						comparable = false;
+						min = null;
+						max = null;
+					}
+					else if ( min == null )
+					{
+						min = (Comparable) value;
+						max = min;
+					}
+					else if ( min.compareTo( value ) > 0 )
+					{
+						min = (Comparable) value;
+					}
+					else if ( max.compareTo( value ) < 0 )
+					{
+						max = (Comparable) value;
+					}
+				}
+			}
+			blockDos.flush( );
+			byte[] bytes = blockBaos.toByteArray( );
+			blockBaos.reset( );
+
+			IOUtil.writeLong( indexDos, offset );
+			IOUtil.writeInt( indexDos, bytes.length );
+			IOUtil.writeInt( indexDos, nullCount );
+			IOUtil.writeObject( indexDos, min );
+			IOUtil.writeObject( indexDos, max );
+
+			IOUtil.writeRawBytes( columnDos, bytes );
+			offset += bytes.length;
+		}
+
+		blockCount++;
+		blockRowCount = 0;
+		emptyRows.clear( );
+	}
+}
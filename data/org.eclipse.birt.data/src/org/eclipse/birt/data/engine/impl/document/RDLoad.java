@@ -38,6 +38,7 @@ import org.eclipse.birt.data.engine.impl.StringTable;
 import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
 import org.eclipse.birt.data.engine.impl.document.stream.VersionManager;
 import org.eclipse.birt.data.engine.impl.document.util.EmptyExprResultSet;
+import org.eclipse.birt.data.engine.impl.document.util.ExprColumnReader;
 import org.eclipse.birt.data.engine.impl.document.util.ExprDataResultSet1;
 import org.eclipse.birt.data.engine.impl.document.util.ExprDataResultSet2;
 import org.eclipse.birt.data.engine.impl.document.util.ExprResultSet;
@@ -168,11 +169,40 @@ public class RDLoad
 	 * @throws DataException
 	 */
 	public IExprDataResultSet loadExprDataResultSet( boolean isSummary ) throws DataException
+	{
+		return loadExprDataResultSet( isSummary, null );
+	}
+	
+	/**
+	 * This is used for UPDATE, the data in report document as data source for
+	 * transformation. Only the referenced bindings are in the result set, when
+	 * the values are saved in columns the values of the other bindings are not
+	 * read.
+	 * 
+	 * @param isSummary
+	 * @param referencedBindings
+	 *            the names of the referenced bindings, null for all bindings
+	 * @return
+	 * @throws DataException
+	 */
+	public IExprDataResultSet loadExprDataResultSet( boolean isSummary,
+			Set referencedBindings ) throws DataException
 	{
 		if ( version == VersionManager.VERSION_2_0 )
 			throw new DataException( ResourceConstants.WRONG_VERSION );
 
 		ExprMetaInfo[] exprMetas = loadExprMetaInfo( );
+		if ( referencedBindings != null )
+		{
+			List referencedMetas = new ArrayList( );
+			for ( int i = 0; i < exprMetas.length; i++ )
+			{
+				if ( referencedBindings.contains( exprMetas[i].getName( ) )
+						|| ExprMetaUtil.POS_NAME.equals( exprMetas[i].getName( ) ) )
+					referencedMetas.add( exprMetas[i] );
+			}
+			exprMetas = (ExprMetaInfo[]) referencedMetas.toArray( new ExprMetaInfo[0] );
+		}
 
 		// This is a special case, that the stream needs to be close at the code
 		// of ExprDataResultSet
@@ -182,6 +212,9 @@ public class RDLoad
 			exprDataResultSet = new ExprDataResultSet1( streamManager.getInStream( DataEngineContext.EXPR_VALUE_STREAM,
 					StreamManager.ROOT_STREAM,
 					StreamManager.BASE_SCOPE ),
+					ExprColumnReader.newInstance( streamManager,
+							StreamManager.BASE_SCOPE,
+							version ),
 					exprMetas,
 					version,
 					( isSummary || version < VersionManager.VERSION_2_2_1_3 )
@@ -159,6 +159,12 @@ class RDSave implements IRDSave
 				rowLenOs,
 				bindingNamesToSave,
 				bindingNameColumnName, bindingNameType, this.streamManager.getVersion( ));
+		if ( streamManager.getVersion( ) >= VersionManager.VERSION_4_7_0_1 )
+		{
+			this.rowSaveUtil.setColumnStream( streamManager.getOutStream( DataEngineContext.EXPR_COLUMN_STREAM,
+					StreamManager.ROOT_STREAM,
+					StreamManager.SELF_SCOPE ) );
+		}
 	}
 	
 	/**
@@ -16,8 +16,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -49,6 +51,8 @@ public class RowSaveUtil
 	private int version;
 	private Map bindingNameType;
 	
+	private ExprColumnWriter columnWriter;
+	
 	/**
 	 * @param rowCount
 	 * @param rowExprsOs
@@ -68,6 +72,22 @@ public class RowSaveUtil
 		this.bindingNameType = bindingNameType;
 		this.version = version;
 	}
+	
+	/**
+	 * Also saves the expression values column wise into the stream.
+	 * 
+	 * @param columnOs
+	 */
+	void setColumnStream( OutputStream columnOs )
+	{
+		List names = new ArrayList( );
+		Iterator it = exprNameSet.iterator( );
+		while ( it.hasNext( ) )
+		{
+			names.add( it.next( ).toString( ) );
+		}
+		this.columnWriter = new ExprColumnWriter( columnOs, names );
+	}
 
 	/**
 	 * @param currIndex
@@ -84,6 +104,8 @@ public class RowSaveUtil
 			saveNullRowsBetween( lastRowIndex, currIndex );
 			
 			int rowBytes = saveExprValue( valueMap );
+			if ( columnWriter != null )
+				columnWriter.addRow( valueMap );
 			IOUtil.writeLong( this.rowLenDos, currentOffset );
 			currentOffset += rowBytes;
 			lastRowIndex = currIndex;
@@ -216,6 +238,8 @@ public class RowSaveUtil
 
 			rowExprsDos.close( );
 			rowLenDos.close( );
+			if ( columnWriter != null )
+				columnWriter.close( );
 		}
 		catch ( IOException e )
 		{
@@ -271,6 +295,8 @@ public class RowSaveUtil
 			IOUtil.writeInt( this.rowExprsDos, 0 );
 			IOUtil.writeLong( this.rowLenDos, currentOffset );
 			currentOffset += IOUtil.INT_LENGTH;
+			if ( columnWriter != null )
+				columnWriter.addEmptyRow( );
 		}
 	}
 	
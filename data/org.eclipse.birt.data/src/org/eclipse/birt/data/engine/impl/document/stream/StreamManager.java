@@ -714,6 +714,7 @@ public class StreamManager
 	{
 		this.dropStream1( DataEngineContext.EXPR_VALUE_STREAM );
 		this.dropStream1( DataEngineContext.EXPR_ROWLEN_STREAM );
+		this.dropStream1( DataEngineContext.EXPR_COLUMN_STREAM );
 		// remove QUERYID_INFO_STREAM
 		QueryResultIDManager.cleanChildOfRoot( this );
 		this.dropStream1( DataEngineContext.META_STREAM );
@@ -10,9 +10,7 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.impl.document.util;
 
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ResultObject;
@@ -27,12 +25,12 @@ import org.eclipse.birt.data.engine.odi.IResultObject;
  */
 abstract class BaseExprDataResultSet implements IExprDataResultSet
 {
-	private int rowIndex;;
+	protected int rowIndex;
 	private IResultClass rsMeta;
 	protected int rowCount;
 	
 	private ExprMetaInfo[] exprMetas;	
-	private IExprDataReader exprDataReader;
+	protected IExprDataReader exprDataReader;
 	
 	/**
 	 * @param inExprMetas
@@ -80,26 +78,25 @@ abstract class BaseExprDataResultSet implements IExprDataResultSet
 	{
 		exprDataReader.next( );
 		
+		return getResultObject( );
+	}
+	
+	/**
+	 * @return the result object of the current row of the reader
+	 * @throws DataException
+	 */
+	protected IResultObject getResultObject( ) throws DataException
+	{
 		int exprFieldCount = exprMetas.length;
 		Object[] rowData = new Object[exprFieldCount];
 		
 		int destIndex = exprDataReader.getRowId( );
 		Map map = exprDataReader.getRowValue( );
-		Iterator it = map.entrySet( ).iterator( );
-		while ( it.hasNext( ) )
+		// only the values of the result class are got, the values of the
+		// other bindings are not read when they are saved in columns
+		for ( int j = 0; j < exprFieldCount - 1; j++ )
 		{
-			Map.Entry entry = (Entry) it.next( );
-			String exprName = (String) entry.getKey( );
-			Object exprValue = entry.getValue( );
-			for ( int j = 0; j < exprFieldCount; j++ )
-			{
-				if ( exprName != null
-						&& exprName.equals( exprMetas[j].getName( ) ) )
-				{
-					rowData[j] = exprValue;
-					break;
-				}
-			}
+			rowData[j] = map.get( exprMetas[j].getName( ) );
 		}
 
 		rowData[exprFieldCount - 1] = Integer.valueOf( destIndex );
@@ -0,0 +1,527 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.data.engine.impl.document.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.data.engine.api.DataEngineContext;
+import org.eclipse.birt.data.engine.core.DataException;
+import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.data.engine.impl.DataEngineSession;
+import org.eclipse.birt.data.engine.impl.document.RowSaveUtil;
+import org.eclipse.birt.data.engine.impl.document.stream.StreamManager;
+import org.eclipse.birt.data.engine.impl.document.stream.VersionManager;
+
+/**
+ * Reads the binding values saved column wise in EXPR_COLUMN_STREAM. The value
+ * of a binding is read from the block of the binding which holds the row, the
+ * blocks of the other bindings are not read, and the min, max and null count
+ * of each block let a value lookup skip the blocks which can't contain the
+ * value.
+ */
+public class ExprColumnReader
+{
+	/**
+	 * the last int of a complete stream.
+	 */
+	public static final int MAGIC = 0x45584331;
+
+	public static final int FORMAT_VERSION = 1;
+
+	/**
+	 * the count of the rows of a block.
+	 */
+	public static final int BLOCK_SIZE = 1024;
+
+	private RAInputStream input;
+	private int rowCount;
+	private int blockSize;
+	private Map<String, Integer> columns = new HashMap<String, Integer>( );
+	private String[] names;
+
+	// [block][column]
+	private BlockInfo[][] blocks;
+	private int[][] emptyRows;
+
+	// the last read block of each column
+	private int[] cachedBlocks;
+	private Object[][] cachedValues;
+	private ClassLoader currentClassLoader;
+
+	private ExprColumnReader( RAInputStream input ) throws IOException
+	{
+		this.input = input;
+		this.currentClassLoader = DataEngineSession.getCurrentClassLoader( );
+	}
+
+	/**
+	 * Opens the column stream of the query. The documents of the versions
+	 * before VersionManager.VERSION_4_7_0_1 have no column stream, their
+	 * values are read by the row readers.
+	 *
+	 * @param streamManager
+	 * @param streamScope
+	 * @param version
+	 *            the version of the document
+	 * @return the reader, null if the values of the query are not saved in
+	 *         columns
+	 * @throws DataException
+	 */
+	public static ExprColumnReader newInstance( StreamManager streamManager,
+			int streamScope, int version ) throws DataException
+	{
+		if ( version < VersionManager.VERSION_4_7_0_1
+				|| !streamManager.hasInStream( DataEngineContext.EXPR_COLUMN_STREAM,
+				StreamManager.ROOT_STREAM,
+				streamScope ) )
+			return null;
+		return open( streamManager.getInStream( DataEngineContext.EXPR_COLUMN_STREAM,
+				StreamManager.ROOT_STREAM,
+				streamScope ) );
+	}
+
+	/**
+	 * @param input
+	 *            the column stream, it is closed by the reader
+	 * @return the reader, null if the stream is not completed
+	 * @throws DataException
+	 */
+	public static ExprColumnReader open( RAInputStream input )
+			throws DataException
+	{
+		ExprColumnReader reader = null;
+		try
+		{
+			reader = new ExprColumnReader( input );
+			if ( reader.readIndex( ) )
+				return reader;
+			reader.close( );
+			return null;
+		}
+		catch ( IOException e )
+		{
+			if ( reader != null )
+				reader.close( );
+			throw new DataException( ResourceConstants.RD_LOAD_ERROR,
+					e,
+					"Result Data" );
+		}
+	}
+
+	private boolean readIndex( ) throws IOException
+	{
+		// a stream which is being written has no footer
+		long length = input.length( );
+		if ( length < IOUtil.LONG_LENGTH + IOUtil.INT_LENGTH )
+			return false;
+		input.seek( length - IOUtil.INT_LENGTH );
+		if ( input.readInt( ) != MAGIC )
+			return false;
+		input.seek( length - IOUtil.LONG_LENGTH - IOUtil.INT_LENGTH );
+		long indexOffset = input.readLong( );
+		if ( indexOffset < 0 || indexOffset >= length )
+			return false;
+
+		input.seek( indexOffset );
+		DataInputStream dis = new DataInputStream( input );
+		if ( IOUtil.readInt( dis ) != FORMAT_VERSION )
+			return false;
+		rowCount = IOUtil.readInt( dis );
+		blockSize = IOUtil.readInt( dis );
+		int columnCount = IOUtil.readInt( dis );
+		names = new String[columnCount];
+		for ( int i = 0; i < columnCount; i++ )
+		{
+			names[i] = IOUtil.readString( dis );
+			columns.put( names[i], Integer.valueOf( i ) );
+		}
+		int blockCount = IOUtil.readInt( dis );
+		blocks = new BlockInfo[blockCount][columnCount];
+		emptyRows = new int[blockCount][];
+		for ( int i = 0; i < blockCount; i++ )
+		{
+			emptyRows[i] = new int[IOUtil.readInt( dis )];
+			for ( int j = 0; j < emptyRows[i].length; j++ )
+			{
+				emptyRows[i][j] = IOUtil.readInt( dis );
+			}
+			for ( int j = 0; j < columnCount; j++ )
+			{
+				BlockInfo block = new BlockInfo( );
+				block.offset = IOUtil.readLong( dis );
+				block.length = IOUtil.readInt( dis );
+				block.nullCount = IOUtil.readInt( dis );
+				block.min = IOUtil.readObject( dis, currentClassLoader );
+				block.max = IOUtil.readObject( dis, currentClassLoader );
+				blocks[i][j] = block;
+			}
+		}
+		cachedBlocks = new int[columnCount];
+		Arrays.fill( cachedBlocks, -1 );
+		cachedValues = new Object[columnCount][];
+		return true;
+	}
+
+	/**
+	 * @return the count of the saved rows
+	 */
+	public int getRowCount( )
+	{
+		return rowCount;
+	}
+
+	public int getBlockSize( )
+	{
+		return blockSize;
+	}
+
+	public int getBlockCount( )
+	{
+		return blocks.length;
+	}
+
+	/**
+	 * @return the saved bindings
+	 */
+	public String[] getColumnNames( )
+	{
+		return names.clone( );
+	}
+
+	public boolean containsColumn( String name )
+	{
+		return columns.containsKey( name );
+	}
+
+	/**
+	 * @param rowIndex
+	 * @return true if the row has no saved value
+	 */
+	public boolean isEmptyRow( int rowIndex )
+	{
+		int[] rows = emptyRows[rowIndex / blockSize];
+		int rowInBlock = rowIndex % blockSize;
+		for ( int i = 0; i < rows.length; i++ )
+		{
+			if ( rows[i] == rowInBlock )
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the saved value of a binding, only the block of the binding
+	 * which holds the row is read.
+	 *
+	 * @param rowIndex
+	 * @param name
+	 * @return the value, RowSaveUtil.EXCEPTION_INDICATOR if the value was an
+	 *         exception
+	 * @throws DataException
+	 */
+	public Object getValue( int rowIndex, String name ) throws DataException
+	{
+		if ( rowIndex < 0 || rowIndex >= rowCount )
+			throw new DataException( ResourceConstants.INVALID_ROW_INDEX,
+					Integer.valueOf( rowIndex ) );
+		int column = getColumn( name );
+		return readBlock( rowIndex / blockSize, column )[rowIndex % blockSize];
+	}
+
+	/**
+	 * @return the count of the null values of the binding in the block
+	 */
+	public int getNullCount( int block, String name ) throws DataException
+	{
+		return blocks[block][getColumn( name )].nullCount;
+	}
+
+	/**
+	 * @return the min value of the binding in the block, null if the values
+	 *         are all null or are not comparable
+	 */
+	public Object getMin( int block, String name ) throws DataException
+	{
+		return blocks[block][getColumn( name )].min;
+	}
+
+	/**
+	 * @return the max value of the binding in the block, null if the values
+	 *         are all null or are not comparable
+	 */
+	public Object getMax( int block, String name ) throws DataException
+	{
+		return blocks[block][getColumn( name )].max;
+	}
+
+	/**
+	 * Checks the zone map of a block for the values of a binding in a range,
+	 * the check is only a hint, a block which may overlap the range may have
+	 * no value in it.
+	 *
+	 * @param block
+	 * @param name
+	 * @param low
+	 *            the low bound, null for no low bound
+	 * @param high
+	 *            the high bound, null for no high bound
+	 * @return false if no value of the block is in the range
+	 * @throws DataException
+	 */
+	public boolean mayOverlap( int block, String name, Object low, Object high )
+			throws DataException
+	{
+		BlockInfo info = blocks[block][getColumn( name )];
+		if ( info.min == null )
+		{
+			// all values are null, or the min and max are unknown
+			return info.nullCount < getNonEmptyRowCount( block );
+		}
+		if ( low != null && low.getClass( ) == info.max.getClass( )
+				&& ( (Comparable) low ).compareTo( info.max ) > 0 )
+			return false;
+		if ( high != null && high.getClass( ) == info.min.getClass( )
+				&& ( (Comparable) high ).compareTo( info.min ) < 0 )
+			return false;
+		return true;
+	}
+
+	/**
+	 * @return false if no value of the binding in the block equals to the
+	 *         value
+	 * @throws DataException
+	 */
+	public boolean mayContain( int block, String name, Object value )
+			throws DataException
+	{
+		if ( value == null )
+			return blocks[block][getColumn( name )].nullCount > 0;
+		return mayOverlap( block, name, value, value );
+	}
+
+	/**
+	 * Finds the next row whose value of the binding equals to the value, the
+	 * blocks which can't contain the value are skipped without being read.
+	 *
+	 * @param name
+	 * @param value
+	 * @param fromRow
+	 *            the first row to check
+	 * @return the row index, -1 if not found
+	 * @throws DataException
+	 */
+	public int findRow( String name, Object value, int fromRow )
+			throws DataException
+	{
+		int column = getColumn( name );
+		for ( int block = Math.max( 0, fromRow ) / blockSize; block < blocks.length; block++ )
+		{
+			if ( !mayContain( block, name, value ) )
+				continue;
+			Object[] values = readBlock( block, column );
+			int start = block * blockSize;
+			int end = Math.min( rowCount - start, blockSize );
+			for ( int i = Math.max( 0, fromRow - start ); i < end; i++ )
+			{
+				if ( equals( value, values[i] ) && !isEmptyRow( start + i ) )
+					return start + i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the values of a row as a map which reads the value of a binding
+	 * when it is got, the map of an empty row has no saved binding.
+	 *
+	 * @param rowIndex
+	 * @param otherValues
+	 *            the values of the bindings which are not saved, such as the
+	 *            bindings of data set columns
+	 * @return
+	 */
+	public Map getRowValue( int rowIndex, Map otherValues )
+	{
+		return new RowValueMap( rowIndex, otherValues );
+	}
+
+	/**
+	 *
+	 */
+	public void close( )
+	{
+		try
+		{
+			if ( input != null )
+			{
+				input.close( );
+				input = null;
+			}
+		}
+		catch ( IOException e )
+		{
+			// ignore read exception
+		}
+	}
+
+	private int getColumn( String name ) throws DataException
+	{
+		Integer column = columns.get( name );
+		if ( column == null )
+			throw new DataException( ResourceConstants.RD_EXPR_INVALID_ERROR );
+		return column.intValue( );
+	}
+
+	private int getNonEmptyRowCount( int block )
+	{
+		return Math.min( rowCount - block * blockSize, blockSize )
+				- emptyRows[block].length;
+	}
+
+	private Object[] readBlock( int block, int column ) throws DataException
+	{
+		if ( cachedBlocks[column] == block )
+			return cachedValues[column];
+		BlockInfo info = blocks[block][column];
+		int count = Math.min( rowCount - block * blockSize, blockSize );
+		Object[] values = new Object[count];
+		try
+		{
+			byte[] bytes = new byte[info.length];
+			input.seek( info.offset );
+			input.readFully( bytes, 0, bytes.length );
+			DataInputStream dis = new DataInputStream( new ByteArrayInputStream( bytes ) );
+			for ( int i = 0; i < count; i++ )
+			{
+				values[i] = IOUtil.readObject( dis, currentClassLoader );
+			}
+		}
+		catch ( IOException e )
+		{
+			throw new DataException( ResourceConstants.RD_LOAD_ERROR,
+					e,
+					"Result Data" );
+		}
+		cachedBlocks[column] = block;
+		cachedValues[column] = values;
+		return values;
+	}
+
+	private static boolean equals( Object value1, Object value2 )
+	{
+		if ( value1 == null || value2 == null )
+			return value1 == value2;
+		if ( value1 instanceof Comparable
+				&& value1.getClass( ) == value2.getClass( ) )
+			return ( (Comparable) value1 ).compareTo( value2 ) == 0;
+		return value1.equals( value2 );
+	}
+
+	private static class BlockInfo
+	{
+
+		long offset;
+		int length;
+		int nullCount;
+		Object min;
+		Object max;
+	}
+
+	/**
+	 * The values of a row. A saved value is read when it is got, all the
+	 * values are read once the map is iterated or changed.
+	 */
+	private class RowValueMap extends AbstractMap
+	{
+
+		private int rowIndex;
+		private boolean isEmpty;
+		private Map otherValues;
+		private Map values;
+
+		RowValueMap( int rowIndex, Map otherValues )
+		{
+			this.rowIndex = rowIndex;
+			this.isEmpty = isEmptyRow( rowIndex );
+			this.otherValues = otherValues;
+		}
+
+		public boolean containsKey( Object key )
+		{
+			if ( values != null )
+				return values.containsKey( key );
+			return ( !isEmpty && columns.containsKey( key ) )
+					|| otherValues.containsKey( key );
+		}
+
+		public Object get( Object key )
+		{
+			if ( values != null )
+				return values.get( key );
+			if ( !isEmpty && columns.containsKey( key ) )
+				return getSavedValue( (String) key );
+			return otherValues.get( key );
+		}
+
+		public Object put( Object key, Object value )
+		{
+			return getValues( ).put( key, value );
+		}
+
+		public Set entrySet( )
+		{
+			return getValues( ).entrySet( );
+		}
+
+		private Object getSavedValue( String name )
+		{
+			try
+			{
+				Object value = getValue( rowIndex, name );
+				if ( RowSaveUtil.EXCEPTION_INDICATOR.equals( value ) )
+					return new DataException( ResourceConstants.READ_COLUMN_VALUE_FROM_DOCUMENT_ERROR,
+							name );
+				return value;
+			}
+			catch ( DataException e )
+			{
+				return e;
+			}
+		}
+
+		private Map getValues( )
+		{
+			if ( values == null )
+			{
+				values = new HashMap( );
+				if ( !isEmpty )
+				{
+					for ( int i = 0; i < names.length; i++ )
+					{
+						values.put( names[i], getSavedValue( names[i] ) );
+					}
+				}
+				values.putAll( otherValues );
+			}
+			return values;
+		}
+	}
+}
@@ -40,6 +40,8 @@ class ExprDataReader1 implements IExprDataReader
 {
 	private int currReadIndex;
 	private int currRowIndex;
+	// the index of the row at which the row stream is
+	private int streamRowIndex;
 
 	private int INT_LENGTH;
 	
@@ -58,6 +60,7 @@ class ExprDataReader1 implements IExprDataReader
 	private IDataSetResultSet dataSetData;
 	private Map bindingNameTypeMap;
 	private ClassLoader currentClassLoader;
+	private ExprColumnReader columnReader;
 	/**
 	 * @param rowExprsRAIs
 	 * @param rowLenRAIs
@@ -124,10 +127,23 @@ class ExprDataReader1 implements IExprDataReader
 
 		this.currReadIndex = 0;
 		this.currRowIndex = -1;
+		this.streamRowIndex = 0;
 		
 		
 	}
 	
+	/**
+	 * Reads the saved values of the rows from the columns instead of the
+	 * rows, so only the values which are got are read.
+	 * 
+	 * @param columnReader
+	 *            the reader of the columns, it is closed by this reader
+	 */
+	void setColumnReader( ExprColumnReader columnReader )
+	{
+		this.columnReader = columnReader;
+	}
+	
 	/*
 	 * @see org.eclipse.birt.data.engine.impl.document.IExprResultReader#getRowCount()
 	 */
@@ -223,8 +239,23 @@ class ExprDataReader1 implements IExprDataReader
 			}
 			else if ( currReadIndex < currRowIndex + 1 )
 			{
-				this.skipTo( currRowIndex );
-				this.exprValueMap = this.getValueMap( );
+				if ( columnReader != null
+						&& currRowIndex < columnReader.getRowCount( ) )
+				{
+					// the row stream stays where it is, skipTo moves it when
+					// a later row is read from it
+					if ( this.dataSetData != null )
+					{
+						this.dataSetData.skipTo( currRowIndex );
+					}
+					this.exprValueMap = columnReader.getRowValue( currRowIndex,
+							this.addDataSetValues( new HashMap( ) ) );
+				}
+				else
+				{
+					this.skipTo( currRowIndex );
+					this.exprValueMap = this.getValueMap( );
+				}
 			}
 			currReadIndex = currRowIndex + 1;
 		}
@@ -250,13 +281,14 @@ class ExprDataReader1 implements IExprDataReader
 			this.dataSetData.skipTo( absoluteRowIndex );
 		}
 		
-		if ( currReadIndex == absoluteRowIndex )
+		if ( streamRowIndex == absoluteRowIndex )
 			return;
 				
-		if ( version == VersionManager.VERSION_2_0 )
+		if ( version == VersionManager.VERSION_2_0 || rowLenRAIs == null )
 		{
+			// no row length stream, reads through the rows in between
 			int exprCount;
-			int gapRows = absoluteRowIndex - currReadIndex;
+			int gapRows = absoluteRowIndex - streamRowIndex;
 			for ( int j = 0; j < gapRows; j++ )
 			{
 				exprCount = IOUtil.readInt( rowExprsDis );
@@ -283,6 +315,7 @@ class ExprDataReader1 implements IExprDataReader
 			rowExprsRAIs.seek( rowOffsetAbsolute + this.metaOffset ); 
 			rowExprsDis = new DataInputStream( rowExprsRAIs );
 		}
+		streamRowIndex = absoluteRowIndex;
 	}
 	
 	/**
@@ -307,7 +340,18 @@ class ExprDataReader1 implements IExprDataReader
 			}
 			valueMap.put( exprID, exprValue );
 		}
+		streamRowIndex++;
+
+		return addDataSetValues( valueMap );
+	}
 
+	/**
+	 * @param valueMap
+	 * @return the map with the values of the bindings of data set columns
+	 * @throws DataException
+	 */
+	private Map addDataSetValues( Map valueMap ) throws DataException
+	{
 		if ( dataSetData != null )
 		{
 			java.util.Iterator it = this.dataSetExprKeys.keySet( ).iterator( );
@@ -346,6 +390,11 @@ class ExprDataReader1 implements IExprDataReader
 				rowExprsDis.close( );
 				rowExprsDis = null;
 			}
+			if ( columnReader != null )
+			{
+				columnReader.close( );
+				columnReader = null;
+			}
 		}
 		catch ( IOException e )
 		{
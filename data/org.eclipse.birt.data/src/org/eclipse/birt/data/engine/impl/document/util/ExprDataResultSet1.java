@@ -12,21 +12,31 @@
 package org.eclipse.birt.data.engine.impl.document.util;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import org.eclipse.birt.core.archive.RAInputStream;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.impl.document.viewing.ExprMetaInfo;
 import org.eclipse.birt.data.engine.impl.document.viewing.IDataSetResultSet;
+import org.eclipse.birt.data.engine.odi.IResultObject;
+import org.eclipse.birt.data.engine.script.ScriptEvalUtil;
 
 /**
  * The raw result set which will retrieve the raw data of expression value from
  * the report document. This class is used when the query is running based on a
  * first created report document, which has such a characteristic that all
  * expression rows are valid row, and then there is no row index information.
+ * The rows can be filtered by the values of the bindings, when the values are
+ * saved in columns the blocks whose min, max and null count show that they
+ * have no row of a filter are skipped without being read.
  */
 public class ExprDataResultSet1 extends BaseExprDataResultSet
 {
 	private RAInputStream rowRAIs;
+	private ExprColumnReader columnReader;
+	private List<Filter> filters = new ArrayList<Filter>( );
 	
 	/**
 	 * @param rowIs,
@@ -37,16 +47,156 @@ public class ExprDataResultSet1 extends BaseExprDataResultSet
 	 */
 	public ExprDataResultSet1( RAInputStream rowRAIs, ExprMetaInfo[] inExprMetas, int version, IDataSetResultSet dsRSet )
 			throws DataException
+	{
+		this( rowRAIs, null, inExprMetas, version, dsRSet );
+	}
+	
+	/**
+	 * @param rowIs,
+	 *            the input stream for expression row
+	 * @param columnReader,
+	 *            the reader of the expression columns, null if the values
+	 *            are not saved in columns
+	 * @param inExprMetas,
+	 *            the expression meta data
+	 * @throws DataException 
+	 */
+	public ExprDataResultSet1( RAInputStream rowRAIs,
+			ExprColumnReader columnReader, ExprMetaInfo[] inExprMetas,
+			int version, IDataSetResultSet dsRSet ) throws DataException
 	{
 		this.rowRAIs = rowRAIs;
-		IExprDataReader exprDataReader = new ExprDataReader1( rowRAIs,
+		this.columnReader = columnReader;
+		ExprDataReader1 exprDataReader = new ExprDataReader1( rowRAIs,
 				null,
 				version, dsRSet );
+		exprDataReader.setColumnReader( columnReader );
 		this.rowCount = exprDataReader.getCount( );
 
 		super.init( inExprMetas, exprDataReader );
 	}
 	
+	/**
+	 * Only returns the rows whose value of the binding is in the range.
+	 * 
+	 * @param name
+	 *            the binding name
+	 * @param low
+	 *            the low bound, null for no low bound
+	 * @param high
+	 *            the high bound, null for no high bound
+	 */
+	public void addRangeFilter( String name, Object low, Object high )
+	{
+		this.filters.add( new Filter( name, low, high, false ) );
+	}
+	
+	/**
+	 * Only returns the rows whose value of the binding equals to the value,
+	 * such as the rows of a group.
+	 * 
+	 * @param name
+	 *            the binding name
+	 * @param value
+	 *            the value, null for the rows whose value is null
+	 */
+	public void addValueFilter( String name, Object value )
+	{
+		this.filters.add( new Filter( name, value, value, true ) );
+	}
+	
+	/*
+	 * @see org.eclipse.birt.data.engine.impl.document.util.BaseExprDataResultSet#next()
+	 */
+	public IResultObject next( ) throws DataException
+	{
+		if ( filters.isEmpty( ) )
+			return super.next( );
+
+		while ( rowIndex < rowCount )
+		{
+			if ( columnReader != null
+					&& rowIndex < columnReader.getRowCount( ) )
+			{
+				int block = rowIndex / columnReader.getBlockSize( );
+				if ( !mayAccept( block ) )
+				{
+					// the rows of the block are skipped without being read
+					int blockEnd = Math.min( ( block + 1 )
+							* columnReader.getBlockSize( ),
+							columnReader.getRowCount( ) );
+					while ( rowIndex < blockEnd )
+					{
+						exprDataReader.next( );
+						rowIndex++;
+					}
+					continue;
+				}
+			}
+			exprDataReader.next( );
+			rowIndex++;
+			if ( accept( exprDataReader.getRowValue( ) ) )
+				return getResultObject( );
+		}
+		return null;
+	}
+	
+	/**
+	 * @param block
+	 * @return false if no row of the block is accepted by the filters
+	 * @throws DataException
+	 */
+	private boolean mayAccept( int block ) throws DataException
+	{
+		for ( int i = 0; i < filters.size( ); i++ )
+		{
+			Filter filter = filters.get( i );
+			if ( !columnReader.containsColumn( filter.name ) )
+				continue;
+			if ( filter.isValue
+					? !columnReader.mayContain( block, filter.name, filter.low )
+					: !columnReader.mayOverlap( block,
+							filter.name,
+							filter.low,
+							filter.high ) )
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * @param rowValue
+	 * @return true if the row is accepted by the filters
+	 * @throws DataException
+	 */
+	private boolean accept( Map rowValue ) throws DataException
+	{
+		for ( int i = 0; i < filters.size( ); i++ )
+		{
+			Filter filter = filters.get( i );
+			// the row which is not saved has no value
+			if ( !rowValue.containsKey( filter.name ) )
+				return false;
+			Object value = rowValue.get( filter.name );
+			if ( value instanceof DataException )
+				return false;
+			if ( filter.isValue && ( value == null || filter.low == null ) )
+			{
+				if ( value != filter.low )
+					return false;
+			}
+			else if ( value == null
+					|| ( filter.low != null && ScriptEvalUtil.compare( value,
+							filter.low ) < 0 )
+					|| ( filter.high != null && ScriptEvalUtil.compare( value,
+							filter.high ) > 0 ) )
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
 	/*
 	 * @see org.eclipse.birt.data.engine.impl.document.viewing.IExprDataResultSet#close()
 	 */
@@ -68,4 +218,21 @@ public class ExprDataResultSet1 extends BaseExprDataResultSet
 		}
 	}
 	
+	private static class Filter
+	{
+
+		String name;
+		Object low;
+		Object high;
+		boolean isValue;
+
+		Filter( String name, Object low, Object high, boolean isValue )
+		{
+			this.name = name;
+			this.low = low;
+			this.high = high;
+			this.isValue = isValue;
+		}
+	}
+	
 }
@@ -146,11 +146,15 @@ public class ExprResultSet implements IExprResultSet
 						StreamManager.SELF_SCOPE );
 			}
 			
-			this.exprResultReader = new ExprDataReader1( this.rowExprsRAIs,
+			ExprDataReader1 exprDataReader = new ExprDataReader1( this.rowExprsRAIs,
 					this.rowLenRAIs,
 					this.version,
 					( this.qd instanceof IQueryDefinition && ( (IQueryDefinition) qd ).isSummaryQuery( ) )
 							? null : this.dataSetResultSet );
+			exprDataReader.setColumnReader( ExprColumnReader.newInstance( streamManager,
+					StreamManager.SELF_SCOPE,
+					this.version ) );
+			this.exprResultReader = exprDataReader;
 			this.rowCount = exprResultReader.getCount( );
 		}
 		else
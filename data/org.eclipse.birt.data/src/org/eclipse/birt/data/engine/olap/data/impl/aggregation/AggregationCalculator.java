@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.birt.data.engine.olap.data.impl.aggregation;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
@@ -21,6 +23,7 @@ import org.eclipse.birt.data.engine.aggregation.AggregationUtil;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.api.timefunction.IParallelPeriod;
 import org.eclipse.birt.data.engine.api.timefunction.ITimeFunction;
 import org.eclipse.birt.data.engine.api.timefunction.ReferenceDate;
@@ -66,6 +69,7 @@ public class AggregationCalculator
 	private int[] parameterColIndex;
 	private FacttableRow facttableRow;
 	private ICubeDimensionReader cubeDimensionReader;
+	private boolean mergeState = false;
 	private static Logger logger = Logger.getLogger( AggregationCalculator.class.getName( ) );
 
 	/**
@@ -280,6 +284,15 @@ public class AggregationCalculator
 		return -1;
 	}
 	
+	/**
+	 * The measure values of the rows are the accumulator states saved by
+	 * MergeRow4Aggregation, which are merged instead of passed to onRow().
+	 */
+	void setMergeState( )
+	{
+		this.mergeState = true;
+	}
+	
 	/**
 	 * 
 	 * @param row
@@ -307,7 +320,7 @@ public class AggregationCalculator
 							{
 								continue;
 							}
-							accumulators[i].onRow( getAccumulatorParameter( row, i ) );
+							accumulate( row, i );
 						}
 					}
 					row.firstMeasure( );
@@ -425,13 +438,30 @@ public class AggregationCalculator
 					{
 						continue;
 					}
-					accumulators[i].onRow( getAccumulatorParameter( row, i ) );
+					accumulate( row, i );
 				}
 			}
 			row.firstMeasure( );
 		}
 	}
 	
+	private void accumulate( Row4Aggregation row, int funcIndex )
+			throws IOException, DataException
+	{
+		if ( mergeState )
+		{
+			byte[] state = (byte[]) row.getMeasures( )[measureIndexes[funcIndex]];
+			if ( state != null )
+			{
+				( (IMergeableAccumulator) accumulators[funcIndex] ).mergeState( new DataInputStream( new ByteArrayInputStream( state ) ) );
+			}
+		}
+		else
+		{
+			accumulators[funcIndex].onRow( getAccumulatorParameter( row, funcIndex ) );
+		}
+	}
+	
 	private Object[] getAccumulatorParameter( Row4Aggregation row, int funcIndex )
 	{
 		Object[] parameters = null;
@@ -22,6 +22,8 @@ import java.util.logging.Logger;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.aggregation.AggregationUtil;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
+import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ComparatorUtil;
 import org.eclipse.birt.data.engine.executor.cache.SizeOfUtil;
@@ -73,6 +75,7 @@ public class AggregationExecutor
 	public long memoryCacheSize = 0;
 	public Row4Aggregation[] aggregationRow;
 	private AggregationFunctionDefinition simpleFunc;
+	private boolean mergeState = false;
 	private boolean existReferenceDate = false;
 	
 	private static String[] simpleFuncNames = new String[]{
@@ -139,6 +142,13 @@ public class AggregationExecutor
 		}
 		if( simpleFunc != null )
 		{
+			if( mergeState )
+			{
+				for ( int i = 0; i < this.aggregationCalculators.length; i++ )
+				{
+					this.aggregationCalculators[i].setMergeState( );
+				}
+			}
 			measureIndexes4Merge = dataSet4Aggregation.getMetaInfo( ).getMeasureIndex( simpleFunc.getMeasureName() );
 			if ( AggregationUtil.needDataField( AggregationManager.getInstance( ).getAggregation
 						( simpleFunc.getFunctionName( ) ) ) )
@@ -195,6 +205,7 @@ public class AggregationExecutor
 	private AggregationFunctionDefinition getSimpleFunction( AggregationDefinition[] aggregations ) throws DataException
 	{
 		AggregationFunctionDefinition func = null;
+		boolean existTimeFunction = false;
 		for( int i = 0; i < aggregations.length; i++ )
 		{
 			AggregationFunctionDefinition[] aggrFunc = aggregations[i].getAggregationFunctions();
@@ -202,6 +213,11 @@ public class AggregationExecutor
 				continue;
 			for( int j = 0; j < aggrFunc.length; j++ )
 			{
+				if( aggrFunc[j].getTimeFunction( ) != null
+						|| aggrFunc[j].getTimeFunctionFilter( ) != null )
+				{
+					existTimeFunction = true;
+				}
 				if( func == null && aggrFunc[j].getFilterEvalHelper( ) == null )
 				{
 					func = aggrFunc[j];
@@ -213,8 +229,18 @@ public class AggregationExecutor
 				}
 			}
 		}
-		if( func != null && isSimepleFunction( func.getFunctionName() )
-					&& !existReferenceDate )
+		boolean merge = false;
+		if( func != null && !isSimepleFunction( func.getFunctionName( ) ) )
+		{
+			// the other functions are merged by their accumulator states,
+			// which are carried in the measure column per fact row segment,
+			// so the time functions evaluated on the rows are not supported
+			merge = !existTimeFunction && func.getMeasureName( ) != null
+					&& isMergeableFunction( func );
+			if( !merge )
+				return null;
+		}
+		if( func != null && !existReferenceDate )
 		{
 			String mesureName =  func.getMeasureName( );
 			try
@@ -227,7 +253,7 @@ public class AggregationExecutor
 					// for Double type, do not calculate beforehand, need
 					// enhance in future
 					if ( info.getMeasureName( ).equals( mesureName )
-							&& "SUM".equals( func.getFunctionName( ) )
+							&& ( "SUM".equals( func.getFunctionName( ) ) || merge )
 							&& DataType.DOUBLE_TYPE == info.getDataType( ) )
 					{
 						return null;
@@ -239,6 +265,7 @@ public class AggregationExecutor
 				//ignore it
 			}
 			
+			mergeState = merge;
 			return func;
 		}
 		else
@@ -260,6 +287,15 @@ public class AggregationExecutor
 		return true;
 	}
 	
+	private static boolean isMergeableFunction( AggregationFunctionDefinition func )
+			throws DataException
+	{
+		IAggrFunction aggrFunc = AggregationManager.getInstance( )
+				.getAggregation( func.getFunctionName( ) );
+		return aggrFunc != null
+				&& aggrFunc.newAccumulator( ) instanceof IMergeableAccumulator;
+	}
+	
 	private static boolean isSimepleFunction( String funcName )
 	{
 		for( int i = 0; i < simpleFuncNames.length; i++ )
@@ -934,7 +970,7 @@ public class AggregationExecutor
 		for (int i = 0; i < allSortedFactRows.size( ); i++)
 		{
 			mergeRow4Aggregations[i] = new MergeRow4Aggregation( bufferSize, simpleFunc,
-					measureIndexes4Merge, parameterColIndex4Merge );
+					measureIndexes4Merge, parameterColIndex4Merge, mergeState );
 		}
 	}
 	
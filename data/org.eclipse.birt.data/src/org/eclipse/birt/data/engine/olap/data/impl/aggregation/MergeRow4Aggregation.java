@@ -1,5 +1,8 @@
 package org.eclipse.birt.data.engine.olap.data.impl.aggregation;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
@@ -9,6 +12,7 @@ import java.util.Map;
 import org.eclipse.birt.data.engine.api.aggregation.Accumulator;
 import org.eclipse.birt.data.engine.api.aggregation.AggregationManager;
 import org.eclipse.birt.data.engine.api.aggregation.IAggrFunction;
+import org.eclipse.birt.data.engine.api.aggregation.IMergeableAccumulator;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.executor.ComparatorUtil;
 import org.eclipse.birt.data.engine.i18n.DataResourceHandle;
@@ -16,6 +20,16 @@ import org.eclipse.birt.data.engine.i18n.ResourceConstants;
 import org.eclipse.birt.data.engine.olap.data.impl.AggregationFunctionDefinition;
 import org.eclipse.birt.data.engine.olap.data.impl.dimension.Member;
 
+/**
+ * Pre-aggregates the fact rows of the same level members before they are
+ * sorted. The rows are kept in a LRU cache of cacheSize rows, and the least
+ * recently used row is popped when the cache is full, so one group may be
+ * popped several times as partial segments. The partial value of a
+ * self-decomposable function such as SUM is aggregated again by the same
+ * function, while for the other mergeable functions the popped row carries
+ * the saved state of the accumulator, which is merged by the
+ * AggregationCalculator.
+ */
 public class MergeRow4Aggregation
 {
 	private Map<RowHashKey,Node> rowMap;
@@ -28,12 +42,31 @@ public class MergeRow4Aggregation
 	
 	private int measureIndexes;
 	private int parameterColIndex;
+	private boolean mergeState;
 	
 	MergeRow4Aggregation( int cacheSize, AggregationFunctionDefinition aggregation,
 			int measureIndexes, int parameterColIndex ) throws DataException
+	{
+		this( cacheSize, aggregation, measureIndexes, parameterColIndex, false );
+	}
+	
+	/**
+	 * 
+	 * @param cacheSize
+	 * @param aggregation
+	 * @param measureIndexes
+	 * @param parameterColIndex
+	 * @param mergeState
+	 *            whether the popped rows carry the saved accumulator state
+	 *            instead of the partial value
+	 * @throws DataException
+	 */
+	MergeRow4Aggregation( int cacheSize, AggregationFunctionDefinition aggregation,
+			int measureIndexes, int parameterColIndex, boolean mergeState ) throws DataException
 	{
 		this.cacheSize = cacheSize;
 		this.aggregation = aggregation;
+		this.mergeState = mergeState;
 		
 		if( aggregation != null )
 		{
@@ -55,7 +88,7 @@ public class MergeRow4Aggregation
 		this.nodeSize = 0;
 	}
 	
-	public Row4Aggregation push( Row4Aggregation row ) throws DataException
+	public Row4Aggregation push( Row4Aggregation row ) throws DataException, IOException
 	{
 		RowHashKey hashKey = new RowHashKey( row.getLevelMembers(), row.getParameterValues() );
 		Node mapNode = rowMap.get( hashKey );
@@ -150,7 +183,7 @@ public class MergeRow4Aggregation
 		nodeSize++;
 	}
 	
-	private Node popNode( ) throws DataException
+	private Node popNode( ) throws DataException, IOException
 	{
 		Node node = firstNode;
 		firstNode = node.nextNode;
@@ -162,14 +195,30 @@ public class MergeRow4Aggregation
 		nodeSize--;
 		if( node.accumulator != null )
 		{
-			node.accumulator.finish();
-			node.row.getMeasures( )[measureIndexes] = node.accumulator.getValue();
+			setAggregatedValue( node );
 		}
 		node.row.resetPosition();
 		return node;
 	}
 	
-	public List<Row4Aggregation> getAll( ) throws DataException
+	private void setAggregatedValue( Node node ) throws DataException, IOException
+	{
+		if( mergeState )
+		{
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+			DataOutputStream out = new DataOutputStream( buffer );
+			( (IMergeableAccumulator) node.accumulator ).saveState( out );
+			out.close( );
+			node.row.getMeasures( )[measureIndexes] = buffer.toByteArray( );
+		}
+		else
+		{
+			node.accumulator.finish();
+			node.row.getMeasures( )[measureIndexes] = node.accumulator.getValue();
+		}
+	}
+	
+	public List<Row4Aggregation> getAll( ) throws DataException, IOException
 	{
 		List<Row4Aggregation> rowList = new ArrayList<Row4Aggregation>();
 		Iterator<Node> nodes = this.rowMap.values().iterator();
@@ -178,8 +227,7 @@ public class MergeRow4Aggregation
 			Node node = nodes.next();
 			if( node.accumulator != null )
 			{
-				node.accumulator.finish();
-				node.row.getMeasures( )[measureIndexes] = node.accumulator.getValue();
+				setAggregatedValue( node );
 				node.row.resetPosition();
 			}
 			rowList.add( node.row );
@@ -0,0 +1,224 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.data.oda.excel.impl.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+
+import org.eclipse.birt.report.data.oda.excel.ExcelODAConstants;
+import org.junit.Test;
+
+/**
+ * Reads the same workbook saved as .xls and .xlsx. The sheet "Orders" has
+ * dates, booleans, formulas with cached number, string and error results, an
+ * error cell and a missing row; the sheet "Totals" has formulas referring to
+ * "Orders".
+ */
+public class ExcelFileReaderTest
+{
+
+	private static final String XLS_FILE = "input/types.xls"; //$NON-NLS-1$
+	private static final String XLSX_FILE = "input/types.xlsx"; //$NON-NLS-1$
+
+	private static final String ORDERS = "Orders"; //$NON-NLS-1$
+	private static final String TOTALS = "Totals"; //$NON-NLS-1$
+
+	private static final String EMPTY = ExcelODAConstants.EMPTY_STRING;
+
+	private static final Object[] ORDERS_HEADER = {
+			"Name", "Date", "Amount", "Paid", "Total", "Label", "Error" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$ //$NON-NLS-6$ //$NON-NLS-7$
+	};
+	private static final Object[] APPLE = {
+			"Apple", //$NON-NLS-1$
+			date( 2017, Calendar.MARCH, 15, 0, 0 ),
+			Double.valueOf( 1.5 ),
+			Boolean.TRUE,
+			Double.valueOf( 3 ),
+			"Apple!", //$NON-NLS-1$
+			EMPTY
+	};
+	private static final Object[] PEAR = {
+			"Pear", //$NON-NLS-1$
+			date( 2017, Calendar.DECEMBER, 1, 10, 30 ),
+			Double.valueOf( 2 ),
+			Boolean.FALSE,
+			Double.valueOf( 4 ),
+			"Pear!", //$NON-NLS-1$
+			EMPTY
+	};
+	private static final Object[] PLUM = {
+			"Plum", //$NON-NLS-1$
+			EMPTY,
+			Double.valueOf( 3 ),
+			EMPTY,
+			Double.valueOf( 6 ),
+			"big" //$NON-NLS-1$
+	};
+	private static final Object[][] TOTALS_ROWS = {
+			{
+					"Sum", Double.valueOf( 6.5 ) //$NON-NLS-1$
+			}, {
+					"Paid", Boolean.TRUE //$NON-NLS-1$
+			}
+	};
+
+	private static Date date( int year, int month, int day, int hour,
+			int minute )
+	{
+		Calendar calendar = Calendar.getInstance( );
+		calendar.clear( );
+		calendar.set( year, month, day, hour, minute );
+		return calendar.getTime( );
+	}
+
+	private InputStream open( String file )
+	{
+		return getClass( ).getResourceAsStream( file );
+	}
+
+	@Test
+	public void testXlsSheets( ) throws Exception
+	{
+		InputStream in = open( XLS_FILE );
+		try
+		{
+			XlsFileReader reader = new XlsFileReader( in );
+			assertEquals( Arrays.asList( ORDERS, TOTALS ),
+					reader.getSheetNames( ) );
+			assertEquals( 5, reader.getRowCount( ORDERS ) );
+			assertEquals( 2, reader.getRowCount( "totals" ) ); //$NON-NLS-1$
+			assertEquals( 0, reader.getRowCount( "none" ) ); //$NON-NLS-1$
+			assertFalse( reader.openSheet( "none" ) ); //$NON-NLS-1$
+
+			// the sheets are read in any order
+			assertTrue( reader.openSheet( "totals" ) ); //$NON-NLS-1$
+			assertArrayEquals( TOTALS_ROWS[0], reader.getRow( 0 ) );
+			assertTrue( reader.openSheet( ORDERS ) );
+			assertArrayEquals( ORDERS_HEADER, reader.getRow( 0 ) );
+			assertTrue( reader.openSheet( TOTALS ) );
+			assertArrayEquals( TOTALS_ROWS[0], reader.getRow( 0 ) );
+			assertArrayEquals( TOTALS_ROWS[1], reader.getRow( 1 ) );
+			assertTrue( reader.isEndOfSheet( 2 ) );
+		}
+		finally
+		{
+			in.close( );
+		}
+	}
+
+	@Test
+	public void testXlsRows( ) throws Exception
+	{
+		InputStream in = open( XLS_FILE );
+		try
+		{
+			XlsFileReader reader = new XlsFileReader( in );
+			assertTrue( reader.openSheet( ORDERS ) );
+			assertArrayEquals( ORDERS_HEADER, reader.getRow( 0 ) );
+			assertArrayEquals( APPLE, reader.getRow( 1 ) );
+			assertArrayEquals( PEAR, reader.getRow( 2 ) );
+			assertTrue( reader.hasValue( 3, 4, ORDERS_HEADER.length ) );
+			assertFalse( reader.hasValue( 3, 3, ORDERS_HEADER.length ) );
+			// the missing row
+			assertNull( reader.getRow( 3 ) );
+			assertFalse( reader.isEndOfSheet( 3 ) );
+			assertArrayEquals( PLUM, reader.getRow( 4 ) );
+			assertTrue( reader.isEndOfSheet( 5 ) );
+			assertNull( reader.getRow( 5 ) );
+
+			// reading backward reads the sheet again
+			assertArrayEquals( PEAR, reader.getRow( 2 ) );
+			assertArrayEquals( PLUM, reader.getRow( 4 ) );
+		}
+		finally
+		{
+			in.close( );
+		}
+	}
+
+	@Test
+	public void testXlsLines( ) throws Exception
+	{
+		// the rows are read up to the missing one, then the next sheet
+		List<Object[]> expected = new ArrayList<Object[]>( );
+		expected.add( ORDERS_HEADER );
+		expected.add( APPLE );
+		expected.add( PEAR );
+		assertLines( expected, readLines( XLS_FILE,
+				ExcelODAConstants.XLS_FORMAT,
+				ORDERS ) );
+		assertLines( Arrays.asList( TOTALS_ROWS ), readLines( XLS_FILE,
+				ExcelODAConstants.XLS_FORMAT,
+				TOTALS ) );
+	}
+
+	@Test
+	public void testXlsxLines( ) throws Exception
+	{
+		// the missing row is skipped, the last row is padded as the first one
+		List<Object[]> expected = new ArrayList<Object[]>( );
+		expected.add( ORDERS_HEADER );
+		expected.add( APPLE );
+		expected.add( PEAR );
+		expected.add( Arrays.copyOf( PLUM, ORDERS_HEADER.length ) );
+		expected.get( 3 )[PLUM.length] = EMPTY;
+		assertLines( expected, readLines( XLSX_FILE,
+				ExcelODAConstants.XLSX_FORMAT,
+				ORDERS ) );
+		assertLines( Arrays.asList( TOTALS_ROWS ), readLines( XLSX_FILE,
+				ExcelODAConstants.XLSX_FORMAT,
+				TOTALS ) );
+	}
+
+	private List<List<Object>> readLines( String file, String extension,
+			String sheetName ) throws Exception
+	{
+		InputStream in = open( file );
+		ExcelFileReader reader = new ExcelFileReader( in,
+				extension,
+				Arrays.asList( sheetName ),
+				0 );
+		try
+		{
+			List<List<Object>> lines = new ArrayList<List<Object>>( );
+			List<Object> line;
+			while ( ( line = reader.readLine( ) ) != null )
+			{
+				lines.add( line );
+			}
+			return lines;
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	private void assertLines( List<Object[]> expected, List<List<Object>> lines )
+	{
+		assertEquals( expected.size( ), lines.size( ) );
+		for ( int i = 0; i < expected.size( ); i++ )
+		{
+			assertArrayEquals( expected.get( i ), lines.get( i ).toArray( ) );
+		}
+	}
+}
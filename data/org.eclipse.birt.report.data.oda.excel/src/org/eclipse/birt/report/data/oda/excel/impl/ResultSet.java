@@ -39,7 +39,7 @@ public class ResultSet implements IResultSet {
 
 	public static final int DEFAULT_MAX_ROWS = 1000;
 	private static final int CURSOR_INITIAL_VALUE = -1;
-	private String[][] sourceData = null;
+	private Object[][] sourceData = null;
 	private ResultSetMetaData resultSetMetaData = null;
 	private int maxRows = 0;
 	private int cursor = CURSOR_INITIAL_VALUE;
@@ -143,10 +143,7 @@ public class ResultSet implements IResultSet {
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getString(int)
 	 */
 	public String getString(int index) throws OdaException {
-		validateCursorState();
-		String result = sourceData[cursor][index - 1];
-		this.wasNull = result == null ? true : false;
-		return result;
+		return excelFileSource.getText(getValue(index));
 	}
 
 	/*
@@ -164,7 +161,10 @@ public class ResultSet implements IResultSet {
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getInt(int)
 	 */
 	public int getInt(int index) throws OdaException {
-		return stringToInt(getString(index));
+		Object value = getValue(index);
+		if (value instanceof Double)
+			return ((Double) value).intValue();
+		return stringToInt(excelFileSource.getText(value));
 	}
 
 	/*
@@ -173,14 +173,17 @@ public class ResultSet implements IResultSet {
 	 * )
 	 */
 	public int getInt(String columnName) throws OdaException {
-		return stringToInt(getString(columnName));
+		return getInt(findColumn(columnName));
 	}
 
 	/*
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getDouble(int)
 	 */
 	public double getDouble(int index) throws OdaException {
-		return stringToDouble(getString(index));
+		Object value = getValue(index);
+		if (value instanceof Double)
+			return ((Double) value).doubleValue();
+		return stringToDouble(excelFileSource.getText(value));
 	}
 
 	/*
@@ -189,14 +192,17 @@ public class ResultSet implements IResultSet {
 	 * .String)
 	 */
 	public double getDouble(String columnName) throws OdaException {
-		return stringToDouble(getString(columnName));
+		return getDouble(findColumn(columnName));
 	}
 
 	/*
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getBigDecimal(int)
 	 */
 	public BigDecimal getBigDecimal(int index) throws OdaException {
-		return stringToBigDecimal(getString(index));
+		Object value = getValue(index);
+		if (value instanceof Double)
+			return BigDecimal.valueOf(((Double) value).doubleValue());
+		return stringToBigDecimal(excelFileSource.getText(value));
 	}
 
 	/*
@@ -205,14 +211,17 @@ public class ResultSet implements IResultSet {
 	 * lang.String)
 	 */
 	public BigDecimal getBigDecimal(String columnName) throws OdaException {
-		return stringToBigDecimal(getString(columnName));
+		return getBigDecimal(findColumn(columnName));
 	}
 
 	/*
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getDate(int)
 	 */
 	public Date getDate(int index) throws OdaException {
-		return stringToDate(getString(index));
+		Object value = getValue(index);
+		if (value instanceof java.util.Date)
+			return DateUtil.toSqlDate(value);
+		return stringToDate(excelFileSource.getText(value));
 	}
 
 	/*
@@ -221,7 +230,7 @@ public class ResultSet implements IResultSet {
 	 * )
 	 */
 	public Date getDate(String columnName) throws OdaException {
-		return stringToDate(getString(columnName));
+		return getDate(findColumn(columnName));
 	}
 
 	/*
@@ -230,7 +239,10 @@ public class ResultSet implements IResultSet {
 	public Time getTime( int index ) throws OdaException
 	{
 		try{
-			return stringToTime( getString( index ) );
+			Object value = getValue( index );
+			if ( value instanceof java.util.Date )
+				return DateUtil.toSqlTime( value );
+			return stringToTime( excelFileSource.getText( value ) );
 		}catch (Exception e){
 			return null;
 		}
@@ -242,7 +254,7 @@ public class ResultSet implements IResultSet {
 	public Time getTime( String columnName ) throws OdaException
 	{
 		try{
-			return stringToTime( getString( columnName ) );
+			return getTime( findColumn( columnName ) );
 		}catch (Exception e){
 			return null;
 		}
@@ -254,7 +266,10 @@ public class ResultSet implements IResultSet {
 	public Timestamp getTimestamp( int index ) throws OdaException
 	{
 		try{
-			return stringToTimestamp( getString( index ) );
+			Object value = getValue( index );
+			if ( value instanceof java.util.Date )
+				return new Timestamp( ( (java.util.Date) value ).getTime( ) );
+			return stringToTimestamp( excelFileSource.getText( value ) );
 		}catch (Exception e){
 			return null;
 		}
@@ -266,7 +281,7 @@ public class ResultSet implements IResultSet {
 	public Timestamp getTimestamp( String columnName ) throws OdaException
 	{
 		try{
-			return stringToTimestamp( getString( columnName ) );
+			return getTimestamp( findColumn( columnName ) );
 		}catch (Exception e){
 			return null;
 		}
@@ -310,7 +325,12 @@ public class ResultSet implements IResultSet {
 	 * @see org.eclipse.datatools.connectivity.oda.IResultSet#getBoolean(int)
 	 */
 	public boolean getBoolean(int index) throws OdaException {
-		return stringToBoolean(getString(index)).booleanValue();
+		Object value = getValue(index);
+		if (value instanceof Boolean)
+			return ((Boolean) value).booleanValue();
+		if (value instanceof Double)
+			return ((Double) value).intValue() != 0;
+		return stringToBoolean(excelFileSource.getText(value)).booleanValue();
 	}
 
 	/*
@@ -321,7 +341,7 @@ public class ResultSet implements IResultSet {
 	 * .String)
 	 */
 	public boolean getBoolean(String columnName) throws OdaException {
-		return stringToBoolean(getString(columnName)).booleanValue();
+		return getBoolean(findColumn(columnName));
 	}
 
 	/*
@@ -360,6 +380,22 @@ public class ResultSet implements IResultSet {
 		return resultSetMetaData.findColumn(columnName);
 	}
 
+	/**
+	 * Returns the cell value of a column in the current row: a Double, a Date,
+	 * a Boolean or a String value.
+	 *
+	 * @param index
+	 *            the 1-based column index
+	 * @return the value
+	 * @throws OdaException
+	 */
+	private Object getValue(int index) throws OdaException {
+		validateCursorState();
+		Object result = sourceData[cursor][index - 1];
+		this.wasNull = result == null ? true : false;
+		return result;
+	}
+
 	/**
 	 * Validate whether the cursor has been initialized and at a valid row.
 	 *
@@ -20,26 +20,21 @@ import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
-import org.apache.poi.hssf.usermodel.HSSFDateUtil;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.FormulaEvaluator;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.eclipse.birt.report.data.oda.excel.ExcelODAConstants;
 import org.eclipse.birt.report.data.oda.excel.impl.i18n.Messages;
 import org.eclipse.datatools.connectivity.oda.OdaException;
 import org.xml.sax.SAXException;
 
-import com.ibm.icu.text.SimpleDateFormat;
-
+/**
+ * Reads the rows of the worksheets of an Excel file. Both formats are read
+ * without the POI user model, and a cell value is read as its native value: a
+ * Double, a Date, a Boolean or a String.
+ */
 public class ExcelFileReader {
 
 	private InputStream fis;
@@ -48,9 +43,7 @@ public class ExcelFileReader {
 	LinkedHashMap<String, String> xlsxWorkSheetList;
 	private int currentSheetIndex = 0;
 
-	private Workbook workBook;
-	private Sheet sheet;
-	private FormulaEvaluator formulaEvaluator;
+	private XlsFileReader xlsRead;
 
 	private boolean isInitialised;
 
@@ -62,7 +55,7 @@ public class ExcelFileReader {
 	private XlsxRowCallBack callback;
 	private XlsxFileReader xlsxread;
 	Map<String, String> xlsxSheetRidNameMap;
-    private SimpleDateFormat sdf;  
+
 	public void setCurrentRowIndex(int currentRowIndex) {
 		this.currentRowIndex = currentRowIndex;
 	}
@@ -77,48 +70,41 @@ public class ExcelFileReader {
 		this.fileExtension = fileExtension;
 		this.workSheetList = sheetNameList;
 		this.xlsxRowsToRead = rowsToRead;
-		sdf = new SimpleDateFormat( );
 	}
 
-	public boolean checkXlsEndOfRows(){
-		for(int cnt=currentRowIndex+1; cnt<= (currentRowIndex + ExcelODAConstants.BLANK_LOOK_AHEAD); cnt++){
-			Row row = sheet.getRow(cnt);
-			if (row != null) {
-				if (maxColumnIndex == 0)
-					maxColumnIndex = row.getLastCellNum();
-
-				for (short colIx = 0; colIx < maxColumnIndex; colIx++) {
-					Cell cell = row.getCell(colIx);
-					String cellVal = getCellValue(cell);
-					if( cell != null && cellVal != null &&!ExcelODAConstants.EMPTY_STRING.equals( cellVal ) ){
-						return false;
-					}
-				}
-			}			
-		}
-		return true;
+	public boolean checkXlsEndOfRows() throws IOException {
+		return !xlsRead.hasValue(currentRowIndex + 1, currentRowIndex
+				+ ExcelODAConstants.BLANK_LOOK_AHEAD, maxColumnIndex);
 	}
-	
-	public List<String> readLine() throws IOException, OdaException {
+
+	/**
+	 * Reads the next row.
+	 *
+	 * @return the cell values of the row, which are Double, Date, Boolean or
+	 *         String values; null if there is no more row
+	 * @throws IOException
+	 * @throws OdaException
+	 */
+	public List<Object> readLine() throws IOException, OdaException {
 		if (!isInitialised)
 			initialise();
 
-		if (currentRowIndex >= maxRowsInThisSheet) {
-			if (!initialiseNextSheet())
-				return null;
-		}
-		List<String> rowData = new ArrayList<String>();
+		List<Object> rowData = new ArrayList<Object>();
 		if (isXlsFile(fileExtension)) {
-			Row row = sheet.getRow(currentRowIndex);
+			if (xlsRead.isEndOfSheet(currentRowIndex)) {
+				if (!initialiseNextSheet())
+					return null;
+			}
+			Object[] row = xlsRead.getRow(currentRowIndex);
 			if (row != null) {
 				if (maxColumnIndex == 0)
-					maxColumnIndex = row.getLastCellNum();
+					maxColumnIndex = row.length;
 
 				boolean blankRow = true;
-				for (short colIx = 0; colIx < maxColumnIndex; colIx++) {
-					Cell cell = row.getCell(colIx);
-					String cellVal = getCellValue(cell);
-					if( cell != null && cellVal != null && !cellVal.equals( ExcelODAConstants.EMPTY_STRING ) ){
+				for (int colIx = 0; colIx < maxColumnIndex; colIx++) {
+					Object cellVal = colIx < row.length ? row[colIx]
+							: ExcelODAConstants.EMPTY_STRING;
+					if( !ExcelODAConstants.EMPTY_STRING.equals( cellVal ) ){
 						blankRow = false;
 					}
 					rowData.add(cellVal);
@@ -131,6 +117,9 @@ public class ExcelFileReader {
 				return null;
 			}
 		} else if (isXlsxFile(fileExtension)){
+			if (currentRowIndex >= maxRowsInThisSheet) {
+				return null;
+			}
 			rowData = callback.getRow(currentRowIndex);
 		}
 
@@ -163,21 +152,13 @@ public class ExcelFileReader {
 
 			} else if ( isXlsFile( fileExtension ) ){
 
-				if( workBook == null){
-					workBook = new HSSFWorkbook(fis);
+				if( xlsRead == null){
+					xlsRead = new XlsFileReader(fis);
 				}
-				formulaEvaluator = workBook.getCreationHelper()
-						.createFormulaEvaluator();
-				workBook.setMissingCellPolicy(Row.RETURN_NULL_AND_BLANK);
-				sheet = workBook.getSheet(workSheetList.get(currentSheetIndex));
-				if (sheet == null)
-					throw new OdaException(
-							Messages.getString("invalid_sheet_name")); 
-				maxRowsInThisSheet = sheet.getPhysicalNumberOfRows();
+				openXlsSheet(workSheetList.get(currentSheetIndex));
 
 				for (String sheetName : workSheetList) {
-					Sheet localSheet = workBook.getSheet(sheetName);
-					maxRowsInAllSheet += localSheet.getPhysicalNumberOfRows();
+					maxRowsInAllSheet += xlsRead.getRowCount(sheetName);
 				}
 			}
 			isInitialised = true;
@@ -201,20 +182,25 @@ public class ExcelFileReader {
 		}
 		if (isXlsxFile(fileExtension)) {
 			return false;
-		} else if ( isXlsFile( fileExtension ) ){
-			do {
-				sheet = workBook.getSheet(workSheetList.get(currentSheetIndex));
-				maxRowsInThisSheet = sheet.getPhysicalNumberOfRows();
-			} while (maxRowsInThisSheet == 0
-					&& (workSheetList.size() < ++currentSheetIndex));
 		}
-		if (maxRowsInThisSheet == 0)
+		openXlsSheet(workSheetList.get(currentSheetIndex));
+		while (xlsRead.isEndOfSheet(0)
+				&& workSheetList.size() > ++currentSheetIndex) {
+			openXlsSheet(workSheetList.get(currentSheetIndex));
+		}
+		if (xlsRead.isEndOfSheet(0))
 			return false;
 
 		currentRowIndex = 0;
 		return true;
 	}
 
+	private void openXlsSheet(String sheetName) throws IOException,
+			OdaException {
+		if (!xlsRead.openSheet(sheetName))
+			throw new OdaException(Messages.getString("invalid_sheet_name")); //$NON-NLS-1$
+	}
+
 	private static boolean isXlsxFile(String extension) {
 		return extension.equals(ExcelODAConstants.XLSX_FORMAT);
 	}
@@ -270,49 +256,6 @@ public class ExcelFileReader {
 		return ExcelODAConstants.UNSUPPORT_FORMAT;
 	}
 
-	public String getCellValue(Cell cell) {
-		if (cell == null)
-			return ExcelODAConstants.EMPTY_STRING;
-
-		if (cell.getCellType() == Cell.CELL_TYPE_FORMULA) {
-			return resolveFormula(cell);
-		}
-
-		if (cell.getCellType() == Cell.CELL_TYPE_NUMERIC) {
-			if(	HSSFDateUtil.isCellDateFormatted(cell) ){		
-				Date myjavadate =  HSSFDateUtil.getJavaDate(cell.getNumericCellValue());
-				return sdf.format( myjavadate );
-			}
-			return ((Double) cell.getNumericCellValue()).toString();
-		}
-
-		return cell.toString();
-	}
-
-	private String resolveFormula(Cell cell) {
-		if (formulaEvaluator == null)
-			return cell.toString();
-		switch (formulaEvaluator.evaluateFormulaCell(cell)) {
-		case Cell.CELL_TYPE_BOOLEAN:
-			return ((Boolean) cell.getBooleanCellValue()).toString();
-
-		case Cell.CELL_TYPE_NUMERIC:
-			if (org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(cell) ){
-				//need to check for nulls
-				//double myexdate = org.apache.poi.ss.usermodel.DateUtil.getExcelDate(cell.getDateCellValue());
-				Date myjavadate = org.apache.poi.ss.usermodel.DateUtil.getJavaDate(cell.getNumericCellValue());
-				return sdf.format( myjavadate );
-			}
-			return ((Double) cell.getNumericCellValue()).toString();
-
-		case Cell.CELL_TYPE_STRING:
-			return cell.getStringCellValue();
-
-		default:
-			return null;
-		}
-	}
-
 	public int getMaxRows() throws IOException, OdaException {
 		if (!isInitialised)
 			initialise();
@@ -337,10 +280,7 @@ public class ExcelFileReader {
 				}
 			} else if ( isXlsFile( extension ) ){
 				//Only called in design env
-				HSSFWorkbook lworkBook = new HSSFWorkbook(fis);
-				for (int i = 0; i < lworkBook.getNumberOfSheets(); i++) {
-					sheetNames.add(lworkBook.getSheetName(i));
-				}
+				sheetNames.addAll(new XlsFileReader(fis).getSheetNames());
 			}
 		} catch (FileNotFoundException e) {
 			// do nothing
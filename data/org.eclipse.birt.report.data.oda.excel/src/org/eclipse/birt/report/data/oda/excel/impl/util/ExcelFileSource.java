@@ -18,6 +18,7 @@ package org.eclipse.birt.report.data.oda.excel.impl.util;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,8 @@ import org.eclipse.datatools.connectivity.oda.IResultSetMetaData;
 import org.eclipse.datatools.connectivity.oda.OdaException;
 import org.eclipse.datatools.connectivity.oda.util.ResourceIdentifiers;
 
+import com.ibm.icu.text.SimpleDateFormat;
+
 public class ExcelFileSource {
 	private String fileExtension;
 	private boolean isReaderInitialised;
@@ -51,7 +54,8 @@ public class ExcelFileSource {
 	private int[] selectColumIndexes;
 	private String[] originalColumnNames;
 	private boolean isFirstTimeToReadSourceData = true;
-	private List<String> nextDataLine;
+	private List<Object> nextDataLine;
+	private SimpleDateFormat dateFormat;
 
 	// use Object type in case ResourceIdentifiers instance was loaded by a different classloader
     private Object resourceIdentifiers;
@@ -233,7 +237,7 @@ public class ExcelFileSource {
 		int count;
 		try {
 			initialiseReader();
-			List<String> columnLine;
+			List<Object> columnLine;
 			while (isEmptyRow(columnLine = this.excelFileReader.readLine())) {
 				continue;
 			}
@@ -276,13 +280,14 @@ public class ExcelFileSource {
 
 	/**
 	 *
-	 * @return
+	 * @return the rows of the cell values, which are Double, Date, Boolean or
+	 *         String values
 	 * @throws OdaException
 	 */
-	public String[][] getSourceData() throws OdaException {
+	public Object[][] getSourceData() throws OdaException {
 		try {
 			initialiseReader();
-			List<String[]> v = fetchQueriedDataFromFileToList();
+			List<Object[]> v = fetchQueriedDataFromFileToList();
 			return copyDataFromListToTwoDimensionArray(v);
 		} catch (IOException e) {
 			throw new OdaException(e);
@@ -300,14 +305,14 @@ public class ExcelFileSource {
 	 * @return
 	 * @throws OdaException
 	 */
-	private List<String[]> fetchQueriedDataFromFileToList() throws OdaException {
-		List<String[]> result = new ArrayList<String[]>();
+	private List<Object[]> fetchQueriedDataFromFileToList() throws OdaException {
+		List<Object[]> result = new ArrayList<Object[]>();
 		try {
 			if (isFirstTimeToReadSourceData) {
 				excelFileReader.setCurrentRowIndex(0);
 				// make a copy of column names if there are
 				if (this.hasColumnNames) {
-					List<String> columeNameLine;
+					List<Object> columeNameLine;
 					while (isEmptyRow(columeNameLine = excelFileReader
 							.readLine())) {
 						continue;
@@ -364,18 +369,19 @@ public class ExcelFileSource {
 	 * is trimmed before being copied into array.
 	 *
 	 * @param v
-	 * @return a String two dimension array with each horizontal array contains
-	 *         a row
+	 * @return a two dimension array with each horizontal array contains a row
 	 * @throws OdaException
 	 */
-	private String[][] copyDataFromListToTwoDimensionArray(List<String[]> v)
+	private Object[][] copyDataFromListToTwoDimensionArray(List<Object[]> v)
 			throws OdaException {
-		String[][] rowSet = new String[v.size()][this.rsmd.getColumnCount()];
+		Object[][] rowSet = new Object[v.size()][this.rsmd.getColumnCount()];
 		for (int i = 0; i < v.size(); i++) {
-			String[] temp = (String[]) v.get(i);
+			Object[] temp = v.get(i);
 			for (int j = 0; j < temp.length; j++) {
-				if (temp[j] != null)
-					rowSet[i][j] = temp[j].trim();
+				if (temp[j] instanceof String)
+					rowSet[i][j] = ((String) temp[j]).trim();
+				else if (temp[j] != null)
+					rowSet[i][j] = temp[j];
 				else
 					throw new OdaException(
 							Messages.getString("data_read_error")); //$NON-NLS-1$
@@ -406,7 +412,7 @@ public class ExcelFileSource {
 	 * @return
 	 * @throws OdaException
 	 */
-	private String[] createTempColumnNames(List<String> aRow)
+	private String[] createTempColumnNames(List<?> aRow)
 			throws OdaException {
 		String[] tempColumnNames = new String[aRow.size()];
 
@@ -431,9 +437,9 @@ public class ExcelFileSource {
 	 *         row. The "specified column names" are obtained from meta data
 	 * @throws OdaException
 	 */
-	private String[] fetchQueriedDataFromRow(List<String> aRow)
+	private Object[] fetchQueriedDataFromRow(List<Object> aRow)
 			throws OdaException {
-		String[] sArray = new String[rsmd.getColumnCount()];
+		Object[] sArray = new Object[rsmd.getColumnCount()];
 		for (int i = 0; i < sArray.length; i++) {
 			int location = selectColumIndexes[i];
 			if (location != -1) {
@@ -441,7 +447,7 @@ public class ExcelFileSource {
 					throw new OdaException(
 							Messages.getString("query_INVALID_EXCEL_FILE")); //$NON-NLS-1$
 				} else {
-					sArray[i] = aRow.get(location).toString();
+					sArray[i] = aRow.get(location);
 				}
 			}
 		}
@@ -466,13 +472,59 @@ public class ExcelFileSource {
 		}
 	}
 
+	/**
+	 * Reads the next row as text, for the column names and the column types.
+	 *
+	 * @return the text of the cell values; null if there is no more row
+	 * @throws OdaException
+	 * @throws IOException
+	 */
 	public List<String> readLine() throws OdaException, IOException {
 		if (!isReaderInitialised) {
 			initialiseReader();
 			isReaderInitialised = true;
 		}
 
-		return excelFileReader.readLine();
+		return getTextLine(excelFileReader.readLine());
+	}
+
+	private List<String> getTextLine(List<?> line) {
+		if (line == null)
+			return null;
+		List<String> textLine = new ArrayList<String>(line.size());
+		for (int i = 0; i < line.size(); i++) {
+			textLine.add(getText(line.get(i)));
+		}
+		return textLine;
+	}
+
+	/**
+	 * Returns the text of a cell value, as the value was read as text before
+	 * the cells were read as their native values: a date is formatted in the
+	 * default format for .xls and in the ISO format for .xlsx, an integral
+	 * number of a .xlsx file has no fraction digit.
+	 *
+	 * @param value
+	 *            a Double, Date, Boolean or String value
+	 * @return the text
+	 */
+	public String getText(Object value) {
+		if (value == null || value instanceof String)
+			return (String) value;
+		boolean isXlsx = ExcelODAConstants.XLSX_FORMAT.equals(fileExtension);
+		if (value instanceof Date) {
+			if (dateFormat == null)
+				dateFormat = isXlsx ? new SimpleDateFormat(
+						"yyyy-MM-dd'T'HH:mm:ssZ") //$NON-NLS-1$
+						: new SimpleDateFormat();
+			return dateFormat.format((Date) value);
+		}
+		if (isXlsx && value instanceof Double) {
+			double d = ((Double) value).doubleValue();
+			if (d == Math.rint(d) && Math.abs(d) < 1e15)
+				return Long.toString((long) d);
+		}
+		return value.toString();
 	}
 
 	public void resetRowCounter(){
@@ -509,7 +561,7 @@ public class ExcelFileSource {
 		if (line == null)
 			throw new OdaException(
 					Messages.getString("common_CANNOT_FIND_COLUMN")); //$NON-NLS-1$
-		return getStringArrayFromList(line);
+		return getStringArrayFromList(getTextLine(line));
 	}
 
 	/**
@@ -540,7 +592,7 @@ public class ExcelFileSource {
 	 * @return
 	 * @throws OdaException
 	 */
-	public boolean isEmptyRow(List<String> line) throws OdaException {
+	public boolean isEmptyRow(List<?> line) throws OdaException {
 		if (line == null)
 			throw new OdaException(
 					Messages.getString("query_INVALID_EXCEL_FILE")); //$NON-NLS-1$
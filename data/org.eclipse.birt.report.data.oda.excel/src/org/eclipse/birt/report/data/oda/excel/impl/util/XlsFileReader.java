@@ -0,0 +1,509 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.data.oda.excel.impl.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DimensionsRecord;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RecordFactoryInputStream;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.eclipse.birt.report.data.oda.excel.ExcelODAConstants;
+
+/**
+ * Reads the rows of the worksheets of a .xls file record by record with the
+ * HSSF event model, instead of building the HSSF user model of the whole
+ * workbook. Only the records of the workbook globals, the shared strings and
+ * the cell formats, are kept in memory; the cells of a worksheet are decoded
+ * when their rows are read.
+ * <p>
+ * A cell value is a Double, a Date for a number of a date format, a Boolean or
+ * a String. A formula cell has the value cached in the file. An error, of a
+ * formula or not, is an empty string.
+ */
+public class XlsFileReader
+{
+
+	private static final String[] WORKBOOK_ENTRY_NAMES = {
+			"Workbook", "WORKBOOK", "BOOK" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	};
+
+	private POIFSFileSystem fileSystem;
+	private String workbookEntryName;
+	private List<BoundSheetRecord> boundSheets = new ArrayList<BoundSheetRecord>( );
+	private SSTRecord sst;
+	private FormatTrackingHSSFListener formatListener;
+	private Map<Integer, Boolean> dateFormats = new HashMap<Integer, Boolean>( );
+
+	// the state of the open sheet
+	private BoundSheetRecord sheet;
+	private RecordFactoryInputStream sheetRecords;
+	private int depth;
+	private int rowIndex;
+	private TreeSet<Integer> rowNumbers = new TreeSet<Integer>( );
+	private LinkedList<CellValue> cells = new LinkedList<CellValue>( );
+	private FormulaRecord stringFormula;
+
+	/**
+	 * Reads the workbook globals of a .xls file.
+	 *
+	 * @param is
+	 *            the .xls file
+	 * @throws IOException
+	 */
+	public XlsFileReader( InputStream is ) throws IOException
+	{
+		fileSystem = new POIFSFileSystem( is );
+		for ( int i = 0; i < WORKBOOK_ENTRY_NAMES.length; i++ )
+		{
+			if ( fileSystem.getRoot( ).hasEntry( WORKBOOK_ENTRY_NAMES[i] ) )
+			{
+				workbookEntryName = WORKBOOK_ENTRY_NAMES[i];
+				break;
+			}
+		}
+		if ( workbookEntryName == null )
+		{
+			throw new IOException( "No workbook in the file" ); //$NON-NLS-1$
+		}
+		formatListener = new FormatTrackingHSSFListener( new HSSFListener( ) {
+
+			public void processRecord( Record record )
+			{
+			}
+		} );
+
+		RecordFactoryInputStream records = new RecordFactoryInputStream( fileSystem.createDocumentInputStream( workbookEntryName ),
+				false );
+		Record record;
+		while ( ( record = records.nextRecord( ) ) != null
+				&& !( record instanceof EOFRecord ) )
+		{
+			if ( record instanceof BoundSheetRecord )
+			{
+				boundSheets.add( (BoundSheetRecord) record );
+			}
+			else if ( record instanceof SSTRecord )
+			{
+				sst = (SSTRecord) record;
+			}
+			else if ( record instanceof FormatRecord
+					|| record instanceof ExtendedFormatRecord )
+			{
+				formatListener.processRecordInternally( record );
+			}
+		}
+	}
+
+	/**
+	 * @return the names of the sheets in the workbook order
+	 */
+	public List<String> getSheetNames( )
+	{
+		List<String> names = new ArrayList<String>( );
+		for ( BoundSheetRecord boundSheet : boundSheets )
+		{
+			names.add( boundSheet.getSheetname( ) );
+		}
+		return names;
+	}
+
+	/**
+	 * Opens a sheet, its rows are read from the first one.
+	 *
+	 * @param sheetName
+	 *            the sheet name, case insensitive
+	 * @return false if there is no such sheet
+	 * @throws IOException
+	 */
+	public boolean openSheet( String sheetName ) throws IOException
+	{
+		BoundSheetRecord boundSheet = findSheet( sheetName );
+		if ( boundSheet == null )
+		{
+			return false;
+		}
+		sheet = boundSheet;
+		sheetRecords = openSheetRecords( boundSheet );
+		depth = 0;
+		rowIndex = 0;
+		rowNumbers.clear( );
+		cells.clear( );
+		stringFormula = null;
+		return true;
+	}
+
+	/**
+	 * Returns the row count of a sheet recorded in its dimensions, it does not
+	 * read the rows.
+	 *
+	 * @param sheetName
+	 *            the sheet name, case insensitive
+	 * @return the row count, 0 if there is no such sheet
+	 * @throws IOException
+	 */
+	public int getRowCount( String sheetName ) throws IOException
+	{
+		BoundSheetRecord boundSheet = findSheet( sheetName );
+		if ( boundSheet == null )
+		{
+			return 0;
+		}
+		RecordFactoryInputStream records = openSheetRecords( boundSheet );
+		Record record;
+		while ( ( record = records.nextRecord( ) ) != null
+				&& !( record instanceof EOFRecord ) )
+		{
+			if ( record instanceof DimensionsRecord )
+			{
+				return ( (DimensionsRecord) record ).getLastRow( );
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the cell values of a row of the open sheet. The rows are read
+	 * forward, reading a row before the last read one reads the sheet again
+	 * from its first row.
+	 *
+	 * @param row
+	 *            the 0-based row number
+	 * @return the cell values up to the last cell of the row, the missing cells
+	 *         are empty strings; null if the sheet has no such row
+	 * @throws IOException
+	 */
+	public Object[] getRow( int row ) throws IOException
+	{
+		seekRow( row );
+		boolean exists = rowNumbers.contains( Integer.valueOf( row ) );
+		int columnCount = 0;
+		for ( CellValue cell : cells )
+		{
+			if ( cell.row != row )
+			{
+				break;
+			}
+			exists = true;
+			columnCount = Math.max( columnCount, cell.column + 1 );
+		}
+		if ( !exists )
+		{
+			return null;
+		}
+		Object[] values = new Object[columnCount];
+		for ( int i = 0; i < columnCount; i++ )
+		{
+			values[i] = ExcelODAConstants.EMPTY_STRING;
+		}
+		while ( !cells.isEmpty( ) && cells.getFirst( ).row == row )
+		{
+			CellValue cell = cells.removeFirst( );
+			values[cell.column] = cell.value;
+		}
+		return values;
+	}
+
+	/**
+	 * @param row
+	 *            the 0-based row number
+	 * @return whether the open sheet has no row from the given one on
+	 * @throws IOException
+	 */
+	public boolean isEndOfSheet( int row ) throws IOException
+	{
+		seekRow( row );
+		return sheetRecords == null
+				&& cells.isEmpty( )
+				&& rowNumbers.ceiling( Integer.valueOf( row ) ) == null;
+	}
+
+	/**
+	 * Tells whether there is a non empty cell in a range of rows of the open
+	 * sheet, the rows are not consumed.
+	 *
+	 * @param fromRow
+	 *            the first row
+	 * @param toRow
+	 *            the last row
+	 * @param columnCount
+	 *            the count of the columns to check
+	 * @return
+	 * @throws IOException
+	 */
+	public boolean hasValue( int fromRow, int toRow, int columnCount )
+			throws IOException
+	{
+		seekRow( fromRow );
+		while ( sheetRecords != null
+				&& ( cells.isEmpty( ) || cells.getLast( ).row <= toRow ) )
+		{
+			readRecord( );
+		}
+		for ( CellValue cell : cells )
+		{
+			if ( cell.row > toRow )
+			{
+				break;
+			}
+			if ( cell.column < columnCount
+					&& !ExcelODAConstants.EMPTY_STRING.equals( cell.value ) )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the rows before the given one, and reads the records until all
+	 * the cells of the row are read.
+	 */
+	private void seekRow( int row ) throws IOException
+	{
+		if ( sheet == null )
+		{
+			throw new IOException( "No open sheet" ); //$NON-NLS-1$
+		}
+		if ( row < rowIndex )
+		{
+			openSheet( sheet.getSheetname( ) );
+		}
+		rowIndex = row;
+		while ( !cells.isEmpty( ) && cells.getFirst( ).row < row )
+		{
+			cells.removeFirst( );
+		}
+		while ( !rowNumbers.isEmpty( ) && rowNumbers.first( ).intValue( ) < row )
+		{
+			rowNumbers.pollFirst( );
+		}
+		// the row records of a block of rows precede the cells of the block
+		while ( sheetRecords != null
+				&& ( cells.isEmpty( ) || cells.getLast( ).row <= row ) )
+		{
+			readRecord( );
+		}
+	}
+
+	/**
+	 * Reads a record of the open sheet, and closes the sheet records at the
+	 * end of the sheet.
+	 */
+	private void readRecord( )
+	{
+		Record record = sheetRecords.nextRecord( );
+		if ( record == null )
+		{
+			sheetRecords = null;
+			return;
+		}
+		if ( record instanceof BOFRecord )
+		{
+			depth++;
+			return;
+		}
+		if ( record instanceof EOFRecord )
+		{
+			if ( --depth <= 0 )
+			{
+				sheetRecords = null;
+			}
+			return;
+		}
+		// skips the embedded sub streams like the charts
+		if ( depth > 1 )
+		{
+			return;
+		}
+		if ( record instanceof RowRecord )
+		{
+			rowNumbers.add( Integer.valueOf( ( (RowRecord) record ).getRowNumber( ) ) );
+		}
+		else if ( record instanceof StringRecord )
+		{
+			if ( stringFormula != null )
+			{
+				addCell( stringFormula, ( (StringRecord) record ).getString( ) );
+				stringFormula = null;
+			}
+		}
+		else if ( record instanceof CellValueRecordInterface )
+		{
+			readCell( (CellValueRecordInterface) record );
+		}
+	}
+
+	private void readCell( CellValueRecordInterface record )
+	{
+		if ( record instanceof NumberRecord )
+		{
+			addCell( record, getNumericValue( record,
+					( (NumberRecord) record ).getValue( ) ) );
+		}
+		else if ( record instanceof LabelSSTRecord )
+		{
+			addCell( record,
+					sst.getString( ( (LabelSSTRecord) record ).getSSTIndex( ) )
+							.getString( ) );
+		}
+		else if ( record instanceof LabelRecord )
+		{
+			addCell( record, ( (LabelRecord) record ).getValue( ) );
+		}
+		else if ( record instanceof BoolErrRecord )
+		{
+			// an error reads as an empty value as the error of a formula
+			// and the error cell of a .xlsx file
+			BoolErrRecord boolErr = (BoolErrRecord) record;
+			addCell( record,
+					boolErr.isBoolean( )
+							? (Object) Boolean.valueOf( boolErr.getBooleanValue( ) )
+							: ExcelODAConstants.EMPTY_STRING );
+		}
+		else if ( record instanceof FormulaRecord )
+		{
+			FormulaRecord formula = (FormulaRecord) record;
+			switch ( formula.getCachedResultType( ) )
+			{
+				case Cell.CELL_TYPE_NUMERIC :
+					addCell( record, getNumericValue( record,
+							formula.getValue( ) ) );
+					break;
+				case Cell.CELL_TYPE_BOOLEAN :
+					addCell( record,
+							Boolean.valueOf( formula.getCachedBooleanValue( ) ) );
+					break;
+				case Cell.CELL_TYPE_STRING :
+					if ( formula.hasCachedResultString( ) )
+					{
+						// the string follows in a StringRecord
+						stringFormula = formula;
+						break;
+					}
+					addCell( record, ExcelODAConstants.EMPTY_STRING );
+					break;
+				default :
+					addCell( record, ExcelODAConstants.EMPTY_STRING );
+			}
+		}
+		else if ( record instanceof BlankRecord )
+		{
+			addCell( record, ExcelODAConstants.EMPTY_STRING );
+		}
+	}
+
+	private Object getNumericValue( CellValueRecordInterface record,
+			double value )
+	{
+		if ( DateUtil.isValidExcelDate( value ) && isDateFormat( record ) )
+		{
+			return DateUtil.getJavaDate( value );
+		}
+		return Double.valueOf( value );
+	}
+
+	private boolean isDateFormat( CellValueRecordInterface record )
+	{
+		int formatIndex = formatListener.getFormatIndex( record );
+		Integer key = Integer.valueOf( formatIndex );
+		Boolean isDate = dateFormats.get( key );
+		if ( isDate == null )
+		{
+			isDate = Boolean.valueOf( DateUtil.isADateFormat( formatIndex,
+					formatListener.getFormatString( formatIndex ) ) );
+			dateFormats.put( key, isDate );
+		}
+		return isDate.booleanValue( );
+	}
+
+	private void addCell( CellValueRecordInterface record, Object value )
+	{
+		if ( record.getRow( ) >= rowIndex )
+		{
+			cells.add( new CellValue( record.getRow( ),
+					record.getColumn( ),
+					value ) );
+		}
+	}
+
+	private BoundSheetRecord findSheet( String sheetName )
+	{
+		for ( BoundSheetRecord boundSheet : boundSheets )
+		{
+			if ( boundSheet.getSheetname( ).equalsIgnoreCase( sheetName ) )
+			{
+				return boundSheet;
+			}
+		}
+		return null;
+	}
+
+	private RecordFactoryInputStream openSheetRecords(
+			BoundSheetRecord boundSheet ) throws IOException
+	{
+		DocumentInputStream dis = fileSystem.createDocumentInputStream( workbookEntryName );
+		long skipped = 0;
+		while ( skipped < boundSheet.getPositionOfBof( ) )
+		{
+			long n = dis.skip( boundSheet.getPositionOfBof( ) - skipped );
+			if ( n <= 0 )
+			{
+				throw new IOException( "Invalid sheet position" ); //$NON-NLS-1$
+			}
+			skipped += n;
+		}
+		return new RecordFactoryInputStream( dis, false );
+	}
+
+	private static class CellValue
+	{
+
+		private final int row;
+		private final int column;
+		private final Object value;
+
+		CellValue( int row, int column, Object value )
+		{
+			this.row = row;
+			this.column = column;
+			this.value = value;
+		}
+	}
+}
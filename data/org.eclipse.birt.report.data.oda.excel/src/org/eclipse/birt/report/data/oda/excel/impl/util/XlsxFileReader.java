@@ -18,7 +18,6 @@ import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.LinkedHashMap;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
@@ -39,8 +38,11 @@ import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLReaderFactory;
 
-import com.ibm.icu.text.SimpleDateFormat;
-
+/**
+ * Reads the sheets of a .xlsx file with a SAX parser. The cell values are
+ * delivered to the row call back as their native values: a Double, a Date, a
+ * Boolean or a String.
+ */
 public class XlsxFileReader {
     final static String PARSER_CLASS_NAME = "org.apache.xerces.parsers.SAXParser"; //$NON-NLS-1$
     final static String ROW_LIMIT_REACHED_EX_MSG = "Row Limit Reached"; //$NON-NLS-1$
@@ -148,7 +150,6 @@ public class XlsxFileReader {
 		private int currentColumn = 0;
 		private int xlsxRowsToRead=0;
 		private int currentXlsxRowNumber = 0;
-        private SimpleDateFormat sdf; 
 		
 		private SheetHandler(StylesTable st, SharedStringsTable sst, XlsxRowCallBack callback, int xlsxRowsToRead) {
 			this.sst = sst;
@@ -157,7 +158,6 @@ public class XlsxFileReader {
 			values = new ArrayList<Object>();
 			this.cellDataType = cDataType.NUMBER;
 			this.xlsxRowsToRead = xlsxRowsToRead;
-			sdf = new SimpleDateFormat( "yyyy-MM-dd'T'HH:mm:ssZ" );//ISO date format
 		}
 
 		public void startElement(String uri, String localName, String qName,
@@ -239,7 +239,7 @@ public class XlsxFileReader {
 				return;
 			} else if (name.equals("v")) {
 
-				String val = ExcelODAConstants.EMPTY_STRING;
+				Object val = ExcelODAConstants.EMPTY_STRING;
 
 				// Process the last contents as required.
 				// Do now, as characters() may be called more than once
@@ -248,20 +248,22 @@ public class XlsxFileReader {
 					idx = Integer.parseInt(lastContents);
 					val = new XSSFRichTextString(sst.getEntryAt(idx))
 							.toString();
-				} else if (cellDataType == cDataType.STATIC
-						|| cellDataType == cDataType.NUMBER) {
+				} else if (cellDataType == cDataType.STATIC) {
 					val = lastContents;
+				} else if (cellDataType == cDataType.NUMBER) {
+					try {
+						val = Double.valueOf(lastContents);
+					} catch (NumberFormatException e) {
+						val = lastContents;
+					}
 				}else if( cellDataType == cDataType.DATETIME || cellDataType == cDataType.DATE || cellDataType == cDataType.TIME ){
 
-					Date myjavadate = org.apache.poi.ss.usermodel.DateUtil.getJavaDate(Double.parseDouble(lastContents));
-					val = sdf.format( myjavadate );
+					val = org.apache.poi.ss.usermodel.DateUtil.getJavaDate(Double.parseDouble(lastContents));
 				}else if( cellDataType == cDataType.BOOL ){
 					if( lastContents.compareTo("1") == 0){
-						Boolean mybool = new Boolean(true);
-						val = mybool.toString();
+						val = Boolean.TRUE;
 					}else if( lastContents.compareTo("0") == 0 ){
-						Boolean mybool = new Boolean(false);
-						val = mybool.toString();
+						val = Boolean.FALSE;
 					}
 				}
 
@@ -19,23 +19,22 @@ import java.util.List;
 import org.eclipse.birt.report.data.oda.excel.ExcelODAConstants;
 
 public class XlsxRowCallBack implements RowCallBack {
-	private ArrayList<String[]> xlsxRowData = new ArrayList<String[]>();
+	private ArrayList<Object[]> xlsxRowData = new ArrayList<Object[]>();
 
 	public void handleRow(List<Object> values) {
 
 		if (values == null || values.size() == 0) {
 			return;
 		}
-		String[] valArray = new String[values.size()];
-		values.toArray(valArray);
+		Object[] valArray = values.toArray();
 		xlsxRowData.add(valArray);
 	}
 
 	public XlsxRowCallBack() {}
 
-	public ArrayList<String> initArrayList(String[] strings) {
-		ArrayList<String> list = new ArrayList<String>();
-		for (String i : strings) {
+	public ArrayList<Object> initArrayList(Object[] values) {
+		ArrayList<Object> list = new ArrayList<Object>();
+		for (Object i : values) {
 			list.add(i);
 		}
 		return list;
@@ -45,7 +44,7 @@ public class XlsxRowCallBack implements RowCallBack {
 		return (xlsxRowData.size());
 	}
 
-	public ArrayList<String> getRow(int rownum) {
+	public ArrayList<Object> getRow(int rownum) {
 		return (initArrayList(xlsxRowData.get(rownum)));
 	}
 
@@ -54,9 +53,9 @@ public class XlsxRowCallBack implements RowCallBack {
 	public void columnExpansion(int newColumnCount){
 		for(int i=0;i<xlsxRowData.size();i++)
 		{
-			String[] currentRow =(String[])xlsxRowData.get(i);
+			Object[] currentRow = xlsxRowData.get(i);
 			if( currentRow.length < newColumnCount){
-				String[] newRow = new String[newColumnCount];
+				Object[] newRow = new Object[newColumnCount];
 				//put in fake column names
 				if( i==0 ){
 					for (int j=0; j< newRow.length; j++){
@@ -0,0 +1,382 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction.arrow;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.report.engine.api.DataExtractionOption;
+import org.eclipse.birt.report.engine.api.IDataIterator;
+import org.eclipse.birt.report.engine.api.IExtractionResults;
+import org.eclipse.birt.report.engine.dataextraction.ArrowDataExtractionOption;
+import org.eclipse.birt.report.engine.dataextraction.csv.mock.MockExtractionResults;
+
+public class ArrowDataExtractionImplTest extends TestCase
+{
+
+	private static final String[] TEST_DATA_COLUMNS = new String[]{
+			"stringColumn", //$NON-NLS-1$
+			"integerColumn", //$NON-NLS-1$
+			"dateColumn", //$NON-NLS-1$
+			"decimalColumn" //$NON-NLS-1$
+	};
+
+	private static final int[] TEST_DATA_TYPES = new int[]{
+			DataType.STRING_TYPE,
+			DataType.INTEGER_TYPE,
+			DataType.DATE_TYPE,
+			DataType.DECIMAL_TYPE
+	};
+
+	private static final Object[][] TEST_DATA = new Object[][]{
+			new Object[]{
+					"a", Integer.valueOf( 5 ), new java.util.Date( 1000L ), //$NON-NLS-1$
+					Double.valueOf( 25.689 )
+			}, new Object[]{
+					null, Integer.valueOf( -12 ), null, null
+			}, new Object[]{
+					"a", null, new java.util.Date( -1000L ), //$NON-NLS-1$
+					Double.valueOf( -987.654321 )
+			}, new Object[]{
+					"\u00fc\u4f60", Integer.valueOf( 0 ), null, //$NON-NLS-1$
+					Double.valueOf( 0.0 )
+			}
+	};
+
+	private ArrowDataExtractionOption option;
+
+	public void setUp( )
+	{
+		option = new ArrowDataExtractionOption( );
+		option.setOutputFormat( "arrow" ); //$NON-NLS-1$
+		option.setLocaleNeutralFormat( true );
+	}
+
+	public void testSchema( ) throws Exception
+	{
+		List<Table> messages = extract( TEST_DATA );
+		Table message = messages.get( 0 );
+		assertEquals( ArrowStreamWriter.METADATA_VERSION_V5,
+				message.getShort( 0 ) );
+		assertEquals( ArrowStreamWriter.HEADER_SCHEMA, message.getByte( 1 ) );
+
+		Table schema = message.getTable( 2 );
+		assertEquals( 4, schema.getVectorLength( 1 ) );
+		byte[] types = new byte[]{ArrowVector.TYPE_UTF8, ArrowVector.TYPE_INT,
+				ArrowVector.TYPE_TIMESTAMP, ArrowVector.TYPE_DECIMAL};
+		for ( int i = 0; i < 4; i++ )
+		{
+			Table field = schema.getTable( 1, i );
+			assertEquals( TEST_DATA_COLUMNS[i], field.getString( 0 ) );
+			assertEquals( types[i], field.getByte( 2 ) );
+			assertEquals( 0, field.getVectorLength( 5 ) );
+			// only the string column is dictionary encoded
+			assertEquals( i == 0, field.hasField( 4 ) );
+		}
+		Table decimal = schema.getTable( 1, 3 ).getTable( 3 );
+		assertEquals( 38, decimal.getInt( 0 ) );
+		assertEquals( 10, decimal.getInt( 1 ) );
+	}
+
+	public void testRecordBatches( ) throws Exception
+	{
+		option.setBatchSize( 3 );
+		List<Table> messages = extract( TEST_DATA );
+		// schema, dictionary, batch, delta dictionary, batch
+		assertEquals( 5, messages.size( ) );
+		byte[] headers = new byte[]{ArrowStreamWriter.HEADER_SCHEMA,
+				ArrowStreamWriter.HEADER_DICTIONARY_BATCH,
+				ArrowStreamWriter.HEADER_RECORD_BATCH,
+				ArrowStreamWriter.HEADER_DICTIONARY_BATCH,
+				ArrowStreamWriter.HEADER_RECORD_BATCH};
+		for ( int i = 0; i < headers.length; i++ )
+		{
+			assertEquals( headers[i], messages.get( i ).getByte( 1 ) );
+		}
+
+		Table dictionary = messages.get( 1 ).getTable( 2 );
+		assertEquals( 0, dictionary.getLong( 0 ) );
+		assertEquals( 0, dictionary.getByte( 2 ) );
+		assertEquals( 1, dictionary.getTable( 1 ).getLong( 0 ) );
+		assertEquals( "a", getString( messages.get( 1 ), 0 ) ); //$NON-NLS-1$
+
+		Table batch = messages.get( 2 ).getTable( 2 );
+		assertEquals( 3, batch.getLong( 0 ) );
+		// null counts
+		assertEquals( 1, batch.getStructLong( 1, 0, 1 ) );
+		assertEquals( 1, batch.getStructLong( 1, 1, 1 ) );
+		assertEquals( 1, batch.getStructLong( 1, 2, 1 ) );
+		assertEquals( 1, batch.getStructLong( 1, 3, 1 ) );
+
+		ByteBuffer indices = getBuffer( messages.get( 2 ), 1 );
+		assertEquals( 0, indices.getInt( 0 ) );
+		assertEquals( 0, indices.getInt( 8 ) );
+		ByteBuffer validity = getBuffer( messages.get( 2 ), 2 );
+		assertEquals( 3, validity.get( 0 ) );
+		ByteBuffer integers = getBuffer( messages.get( 2 ), 3 );
+		assertEquals( 5, integers.getInt( 0 ) );
+		assertEquals( -12, integers.getInt( 4 ) );
+		ByteBuffer dates = getBuffer( messages.get( 2 ), 5 );
+		assertEquals( 1000L, dates.getLong( 0 ) );
+		assertEquals( -1000L, dates.getLong( 16 ) );
+		ByteBuffer decimals = getBuffer( messages.get( 2 ), 7 );
+		assertEquals( new BigInteger( "256890000000" ), getDecimal( decimals, 0 ) ); //$NON-NLS-1$
+		assertEquals( new BigInteger( "-9876543210000" ), getDecimal( decimals, 2 ) ); //$NON-NLS-1$
+
+		// the delta contains the new value only
+		dictionary = messages.get( 3 ).getTable( 2 );
+		assertEquals( 1, dictionary.getByte( 2 ) );
+		assertEquals( 1, dictionary.getTable( 1 ).getLong( 0 ) );
+		assertEquals( "\u00fc\u4f60", getString( messages.get( 3 ), 0 ) ); //$NON-NLS-1$
+		indices = getBuffer( messages.get( 4 ), 1 );
+		assertEquals( 1, indices.getInt( 0 ) );
+		assertEquals( 1, messages.get( 4 ).getTable( 2 ).getLong( 0 ) );
+	}
+
+	public void testWithoutDictionary( ) throws Exception
+	{
+		option.setDictionaryEncoding( false );
+		List<Table> messages = extract( TEST_DATA );
+		assertEquals( 2, messages.size( ) );
+		Table field = messages.get( 0 ).getTable( 2 ).getTable( 1, 0 );
+		assertFalse( field.hasField( 4 ) );
+
+		Table batch = messages.get( 1 );
+		assertEquals( 4, batch.getTable( 2 ).getLong( 0 ) );
+		assertEquals( "a", getString( batch, 0 ) ); //$NON-NLS-1$
+		assertEquals( "\u00fc\u4f60", getString( batch, 3 ) ); //$NON-NLS-1$
+	}
+
+	public void testEmptyResult( ) throws Exception
+	{
+		List<Table> messages = extract( new Object[0][] );
+		// the empty dictionary and batch are written
+		assertEquals( 3, messages.size( ) );
+		assertEquals( 0, messages.get( 2 ).getTable( 2 ).getLong( 0 ) );
+	}
+
+	public void testNoIterator( ) throws Exception
+	{
+		List<Table> messages = extract( new MockExtractionResults(
+				TEST_DATA_COLUMNS, TEST_DATA_TYPES, new Object[0][] ) {
+
+			public IDataIterator nextResultIterator( ) throws BirtException
+			{
+				return null;
+			}
+		} );
+		assertEquals( 3, messages.size( ) );
+		assertEquals( ArrowStreamWriter.HEADER_SCHEMA, messages.get( 0 )
+				.getByte( 1 ) );
+		assertEquals( 4, messages.get( 0 ).getTable( 2 ).getVectorLength( 1 ) );
+		assertEquals( 0, messages.get( 2 ).getTable( 2 ).getLong( 0 ) );
+	}
+
+	public void testNoColumn( ) throws Exception
+	{
+		List<Table> messages = extract( new MockExtractionResults(
+				new String[0], new int[0], new Object[0][] ) );
+		assertEquals( 2, messages.size( ) );
+		assertEquals( 0, messages.get( 0 ).getTable( 2 ).getVectorLength( 1 ) );
+		assertEquals( ArrowStreamWriter.HEADER_RECORD_BATCH, messages.get( 1 )
+				.getByte( 1 ) );
+	}
+
+	private List<Table> extract( Object[][] data ) throws BirtException
+	{
+		return extract( new MockExtractionResults( TEST_DATA_COLUMNS,
+				TEST_DATA_TYPES, data ) );
+	}
+
+	private List<Table> extract( IExtractionResults results )
+			throws BirtException
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		Map allOptions = new HashMap( );
+		allOptions.putAll( option.getOptions( ) );
+		DataExtractionOption deOptions = new DataExtractionOption( allOptions );
+		deOptions.setOutputStream( out );
+
+		ArrowDataExtractionImpl extract = new ArrowDataExtractionImpl( );
+		extract.initialize( null, deOptions );
+		extract.output( results );
+
+		ByteBuffer bb = ByteBuffer.wrap( out.toByteArray( ) ).order(
+				ByteOrder.LITTLE_ENDIAN );
+		List<Table> messages = new ArrayList<Table>( );
+		int position = 0;
+		while ( true )
+		{
+			assertEquals( -1, bb.getInt( position ) );
+			int length = bb.getInt( position + 4 );
+			assertEquals( 0, ( position + 8 + length ) % 8 );
+			if ( length == 0 )
+			{
+				assertEquals( bb.capacity( ), position + 8 );
+				break;
+			}
+			int start = position + 8;
+			Table message = new Table( bb, start + bb.getInt( start ) );
+			message.body = start + length;
+			messages.add( message );
+			position = start + length + (int) message.getLong( 3 );
+		}
+		return messages;
+	}
+
+	private ByteBuffer getBuffer( Table message, int index )
+	{
+		Table batch = message.getTable( 2 );
+		if ( message.getByte( 1 ) == ArrowStreamWriter.HEADER_DICTIONARY_BATCH )
+		{
+			batch = batch.getTable( 1 );
+		}
+		int offset = (int) batch.getStructLong( 2, index, 0 );
+		int length = (int) batch.getStructLong( 2, index, 1 );
+		assertEquals( 0, offset % 8 );
+		ByteBuffer bb = message.bb.duplicate( );
+		bb.position( message.body + offset );
+		bb.limit( message.body + offset + length );
+		return bb.slice( ).order( ByteOrder.LITTLE_ENDIAN );
+	}
+
+	/**
+	 * returns the value of the first utf8 vector in the message.
+	 */
+	private String getString( Table message, int row ) throws Exception
+	{
+		ByteBuffer offsets = getBuffer( message, 1 );
+		ByteBuffer data = getBuffer( message, 2 );
+		int start = offsets.getInt( row * 4 );
+		byte[] bytes = new byte[offsets.getInt( row * 4 + 4 ) - start];
+		data.position( start );
+		data.get( bytes );
+		return new String( bytes, "UTF-8" ); //$NON-NLS-1$
+	}
+
+	private BigInteger getDecimal( ByteBuffer buffer, int row )
+	{
+		byte[] bytes = new byte[16];
+		for ( int i = 0; i < 16; i++ )
+		{
+			bytes[15 - i] = buffer.get( row * 16 + i );
+		}
+		return new BigInteger( bytes );
+	}
+
+	/**
+	 * flatbuffers table reader.
+	 */
+	private static class Table
+	{
+
+		ByteBuffer bb;
+		int position;
+		int body;
+
+		Table( ByteBuffer bb, int position )
+		{
+			this.bb = bb;
+			this.position = position;
+		}
+
+		int getFieldOffset( int field )
+		{
+			int vtable = position - bb.getInt( position );
+			if ( 4 + field * 2 >= bb.getShort( vtable ) )
+			{
+				return 0;
+			}
+			return bb.getShort( vtable + 4 + field * 2 );
+		}
+
+		boolean hasField( int field )
+		{
+			return getFieldOffset( field ) != 0;
+		}
+
+		byte getByte( int field )
+		{
+			int offset = getFieldOffset( field );
+			return offset == 0 ? 0 : bb.get( position + offset );
+		}
+
+		short getShort( int field )
+		{
+			int offset = getFieldOffset( field );
+			return offset == 0 ? 0 : bb.getShort( position + offset );
+		}
+
+		int getInt( int field )
+		{
+			int offset = getFieldOffset( field );
+			return offset == 0 ? 0 : bb.getInt( position + offset );
+		}
+
+		long getLong( int field )
+		{
+			int offset = getFieldOffset( field );
+			return offset == 0 ? 0 : bb.getLong( position + offset );
+		}
+
+		private int getReference( int field )
+		{
+			int offset = position + getFieldOffset( field );
+			return offset + bb.getInt( offset );
+		}
+
+		Table getTable( int field )
+		{
+			Table table = new Table( bb, getReference( field ) );
+			table.body = body;
+			return table;
+		}
+
+		int getVectorLength( int field )
+		{
+			return bb.getInt( getReference( field ) );
+		}
+
+		Table getTable( int field, int index )
+		{
+			int offset = getReference( field ) + 4 + index * 4;
+			return new Table( bb, offset + bb.getInt( offset ) );
+		}
+
+		long getStructLong( int field, int index, int member )
+		{
+			int vector = getReference( field );
+			assertEquals( 0, ( vector + 4 ) % 8 );
+			return bb.getLong( vector + 4 + index * 16 + member * 8 );
+		}
+
+		String getString( int field ) throws Exception
+		{
+			int offset = getReference( field );
+			byte[] bytes = new byte[bb.getInt( offset )];
+			for ( int i = 0; i < bytes.length; i++ )
+			{
+				bytes[i] = bb.get( offset + 4 + i );
+			}
+			return new String( bytes, "UTF-8" ); //$NON-NLS-1$
+		}
+	}
+}
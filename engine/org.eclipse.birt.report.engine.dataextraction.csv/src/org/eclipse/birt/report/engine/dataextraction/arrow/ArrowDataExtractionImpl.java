@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction.arrow;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
+
+import org.eclipse.birt.core.data.DataType;
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.report.engine.api.IDataExtractionOption;
+import org.eclipse.birt.report.engine.api.IDataIterator;
+import org.eclipse.birt.report.engine.api.IExtractionResults;
+import org.eclipse.birt.report.engine.api.IResultMetaData;
+import org.eclipse.birt.report.engine.api.script.IReportContext;
+import org.eclipse.birt.report.engine.dataextraction.ArrowDataExtractionOption;
+import org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption;
+import org.eclipse.birt.report.engine.dataextraction.i18n.Messages;
+import org.eclipse.birt.report.engine.dataextraction.impl.CommonDataExtractionImpl;
+
+/**
+ * Implements the logic to extract data as the Arrow IPC streaming format.
+ *
+ * Unlike the CSV extraction, the values of the integer, double, decimal,
+ * boolean, date, time and binary columns are written in their native types,
+ * only the string and the other columns are formatted to text, and the text
+ * columns are dictionary encoded by default.
+ */
+public class ArrowDataExtractionImpl extends CommonDataExtractionImpl
+{
+
+	public static final String PLUGIN_ID = "org.eclipse.birt.report.engine.dataextraction.csv"; //$NON-NLS-1$
+
+	private OutputStream outputStream;
+	private String[] selectedColumnNames;
+	private int batchSize;
+	private boolean dictionaryEncoding;
+	private int decimalScale;
+
+	/**
+	 * @see org.eclipse.birt.report.engine.extension.IDataExtractionExtension#initialize(org.eclipse.birt.report.engine.api.script.IReportContext,
+	 *      org.eclipse.birt.report.engine.api.IDataExtractionOption)
+	 */
+	public void initialize( IReportContext context, IDataExtractionOption options )
+			throws BirtException
+	{
+		super.initialize( context, options );
+		initArrowOptions( options );
+	}
+
+	/**
+	 * Initializes the Arrow options based on the data extraction option. If
+	 * the passed option doesn't contain the Arrow options, use default values.
+	 *
+	 * @param options
+	 *            options
+	 */
+	private void initArrowOptions( IDataExtractionOption options )
+	{
+		this.outputStream = options.getOutputStream( );
+		IArrowDataExtractionOption arrowOptions;
+		if ( options instanceof IArrowDataExtractionOption )
+		{
+			arrowOptions = (IArrowDataExtractionOption) options;
+		}
+		else
+		{
+			arrowOptions = new ArrowDataExtractionOption( options.getOptions( ) );
+		}
+
+		batchSize = arrowOptions.getBatchSize( );
+		if ( batchSize <= 0 )
+		{
+			batchSize = IArrowDataExtractionOption.DEFAULT_BATCH_SIZE;
+		}
+		dictionaryEncoding = arrowOptions.isDictionaryEncoding( );
+		decimalScale = arrowOptions.getDecimalScale( );
+		if ( decimalScale < 0 || decimalScale > ArrowVector.DECIMAL_PRECISION )
+		{
+			decimalScale = IArrowDataExtractionOption.DEFAULT_DECIMAL_SCALE;
+		}
+		selectedColumnNames = arrowOptions.getSelectedColumns( );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.extension.IDataExtractionExtension#output(org.eclipse.birt.report.engine.api.IExtractionResults)
+	 */
+	public void output( IExtractionResults results ) throws BirtException
+	{
+		if ( results == null )
+		{
+			throw new BirtException( PLUGIN_ID,
+					Messages.getString( "exception.dataextraction.no_extraction_result_error" ), //$NON-NLS-1$
+					(ResourceBundle) null );
+		}
+		try
+		{
+			IResultMetaData metaData = results.getResultMetaData( );
+			String[] columnNames = getColumnNames( metaData );
+			int[] columnTypes = getColumnTypes( columnNames, metaData );
+
+			// the schema and the end of stream are written even if there is
+			// no row, so the output is always a valid stream
+			IDataIterator iData = results.nextResultIterator( );
+
+			createFormatters( columnNames, columnTypes );
+			ArrowVector[] vectors = new ArrowVector[columnNames.length];
+			boolean[] isText = new boolean[columnNames.length];
+			for ( int i = 0; i < columnNames.length; i++ )
+			{
+				vectors[i] = createVector( columnNames[i], columnTypes[i], i );
+				isText[i] = vectors[i].getType( ) == ArrowVector.TYPE_UTF8;
+			}
+
+			BufferedOutputStream out = new BufferedOutputStream( outputStream );
+			ArrowStreamWriter writer = new ArrowStreamWriter( out, vectors );
+			writer.writeSchema( );
+			int rowCount = 0;
+			while ( iData != null && iData.next( ) )
+			{
+				for ( int i = 0; i < columnNames.length; i++ )
+				{
+					if ( isText[i] )
+					{
+						vectors[i].add( getStringValue( iData, columnNames, i ) );
+					}
+					else
+					{
+						vectors[i].add( iData.getValue( columnNames[i] ) );
+					}
+				}
+				if ( ++rowCount == batchSize )
+				{
+					writer.writeBatch( );
+					rowCount = 0;
+				}
+			}
+			// at least one batch is written so the dictionaries are defined
+			if ( rowCount > 0 || writer.getBatchCount( ) == 0 )
+			{
+				writer.writeBatch( );
+			}
+			writer.writeEndOfStream( );
+			out.flush( );
+		}
+		catch ( Exception e )
+		{
+			throw new BirtException( PLUGIN_ID,
+					Messages.getString( "exception.dataextraction.exception_occured" ), //$NON-NLS-1$
+					(ResourceBundle) null,
+					e );
+		}
+	}
+
+	private ArrowVector createVector( String name, int type, int index )
+	{
+		switch ( type )
+		{
+			case DataType.INTEGER_TYPE :
+				return new ArrowVector.IntVector( name );
+			case DataType.DOUBLE_TYPE :
+				return new ArrowVector.DoubleVector( name );
+			case DataType.DECIMAL_TYPE :
+				return new ArrowVector.DecimalVector( name, decimalScale );
+			case DataType.BOOLEAN_TYPE :
+				return new ArrowVector.BooleanVector( name );
+			case DataType.DATE_TYPE :
+				return new ArrowVector.TimestampVector( name );
+			case DataType.SQL_DATE_TYPE :
+				return new ArrowVector.DateDayVector( name );
+			case DataType.SQL_TIME_TYPE :
+				return new ArrowVector.TimeMilliVector( name );
+			case DataType.BLOB_TYPE :
+			case DataType.BINARY_TYPE :
+				return new ArrowVector.VariableWidthVector( name, true );
+			default :
+				if ( dictionaryEncoding )
+				{
+					return new ArrowVector.DictionaryVector( name, index );
+				}
+				return new ArrowVector.VariableWidthVector( name, false );
+		}
+	}
+
+	/**
+	 * Returns the selected columns, or all the columns if no column is
+	 * selected. The selected columns which don't exist are ignored.
+	 */
+	private String[] getColumnNames( IResultMetaData metaData )
+			throws BirtException
+	{
+		int count = metaData.getColumnCount( );
+		List<String> names = new ArrayList<String>( );
+		if ( selectedColumnNames == null || selectedColumnNames.length <= 0 )
+		{
+			for ( int i = 0; i < count; i++ )
+			{
+				names.add( metaData.getColumnName( i ) );
+			}
+		}
+		else
+		{
+			List<String> allNames = new ArrayList<String>( );
+			for ( int i = 0; i < count; i++ )
+			{
+				allNames.add( metaData.getColumnName( i ) );
+			}
+			for ( int i = 0; i < selectedColumnNames.length; i++ )
+			{
+				if ( allNames.contains( selectedColumnNames[i] ) )
+				{
+					names.add( selectedColumnNames[i] );
+				}
+			}
+		}
+		return names.toArray( new String[names.size( )] );
+	}
+
+	private int[] getColumnTypes( String[] columnNames,
+			IResultMetaData metaData ) throws BirtException
+	{
+		Map<String, Integer> typesMap = new HashMap<String, Integer>( );
+		int count = metaData.getColumnCount( );
+		for ( int i = 0; i < count; i++ )
+		{
+			typesMap.put( metaData.getColumnName( i ),
+					Integer.valueOf( metaData.getColumnType( i ) ) );
+		}
+		int[] types = new int[columnNames.length];
+		for ( int i = 0; i < columnNames.length; i++ )
+		{
+			types[i] = typesMap.get( columnNames[i] ).intValue( );
+		}
+		return types;
+	}
+}
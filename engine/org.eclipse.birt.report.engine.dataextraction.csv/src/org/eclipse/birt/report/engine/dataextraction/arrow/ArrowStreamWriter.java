@@ -0,0 +1,247 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction.arrow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.birt.report.engine.dataextraction.arrow.ArrowVector.DictionaryVector;
+import org.eclipse.birt.report.engine.dataextraction.arrow.ArrowVector.VariableWidthVector;
+
+/**
+ * Writes the vectors in the Arrow IPC streaming format.
+ *
+ * The stream starts with the schema message, followed by the record batches
+ * and ends with the end-of-stream marker. Each message is the flatbuffers
+ * encoded metadata followed by the body which contains the buffers of the
+ * vectors, aligned to 8 bytes. The dictionaries of the dictionary encoded
+ * vectors are written before the first record batch, the values added later
+ * are written as delta dictionary batches.
+ */
+class ArrowStreamWriter
+{
+
+	static final short METADATA_VERSION_V5 = 4;
+
+	/**
+	 * the members of the MessageHeader union defined in Message.fbs
+	 */
+	static final byte HEADER_SCHEMA = 1;
+	static final byte HEADER_DICTIONARY_BATCH = 2;
+	static final byte HEADER_RECORD_BATCH = 3;
+
+	private static final int CONTINUATION = 0xFFFFFFFF;
+	private static final int ALIGNMENT = 8;
+
+	private OutputStream out;
+	private ArrowVector[] vectors;
+	private byte[] intBuffer = new byte[4];
+	private byte[] padding = new byte[ALIGNMENT];
+	private int batchCount;
+
+	ArrowStreamWriter( OutputStream out, ArrowVector[] vectors )
+	{
+		this.out = out;
+		this.vectors = vectors;
+	}
+
+	/**
+	 * @return the number of record batches written.
+	 */
+	int getBatchCount( )
+	{
+		return batchCount;
+	}
+
+	void writeSchema( ) throws IOException
+	{
+		FlatBufferBuilder builder = new FlatBufferBuilder( 1024 );
+		int[] fields = new int[vectors.length];
+		for ( int i = 0; i < vectors.length; i++ )
+		{
+			ArrowVector vector = vectors[i];
+			int name = builder.createString( vector.getName( ) );
+			int type = vector.createType( builder );
+			int dictionary = vector.createDictionaryEncoding( builder );
+			int children = builder.createOffsetVector( new int[0] );
+			builder.startTable( 6 );
+			builder.addOffsetField( 0, name );
+			builder.addField( 1, (byte) 1 );
+			builder.addField( 2, vector.getType( ) );
+			builder.addOffsetField( 3, type );
+			if ( dictionary != 0 )
+			{
+				builder.addOffsetField( 4, dictionary );
+			}
+			builder.addOffsetField( 5, children );
+			fields[i] = builder.endTable( );
+		}
+		int fieldVector = builder.createOffsetVector( fields );
+		builder.startTable( 2 );
+		// little endian
+		builder.addField( 0, (short) 0 );
+		builder.addOffsetField( 1, fieldVector );
+		int schema = builder.endTable( );
+		writeMessage( builder, HEADER_SCHEMA, schema,
+				new ArrayList<ByteBuffer>( ) );
+	}
+
+	/**
+	 * writes the values in the vectors as a record batch and resets the
+	 * vectors.
+	 */
+	void writeBatch( ) throws IOException
+	{
+		for ( int i = 0; i < vectors.length; i++ )
+		{
+			if ( vectors[i] instanceof DictionaryVector )
+			{
+				writeDictionary( (DictionaryVector) vectors[i] );
+			}
+		}
+
+		int rowCount = vectors.length > 0 ? vectors[0].getRowCount( ) : 0;
+		List<ByteBuffer> buffers = new ArrayList<ByteBuffer>( );
+		for ( int i = 0; i < vectors.length; i++ )
+		{
+			vectors[i].getBuffers( buffers );
+		}
+		FlatBufferBuilder builder = new FlatBufferBuilder( 256 );
+		int batch = createRecordBatch( builder, rowCount, vectors, buffers );
+		writeMessage( builder, HEADER_RECORD_BATCH, batch, buffers );
+
+		for ( int i = 0; i < vectors.length; i++ )
+		{
+			vectors[i].reset( );
+		}
+		batchCount++;
+	}
+
+	/**
+	 * writes the dictionary values added since the last batch. The whole
+	 * dictionary is written before the first batch even if it is empty.
+	 */
+	private void writeDictionary( DictionaryVector vector ) throws IOException
+	{
+		VariableWidthVector delta = vector.getDelta( );
+		boolean isDelta = batchCount > 0;
+		if ( isDelta && delta.getRowCount( ) == 0 )
+		{
+			return;
+		}
+		List<ByteBuffer> buffers = new ArrayList<ByteBuffer>( );
+		delta.getBuffers( buffers );
+		FlatBufferBuilder builder = new FlatBufferBuilder( 256 );
+		int data = createRecordBatch( builder, delta.getRowCount( ),
+				new ArrowVector[]{delta}, buffers );
+		builder.startTable( 3 );
+		builder.addField( 0, vector.getId( ) );
+		builder.addOffsetField( 1, data );
+		builder.addField( 2, (byte) ( isDelta ? 1 : 0 ) );
+		int dictionary = builder.endTable( );
+		writeMessage( builder, HEADER_DICTIONARY_BATCH, dictionary, buffers );
+		delta.reset( );
+	}
+
+	/**
+	 * writes the end-of-stream marker.
+	 */
+	void writeEndOfStream( ) throws IOException
+	{
+		writeInt( CONTINUATION );
+		writeInt( 0 );
+	}
+
+	private int createRecordBatch( FlatBufferBuilder builder, int rowCount,
+			ArrowVector[] vectors, List<ByteBuffer> buffers )
+	{
+		builder.startVector( 16, buffers.size( ), 8 );
+		long bodyLength = getBodyLength( buffers );
+		for ( int i = buffers.size( ) - 1; i >= 0; i-- )
+		{
+			int length = buffers.get( i ).remaining( );
+			bodyLength -= align( length );
+			builder.addLongPair( bodyLength, length );
+		}
+		int bufferVector = builder.endVector( );
+
+		builder.startVector( 16, vectors.length, 8 );
+		for ( int i = vectors.length - 1; i >= 0; i-- )
+		{
+			builder.addLongPair( vectors[i].getRowCount( ),
+					vectors[i].getNullCount( ) );
+		}
+		int nodeVector = builder.endVector( );
+
+		builder.startTable( 3 );
+		builder.addField( 0, (long) rowCount );
+		builder.addOffsetField( 1, nodeVector );
+		builder.addOffsetField( 2, bufferVector );
+		return builder.endTable( );
+	}
+
+	private void writeMessage( FlatBufferBuilder builder, byte headerType,
+			int header, List<ByteBuffer> buffers ) throws IOException
+	{
+		long bodyLength = getBodyLength( buffers );
+		builder.startTable( 4 );
+		builder.addField( 3, bodyLength );
+		builder.addOffsetField( 2, header );
+		builder.addField( 0, METADATA_VERSION_V5 );
+		builder.addField( 1, headerType );
+		byte[] metadata = builder.finish( builder.endTable( ) );
+
+		// the continuation marker and the length prefix are included in the
+		// alignment of the metadata
+		int metadataLength = align( metadata.length + 8 ) - 8;
+		writeInt( CONTINUATION );
+		writeInt( metadataLength );
+		out.write( metadata );
+		out.write( padding, 0, metadataLength - metadata.length );
+
+		for ( int i = 0; i < buffers.size( ); i++ )
+		{
+			ByteBuffer buffer = buffers.get( i );
+			int length = buffer.remaining( );
+			out.write( buffer.array( ),
+					buffer.arrayOffset( ) + buffer.position( ),
+					length );
+			out.write( padding, 0, align( length ) - length );
+		}
+	}
+
+	private static long getBodyLength( List<ByteBuffer> buffers )
+	{
+		long length = 0;
+		for ( int i = 0; i < buffers.size( ); i++ )
+		{
+			length += align( buffers.get( i ).remaining( ) );
+		}
+		return length;
+	}
+
+	private static int align( int length )
+	{
+		return ( length + ALIGNMENT - 1 ) & ~( ALIGNMENT - 1 );
+	}
+
+	private void writeInt( int value ) throws IOException
+	{
+		intBuffer[0] = (byte) value;
+		intBuffer[1] = (byte) ( value >>> 8 );
+		intBuffer[2] = (byte) ( value >>> 16 );
+		intBuffer[3] = (byte) ( value >>> 24 );
+		out.write( intBuffer );
+	}
+}
@@ -0,0 +1,634 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction.arrow;
+
+import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.eclipse.birt.core.data.DataTypeUtil;
+import org.eclipse.birt.core.exception.BirtException;
+
+/**
+ * The values of a column in the current record batch, kept in the Arrow
+ * columnar layout: a validity bitmap followed by the value buffers, all in
+ * little endian.
+ */
+abstract class ArrowVector
+{
+
+	/**
+	 * the members of the Type union defined in Schema.fbs
+	 */
+	static final byte TYPE_INT = 2;
+	static final byte TYPE_FLOATING_POINT = 3;
+	static final byte TYPE_BINARY = 4;
+	static final byte TYPE_UTF8 = 5;
+	static final byte TYPE_BOOL = 6;
+	static final byte TYPE_DECIMAL = 7;
+	static final byte TYPE_DATE = 8;
+	static final byte TYPE_TIME = 9;
+	static final byte TYPE_TIMESTAMP = 10;
+
+	static final short PRECISION_DOUBLE = 2;
+	static final short DATE_UNIT_DAY = 0;
+	static final short TIME_UNIT_MILLISECOND = 1;
+
+	static final int DECIMAL_PRECISION = 38;
+
+	private static final long MILLIS_PER_DAY = 24 * 60 * 60 * 1000L;
+	private static final BigInteger MAX_DECIMAL = BigInteger.TEN
+			.pow( DECIMAL_PRECISION );
+
+	protected String name;
+	protected int rowCount;
+	protected int nullCount;
+	protected byte[] validity = new byte[16];
+
+	ArrowVector( String name )
+	{
+		this.name = name;
+	}
+
+	String getName( )
+	{
+		return name;
+	}
+
+	int getRowCount( )
+	{
+		return rowCount;
+	}
+
+	int getNullCount( )
+	{
+		return nullCount;
+	}
+
+	void add( Object value ) throws BirtException
+	{
+		if ( ( rowCount >> 3 ) >= validity.length )
+		{
+			validity = Arrays.copyOf( validity, validity.length * 2 );
+		}
+		if ( value == null )
+		{
+			nullCount++;
+			appendNull( );
+		}
+		else
+		{
+			validity[rowCount >> 3] |= 1 << ( rowCount & 7 );
+			append( value );
+		}
+		rowCount++;
+	}
+
+	void reset( )
+	{
+		Arrays.fill( validity, 0, ( rowCount + 7 ) >> 3, (byte) 0 );
+		rowCount = 0;
+		nullCount = 0;
+	}
+
+	/**
+	 * adds the buffers of the vector, the validity bitmap is omitted if there
+	 * is no null value.
+	 */
+	void getBuffers( List<ByteBuffer> buffers )
+	{
+		buffers.add( ByteBuffer.wrap( validity, 0, nullCount == 0
+				? 0
+				: ( rowCount + 7 ) >> 3 ) );
+		getValueBuffers( buffers );
+	}
+
+	/**
+	 * @return the member of the Type union.
+	 */
+	abstract byte getType( );
+
+	/**
+	 * creates the type table.
+	 */
+	abstract int createType( FlatBufferBuilder builder );
+
+	/**
+	 * creates the DictionaryEncoding table of the field.
+	 *
+	 * @return the offset of the table, 0 if the vector isn't dictionary
+	 *         encoded.
+	 */
+	int createDictionaryEncoding( FlatBufferBuilder builder )
+	{
+		return 0;
+	}
+
+	protected abstract void append( Object value ) throws BirtException;
+
+	protected abstract void appendNull( );
+
+	protected abstract void getValueBuffers( List<ByteBuffer> buffers );
+
+	static int createIntType( FlatBufferBuilder builder, int bitWidth )
+	{
+		builder.startTable( 2 );
+		builder.addField( 0, bitWidth );
+		builder.addField( 1, (byte) 1 );
+		return builder.endTable( );
+	}
+
+	static int createEmptyType( FlatBufferBuilder builder )
+	{
+		builder.startTable( 0 );
+		return builder.endTable( );
+	}
+
+	/**
+	 * @return the local time of the date in milliseconds.
+	 */
+	static long getLocalTime( java.util.Date date )
+	{
+		long time = date.getTime( );
+		return time + TimeZone.getDefault( ).getOffset( time );
+	}
+
+	static long floorDiv( long x, long y )
+	{
+		long r = x / y;
+		if ( ( x % y != 0 ) && ( ( x ^ y ) < 0 ) )
+		{
+			r--;
+		}
+		return r;
+	}
+
+	/**
+	 * vector of the fixed width values.
+	 */
+	static abstract class FixedWidthVector extends ArrowVector
+	{
+
+		protected int width;
+		protected ByteBuffer data;
+
+		FixedWidthVector( String name, int width )
+		{
+			super( name );
+			this.width = width;
+			this.data = ByteBuffer.allocate( width * 16 ).order(
+					ByteOrder.LITTLE_ENDIAN );
+		}
+
+		protected int nextPosition( )
+		{
+			int position = rowCount * width;
+			if ( position + width > data.capacity( ) )
+			{
+				ByteBuffer buffer = ByteBuffer.allocate( data.capacity( ) * 2 )
+						.order( ByteOrder.LITTLE_ENDIAN );
+				buffer.put( data.array( ), 0, position );
+				data = buffer;
+			}
+			return position;
+		}
+
+		protected void appendNull( )
+		{
+			int position = nextPosition( );
+			for ( int i = 0; i < width; i++ )
+			{
+				data.put( position + i, (byte) 0 );
+			}
+		}
+
+		protected void getValueBuffers( List<ByteBuffer> buffers )
+		{
+			buffers.add( ByteBuffer.wrap( data.array( ), 0, rowCount * width ) );
+		}
+	}
+
+	static class IntVector extends FixedWidthVector
+	{
+
+		IntVector( String name )
+		{
+			super( name, 4 );
+		}
+
+		byte getType( )
+		{
+			return TYPE_INT;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			return createIntType( builder, 32 );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			data.putInt( nextPosition( ), DataTypeUtil.toInteger( value )
+					.intValue( ) );
+		}
+	}
+
+	static class DoubleVector extends FixedWidthVector
+	{
+
+		DoubleVector( String name )
+		{
+			super( name, 8 );
+		}
+
+		byte getType( )
+		{
+			return TYPE_FLOATING_POINT;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			builder.startTable( 1 );
+			builder.addField( 0, PRECISION_DOUBLE );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			data.putDouble( nextPosition( ), DataTypeUtil.toDouble( value )
+					.doubleValue( ) );
+		}
+	}
+
+	/**
+	 * 128 bits decimal with a fixed scale, the values are rounded half up to
+	 * the scale.
+	 */
+	static class DecimalVector extends FixedWidthVector
+	{
+
+		private int scale;
+
+		DecimalVector( String name, int scale )
+		{
+			super( name, 16 );
+			this.scale = scale;
+		}
+
+		byte getType( )
+		{
+			return TYPE_DECIMAL;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			builder.startTable( 3 );
+			builder.addField( 0, DECIMAL_PRECISION );
+			builder.addField( 1, scale );
+			builder.addField( 2, 128 );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			BigDecimal decimal = DataTypeUtil.toBigDecimal( value ).setScale(
+					scale, BigDecimal.ROUND_HALF_UP );
+			BigInteger unscaled = decimal.unscaledValue( );
+			if ( unscaled.abs( ).compareTo( MAX_DECIMAL ) >= 0 )
+			{
+				throw new BirtException( ArrowDataExtractionImpl.PLUGIN_ID,
+						"The value \"" + value //$NON-NLS-1$
+								+ "\" exceeds the precision of the decimal column \"" //$NON-NLS-1$
+								+ name + "\"", null ); //$NON-NLS-1$
+			}
+			// two's complement in little endian, sign extended to 16 bytes;
+			// toByteArray() returns the big endian bytes, so they are reversed
+			byte[] bytes = unscaled.toByteArray( );
+			byte sign = unscaled.signum( ) < 0 ? (byte) -1 : 0;
+			int position = nextPosition( );
+			for ( int i = 0; i < 16; i++ )
+			{
+				int index = bytes.length - 1 - i;
+				data.put( position + i, index >= 0 ? bytes[index] : sign );
+			}
+		}
+	}
+
+	/**
+	 * days since the epoch of the local date.
+	 */
+	static class DateDayVector extends FixedWidthVector
+	{
+
+		DateDayVector( String name )
+		{
+			super( name, 4 );
+		}
+
+		byte getType( )
+		{
+			return TYPE_DATE;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			builder.startTable( 1 );
+			builder.addField( 0, DATE_UNIT_DAY );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			long time = getLocalTime( DataTypeUtil.toSqlDate( value ) );
+			data.putInt( nextPosition( ), (int) floorDiv( time, MILLIS_PER_DAY ) );
+		}
+	}
+
+	/**
+	 * milliseconds since the local midnight.
+	 */
+	static class TimeMilliVector extends FixedWidthVector
+	{
+
+		TimeMilliVector( String name )
+		{
+			super( name, 4 );
+		}
+
+		byte getType( )
+		{
+			return TYPE_TIME;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			builder.startTable( 2 );
+			builder.addField( 0, TIME_UNIT_MILLISECOND );
+			builder.addField( 1, 32 );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			long time = getLocalTime( DataTypeUtil.toSqlTime( value ) );
+			data.putInt( nextPosition( ),
+					(int) ( time - floorDiv( time, MILLIS_PER_DAY ) * MILLIS_PER_DAY ) );
+		}
+	}
+
+	/**
+	 * milliseconds since the epoch in UTC.
+	 */
+	static class TimestampVector extends FixedWidthVector
+	{
+
+		TimestampVector( String name )
+		{
+			super( name, 8 );
+		}
+
+		byte getType( )
+		{
+			return TYPE_TIMESTAMP;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			int timezone = builder.createString( "UTC" ); //$NON-NLS-1$
+			builder.startTable( 2 );
+			builder.addField( 0, TIME_UNIT_MILLISECOND );
+			builder.addOffsetField( 1, timezone );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			data.putLong( nextPosition( ), DataTypeUtil.toDate( value )
+					.getTime( ) );
+		}
+	}
+
+	static class BooleanVector extends ArrowVector
+	{
+
+		private byte[] values = new byte[16];
+
+		BooleanVector( String name )
+		{
+			super( name );
+		}
+
+		byte getType( )
+		{
+			return TYPE_BOOL;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			return createEmptyType( builder );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			appendNull( );
+			if ( DataTypeUtil.toBoolean( value ).booleanValue( ) )
+			{
+				values[rowCount >> 3] |= 1 << ( rowCount & 7 );
+			}
+		}
+
+		protected void appendNull( )
+		{
+			if ( ( rowCount >> 3 ) >= values.length )
+			{
+				values = Arrays.copyOf( values, values.length * 2 );
+			}
+		}
+
+		void reset( )
+		{
+			Arrays.fill( values, 0, ( rowCount + 7 ) >> 3, (byte) 0 );
+			super.reset( );
+		}
+
+		protected void getValueBuffers( List<ByteBuffer> buffers )
+		{
+			buffers.add( ByteBuffer.wrap( values, 0, ( rowCount + 7 ) >> 3 ) );
+		}
+	}
+
+	/**
+	 * vector of the variable width values, used for both the UTF-8 strings
+	 * and the binaries.
+	 */
+	static class VariableWidthVector extends ArrowVector
+	{
+
+		private boolean binary;
+		private ByteBuffer offsets;
+		private byte[] data = new byte[256];
+		private int dataLength;
+
+		VariableWidthVector( String name, boolean binary )
+		{
+			super( name );
+			this.binary = binary;
+			this.offsets = ByteBuffer.allocate( 64 ).order(
+					ByteOrder.LITTLE_ENDIAN );
+		}
+
+		byte getType( )
+		{
+			return binary ? TYPE_BINARY : TYPE_UTF8;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			return createEmptyType( builder );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			byte[] bytes;
+			if ( binary )
+			{
+				bytes = DataTypeUtil.toBytes( value );
+			}
+			else
+			{
+				try
+				{
+					bytes = value.toString( ).getBytes( "UTF-8" ); //$NON-NLS-1$
+				}
+				catch ( UnsupportedEncodingException e )
+				{
+					throw new IllegalStateException( e );
+				}
+			}
+			if ( dataLength + bytes.length > data.length )
+			{
+				data = Arrays.copyOf( data, Math.max( data.length * 2,
+						dataLength + bytes.length ) );
+			}
+			System.arraycopy( bytes, 0, data, dataLength, bytes.length );
+			dataLength += bytes.length;
+			appendNull( );
+		}
+
+		/**
+		 * writes the end offset of the current row.
+		 */
+		protected void appendNull( )
+		{
+			int position = ( rowCount + 1 ) * 4;
+			if ( position + 4 > offsets.capacity( ) )
+			{
+				ByteBuffer buffer = ByteBuffer.allocate(
+						offsets.capacity( ) * 2 ).order( ByteOrder.LITTLE_ENDIAN );
+				buffer.put( offsets.array( ), 0, position );
+				offsets = buffer;
+			}
+			offsets.putInt( position, dataLength );
+		}
+
+		void reset( )
+		{
+			super.reset( );
+			dataLength = 0;
+		}
+
+		protected void getValueBuffers( List<ByteBuffer> buffers )
+		{
+			buffers.add( ByteBuffer.wrap( offsets.array( ), 0, ( rowCount + 1 ) * 4 ) );
+			buffers.add( ByteBuffer.wrap( data, 0, dataLength ) );
+		}
+	}
+
+	/**
+	 * dictionary encoded strings. The vector keeps the 32 bits indices of the
+	 * values, the values which are not written yet are kept in the delta
+	 * vector.
+	 */
+	static class DictionaryVector extends FixedWidthVector
+	{
+
+		private long id;
+		private HashMap<String, Integer> dictionary = new HashMap<String, Integer>( );
+		private VariableWidthVector delta;
+
+		DictionaryVector( String name, long id )
+		{
+			super( name, 4 );
+			this.id = id;
+			this.delta = new VariableWidthVector( name, false );
+		}
+
+		long getId( )
+		{
+			return id;
+		}
+
+		/**
+		 * @return the dictionary values which are not written yet.
+		 */
+		VariableWidthVector getDelta( )
+		{
+			return delta;
+		}
+
+		/**
+		 * @return the number of the dictionary values.
+		 */
+		int getDictionarySize( )
+		{
+			return dictionary.size( );
+		}
+
+		byte getType( )
+		{
+			return TYPE_UTF8;
+		}
+
+		int createType( FlatBufferBuilder builder )
+		{
+			return createEmptyType( builder );
+		}
+
+		int createDictionaryEncoding( FlatBufferBuilder builder )
+		{
+			int indexType = createIntType( builder, 32 );
+			builder.startTable( 3 );
+			builder.addField( 0, id );
+			builder.addOffsetField( 1, indexType );
+			builder.addField( 2, (byte) 0 );
+			return builder.endTable( );
+		}
+
+		protected void append( Object value ) throws BirtException
+		{
+			String text = value.toString( );
+			Integer index = dictionary.get( text );
+			if ( index == null )
+			{
+				index = Integer.valueOf( dictionary.size( ) );
+				dictionary.put( text, index );
+				delta.add( text );
+			}
+			data.putInt( nextPosition( ), index.intValue( ) );
+		}
+	}
+}
@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction.arrow;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Minimal flatbuffers builder used to encode the Arrow IPC metadata.
+ *
+ * Like the reference implementation, the buffer is built from the end to the
+ * front, so the children must be created before their parents. The vtables
+ * are not shared between the tables.
+ */
+class FlatBufferBuilder
+{
+
+	private ByteBuffer bb;
+	private int space;
+	private int minalign = 1;
+
+	private int[] vtable;
+	private int objectStart;
+	private int vectorNumElems;
+
+	FlatBufferBuilder( int initialSize )
+	{
+		bb = ByteBuffer.allocate( initialSize ).order( ByteOrder.LITTLE_ENDIAN );
+		space = initialSize;
+	}
+
+	/**
+	 * @return the offset of the last written object from the end of the
+	 *         buffer.
+	 */
+	int offset( )
+	{
+		return bb.capacity( ) - space;
+	}
+
+	private void prep( int size, int additionalBytes )
+	{
+		if ( size > minalign )
+		{
+			minalign = size;
+		}
+		int alignSize = ( ~( bb.capacity( ) - space + additionalBytes ) + 1 )
+				& ( size - 1 );
+		while ( space < alignSize + size + additionalBytes )
+		{
+			int oldSize = bb.capacity( );
+			ByteBuffer nbb = ByteBuffer.allocate( oldSize * 2 ).order(
+					ByteOrder.LITTLE_ENDIAN );
+			bb.position( 0 );
+			nbb.position( oldSize );
+			nbb.put( bb );
+			bb = nbb;
+			space += oldSize;
+		}
+		for ( int i = 0; i < alignSize; i++ )
+		{
+			bb.put( --space, (byte) 0 );
+		}
+	}
+
+	void addByte( byte x )
+	{
+		prep( 1, 0 );
+		bb.put( space -= 1, x );
+	}
+
+	void addShort( short x )
+	{
+		prep( 2, 0 );
+		bb.putShort( space -= 2, x );
+	}
+
+	void addInt( int x )
+	{
+		prep( 4, 0 );
+		bb.putInt( space -= 4, x );
+	}
+
+	void addLong( long x )
+	{
+		prep( 8, 0 );
+		bb.putLong( space -= 8, x );
+	}
+
+	/**
+	 * adds a reference to an object created before.
+	 */
+	void addOffset( int off )
+	{
+		prep( 4, 0 );
+		addInt( offset( ) - off + 4 );
+	}
+
+	/**
+	 * adds a struct of two longs, such as the FieldNode and Buffer of the
+	 * record batch.
+	 */
+	void addLongPair( long first, long second )
+	{
+		prep( 8, 16 );
+		addLong( second );
+		addLong( first );
+	}
+
+	int createString( String s )
+	{
+		byte[] utf8;
+		try
+		{
+			utf8 = s.getBytes( "UTF-8" ); //$NON-NLS-1$
+		}
+		catch ( UnsupportedEncodingException e )
+		{
+			throw new IllegalStateException( e );
+		}
+		addByte( (byte) 0 );
+		startVector( 1, utf8.length, 1 );
+		space -= utf8.length;
+		bb.position( space );
+		bb.put( utf8 );
+		return endVector( );
+	}
+
+	void startVector( int elemSize, int numElems, int alignment )
+	{
+		vectorNumElems = numElems;
+		prep( 4, elemSize * numElems );
+		prep( alignment, elemSize * numElems );
+	}
+
+	int endVector( )
+	{
+		addInt( vectorNumElems );
+		return offset( );
+	}
+
+	int createOffsetVector( int[] offsets )
+	{
+		startVector( 4, offsets.length, 4 );
+		for ( int i = offsets.length - 1; i >= 0; i-- )
+		{
+			addOffset( offsets[i] );
+		}
+		return endVector( );
+	}
+
+	void startTable( int numFields )
+	{
+		vtable = new int[numFields];
+		objectStart = offset( );
+	}
+
+	void addField( int field, byte x )
+	{
+		addByte( x );
+		vtable[field] = offset( );
+	}
+
+	void addField( int field, short x )
+	{
+		addShort( x );
+		vtable[field] = offset( );
+	}
+
+	void addField( int field, int x )
+	{
+		addInt( x );
+		vtable[field] = offset( );
+	}
+
+	void addField( int field, long x )
+	{
+		addLong( x );
+		vtable[field] = offset( );
+	}
+
+	void addOffsetField( int field, int off )
+	{
+		addOffset( off );
+		vtable[field] = offset( );
+	}
+
+	int endTable( )
+	{
+		addInt( 0 );
+		int tableOffset = offset( );
+		int count = vtable.length;
+		while ( count > 0 && vtable[count - 1] == 0 )
+		{
+			count--;
+		}
+		for ( int i = count - 1; i >= 0; i-- )
+		{
+			addShort( (short) ( vtable[i] != 0 ? tableOffset - vtable[i] : 0 ) );
+		}
+		addShort( (short) ( tableOffset - objectStart ) );
+		addShort( (short) ( ( count + 2 ) * 2 ) );
+		// the table refers to the vtable just written before it
+		bb.putInt( bb.capacity( ) - tableOffset, offset( ) - tableOffset );
+		vtable = null;
+		return tableOffset;
+	}
+
+	/**
+	 * finishes the buffer with the root table.
+	 *
+	 * @return the encoded bytes.
+	 */
+	byte[] finish( int root )
+	{
+		prep( minalign, 4 );
+		addOffset( root );
+		byte[] bytes = new byte[offset( )];
+		bb.position( space );
+		bb.get( bytes );
+		return bytes;
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction;
+
+import java.util.Map;
+
+/**
+ * Extends Data Extraction options for the Arrow IPC stream format
+ *
+ */
+public class ArrowDataExtractionOption extends CommonDataExtractionOption
+		implements
+			IArrowDataExtractionOption
+{
+
+	public ArrowDataExtractionOption( )
+	{
+		super( );
+	}
+
+	public ArrowDataExtractionOption( Map options )
+	{
+		super( options );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#getBatchSize()
+	 */
+	public int getBatchSize( )
+	{
+		return getIntOption( BATCH_SIZE, DEFAULT_BATCH_SIZE );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#setBatchSize(int)
+	 */
+	public void setBatchSize( int batchSize )
+	{
+		setOption( BATCH_SIZE, Integer.valueOf( batchSize ) );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#isDictionaryEncoding()
+	 */
+	public boolean isDictionaryEncoding( )
+	{
+		return getBooleanOption( DICTIONARY_ENCODING, true );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#setDictionaryEncoding(boolean)
+	 */
+	public void setDictionaryEncoding( boolean dictionaryEncoding )
+	{
+		setOption( DICTIONARY_ENCODING, dictionaryEncoding );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#getDecimalScale()
+	 */
+	public int getDecimalScale( )
+	{
+		return getIntOption( DECIMAL_SCALE, DEFAULT_DECIMAL_SCALE );
+	}
+
+	/**
+	 * @see org.eclipse.birt.report.engine.dataextraction.IArrowDataExtractionOption#setDecimalScale(int)
+	 */
+	public void setDecimalScale( int scale )
+	{
+		setOption( DECIMAL_SCALE, Integer.valueOf( scale ) );
+	}
+}
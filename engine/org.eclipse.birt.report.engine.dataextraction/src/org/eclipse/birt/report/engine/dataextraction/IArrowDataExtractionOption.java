@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.birt.report.engine.dataextraction;
+
+/**
+ * Extends Data Extraction options for the Arrow IPC stream format
+ *
+ */
+public interface IArrowDataExtractionOption extends ICommonDataExtractionOption
+{
+
+	/**
+	 * default number of rows in a record batch.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 65536;
+
+	/**
+	 * default scale of the decimal columns.
+	 */
+	public static final int DEFAULT_DECIMAL_SCALE = 10;
+
+	/**
+	 * the max number of rows in a record batch.
+	 */
+	public static final String BATCH_SIZE = "BatchSize"; //$NON-NLS-1$
+
+	/**
+	 * indicates whether the string columns are dictionary encoded.
+	 */
+	public static final String DICTIONARY_ENCODING = "DictionaryEncoding"; //$NON-NLS-1$
+
+	/**
+	 * the scale of the decimal columns, the values are rounded to the scale.
+	 */
+	public static final String DECIMAL_SCALE = "DecimalScale"; //$NON-NLS-1$
+
+	/**
+	 * Sets the max number of rows in a record batch.
+	 *
+	 * @param batchSize
+	 */
+	void setBatchSize( int batchSize );
+
+	/**
+	 * Returns the max number of rows in a record batch.
+	 *
+	 * @return int
+	 */
+	int getBatchSize( );
+
+	/**
+	 * Sets the flag that indicates whether the string columns are dictionary
+	 * encoded.
+	 *
+	 * @param dictionaryEncoding
+	 */
+	void setDictionaryEncoding( boolean dictionaryEncoding );
+
+	/**
+	 * Returns the flag that indicates whether the string columns are
+	 * dictionary encoded.
+	 *
+	 * @return boolean
+	 */
+	boolean isDictionaryEncoding( );
+
+	/**
+	 * Sets the scale of the decimal columns.
+	 *
+	 * @param scale
+	 */
+	void setDecimalScale( int scale );
+
+	/**
+	 * Returns the scale of the decimal columns.
+	 *
+	 * @return int
+	 */
+	int getDecimalScale( );
+}
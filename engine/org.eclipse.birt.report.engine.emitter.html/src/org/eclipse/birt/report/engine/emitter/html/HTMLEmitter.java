@@ -807,7 +807,7 @@ public abstract class HTMLEmitter
 			textStyleBuffer.append( " vertical-align:" );
 			textStyleBuffer.append( vAlign.getCssText( ) );
 			textStyleBuffer.append( ";" );
-			writer.attribute( HTMLTags.ATTR_STYLE, textStyleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, textStyleBuffer );
 		}
 	}
 
@@ -1313,7 +1313,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			styleBuffer.append( "0pt" );
 		}
 		styleBuffer.append( ";" );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		writer.closeTag( HTMLTags.TAG_COL );
 	}
 
@@ -1327,7 +1327,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			styleBuffer.append( "height: " );
 			styleBuffer.append( margin.toString( ) );
 			styleBuffer.append( ";" );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 			writer.openTag( HTMLTags.TAG_TD );
 			writer.attribute( HTMLTags.ATTR_COLSPAN, 3 );
 			writer.closeTag( HTMLTags.TAG_TD );
@@ -1345,7 +1345,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			styleBuffer.append( "width: " );
 			styleBuffer.append( margin.toString( ) );
 			styleBuffer.append( ";" );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 			writer.closeTag( HTMLTags.TAG_DIV );
 		}
 		writer.closeTag( HTMLTags.TAG_TD );
@@ -1401,7 +1401,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildPageBandStyle( styleBuffer, page.getStyle( ) );
 		// output the page header attribute
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 		boolean fixedHeight = fixedReport
 				&& height != null && !band.getChildren( ).isEmpty( );
@@ -1411,7 +1411,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			styleBuffer.delete( 0, styleBuffer.length( ) );
 			styleBuffer.append( "overflow:hidden; height:" );
 			styleBuffer.append( height.toString( ) );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		}
 		// output the contents of header
 		contentVisitor.visitChildren( band, null );
@@ -1611,7 +1611,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		{
 			writer.attribute( HTMLTags.ATTR_BORDER, "0" );
 		}
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 		if ( page != null && outputMasterPageContent )
 		{
@@ -1702,7 +1702,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		sb.append("height:").append(pageHeight).append(";" );
 		AttributeBuilder.buildBackground( sb, style, this);
 		sb.append( "background-size:" ).append( backgroundWidth ).append( " " ).append( backgroundHeight ).append( ";");
-		writer.attribute( HTMLTags.ATTR_STYLE, sb.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, sb );
 	}
 
 	private String parseBackgroundSize( String backgroundHeight,
@@ -1857,7 +1857,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildTableStyle( table, styleBuffer );
 		// output style
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 		boolean bookmarkOutput = false;
 		if ( metadataFilter != null )
@@ -1926,7 +1926,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			// width
 			StringBuffer styleBuffer = new StringBuffer( );
 			htmlEmitter.buildColumnStyle( column, styleBuffer );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 			htmlEmitter.handleColumnAlign( column );
 			
 			if ( metadataFilter != null )
@@ -2125,7 +2125,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildRowStyle( row, styleBuffer );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		htmlEmitter.handleRowAlign( row );
 		
 		if ( !startedGroups.isEmpty( ) )
@@ -2254,7 +2254,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildCellStyle( cell, styleBuffer, isHead, fixedCellHeight );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 		htmlEmitter.handleCellAlign( cell );
 		if ( fixedCellHeight )
@@ -2317,7 +2317,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			HTMLEmitterUtil.buildOverflowStyle( styleBuffer,
 					cell.getStyle( ),
 					true );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		}
 		else if ( cell.hasDiagonalLine( ) )
 		{
@@ -2428,7 +2428,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 			styleBuffer.append( " min-height: " );
 			styleBuffer.append( cellHeight.toString( ) );
 			styleBuffer.append( "; height: 100%; width: 100%; position: absolute; z-index: auto; left: 0px;" );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 			if ( needFixTransparentPNG )
 			{
 				if ( null == htmlIDNamespace )
@@ -2544,7 +2544,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildContainerStyle( container, styleBuffer );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		htmlEmitter.handleContainerAlign( container );
 	}
 
@@ -2621,7 +2621,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildTextStyle( text, styleBuffer, display );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		
 		htmlEmitter.handleVerticalAlignBegin( text );
 		
@@ -2636,7 +2636,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 				styleBuffer.append( " color: " );
 				styleBuffer.append( strColor );
 				styleBuffer.append( ";" );
-				writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+				writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 			}
 			writer.text( textValue );
 			writer.closeTag( HTMLTags.TAG_A );
@@ -2727,7 +2727,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		StringBuffer styleBuffer = new StringBuffer( );
 		htmlEmitter.buildForeignStyle( foreign, styleBuffer, display );
 		HTMLEmitterUtil.buildOverflowStyle( styleBuffer, mergedStyle, true );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 		String rawType = foreign.getRawType( );
 		boolean isHtml = IForeignContent.HTML_TYPE.equalsIgnoreCase( rawType );
@@ -3107,7 +3107,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 
 			// build style
 			htmlEmitter.buildImageStyle( image, styleBuffer, display );
-			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 
 			if ( ".PNG".equalsIgnoreCase( ext ) && imageHandler != null ) //$NON-NLS-1$
 			{
@@ -3211,7 +3211,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		
 		// build style
 		htmlEmitter.buildImageStyle( image, styleBuffer, display );
-		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer.toString( ) );
+		writer.attribute( HTMLTags.ATTR_STYLE, styleBuffer );
 		writer.closeTag( HTMLTags.TAG_EMBED );
 	}
 	
@@ -3384,7 +3384,7 @@ public class HTMLReportEmitter extends ContentEmitterAdapter
 		
 		if (classBuffer.length() != 0)
 		{
-			writer.attribute( HTMLTags.ATTR_CLASS, classBuffer.toString( ) );
+			writer.attribute( HTMLTags.ATTR_CLASS, classBuffer );
 		}
 	}
 
@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter.pdf.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+
+import javax.imageio.ImageIO;
+
+import org.eclipse.birt.report.engine.api.EngineConfig;
+import org.eclipse.birt.report.engine.api.EngineConstants;
+import org.eclipse.birt.report.engine.emitter.pdf.PDFImageCache;
+import org.junit.Test;
+
+import com.lowagie.text.Image;
+
+/**
+ * Test case for PDFImageCache
+ */
+public class PDFImageCacheTest
+{
+
+	/**
+	 * creates the PNG content of a width x 1 image of the color.
+	 */
+	private byte[] createImage( int width, int rgb ) throws Exception
+	{
+		BufferedImage image = new BufferedImage( width, 1,
+				BufferedImage.TYPE_INT_RGB );
+		for ( int i = 0; i < width; i++ )
+		{
+			image.setRGB( i, 0, rgb );
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		ImageIO.write( image, "png", out ); //$NON-NLS-1$
+		return out.toByteArray( );
+	}
+
+	@Test
+	public void testHit( ) throws Exception
+	{
+		PDFImageCache cache = new PDFImageCache( 1024 * 1024 );
+		byte[] data = createImage( 10, 0xFF0000 );
+		Image image = cache.getImage( data );
+		assertSame( image, cache.getImage( data ) );
+		assertEquals( 1, cache.getHitCount( ) );
+		assertEquals( 1, cache.getMissCount( ) );
+		assertEquals( 1, cache.getEntryCount( ) );
+	}
+
+	@Test
+	public void testSameContent( ) throws Exception
+	{
+		PDFImageCache cache = new PDFImageCache( 1024 * 1024 );
+		// the images are cached by the content, not by the array
+		Image image = cache.getImage( createImage( 10, 0x00FF00 ) );
+		assertSame( image, cache.getImage( createImage( 10, 0x00FF00 ) ) );
+		assertNotSame( image, cache.getImage( createImage( 10, 0x0000FF ) ) );
+		assertEquals( 2, cache.getEntryCount( ) );
+	}
+
+	@Test
+	public void testEviction( ) throws Exception
+	{
+		byte[] image1 = createImage( 100, 0xFF0000 );
+		byte[] image2 = createImage( 100, 0x00FF00 );
+		long size1 = getCachedSize( image1 );
+		long size2 = getCachedSize( image2 );
+
+		// only one image fits into the cache
+		PDFImageCache cache = new PDFImageCache( Math.max( size1, size2 ) );
+		Image image = cache.getImage( image1 );
+		assertSame( image, cache.getImage( image1 ) );
+		cache.getImage( image2 );
+		assertEquals( 1, cache.getEntryCount( ) );
+		assertEquals( 1, cache.getEvictionCount( ) );
+		assertEquals( size2, cache.getSize( ) );
+		// the least recently used image has been removed
+		assertNotSame( image, cache.getImage( image1 ) );
+		assertEquals( 2, cache.getEvictionCount( ) );
+
+		cache.setMaxSize( 0 );
+		assertEquals( 0, cache.getEntryCount( ) );
+		assertEquals( 0, cache.getSize( ) );
+	}
+
+	private long getCachedSize( byte[] data ) throws Exception
+	{
+		PDFImageCache cache = new PDFImageCache( Long.MAX_VALUE );
+		cache.getImage( data );
+		return cache.getSize( );
+	}
+
+	@Test
+	public void testDisabled( ) throws Exception
+	{
+		PDFImageCache cache = new PDFImageCache( 0 );
+		byte[] data = createImage( 10, 0xFF0000 );
+		assertNotSame( cache.getImage( data ), cache.getImage( data ) );
+		assertEquals( 0, cache.getEntryCount( ) );
+		// the disabled cache is not looked up
+		assertEquals( 0, cache.getMissCount( ) );
+		assertEquals( 0, cache.getHitCount( ) );
+	}
+
+	@Test
+	public void testConfigure( ) throws Exception
+	{
+		PDFImageCache cache = PDFImageCache.getInstance( );
+		long maxSize = cache.getMaxSize( );
+		try
+		{
+			EngineConfig config = new EngineConfig( );
+			PDFImageCache.configure( config );
+			assertEquals( maxSize, cache.getMaxSize( ) );
+			config.setProperty( EngineConstants.PDF_IMAGE_CACHE_SIZE, "4096" ); //$NON-NLS-1$
+			PDFImageCache.configure( config );
+			assertEquals( 4096, cache.getMaxSize( ) );
+			config.setProperty( EngineConstants.PDF_IMAGE_CACHE_SIZE,
+					Integer.valueOf( 0 ) );
+			PDFImageCache.configure( config );
+			assertEquals( 0, cache.getMaxSize( ) );
+		}
+		finally
+		{
+			cache.setMaxSize( maxSize );
+		}
+	}
+}
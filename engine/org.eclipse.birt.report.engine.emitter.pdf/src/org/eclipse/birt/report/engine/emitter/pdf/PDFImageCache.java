@@ -0,0 +1,381 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter.pdf;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+import org.apache.batik.transcoder.TranscoderInput;
+import org.apache.batik.transcoder.print.PrintTranscoder;
+import org.eclipse.birt.report.engine.api.EngineConfig;
+import org.eclipse.birt.report.engine.api.EngineConstants;
+
+import com.lowagie.text.BadElementException;
+import com.lowagie.text.Image;
+
+/**
+ * A JVM wide cache of the decoded images and the transcoded SVG images drawn
+ * by the PDF emitter, keyed by the hash of the image content, so the same
+ * logo or chart is decoded once instead of once for each report document.
+ * <p>
+ * The PdfTemplate of an image belongs to one PdfWriter, so each document
+ * still creates its own templates, but they are created from the cached
+ * image:
+ * <ul>
+ * <li>the iText Image, which is only read when it is added to a writer. The
+ * WMF and template images are not cached as they are bound to the writer
+ * which draws them.</li>
+ * <li>the PrintTranscoder which has built the graphics tree of the SVG image
+ * for a target size, it paints the tree again without parsing the SVG. The
+ * transcoder is not thread safe, so the painting is synchronized on it.</li>
+ * </ul>
+ * The cache is bounded by the estimated memory size of the entries, the least
+ * recently used entries are removed when it is full. It is disabled unless
+ * the engine configuration property EngineConstants.PDF_IMAGE_CACHE_SIZE is
+ * set.
+ */
+public class PDFImageCache
+{
+
+	/**
+	 * the default max memory size of the cached entries, the cache is
+	 * disabled by default.
+	 */
+	static final long DEFAULT_MAX_SIZE = 0;
+
+	/**
+	 * the graphics tree of a SVG image takes much more memory than the SVG
+	 * text, its size is estimated as the text size multiplied by the factor.
+	 */
+	static final int SVG_SIZE_FACTOR = 8;
+
+	private static final int IMAGE = 0;
+	private static final int SVG = 1;
+
+	private static PDFImageCache instance = new PDFImageCache(
+			DEFAULT_MAX_SIZE );
+
+	/**
+	 * read without the lock to skip the cache when it is disabled.
+	 */
+	private volatile long maxSize;
+	private long size;
+	private LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(
+			16, 0.75f, true );
+
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/**
+	 * @param maxSize
+	 *            the max memory size of the cached entries, 0 disables the
+	 *            cache.
+	 */
+	public PDFImageCache( long maxSize )
+	{
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * @return the cache shared by all the PDF emitters
+	 */
+	public static PDFImageCache getInstance( )
+	{
+		return instance;
+	}
+
+	/**
+	 * Returns the decoded image of the image content. The image is shared, it
+	 * must not be changed. The content is not hashed if the cache is disabled.
+	 *
+	 * @param data
+	 *            the image content
+	 * @return the image
+	 * @throws IOException
+	 * @throws BadElementException
+	 *             if the content is not a supported image
+	 */
+	public Image getImage( byte[] data ) throws IOException,
+			BadElementException
+	{
+		if ( maxSize == 0 )
+		{
+			return Image.getInstance( data );
+		}
+		Key key = new Key( IMAGE, data, 0, 0 );
+		Image image = (Image) get( key );
+		if ( image == null )
+		{
+			image = Image.getInstance( data );
+			if ( !image.isImgTemplate( ) )
+			{
+				byte[] rawData = image.getRawData( );
+				long imageSize = Math.max( data.length, rawData == null
+						? 0
+						: rawData.length );
+				image = (Image) put( key, image, imageSize );
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Returns the transcoder which paints the SVG image in the target size
+	 * when printing its page 0 on a page format of the size, the graphics
+	 * tree is built by the first print. The print must be synchronized on the
+	 * transcoder.
+	 *
+	 * @param svgData
+	 *            the SVG content
+	 * @param width
+	 *            the target width
+	 * @param height
+	 *            the target height
+	 * @return the transcoder
+	 */
+	public PrintTranscoder getSVGTranscoder( byte[] svgData, float width,
+			float height )
+	{
+		if ( maxSize == 0 )
+		{
+			return createSVGTranscoder( svgData );
+		}
+		Key key = new Key( SVG, svgData, width, height );
+		PrintTranscoder transcoder = (PrintTranscoder) get( key );
+		if ( transcoder == null )
+		{
+			transcoder = (PrintTranscoder) put( key,
+					createSVGTranscoder( svgData ),
+					(long) svgData.length * SVG_SIZE_FACTOR );
+		}
+		return transcoder;
+	}
+
+	private PrintTranscoder createSVGTranscoder( byte[] svgData )
+	{
+		PrintTranscoder transcoder = new PrintTranscoder( );
+		transcoder.transcode( new TranscoderInput( new ByteArrayInputStream(
+				svgData ) ), null );
+		return transcoder;
+	}
+
+	/**
+	 * Sets the max memory size of the shared cache by the
+	 * EngineConstants.PDF_IMAGE_CACHE_SIZE property of the engine
+	 * configuration. The cache is left unchanged if the property is not set
+	 * or is not a number.
+	 *
+	 * @param config
+	 *            the engine configuration, may be null
+	 */
+	public static void configure( EngineConfig config )
+	{
+		Object value = config == null ? null : config
+				.getProperty( EngineConstants.PDF_IMAGE_CACHE_SIZE );
+		long maxSize = -1;
+		if ( value instanceof Number )
+		{
+			maxSize = ( (Number) value ).longValue( );
+		}
+		else if ( value instanceof String )
+		{
+			try
+			{
+				maxSize = Long.parseLong( ( (String) value ).trim( ) );
+			}
+			catch ( NumberFormatException e )
+			{
+			}
+		}
+		if ( maxSize >= 0 && maxSize != instance.getMaxSize( ) )
+		{
+			instance.setMaxSize( maxSize );
+		}
+	}
+
+	/**
+	 * Sets the max memory size of the cached entries, 0 disables the cache.
+	 */
+	public synchronized void setMaxSize( long maxSize )
+	{
+		this.maxSize = maxSize;
+		evict( );
+	}
+
+	public long getMaxSize( )
+	{
+		return maxSize;
+	}
+
+	/**
+	 * Removes all the cached entries.
+	 */
+	public synchronized void clear( )
+	{
+		entries.clear( );
+		size = 0;
+	}
+
+	public synchronized int getEntryCount( )
+	{
+		return entries.size( );
+	}
+
+	public synchronized long getSize( )
+	{
+		return size;
+	}
+
+	public synchronized long getHitCount( )
+	{
+		return hitCount;
+	}
+
+	public synchronized long getMissCount( )
+	{
+		return missCount;
+	}
+
+	public synchronized long getEvictionCount( )
+	{
+		return evictionCount;
+	}
+
+	public synchronized String toString( )
+	{
+		return "entries: " + entries.size( ) + ", size: " + size //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", hits: " + hitCount + ", misses: " + missCount //$NON-NLS-1$ //$NON-NLS-2$
+				+ ", evictions: " + evictionCount; //$NON-NLS-1$
+	}
+
+	private synchronized Object get( Key key )
+	{
+		Entry entry = entries.get( key );
+		if ( entry == null )
+		{
+			missCount++;
+			return null;
+		}
+		hitCount++;
+		return entry.value;
+	}
+
+	/**
+	 * @return the value cached by another thread for the key, or the value.
+	 */
+	private synchronized Object put( Key key, Object value, long valueSize )
+	{
+		Entry entry = entries.get( key );
+		if ( entry != null )
+		{
+			return entry.value;
+		}
+		if ( valueSize <= maxSize )
+		{
+			entries.put( key, new Entry( value, valueSize ) );
+			size += valueSize;
+			evict( );
+		}
+		return value;
+	}
+
+	private void evict( )
+	{
+		Iterator<Entry> iter = entries.values( ).iterator( );
+		while ( size > maxSize && iter.hasNext( ) )
+		{
+			Entry entry = iter.next( );
+			iter.remove( );
+			size -= entry.size;
+			evictionCount++;
+		}
+	}
+
+	private static class Entry
+	{
+
+		Object value;
+		long size;
+
+		Entry( Object value, long size )
+		{
+			this.value = value;
+			this.size = size;
+		}
+	}
+
+	/**
+	 * the key of an image: the SHA-1 digest and the length of the content,
+	 * and the target size of a SVG image.
+	 */
+	private static class Key
+	{
+
+		int type;
+		byte[] digest;
+		int length;
+		float width;
+		float height;
+		int hash;
+
+		Key( int type, byte[] data, float width, float height )
+		{
+			this.type = type;
+			this.digest = digest( data );
+			this.length = data.length;
+			this.width = width;
+			this.height = height;
+			int h = type;
+			h = h * 31 + Arrays.hashCode( digest );
+			h = h * 31 + length;
+			h = h * 31 + Float.floatToIntBits( width );
+			h = h * 31 + Float.floatToIntBits( height );
+			this.hash = h;
+		}
+
+		public int hashCode( )
+		{
+			return hash;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( !( obj instanceof Key ) )
+			{
+				return false;
+			}
+			Key key = (Key) obj;
+			return type == key.type && length == key.length
+					&& width == key.width && height == key.height
+					&& Arrays.equals( digest, key.digest );
+		}
+
+		private static byte[] digest( byte[] data )
+		{
+			try
+			{
+				return MessageDigest.getInstance( "SHA-1" ).digest( data ); //$NON-NLS-1$
+			}
+			catch ( NoSuchAlgorithmException e )
+			{
+				// every JRE has SHA-1, compare the content itself otherwise
+				return data.clone( );
+			}
+		}
+	}
+}
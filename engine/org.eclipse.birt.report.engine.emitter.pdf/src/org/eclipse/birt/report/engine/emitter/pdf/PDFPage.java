@@ -15,7 +15,6 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.print.PageFormat;
 import java.awt.print.Paper;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -155,7 +154,7 @@ public class PDFPage extends AbstractPage
 		}
 		if ( image == null )
 		{
-			Image img = Image.getInstance( imageData );
+			Image img = PDFImageCache.getInstance( ).getImage( imageData );
 			if ( imageHeight == 0 || imageWidth == 0 )
 			{
 				int resolutionX = img.getDpiX( );
@@ -247,7 +246,7 @@ public class PDFPage extends AbstractPage
 		else
 		{
 			// PNG/JPG/BMP... images:
-			Image image = Image.getInstance( imageData );
+			Image image = PDFImageCache.getInstance( ).getImage( imageData );
 			if ( imageId == null )
 			{
 				// image without imageId, not able to cache.
@@ -753,22 +752,31 @@ public class PDFPage extends AbstractPage
 		PdfTemplate template = contentByte.createTemplate( width, height );
 		Graphics2D g2D = template.createGraphics( width, height );
 
-		PrintTranscoder transcoder = new PrintTranscoder( );
-		if ( null != svgData && svgData.length > 0 )
-		{
-			transcoder.transcode( new TranscoderInput(
-					new ByteArrayInputStream( svgData ) ), null );
-		}
-		else if ( null != svgPath )
-		{
-			transcoder.transcode( new TranscoderInput( svgPath ), null );
-		}
 		PageFormat pg = new PageFormat( );
 		Paper p = new Paper( );
 		p.setSize( width, height );
 		p.setImageableArea( 0, 0, width, height );
 		pg.setPaper( p );
-		transcoder.print( g2D, pg, 0 );
+		if ( null != svgData && svgData.length > 0 )
+		{
+			// the transcoder of the same SVG content and size has built the
+			// graphics tree already
+			PrintTranscoder transcoder = PDFImageCache.getInstance( )
+					.getSVGTranscoder( svgData, width, height );
+			synchronized ( transcoder )
+			{
+				transcoder.print( g2D, pg, 0 );
+			}
+		}
+		else
+		{
+			PrintTranscoder transcoder = new PrintTranscoder( );
+			if ( null != svgPath )
+			{
+				transcoder.transcode( new TranscoderInput( svgPath ), null );
+			}
+			transcoder.print( g2D, pg, 0 );
+		}
 		g2D.dispose( );
 		return template;
 	}
@@ -173,6 +173,11 @@ public class PDFPageDevice implements IPageDevice
 		{
 			doc.close( );
 		}
+		if ( logger.isLoggable( Level.FINE ) )
+		{
+			logger.log( Level.FINE, "image cache: {0}", //$NON-NLS-1$
+					PDFImageCache.getInstance( ) );
+		}
 	}
 
 	public IPage newPage( int width, int height, Color backgroundColor )
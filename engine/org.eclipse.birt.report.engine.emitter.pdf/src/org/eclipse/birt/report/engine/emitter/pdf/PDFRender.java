@@ -172,6 +172,10 @@ public class PDFRender extends PageDeviceRender
 		}
 
 		this.context = services.getReportContext( );
+		if ( services.getReportEngine( ) != null )
+		{
+			PDFImageCache.configure( services.getReportEngine( ).getConfig( ) );
+		}
 		this.output = EmitterUtil.getOuputStream( services, "report.pdf" );
 	}
 
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter.prototype.excel;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.report.engine.emitter.excel.BlankData;
+import org.eclipse.birt.report.engine.emitter.excel.BookmarkDef;
+import org.eclipse.birt.report.engine.emitter.excel.Data;
+import org.eclipse.birt.report.engine.emitter.excel.DataCache;
+import org.eclipse.birt.report.engine.emitter.excel.HyperlinkDef;
+import org.eclipse.birt.report.engine.emitter.excel.SheetData;
+
+public class DataCacheTest extends TestCase
+{
+
+	private static final int ROW_COUNT = 1000;
+
+	public void testSpilledRows( )
+	{
+		DataCache expected = createCache( 0 );
+		DataCache cache = createCache( 50 );
+		try
+		{
+			assertSameRows( expected, cache );
+			// the rows are read back from the file again
+			assertSameRows( expected, cache );
+		}
+		finally
+		{
+			cache.close( );
+		}
+	}
+
+	public void testChangesKept( )
+	{
+		DataCache cache = createCache( 50 );
+		try
+		{
+			int linkCount = 0;
+			Iterator<SheetData[]> iterator = cache.getRowIterator( );
+			while ( iterator.hasNext( ) )
+			{
+				SheetData data = iterator.next( )[0];
+				if ( data != null && data.getHyperlinkDef( ) != null )
+				{
+					linkCount++;
+					BookmarkDef bookmark = new BookmarkDef( "name" );
+					bookmark.setGeneratedName( "row" + data.getRowIndex( ) );
+					data.setLinkedBookmark( bookmark );
+				}
+			}
+			int count = 0;
+			iterator = cache.getRowIterator( );
+			while ( iterator.hasNext( ) )
+			{
+				SheetData data = iterator.next( )[0];
+				if ( data != null && data.getHyperlinkDef( ) != null )
+				{
+					assertEquals( "row" + data.getRowIndex( ), data
+							.getLinkedBookmark( ).getValidName( ) );
+					count++;
+				}
+			}
+			assertTrue( linkCount > 0 );
+			assertEquals( linkCount, count );
+		}
+		finally
+		{
+			cache.close( );
+		}
+	}
+
+	/**
+	 * The last data of a sparse column is far above the other columns, the
+	 * column is closed out so the rows are still spilled.
+	 */
+	public void testSparseColumn( ) throws IOException
+	{
+		File tempDir = File.createTempFile( "datacache", null );
+		tempDir.delete( );
+		tempDir.mkdir( );
+		DataCache expected = createSparseCache( 0, null );
+		DataCache cache = createSparseCache( 50, tempDir.getPath( ) );
+		try
+		{
+			assertEquals( 1, tempDir.list( ).length );
+			assertNull( cache.getColumnLastData( 1 ) );
+			assertSameRows( expected, cache );
+		}
+		finally
+		{
+			cache.close( );
+			assertEquals( 0, tempDir.list( ).length );
+			tempDir.delete( );
+		}
+	}
+
+	public void testRowHeight( )
+	{
+		DataCache cache = new DataCache( 0, 10 );
+		assertFalse( cache.hasRowHeight( 100 ) );
+		assertEquals( 0f, cache.getRowHeight( -1 ) );
+		cache.setRowHeight( 100, 12f );
+		cache.setRowHeight( 100, 10f );
+		assertEquals( 12f, cache.getRowHeight( 100 ) );
+		assertTrue( cache.hasRowHeight( 100 ) );
+		cache.setRowHeight( 101, 0f );
+		assertFalse( cache.hasRowHeight( 101 ) );
+	}
+
+	/**
+	 * Creates a cache of three columns, the first column has a data spanning
+	 * five rows every ten rows, the second column is inserted in the middle.
+	 */
+	private DataCache createCache( int cachedRowCount )
+	{
+		DataCache cache = new DataCache( 0, 10 );
+		cache.setCachedRowCount( cachedRowCount, null );
+		cache.insertColumns( 1 );
+		for ( int row = 1; row <= ROW_COUNT; row++ )
+		{
+			if ( row == ROW_COUNT / 2 )
+			{
+				cache.insertColumns( 0, 1 );
+			}
+			int last = cache.getColumnCount( ) - 1;
+			if ( row % 10 != 1 || row % 10 > 5 )
+			{
+				Data data = new Data( "row" + row, 1, SheetData.STRING );
+				data.setRowIndex( row );
+				if ( row % 7 == 0 )
+				{
+					data.setHyperlinkDef( new HyperlinkDef( "#" + row, 0, null ) );
+				}
+				SheetData upstair = cache.getColumnLastData( 0 );
+				if ( row % 10 > 1 && row % 10 <= 5 && upstair != null )
+				{
+					upstair.setRowSpan( upstair.getRowSpan( ) + 1 );
+					BlankData blank = new BlankData( upstair );
+					blank.setRowIndex( row );
+					blank.setType( BlankData.Type.VERTICAL );
+					cache.addData( 0, blank );
+				}
+				else
+				{
+					cache.addData( 0, data );
+				}
+			}
+			else
+			{
+				Data data = new Data( Integer.valueOf( row ), 2,
+						SheetData.NUMBER );
+				data.setRowIndex( row );
+				cache.addData( 0, data );
+			}
+			Data data = new Data( Double.valueOf( row / 2.0 ), 3,
+					SheetData.NUMBER );
+			data.setRowIndex( row );
+			cache.addData( last, data );
+			BlankData blank = new BlankData( data );
+			blank.setType( BlankData.Type.HORIZONTAL );
+			if ( last > 1 )
+			{
+				cache.addData( last - 1, blank );
+			}
+		}
+		return cache;
+	}
+
+	/**
+	 * Creates a cache of two columns, the second column has a data in the
+	 * first row only.
+	 */
+	private DataCache createSparseCache( int cachedRowCount, String tempDir )
+	{
+		DataCache cache = new DataCache( 0, 10 );
+		cache.setCachedRowCount( cachedRowCount, tempDir );
+		cache.insertColumns( 0, 1 );
+		Data title = new Data( "title", 1, SheetData.STRING );
+		title.setRowIndex( 1 );
+		cache.addData( 1, title );
+		for ( int row = 1; row <= ROW_COUNT; row++ )
+		{
+			Data data = new Data( Integer.valueOf( row ), 2, SheetData.NUMBER );
+			data.setRowIndex( row );
+			cache.addData( 0, data );
+		}
+		return cache;
+	}
+
+	private void assertSameRows( DataCache expected, DataCache cache )
+	{
+		Iterator<SheetData[]> expectedRows = expected.getRowIterator( );
+		Iterator<SheetData[]> rows = cache.getRowIterator( );
+		while ( expectedRows.hasNext( ) )
+		{
+			assertTrue( rows.hasNext( ) );
+			SheetData[] expectedRow = expectedRows.next( );
+			SheetData[] row = rows.next( );
+			assertEquals( expectedRow.length, row.length );
+			for ( int i = 0; i < row.length; i++ )
+			{
+				assertSameData( expectedRow[i], row[i] );
+			}
+		}
+		assertFalse( rows.hasNext( ) );
+	}
+
+	private void assertSameData( SheetData expected, SheetData data )
+	{
+		if ( expected == null )
+		{
+			assertNull( data );
+			return;
+		}
+		assertEquals( expected.getClass( ), data.getClass( ) );
+		assertEquals( expected.getRowIndex( ), data.getRowIndex( ) );
+		assertEquals( expected.getValue( ), data.getValue( ) );
+		assertEquals( expected.getStyleId( ), data.getStyleId( ) );
+		assertEquals( expected.getDataType( ), data.getDataType( ) );
+		assertEquals( expected.getRowSpan( ), data.getRowSpan( ) );
+		assertEquals( expected.isBlank( ), data.isBlank( ) );
+		if ( expected.getHyperlinkDef( ) != null )
+		{
+			assertEquals( expected.getHyperlinkDef( ).getUrl( ), data
+					.getHyperlinkDef( ).getUrl( ) );
+		}
+		else
+		{
+			assertNull( data.getHyperlinkDef( ) );
+		}
+		if ( expected.isBlank( ) )
+		{
+			assertEquals( ( (BlankData) expected ).getType( ),
+					( (BlankData) data ).getType( ) );
+			assertSameData( ( (BlankData) expected ).getData( ),
+					( (BlankData) data ).getData( ) );
+		}
+	}
+}
@@ -11,12 +11,15 @@
 
 package org.eclipse.birt.report.engine.emitter.excel;
 
+import java.io.DataInputStream;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class DataCache
@@ -31,23 +34,74 @@ public class DataCache
 	private int maxColumnCount;
 	private int maxRowIndex = 0;
 	private int offset = 0;
-	private Map<Integer, Float> rowIndex2Height = new HashMap<Integer, Float>( );
+	private float[] rowHeights = new float[64];
+	private BitSet hasRowHeights = new BitSet( );
+
+	/**
+	 * the id of each column, the ids are kept when the columns are inserted
+	 * so the spilled rows can be read back into the right columns.
+	 */
+	private List<Integer> columnIds = new ArrayList<Integer>( );
+	private int cachedRowCount = 0;
+	private String tempDir;
+	private DataCacheFile spillFile;
+	private int spilledRowIndex = 0;
+	private int nextSpillRowIndex;
 
 	public DataCache( DataCache cache )
 	{
 		for ( int i = 0; i < cache.columns.size( ); i++ )
 		{
-			columns.add( new ArrayList<SheetData>( ) );
+			addColumn( columns.size( ) );
 		}
 		this.maxColumnCount = cache.maxColumnCount;
+		setCachedRowCount( cache.cachedRowCount, cache.tempDir );
 	}
 
 	public DataCache( int offset, int maxColumnCount )
 	{
-		columns.add( new ArrayList<SheetData>( ) );
+		addColumn( 0 );
 		this.maxColumnCount = maxColumnCount;
 	}
 
+	/**
+	 * Sets the number of the rows kept in memory. Once the rows exceed twice
+	 * the number, the oldest rows are spilled to a temporary file, so a sheet
+	 * of any size is laid out in a bounded memory. The row heights are always
+	 * kept in memory.
+	 *
+	 * @param rowCount
+	 *            the number of the rows kept in memory, 0 to keep all the
+	 *            rows in memory
+	 * @param tempDir
+	 *            the folder of the temporary file, null to use the default
+	 *            temporary folder
+	 */
+	public void setCachedRowCount( int rowCount, String tempDir )
+	{
+		this.cachedRowCount = Math.max( 0, rowCount );
+		this.tempDir = tempDir;
+		this.nextSpillRowIndex = maxRowIndex + 2 * cachedRowCount;
+	}
+
+	/**
+	 * Deletes the spilled rows.
+	 */
+	public void close( )
+	{
+		if ( spillFile != null )
+		{
+			spillFile.delete( );
+			spillFile = null;
+		}
+	}
+
+	private void addColumn( int index )
+	{
+		columnIds.add( index, Integer.valueOf( columnIds.size( ) ) );
+		columns.add( index, new ArrayList<SheetData>( ) );
+	}
+
 	public void insertColumns( int startColumn, int columnCount )
 	{
 		if ( columnCount == 0 )
@@ -61,7 +115,7 @@ public class DataCache
 		{
 			if ( i < maxColumnCount )
 			{
-				columns.add( i, new ArrayList<SheetData>( ) );
+				addColumn( i );
 			}
 		}
 	}
@@ -78,7 +132,7 @@ public class DataCache
 		{
 			if ( i + currentColumnCount < maxColumnCount )
 			{
-				columns.add( new ArrayList<SheetData>( ) );
+				addColumn( columns.size( ) );
 			}
 		}
 	}
@@ -96,9 +150,107 @@ public class DataCache
 				bookmark.setStartColumn( data.getStartX( ) );
 				bookmark.setStartRow( rowIndex );
 			}
+			if ( cachedRowCount > 0 && maxRowIndex >= nextSpillRowIndex )
+			{
+				spill( );
+			}
 		}
 	}
 
+	/**
+	 * Spills the oldest rows to the temporary file. A row is only spilled if
+	 * the data kept in memory don't refer to it, as the last data of a column
+	 * and the data they refer to may still be changed by the layout.
+	 * <p>
+	 * A column which has no data in the cached rows is closed out: its last
+	 * data is spilled with the other rows, so a sparse column doesn't keep the
+	 * whole sheet in memory. The layout then sees the column as empty and no
+	 * longer extends the row span of that data.
+	 */
+	protected void spill( )
+	{
+		nextSpillRowIndex = maxRowIndex + cachedRowCount;
+		int rowIndex = maxRowIndex - cachedRowCount;
+		int closedRowIndex = rowIndex;
+		for ( ArrayList<SheetData> column : columns )
+		{
+			if ( !column.isEmpty( ) )
+			{
+				SheetData lastData = column.get( column.size( ) - 1 );
+				if ( lastData.getRowIndex( ) > closedRowIndex )
+				{
+					rowIndex = Math.min( rowIndex,
+							getRealRowIndex( lastData ) - 1 );
+				}
+			}
+		}
+		int[] sizes = new int[columns.size( )];
+		boolean changed = true;
+		while ( changed && rowIndex > spilledRowIndex )
+		{
+			changed = false;
+			for ( int i = 0; i < columns.size( ); i++ )
+			{
+				ArrayList<SheetData> column = columns.get( i );
+				int size = 0;
+				while ( size < column.size( )
+						&& column.get( size ).getRowIndex( ) <= rowIndex )
+				{
+					size++;
+				}
+				sizes[i] = size;
+				for ( int j = size; j < column.size( ); j++ )
+				{
+					int realRowIndex = getRealRowIndex( column.get( j ) );
+					if ( realRowIndex <= rowIndex )
+					{
+						rowIndex = realRowIndex - 1;
+						changed = true;
+					}
+				}
+			}
+		}
+		if ( rowIndex <= spilledRowIndex )
+		{
+			return;
+		}
+
+		List<List<SheetData>> chunk = new ArrayList<List<SheetData>>( );
+		int[] ids = new int[columns.size( )];
+		for ( int i = 0; i < columns.size( ); i++ )
+		{
+			chunk.add( columns.get( i ).subList( 0, sizes[i] ) );
+			ids[i] = columnIds.get( i ).intValue( );
+		}
+		try
+		{
+			if ( spillFile == null )
+			{
+				spillFile = new DataCacheFile( tempDir );
+			}
+			spillFile.writeChunk( chunk, ids );
+		}
+		catch ( IOException ex )
+		{
+			// keeps all the rows in memory from now on
+			logger.log( Level.WARNING, ex.getLocalizedMessage( ), ex );
+			cachedRowCount = 0;
+			return;
+		}
+		for ( List<SheetData> columnChunk : chunk )
+		{
+			columnChunk.clear( );
+		}
+		spilledRowIndex = rowIndex;
+	}
+
+	private static int getRealRowIndex( SheetData data )
+	{
+		SheetData realData = ExcelUtil.getRealData( data );
+		return realData == null ? data.getRowIndex( ) : Math.min( data
+				.getRowIndex( ), realData.getRowIndex( ) );
+	}
+
 	public int getMaxRow( )
 	{
 		return maxRowIndex;
@@ -132,25 +284,32 @@ public class DataCache
 
 	public void setRowHeight( int rowIndex, float height )
 	{
-		if ( !rowIndex2Height.containsKey( rowIndex )
-				|| height > rowIndex2Height.get( rowIndex ) )
-			rowIndex2Height.put( rowIndex, height );
+		if ( rowIndex < 0 )
+		{
+			return;
+		}
+		if ( !hasRowHeights.get( rowIndex ) || height > rowHeights[rowIndex] )
+		{
+			if ( rowIndex >= rowHeights.length )
+			{
+				rowHeights = Arrays.copyOf( rowHeights, Math.max(
+						rowIndex + 1, rowHeights.length * 2 ) );
+			}
+			rowHeights[rowIndex] = height;
+			hasRowHeights.set( rowIndex );
+		}
 	}
 
 	public float getRowHeight( int rowIndex )
 	{
-		if ( rowIndex2Height.containsKey( rowIndex ) )
-			return rowIndex2Height.get( rowIndex );
+		if ( rowIndex >= 0 && hasRowHeights.get( rowIndex ) )
+			return rowHeights[rowIndex];
 		return 0f;
 	}
 
 	public boolean hasRowHeight( int rowIndex )
 	{
-		if ( rowIndex2Height.containsKey( rowIndex )
-				&& rowIndex2Height.get( rowIndex ) != 0 )
-			return true;
-		else
-			return false;
+		return getRowHeight( rowIndex ) != 0;
 	}
 
 	/**
@@ -189,6 +348,12 @@ public class DataCache
 		return this.offset;
 	}
 
+	/**
+	 * Iterates the rows, the spilled rows are read back from the temporary
+	 * file one chunk after another. The chunks are written again once all
+	 * their rows are returned, so the changes made to the data by the caller,
+	 * like the linked bookmarks, are kept for the next iteration.
+	 */
 	protected class DataCacheIterator implements Iterator<SheetData[]>
 	{
 
@@ -197,12 +362,41 @@ public class DataCache
 		private DataFilter dataFilter;
 		private RowIndexAdjuster rowIndexAdjuster;
 
+		// the chunk of each column, chunkCount stands for the rows in memory
+		private int[] columnChunks;
+		private int chunkCount;
+		private int firstChunk;
+		private List<List<ArrayList<SheetData>>> chunks = new ArrayList<List<ArrayList<SheetData>>>( );
+		private int[] columnIdIndexes;
+		private DataInputStream input;
+		private DataCacheFile output;
+
 		public DataCacheIterator( DataFilter dataFilter,
 		        RowIndexAdjuster rowIndexAdjuster )
 		{
 			this.dataFilter = dataFilter;
 			this.rowIndexAdjuster = rowIndexAdjuster;
 			columnIndexes = new int[columns.size( )];
+			columnChunks = new int[columns.size( )];
+			chunkCount = spillFile == null ? 0 : spillFile.getChunkCount( );
+			if ( chunkCount > 0 )
+			{
+				columnIdIndexes = new int[columnIds.size( )];
+				for ( int i = 0; i < columnIds.size( ); i++ )
+				{
+					columnIdIndexes[columnIds.get( i ).intValue( )] = i;
+				}
+				try
+				{
+					input = spillFile.openStream( );
+					output = new DataCacheFile( tempDir );
+				}
+				catch ( IOException ex )
+				{
+					throw new IllegalStateException( ex.getLocalizedMessage( ),
+							ex );
+				}
+			}
 		}
 
 		public boolean hasNext( )
@@ -219,33 +413,141 @@ public class DataCache
 			SheetData[] rowDatas = new SheetData[columnIndexes.length];
 			for ( int i = 0; i < columnIndexes.length; i++ )
 			{
-				ArrayList<SheetData> columnData = columns.get( i );
-				int cursor = columnIndexes[i];
-				int size = columnData.size( );
-				for ( int j = cursor; j < size; j++ )
+				boolean found = false;
+				while ( !found )
 				{
-					SheetData data = columnData.get( j );
-					int dataRowIndex = getRowIndex( data );
-					if ( dataRowIndex == rowIndex )
+					List<SheetData> columnData = getColumn( columnChunks[i], i );
+					int cursor = columnIndexes[i];
+					int size = columnData.size( );
+					for ( int j = cursor; j < size; j++ )
 					{
-						if ( dataFilter == null || dataFilter.accept( data ) )
+						SheetData data = columnData.get( j );
+						int dataRowIndex = getRowIndex( data );
+						if ( dataRowIndex == rowIndex )
+						{
+							if ( dataFilter == null || dataFilter.accept( data ) )
+							{
+								rowDatas[i] = data;
+							}
+							columnIndexes[i] = j + 1;
+							found = true;
+							break;
+						}
+						else if ( dataRowIndex > rowIndex )
 						{
-							rowDatas[i] = data;
+							columnIndexes[i] = j;
+							found = true;
+							break;
 						}
-						columnIndexes[i] = j + 1;
-						break;
 					}
-					else if ( dataRowIndex > rowIndex )
+					if ( !found )
 					{
-						columnIndexes[i] = j;
-						break;
+						if ( columnChunks[i] == chunkCount )
+						{
+							break;
+						}
+						// the data left in the chunk are all before the row
+						columnChunks[i]++;
+						columnIndexes[i] = 0;
 					}
 				}
 			}
 			rowIndex++;
+			if ( chunkCount > 0 )
+			{
+				int chunk = chunkCount;
+				if ( hasNext( ) )
+				{
+					for ( int columnChunk : columnChunks )
+					{
+						chunk = Math.min( chunk, columnChunk );
+					}
+				}
+				releaseChunks( chunk );
+			}
 			return rowDatas;
 		}
 
+		private List<SheetData> getColumn( int chunk, int column )
+		{
+			if ( chunk == chunkCount )
+			{
+				return columns.get( column );
+			}
+			return getChunk( chunk ).get( column );
+		}
+
+		private List<ArrayList<SheetData>> getChunk( int chunk )
+		{
+			try
+			{
+				while ( firstChunk + chunks.size( ) <= chunk )
+				{
+					chunks.add( DataCacheFile.readChunk( input,
+							columnIdIndexes, columns.size( ) ) );
+				}
+			}
+			catch ( IOException ex )
+			{
+				throw new IllegalStateException( ex.getLocalizedMessage( ), ex );
+			}
+			return chunks.get( chunk - firstChunk );
+		}
+
+		/**
+		 * Writes the chunks before the given chunk to the new file. Once all
+		 * the chunks are written, the new file replaces the spilled rows.
+		 */
+		private void releaseChunks( int chunk )
+		{
+			while ( firstChunk < chunk )
+			{
+				List<ArrayList<SheetData>> released = getChunk( firstChunk );
+				chunks.remove( 0 );
+				firstChunk++;
+				if ( output != null )
+				{
+					try
+					{
+						output.writeChunk( released, getColumnIds( ) );
+					}
+					catch ( IOException ex )
+					{
+						logger.log( Level.WARNING, ex.getLocalizedMessage( ), ex );
+						output.delete( );
+						output = null;
+					}
+				}
+			}
+			if ( firstChunk == chunkCount && input != null )
+			{
+				try
+				{
+					input.close( );
+				}
+				catch ( IOException ex )
+				{
+					logger.log( Level.WARNING, ex.getLocalizedMessage( ), ex );
+				}
+				input = null;
+				if ( output != null )
+				{
+					spillFile.replace( output );
+					output = null;
+				}
+			}
+		}
+
+		private int[] getColumnIds( )
+		{
+			int[] ids = new int[columns.size( )];
+			for ( int i = 0; i < ids.length; i++ )
+			{
+				ids[i] = columnIds.get( i ).intValue( );
+			}
+			return ids;
+		}
+
 		protected int getRowIndex( SheetData data )
         {
 			if ( rowIndexAdjuster != null )
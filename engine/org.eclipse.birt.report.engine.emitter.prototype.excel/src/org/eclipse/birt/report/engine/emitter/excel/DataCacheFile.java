@@ -0,0 +1,359 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter.excel;
+
+import java.awt.Color;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.eclipse.birt.core.util.IOUtil;
+
+/**
+ * An append only file of the rows spilled from a DataCache. The file is a
+ * sequence of chunks, each chunk holds the column data of a range of rows.
+ * <p>
+ * A blank data of a chunk must refer to a data of the same chunk, the
+ * DataCache only spills the rows whose data are no more referred to by the
+ * data kept in memory.
+ */
+class DataCacheFile
+{
+
+	private static final int DATA = 0;
+	private static final int BLANK = 1;
+	private static final int IMAGE = 2;
+
+	private static final Comparator<Object[]> ROW_ORDER = new Comparator<Object[]>( ) {
+
+		public int compare( Object[] o1, Object[] o2 )
+		{
+			SheetData d1 = (SheetData) o1[0];
+			SheetData d2 = (SheetData) o2[0];
+			if ( d1.getRowIndex( ) != d2.getRowIndex( ) )
+			{
+				return d1.getRowIndex( ) < d2.getRowIndex( ) ? -1 : 1;
+			}
+			// the blank data refers to the data on its left in the same row
+			if ( d1.isBlank( ) != d2.isBlank( ) )
+			{
+				return d1.isBlank( ) ? 1 : -1;
+			}
+			return 0;
+		}
+	};
+
+	private File file;
+	private int chunkCount;
+
+	DataCacheFile( String tempDir ) throws IOException
+	{
+		File folder = tempDir == null ? null : new File( tempDir );
+		if ( folder != null )
+		{
+			folder.mkdirs( );
+		}
+		file = File.createTempFile( "sheet", ".data", folder ); //$NON-NLS-1$ //$NON-NLS-2$
+		file.deleteOnExit( );
+	}
+
+	int getChunkCount( )
+	{
+		return chunkCount;
+	}
+
+	/**
+	 * Appends a chunk. Nothing is written if the chunk can't be written, for
+	 * example if it contains a value that is not serializable.
+	 *
+	 * @param columns
+	 *            the data of each column in the column order
+	 * @param columnIds
+	 *            the ids of the columns
+	 * @throws IOException
+	 */
+	void writeChunk( List<? extends List<SheetData>> columns, int[] columnIds )
+			throws IOException
+	{
+		// the data are written in the row order so a blank data is always
+		// read after the data it refers to.
+		List<Object[]> records = new ArrayList<Object[]>( );
+		for ( int i = 0; i < columns.size( ); i++ )
+		{
+			List<SheetData> column = columns.get( i );
+			for ( int j = 0; j < column.size( ); j++ )
+			{
+				records.add( new Object[]{column.get( j ),
+						Integer.valueOf( columnIds[i] ), Integer.valueOf( j )} );
+			}
+		}
+		Object[][] sorted = records.toArray( new Object[records.size( )][] );
+		Arrays.sort( sorted, ROW_ORDER );
+
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+		DataOutputStream out = new DataOutputStream( buffer );
+		IOUtil.writeInt( out, columns.size( ) );
+		for ( int i = 0; i < columns.size( ); i++ )
+		{
+			IOUtil.writeInt( out, columnIds[i] );
+			IOUtil.writeInt( out, columns.get( i ).size( ) );
+		}
+		IOUtil.writeInt( out, sorted.length );
+		IdentityHashMap<SheetData, Integer> ids = new IdentityHashMap<SheetData, Integer>( );
+		for ( Object[] record : sorted )
+		{
+			SheetData data = (SheetData) record[0];
+			IOUtil.writeInt( out, ( (Integer) record[1] ).intValue( ) );
+			IOUtil.writeInt( out, ( (Integer) record[2] ).intValue( ) );
+			writeData( out, data, ids );
+			ids.put( data, Integer.valueOf( ids.size( ) ) );
+		}
+		out.flush( );
+
+		OutputStream stream = new FileOutputStream( file, true );
+		try
+		{
+			buffer.writeTo( stream );
+		}
+		finally
+		{
+			stream.close( );
+		}
+		chunkCount++;
+	}
+
+	/**
+	 * Opens the file to read the chunks in the order they are written.
+	 */
+	DataInputStream openStream( ) throws IOException
+	{
+		return new DataInputStream( new BufferedInputStream(
+				new FileInputStream( file ) ) );
+	}
+
+	/**
+	 * Reads the next chunk.
+	 *
+	 * @param in
+	 *            the stream returned by openStream()
+	 * @param columnIndexes
+	 *            the index of the current column of each column id
+	 * @param columnCount
+	 *            the number of the current columns
+	 * @return the data of each current column
+	 * @throws IOException
+	 */
+	static List<ArrayList<SheetData>> readChunk( DataInputStream in,
+			int[] columnIndexes, int columnCount ) throws IOException
+	{
+		SheetData[][] columns = new SheetData[columnCount][];
+		int chunkColumnCount = IOUtil.readInt( in );
+		for ( int i = 0; i < chunkColumnCount; i++ )
+		{
+			int index = columnIndexes[IOUtil.readInt( in )];
+			columns[index] = new SheetData[IOUtil.readInt( in )];
+		}
+		int count = IOUtil.readInt( in );
+		SheetData[] datas = new SheetData[count];
+		for ( int i = 0; i < count; i++ )
+		{
+			int index = columnIndexes[IOUtil.readInt( in )];
+			int position = IOUtil.readInt( in );
+			datas[i] = readData( in, datas );
+			columns[index][position] = datas[i];
+		}
+		List<ArrayList<SheetData>> result = new ArrayList<ArrayList<SheetData>>( );
+		for ( SheetData[] column : columns )
+		{
+			result.add( column == null
+					? new ArrayList<SheetData>( )
+					: new ArrayList<SheetData>( Arrays.asList( column ) ) );
+		}
+		return result;
+	}
+
+	void delete( )
+	{
+		file.delete( );
+	}
+
+	/**
+	 * Replaces this file with another one.
+	 */
+	void replace( DataCacheFile other )
+	{
+		file.delete( );
+		file = other.file;
+		chunkCount = other.chunkCount;
+	}
+
+	private static void writeData( DataOutputStream out, SheetData data,
+			IdentityHashMap<SheetData, Integer> ids ) throws IOException
+	{
+		Class<?> type = data.getClass( );
+		if ( type == BlankData.class )
+		{
+			BlankData blank = (BlankData) data;
+			Integer id = ids.get( blank.getData( ) );
+			if ( id == null )
+			{
+				throw new IOException( "The data referred by the blank data at row " //$NON-NLS-1$
+						+ data.getRowIndex( ) + " is not in the chunk" ); //$NON-NLS-1$
+			}
+			IOUtil.writeInt( out, BLANK );
+			IOUtil.writeInt( out, id.intValue( ) );
+			IOUtil.writeInt( out, blank.getType( ) == null ? -1 : blank
+					.getType( ).ordinal( ) );
+			// the other properties are the ones of the referred data
+			IOUtil.writeInt( out, data.rowIndex );
+			IOUtil.writeInt( out, data.dataType );
+			IOUtil.writeInt( out, data.styleId );
+			IOUtil.writeObject( out, data.value );
+		}
+		else if ( type == Data.class || type == ImageData.class )
+		{
+			IOUtil.writeInt( out, type == Data.class ? DATA : IMAGE );
+			IOUtil.writeInt( out, data.rowIndex );
+			IOUtil.writeInt( out, data.dataType );
+			IOUtil.writeInt( out, data.styleId );
+			IOUtil.writeObject( out, data.value );
+			IOUtil.writeInt( out, data.startX );
+			IOUtil.writeInt( out, data.endX );
+			IOUtil.writeInt( out, data.rowSpanInDesign );
+			IOUtil.writeInt( out, data.getRowSpan( ) );
+			out.writeFloat( data.height );
+			if ( type == ImageData.class )
+			{
+				ImageData image = (ImageData) data;
+				IOUtil.writeString( out, image.getDescription( ) );
+				IOUtil.writeString( out, image.getImageUrl( ) );
+				IOUtil.writeBytes( out, image.getImageData( ) );
+				IOUtil.writeInt( out, image.getWidth( ) );
+				IOUtil.writeInt( out, image.getImageHeight( ) );
+			}
+		}
+		else
+		{
+			throw new IOException( "Unsupported data " + type.getName( ) ); //$NON-NLS-1$
+		}
+		writeHyperlink( out, data.getHyperlinkDef( ) );
+		BookmarkDef bookmark = data.getLinkedBookmark( );
+		IOUtil.writeBool( out, bookmark != null );
+		if ( bookmark != null )
+		{
+			IOUtil.writeString( out, bookmark.getName( ) );
+			IOUtil.writeString( out, bookmark.getValidName( ) );
+		}
+	}
+
+	private static SheetData readData( DataInputStream in, SheetData[] datas )
+			throws IOException
+	{
+		SheetData data;
+		int kind = IOUtil.readInt( in );
+		if ( kind == BLANK )
+		{
+			BlankData blank = new BlankData( datas[IOUtil.readInt( in )] );
+			int type = IOUtil.readInt( in );
+			blank.setType( type == -1 ? null : BlankData.Type.values( )[type] );
+			blank.rowIndex = IOUtil.readInt( in );
+			blank.dataType = IOUtil.readInt( in );
+			blank.styleId = IOUtil.readInt( in );
+			blank.value = readValue( in );
+			data = blank;
+		}
+		else
+		{
+			data = kind == DATA ? new Data( ) : new ImageData( );
+			data.rowIndex = IOUtil.readInt( in );
+			data.dataType = IOUtil.readInt( in );
+			data.styleId = IOUtil.readInt( in );
+			data.value = readValue( in );
+			data.startX = IOUtil.readInt( in );
+			data.endX = IOUtil.readInt( in );
+			data.rowSpanInDesign = IOUtil.readInt( in );
+			data.setRowSpan( IOUtil.readInt( in ) );
+			data.height = in.readFloat( );
+			if ( kind == IMAGE )
+			{
+				ImageData image = (ImageData) data;
+				image.setDescription( IOUtil.readString( in ) );
+				image.setUrl( IOUtil.readString( in ) );
+				image.setImageData( IOUtil.readBytes( in ) );
+				image.setWidth( IOUtil.readInt( in ) );
+				image.setImageHeight( IOUtil.readInt( in ) );
+			}
+		}
+		data.setHyperlinkDef( readHyperlink( in ) );
+		if ( IOUtil.readBool( in ) )
+		{
+			BookmarkDef bookmark = new BookmarkDef( IOUtil.readString( in ) );
+			String validName = IOUtil.readString( in );
+			if ( !validName.equals( bookmark.getName( ) ) )
+			{
+				bookmark.setGeneratedName( validName );
+			}
+			data.setLinkedBookmark( bookmark );
+		}
+		return data;
+	}
+
+	private static Object readValue( DataInputStream in ) throws IOException
+	{
+		return IOUtil.readObject( in, DataCacheFile.class.getClassLoader( ) );
+	}
+
+	private static void writeHyperlink( DataOutputStream out,
+			HyperlinkDef hyperlink ) throws IOException
+	{
+		IOUtil.writeBool( out, hyperlink != null );
+		if ( hyperlink != null )
+		{
+			IOUtil.writeString( out, hyperlink.getUrl( ) );
+			IOUtil.writeInt( out, hyperlink.getType( ) );
+			IOUtil.writeString( out, hyperlink.getToolTip( ) );
+			Color color = hyperlink.getColor( );
+			IOUtil.writeBool( out, color != null );
+			if ( color != null )
+			{
+				IOUtil.writeInt( out, color.getRGB( ) );
+			}
+		}
+	}
+
+	private static HyperlinkDef readHyperlink( DataInputStream in )
+			throws IOException
+	{
+		if ( !IOUtil.readBool( in ) )
+		{
+			return null;
+		}
+		HyperlinkDef hyperlink = new HyperlinkDef( IOUtil.readString( in ),
+				IOUtil.readInt( in ), IOUtil.readString( in ) );
+		if ( IOUtil.readBool( in ) )
+		{
+			hyperlink.setColor( new Color( IOUtil.readInt( in ), true ) );
+		}
+		return hyperlink;
+	}
+}
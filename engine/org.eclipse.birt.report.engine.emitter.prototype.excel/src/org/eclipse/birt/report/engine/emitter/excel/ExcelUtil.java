@@ -27,8 +27,7 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.eclipse.birt.core.format.DateFormatter;
-import org.eclipse.birt.core.format.NumberFormatter;
-import org.eclipse.birt.core.format.StringFormatter;
+import org.eclipse.birt.core.format.FormatterCache;
 import org.eclipse.birt.report.engine.css.engine.value.FloatValue;
 import org.eclipse.birt.report.engine.emitter.excel.layout.ExcelLayoutEngine;
 import org.eclipse.birt.report.engine.ir.DimensionType;
@@ -533,11 +532,11 @@ public class ExcelUtil
 			// {
 			// return "Scientific";
 			// }
-			return new NumberFormatter( val ).getPattern( );
+			return FormatterCache.getNumberFormatter( val, null ).getPattern( );
 		}
 		else if ( val != null && data instanceof String )
 		{
-			return new StringFormatter( val ).getPattern( );
+			return FormatterCache.getStringFormatter( val, null ).getPattern( );
 		}
 
 		return null;
@@ -806,26 +805,25 @@ public class ExcelUtil
 	{
 		if ( dateTime == null )
 		{
-			DateFormatter format = new DateFormatter( locale );
+			String pattern = DateFormatter.DATETIME_UNFORMATTED;
 			if ( txt instanceof java.sql.Date )
 			{
-				format.applyPattern( DateFormatter.DATE_UNFORMATTED );
+				pattern = DateFormatter.DATE_UNFORMATTED;
 			}
 			else if ( txt instanceof java.sql.Time )
 			{
-				format.applyPattern( DateFormatter.TIME_UNFORMATTED );
-			}
-			else
-			{
-				format.applyPattern( DateFormatter.DATETIME_UNFORMATTED );
+				pattern = DateFormatter.TIME_UNFORMATTED;
 			}
+			DateFormatter format = FormatterCache.getDateFormatter( pattern,
+					locale, null );
 			dateTime = updateFormat( format.getLocalizedFormatCode( ) );
 
 		}
 		if ( dateTime.indexOf( "Date" ) != -1
 				|| dateTime.indexOf( "Time" ) != -1 )
 		{
-			DateFormatter dateFormatter = new DateFormatter( dateTime, locale );
+			DateFormatter dateFormatter = FormatterCache.getDateFormatter(
+					dateTime, locale, null );
 			dateTime = updateFormat( dateFormatter.getLocalizedFormatCode( ) );
 		}
 		StringBuffer buffer = new StringBuffer( );
@@ -116,6 +116,11 @@ public class ExcelXmlWriter implements IExcelWriter
 		{
 			return XLSEncodeUtil.encodeXLSText( text );
 		}
+
+		protected void printText( String text )
+		{
+			print( encodeText( text ) );
+		}
 	}
 
 	protected static Logger logger = Logger.getLogger( ExcelXmlWriter.class
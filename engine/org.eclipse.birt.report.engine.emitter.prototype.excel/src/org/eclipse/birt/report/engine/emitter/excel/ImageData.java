@@ -38,6 +38,13 @@ public class ImageData extends SheetData
 		rowSpanInDesign = 0;
 	}
 
+	/**
+	 * Creates an empty image data, used to restore the image data from a file.
+	 */
+	ImageData( )
+	{
+	}
+
 	public String getDescription( )
 	{
 		return altText;
@@ -83,6 +90,11 @@ public class ImageData extends SheetData
 		return imageHeight;
 	}
 
+	void setImageHeight( int imageHeight )
+	{
+		this.imageHeight = imageHeight;
+	}
+
 	public int getImageWidth( )
 	{
 		return width / 1000;
@@ -45,6 +45,7 @@ public class ExcelContext
 	private Boolean hideGridlines = false;
 	private boolean enableMultipleSheet = true;
 	private boolean ignoreImage = true;
+	private int cachedRowCount = 0;
 	private String sheetName;
 	private String sheetPrefix;
 	private OutputStream out;
@@ -153,6 +154,13 @@ public class ExcelContext
 			this.ignoreImage = (Boolean) ignoreImage;
 		}
 
+		Object cachedRowCount = renderOptions
+				.getOption( IExcelRenderOption.CACHED_ROW_COUNT );
+		if ( cachedRowCount instanceof Number )
+		{
+			this.cachedRowCount = ( (Number) cachedRowCount ).intValue( );
+		}
+
 		ReportDesignHandle designHandle = report.getDesign( ).getReportDesign( );
 		parseReportOrientation( designHandle );
 		parseReportLayout( designHandle );
@@ -292,6 +300,15 @@ public class ExcelContext
 		this.ignoreImage = isIgnoreImage;
 	}
 
+	/**
+	 * @return the number of the rows of a sheet kept in memory, 0 if all the
+	 *         rows are kept in memory
+	 */
+	public int getCachedRowCount( )
+	{
+		return this.cachedRowCount;
+	}
+
 	public OutputStream getOutputSteam( )
 	{
 		return out;
@@ -155,6 +155,8 @@ public class ExcelLayoutEngine
     {
 		page = new Page( context.getContentWidth( ), engine, maxCol,
 		        context.getSheetName( ), pageContainer );
+		page.setCachedRowCount( context.getCachedRowCount( ),
+				context.getTempFileDir( ) );
 		page.initalize( );
 		context.setPage( page );
     }
@@ -1032,6 +1034,10 @@ public class ExcelLayoutEngine
 		{
 			logger.log( Level.SEVERE, e.getLocalizedMessage( ), e );
 		}
+		finally
+		{
+			page.close( );
+		}
 		context.setSheetIndex( context.getSheetIndex( ) + 1 );
 	}
 
@@ -64,6 +64,8 @@ public class Page
 	private XlsContainer pageContainer;
 	private int pageWidth;
 	private int lastInRangeCoordinateIndex = -1;
+	private int cachedRowCount = 0;
+	private String tempDir;
 
 	public Page( int contentWidth, StyleEngine styleEngine, int maxCol,
 	        String sheetName, XlsContainer pageContainer )
@@ -119,7 +121,21 @@ public class Page
 
 	protected DataCache createDataCache( int offset, int maxColumn )
 	{
-		return new DataCache( offset, maxColumn );
+		DataCache cache = new DataCache( offset, maxColumn );
+		cache.setCachedRowCount( cachedRowCount, tempDir );
+		return cache;
+	}
+
+	/**
+	 * Sets the number of the rows kept in memory by the data caches created
+	 * from now on.
+	 *
+	 * @see DataCache#setCachedRowCount(int, String)
+	 */
+	public void setCachedRowCount( int rowCount, String tempDir )
+	{
+		this.cachedRowCount = rowCount;
+		this.tempDir = tempDir;
 	}
 
 	public void splitColumns( int startCoordinate, int endCoordinate,
@@ -1094,6 +1110,20 @@ public class Page
 		return pageContainer;
 	}
 
+	/**
+	 * Releases the rows spilled by the data caches.
+	 */
+	public void close( )
+	{
+		if ( caches != null )
+		{
+			for ( DataCache cache : caches )
+			{
+				cache.close( );
+			}
+		}
+	}
+
 	/**
 	 * Clears the cache. 
 	 */
@@ -101,6 +101,14 @@ public class OOXmlWriter extends XMLWriter
 		}
 	}
 
+	public void attribute( String attrName, CharSequence attrValue )
+	{
+		if ( attrValue != null )
+		{
+			attribute( attrName, attrValue.toString( ) );
+		}
+	}
+
 	public void nameSpace(String name, String value)
 	{
 		attribute("xmlns:" + name, value);
@@ -44,6 +44,7 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.GetParameterDefinitionTaskTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.LogicalPageSequenceTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.PageSequenceParseTest.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.ParallelPageRenderTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.ParameterPromptTextTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.ReportDocumentReaderTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.impl.ReportDocumentTest.class );
@@ -75,6 +76,7 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.ProgressiveViewingTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.RelativeHyperlinkInReportDocumentTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.RenderTaskTest.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.api.ParallelRenderTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.ReportEngineFactoryTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.ReportEngineTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.ReportletTest.class );
@@ -85,6 +87,7 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.report.engine.api.TimeZoneTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.content.ReportContentReaderAndWriterTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.css.dom.StyleDeclarationTest.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.css.dom.ComputedStyleTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.css.engine.PerfectHashTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.css.CSSPaserTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.data.dte.DataEngineTest.class );
@@ -97,6 +100,7 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.report.engine.emitter.XMLEncodeUtilTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.emitter.XMLWriterTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.emitter.HTMLClientInitializeTest.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.emitter.ProfileContentEmitterTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.executor.buffermgr.TableTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.executor.css.CssParserTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.executor.css.HTMLProcessorTest.class );
@@ -115,6 +119,8 @@ public class AllTests
 		suite.addTestSuite( org.eclipse.birt.report.engine.impl.ReportRunnerTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.internal.document.v2.PageHintTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.internal.document.v2.ReportContentTest.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.internal.document.v3.ReportContentWriterV3Test.class );
+		suite.addTestSuite( org.eclipse.birt.report.engine.internal.document.v3.CachedReportContentReaderV3Test.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.internal.document.OffsetIndexReaderWriterTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.internal.executor.doc.ReportPageReaderTest.class );
 		suite.addTestSuite( org.eclipse.birt.report.engine.ir.ActionTest.class );
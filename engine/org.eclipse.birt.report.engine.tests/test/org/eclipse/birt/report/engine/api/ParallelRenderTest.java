@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api;
+
+import java.io.ByteArrayOutputStream;
+
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.report.engine.EngineCase;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+/**
+ * Renders a fixed layout report document to PDF by several workers and
+ * compares the result with the sequential render.
+ */
+public class ParallelRenderTest extends EngineCase
+{
+
+	static final String REPORT_DESIGN_RESOURCE = "org/eclipse/birt/report/engine/api/parallel-render.rptdesign"; //$NON-NLS-1$
+
+	/**
+	 * the number of the parallel render workers which have run.
+	 */
+	static final Counter RENDER_WORKERS = MetricRegistry.getDefault( )
+			.counter( "engine.render.workers" ); //$NON-NLS-1$
+
+	public void setUp( ) throws Exception
+	{
+		super.setUp( );
+		removeFile( REPORT_DOCUMENT );
+		removeFile( REPORT_DESIGN );
+		copyResource( REPORT_DESIGN_RESOURCE, REPORT_DESIGN );
+		createReportDocument( );
+	}
+
+	public void tearDown( ) throws Exception
+	{
+		removeFile( REPORT_DESIGN );
+		removeFile( REPORT_DOCUMENT );
+		super.tearDown( );
+	}
+
+	public void testRender( ) throws Exception
+	{
+		IReportDocument document = engine.openReportDocument( REPORT_DOCUMENT );
+		try
+		{
+			long pageCount = document.getPageCount( );
+			assertEquals( 60, pageCount );
+
+			byte[] sequential = render( document, null, 1 );
+			byte[] parallel = render( document, null, 3 );
+			assertPages( sequential, parallel, pageCount );
+
+			// a page range is split among the workers in the page order
+			String range = "2-10,21-60"; //$NON-NLS-1$
+			sequential = render( document, range, 1 );
+			parallel = render( document, range, 2 );
+			assertPages( sequential, parallel, 49 );
+		}
+		finally
+		{
+			document.close( );
+		}
+	}
+
+	private byte[] render( IReportDocument document, String pageRange,
+			int workerCount ) throws Exception
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		long workers = RENDER_WORKERS.getCount( );
+		IRenderTask task = engine.createRenderTask( document );
+		try
+		{
+			RenderOption options = new RenderOption( );
+			options.setOutputFormat( IRenderOption.OUTPUT_FORMAT_PDF );
+			options.setOutputStream( out );
+			options.setOption( IRenderOption.RENDER_WORKER_COUNT, Integer
+					.valueOf( workerCount ) );
+			task.setRenderOption( options );
+			if ( pageRange != null )
+			{
+				task.setPageRange( pageRange );
+			}
+			task.render( );
+			assertTrue( task.getErrors( ).isEmpty( ) );
+			assertEquals( IEngineTask.STATUS_SUCCEEDED, task.getStatus( ) );
+		}
+		finally
+		{
+			task.close( );
+		}
+		// the parallel render doesn't fall back to the sequential render
+		long expectedWorkers = workerCount > 1 ? workerCount : 0;
+		assertEquals( expectedWorkers, RENDER_WORKERS.getCount( ) - workers );
+		return out.toByteArray( );
+	}
+
+	private void assertPages( byte[] expected, byte[] actual, long pageCount )
+			throws Exception
+	{
+		PdfReader expectedReader = new PdfReader( expected );
+		PdfReader actualReader = new PdfReader( actual );
+		try
+		{
+			assertEquals( pageCount, expectedReader.getNumberOfPages( ) );
+			assertEquals( pageCount, actualReader.getNumberOfPages( ) );
+			PdfTextExtractor expectedText = new PdfTextExtractor( expectedReader );
+			PdfTextExtractor actualText = new PdfTextExtractor( actualReader );
+			for ( int i = 1; i <= pageCount; i++ )
+			{
+				assertEquals( expectedText.getTextFromPage( i ), actualText
+						.getTextFromPage( i ) );
+			}
+		}
+		finally
+		{
+			expectedReader.close( );
+			actualReader.close( );
+		}
+	}
+}
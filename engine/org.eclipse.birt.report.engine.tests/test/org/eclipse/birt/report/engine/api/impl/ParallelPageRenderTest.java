@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+public class ParallelPageRenderTest extends TestCase
+{
+
+	public void testSplitOneSequence( )
+	{
+		List<long[]> sequences = new ArrayList<long[]>( );
+		sequences.add( new long[]{1, 100} );
+		List<String> ranges = ParallelPageRender.split( sequences, 100, 3 );
+		assertEquals( 3, ranges.size( ) );
+		assertEquals( "1-34", ranges.get( 0 ) );
+		assertEquals( "35-68", ranges.get( 1 ) );
+		assertEquals( "69-100", ranges.get( 2 ) );
+	}
+
+	public void testSplitSequences( )
+	{
+		List<long[]> sequences = new ArrayList<long[]>( );
+		sequences.add( new long[]{1, 30} );
+		sequences.add( new long[]{41, 50} );
+		sequences.add( new long[]{61, 80} );
+		List<String> ranges = ParallelPageRender.split( sequences, 60, 2 );
+		assertEquals( 2, ranges.size( ) );
+		assertEquals( "1-30", ranges.get( 0 ) );
+		assertEquals( "41-50,61-80", ranges.get( 1 ) );
+
+		ranges = ParallelPageRender.split( sequences, 60, 3 );
+		assertEquals( 3, ranges.size( ) );
+		assertEquals( "1-20", ranges.get( 0 ) );
+		assertEquals( "21-30,41-50", ranges.get( 1 ) );
+		assertEquals( "61-80", ranges.get( 2 ) );
+	}
+}
@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.css.dom;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.report.engine.content.IContainerContent;
+import org.eclipse.birt.report.engine.content.ILabelContent;
+import org.eclipse.birt.report.engine.content.impl.ReportContent;
+
+public class ComputedStyleTest extends TestCase
+{
+
+	private ReportContent report = new ReportContent( );
+	private IContainerContent container;
+
+	protected void setUp( ) throws Exception
+	{
+		container = report.createContainerContent( );
+	}
+
+	private ILabelContent createLabel( String color )
+	{
+		ILabelContent label = report.createLabelContent( );
+		label.setParent( container );
+		if ( color != null )
+		{
+			label.getStyle( ).setColor( color );
+		}
+		return label;
+	}
+
+	public void testShareInlineStyle( )
+	{
+		ILabelContent label1 = createLabel( "red" );
+		ILabelContent label2 = createLabel( "red" );
+		ILabelContent label3 = createLabel( "blue" );
+		ILabelContent label4 = createLabel( null );
+
+		assertSame( label1.getComputedStyle( ), label2.getComputedStyle( ) );
+		assertNotSame( label1.getComputedStyle( ), label3.getComputedStyle( ) );
+		assertNotSame( label1.getComputedStyle( ), label4.getComputedStyle( ) );
+		assertEquals( label1.getComputedStyle( ).getColor( ), label2
+				.getComputedStyle( ).getColor( ) );
+	}
+
+	public void testChangeSharedStyle( )
+	{
+		ILabelContent label1 = createLabel( "red" );
+		ILabelContent label2 = createLabel( "red" );
+		assertSame( label1.getComputedStyle( ), label2.getComputedStyle( ) );
+		String red = label2.getComputedStyle( ).getColor( );
+
+		// changing the style of one label doesn't change the other
+		label1.getStyle( ).setColor( "blue" );
+		label1.getStyle( ).setFontWeight( "bold" );
+		assertNotSame( label1.getComputedStyle( ), label2.getComputedStyle( ) );
+		assertEquals( red, label2.getComputedStyle( ).getColor( ) );
+		assertEquals( "normal", label2.getComputedStyle( ).getFontWeight( ) );
+		assertEquals( "bold", label1.getComputedStyle( ).getFontWeight( ) );
+
+		ILabelContent label3 = createLabel( "red" );
+		assertSame( label2.getComputedStyle( ), label3.getComputedStyle( ) );
+	}
+
+	public void testMaxCachedInlineStyles( )
+	{
+		for ( int i = 0; i < ComputedStyle.MAX_CACHED_INLINE_STYLES + 10; i++ )
+		{
+			createLabel( "#" + Integer.toHexString( 0x100000 + i ) )
+					.getComputedStyle( );
+		}
+		ILabelContent label1 = createLabel( "#fffff0" );
+		ILabelContent label2 = createLabel( "#fffff0" );
+		assertNotSame( label1.getComputedStyle( ), label2.getComputedStyle( ) );
+		assertEquals( label1.getComputedStyle( ).getColor( ), label2
+				.getComputedStyle( ).getColor( ) );
+	}
+}
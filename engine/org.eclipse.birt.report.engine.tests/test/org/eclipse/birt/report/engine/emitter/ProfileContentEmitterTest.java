@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.report.engine.api.IEmitterProfile;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.IReportItemProfile;
+import org.eclipse.birt.report.engine.api.RenderOption;
+import org.eclipse.birt.report.engine.content.ILabelContent;
+import org.eclipse.birt.report.engine.content.IReportContent;
+import org.eclipse.birt.report.engine.content.impl.ReportContent;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile;
+import org.eclipse.birt.report.engine.ir.LabelItemDesign;
+
+/**
+ * Testcase for ProfileContentEmitter
+ */
+public class ProfileContentEmitterTest extends TestCase
+{
+
+	public void testProfile( ) throws Exception
+	{
+		ExecutionProfile executionProfile = new ExecutionProfile( );
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		IRenderOption options = new RenderOption( );
+		options.setOutputStream( out );
+		IContentEmitter emitter = new ProfileContentEmitter(
+				new TextEmitter( ), executionProfile );
+		emitter.initialize( new EngineEmitterServices( null, options,
+				new HashMap( ) ) );
+
+		LabelItemDesign design = new LabelItemDesign( );
+		design.setID( 5 );
+		design.setName( "label" );
+		ReportContent report = new ReportContent( );
+		emitter.start( report );
+		for ( int i = 0; i < 3; i++ )
+		{
+			ILabelContent label = report.createLabelContent( );
+			label.setGenerateBy( design );
+			label.setText( "text" );
+			emitter.startLabel( label );
+		}
+		emitter.end( report );
+
+		assertEquals( "texttexttext", out.toString( ) );
+		assertSame( out, options.getOption( IRenderOption.OUTPUT_STREAM ) );
+
+		List<IEmitterProfile> emitters = executionProfile
+				.getEmitterProfiles( );
+		assertEquals( 1, emitters.size( ) );
+		IEmitterProfile profile = emitters.get( 0 );
+		assertEquals( "text", profile.getFormat( ) );
+		assertEquals( 12, profile.getBytesWritten( ) );
+		assertTrue( profile.getFlushTime( ) > 0 );
+		assertTrue( profile.getEmitTime( ) >= profile.getFlushTime( ) );
+
+		List<IReportItemProfile> items = executionProfile
+				.getReportItemProfiles( );
+		assertEquals( 1, items.size( ) );
+		assertEquals( 5, items.get( 0 ).getElementId( ) );
+		assertEquals( "label", items.get( 0 ).getName( ) );
+		assertEquals( 0, items.get( 0 ).getExecuteCount( ) );
+		assertTrue( items.get( 0 ).getEmitTime( ) > 0 );
+	}
+
+	public void testItemExecute( )
+	{
+		ExecutionProfile executionProfile = new ExecutionProfile( );
+		LabelItemDesign design = new LabelItemDesign( );
+		design.setID( 7 );
+		executionProfile.addItemExecute( design, 10 );
+		executionProfile.addItemExecute( design, 20 );
+		executionProfile.addItemEmit( design, 5 );
+		executionProfile.addScript( 3 );
+		executionProfile.addScript( 4 );
+		executionProfile.addQueryCache( true );
+		executionProfile.addQueryCache( false );
+		executionProfile.addQueryCache( false );
+
+		IReportItemProfile item = executionProfile.getReportItemProfiles( )
+				.get( 0 );
+		assertEquals( 7, item.getElementId( ) );
+		assertEquals( 2, item.getExecuteCount( ) );
+		assertEquals( 30, item.getExecuteTime( ) );
+		assertEquals( 5, item.getEmitTime( ) );
+		assertEquals( 2, executionProfile.getScriptCount( ) );
+		assertEquals( 7, executionProfile.getScriptTime( ) );
+		assertEquals( 1, executionProfile.getQueryCacheHits( ) );
+		assertEquals( 2, executionProfile.getQueryCacheMisses( ) );
+	}
+
+	/**
+	 * writes the text of the labels.
+	 */
+	private static class TextEmitter extends ContentEmitterAdapter
+	{
+
+		OutputStream out;
+
+		public String getOutputFormat( )
+		{
+			return "text";
+		}
+
+		public void initialize( IEmitterServices service )
+				throws BirtException
+		{
+			out = EmitterUtil.getOuputStream( service, "report.txt" );
+		}
+
+		public void startLabel( ILabelContent label ) throws BirtException
+		{
+			try
+			{
+				out.write( label.getText( ).getBytes( "UTF-8" ) );
+			}
+			catch ( IOException ex )
+			{
+				throw new BirtException( ex.getMessage( ) );
+			}
+		}
+
+		public void end( IReportContent report ) throws BirtException
+		{
+			try
+			{
+				out.close( );
+			}
+			catch ( IOException ex )
+			{
+				throw new BirtException( ex.getMessage( ) );
+			}
+		}
+	}
+}
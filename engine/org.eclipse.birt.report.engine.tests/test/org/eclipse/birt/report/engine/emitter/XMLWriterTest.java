@@ -104,4 +104,42 @@ public class XMLWriterTest extends TestCase
 				out.toString( "UTF-8" ).replaceAll( "[\\r|\\n |\\t]", "" ) );
 	}
 
+	public void testEncodeOnCopy( ) throws Exception
+	{
+		String value = "a\"b&c<d>e\r\nf\tg\u0001h\ud800i\ud83d\ude00j\ufffe\u00e9";
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		XMLWriter writer = new XMLWriter( );
+		writer.setIndent( false );
+		writer.open( out );
+		writer.openTag( "a" );
+		writer.attribute( "s", value );
+		writer.attribute( "b", new StringBuilder( value ) );
+		writer.text( value );
+		writer.closeTag( "a" );
+		writer.close( );
+
+		String attr = XMLEncodeUtil.encodeAttr( value );
+		assertEquals( "<a s=\"" + attr + "\" b=\"" + attr + "\">"
+				+ XMLEncodeUtil.encodeText( value ) + "</a>", out
+				.toString( "UTF-8" ) );
+	}
+
+	public void testUTF8( ) throws Exception
+	{
+		StringBuilder text = new StringBuilder( );
+		for ( int i = 0; i < 20000; i++ )
+		{
+			text.append( "a\u00e9\u4e2d\ud83d\ude00" );
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream( );
+		XMLWriter writer = new XMLWriter( );
+		writer.open( out );
+		writer.literal( text.toString( ) );
+		writer.text( text.toString( ) );
+		writer.close( );
+
+		assertEquals( text.toString( ) + text.toString( ), out
+				.toString( "UTF-8" ) );
+	}
+
 }
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v3;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
+import org.eclipse.birt.core.archive.compound.ArchiveReader;
+import org.eclipse.birt.core.archive.compound.ArchiveWriter;
+import org.eclipse.birt.report.engine.api.InstanceID;
+import org.eclipse.birt.report.engine.content.IContent;
+import org.eclipse.birt.report.engine.content.impl.ReportContent;
+import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
+
+public class CachedReportContentReaderV3Test extends TestCase
+{
+
+	static final String ARCHIVE_FILE = "./utest/cached_content_v3.dat";
+	static final String CONTENT_STREAM = "/content";
+	static final int ROW_COUNT = 100;
+
+	protected ArchiveFile archive;
+	protected long[] offsets = new long[ROW_COUNT];
+	protected long tableOffset;
+
+	public void setUp( ) throws IOException
+	{
+		new File( ARCHIVE_FILE ).delete( );
+		archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		ReportContent report = new ReportContent( );
+		ReportContentWriterV3 writer = new ReportContentWriterV3(
+				new ArchiveWriter( archive ), CONTENT_STREAM );
+		try
+		{
+			writer.writeReport( report );
+			IContent table = report.createTableContent( );
+			table.setInstanceID( new InstanceID( null, 1, 10, null ) );
+			tableOffset = writer.writeContent( table );
+			for ( int i = 0; i < ROW_COUNT; i++ )
+			{
+				IContent label = report.createLabelContent( );
+				label.setParent( table );
+				label.setInstanceID( new InstanceID( null, i + 2, 11, null ) );
+				offsets[i] = writer.writeContent( label );
+			}
+		}
+		finally
+		{
+			writer.close( );
+		}
+	}
+
+	public void tearDown( ) throws IOException
+	{
+		archive.close( );
+		new File( ARCHIVE_FILE ).delete( );
+	}
+
+	public void testLoadContent( ) throws IOException
+	{
+		CachedReportContentReaderV3 reader = createReader(
+				CachedReportContentReaderV3.DEFAULT_CACHE_SIZE );
+		try
+		{
+			IContent label = reader.loadContent( offsets[0] );
+			assertEquals( 2, label.getInstanceID( ).getUniqueID( ) );
+			// the content and its parent
+			assertEquals( 2, reader.getMissCount( ) );
+			// the parent is loaded from the cache
+			IContent table = reader.loadContent( tableOffset );
+			assertSame( table, label.getParent( ) );
+			assertEquals( 1, reader.getHitCount( ) );
+			// the loaded content is kept until it is unloaded
+			assertSame( label, reader.loadContent( offsets[0] ) );
+			assertEquals( 2, reader.getHitCount( ) );
+			reader.unloadContent( offsets[0] );
+			assertNotSame( label, reader.loadContent( offsets[0] ) );
+			assertEquals( 3, reader.getMissCount( ) );
+			// the parent is still loaded
+			assertEquals( 3, reader.getHitCount( ) );
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	public void testPrefetch( ) throws IOException
+	{
+		CachedReportContentReaderV3 reader = createReader(
+				CachedReportContentReaderV3.DEFAULT_CACHE_SIZE );
+		try
+		{
+			reader.prefetch( tableOffset, offsets[ROW_COUNT - 1] );
+			// the parent is prefetched before the children
+			assertEquals( 0, reader.getMissCount( ) );
+			assertEquals( ROW_COUNT, reader.getHitCount( ) );
+			IContent table = reader.loadContent( tableOffset );
+			for ( int i = 0; i < ROW_COUNT; i++ )
+			{
+				IContent label = reader.loadContent( offsets[i] );
+				assertEquals( i + 2, label.getInstanceID( ).getUniqueID( ) );
+				assertSame( table, label.getParent( ) );
+				reader.unloadContent( offsets[i] );
+			}
+			assertEquals( 0, reader.getMissCount( ) );
+			assertEquals( ROW_COUNT * 2 + 1, reader.getHitCount( ) );
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	public void testCacheSize( ) throws IOException
+	{
+		CachedReportContentReaderV3 reader = createReader( 0 );
+		try
+		{
+			// nothing can be cached
+			reader.prefetch( tableOffset, -1 );
+			IContent label = reader.loadContent( offsets[0] );
+			assertEquals( 2, reader.getMissCount( ) );
+			DocumentExtension docExt = (DocumentExtension) label
+					.getExtension( IContent.DOCUMENT_EXTENSION );
+			assertEquals( offsets[1], docExt.getNext( ) );
+			reader.loadContent( offsets[1] );
+			assertEquals( 4, reader.getMissCount( ) );
+			assertEquals( 0, reader.getHitCount( ) );
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	protected CachedReportContentReaderV3 createReader( long cacheSize )
+			throws IOException
+	{
+		return new CachedReportContentReaderV3( new ReportContent( ),
+				new ArchiveReader( archive ).getStream( CONTENT_STREAM ),
+				getClass( ).getClassLoader( ), cacheSize );
+	}
+}
@@ -0,0 +1,210 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v3;
+
+import java.io.File;
+import java.io.IOException;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
+import org.eclipse.birt.core.archive.compound.ArchiveReader;
+import org.eclipse.birt.core.archive.compound.ArchiveWriter;
+import org.eclipse.birt.report.engine.api.DataID;
+import org.eclipse.birt.report.engine.api.DataSetID;
+import org.eclipse.birt.report.engine.api.InstanceID;
+import org.eclipse.birt.report.engine.content.IContent;
+import org.eclipse.birt.report.engine.content.ILabelContent;
+import org.eclipse.birt.report.engine.content.IStyle;
+import org.eclipse.birt.report.engine.content.impl.ReportContent;
+import org.eclipse.birt.report.engine.css.dom.StyleDeclaration;
+import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
+
+public class ReportContentWriterV3Test extends TestCase
+{
+
+	static final String ARCHIVE_FILE = "./utest/content_v3.dat";
+	static final String CONTENT_STREAM = "/content";
+	static final int ROW_COUNT = 1000;
+
+	public void tearDown( )
+	{
+		new File( ARCHIVE_FILE ).delete( );
+	}
+
+	public void testVersion1( ) throws IOException
+	{
+		checkStream( ReportContentWriterV3.VERSION_1, false );
+	}
+
+	public void testVersion2( ) throws IOException
+	{
+		checkStream( ReportContentWriterV3.VERSION_2, false );
+	}
+
+	public void testVersion2Compressed( ) throws IOException
+	{
+		checkStream( ReportContentWriterV3.VERSION_2, true );
+	}
+
+	public void testDictionaryReducesSize( ) throws IOException
+	{
+		long v1Size = checkStream( ReportContentWriterV3.VERSION_1, false );
+		long v2Size = checkStream( ReportContentWriterV3.VERSION_2, false );
+		assertTrue( v2Size * 2 < v1Size );
+	}
+
+	public void testCompressLargeContent( ) throws IOException
+	{
+		StringBuffer buffer = new StringBuffer( );
+		for ( int i = 0; i < 1000; i++ )
+		{
+			buffer.append( "text " );
+		}
+		String text = buffer.toString( );
+
+		new File( ARCHIVE_FILE ).delete( );
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		try
+		{
+			ReportContent report = new ReportContent( );
+			ReportContentWriterV3 writer = new ReportContentWriterV3(
+					new ArchiveWriter( archive ), CONTENT_STREAM,
+					ReportContentWriterV3.VERSION_2, true );
+			try
+			{
+				writer.writeReport( report );
+				ILabelContent label = report.createLabelContent( );
+				label.setInstanceID( new InstanceID( null, 1, 10, null ) );
+				label.setText( text );
+				writer.writeContent( label );
+			}
+			finally
+			{
+				writer.close( );
+			}
+
+			RAInputStream in = new ArchiveReader( archive )
+					.getStream( CONTENT_STREAM );
+			assertTrue( in.length( ) < text.length( ) );
+			ReportContentReaderV3 reader = new ReportContentReaderV3(
+					new ReportContent( ), in, getClass( ).getClassLoader( ) );
+			try
+			{
+				ILabelContent label = (ILabelContent) reader
+						.readContent( reader.getRoot( ) );
+				assertEquals( text, label.getText( ) );
+			}
+			finally
+			{
+				reader.close( );
+			}
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	/**
+	 * write a table with ROW_COUNT labels which use the same style, then read
+	 * them back.
+	 *
+	 * @return the stream length
+	 */
+	protected long checkStream( int version, boolean compress )
+			throws IOException
+	{
+		new File( ARCHIVE_FILE ).delete( );
+		ArchiveFile archive = new ArchiveFile( ARCHIVE_FILE, "rw" );
+		try
+		{
+			ReportContent report = new ReportContent( );
+			DataSetID dataSetId = new DataSetID( "dataSet" );
+			ReportContentWriterV3 writer = new ReportContentWriterV3(
+					new ArchiveWriter( archive ), CONTENT_STREAM, version,
+					compress );
+			try
+			{
+				writer.writeReport( report );
+				IContent table = report.createTableContent( );
+				table.setInstanceID( new InstanceID( null, 1, 10, null ) );
+				writer.writeContent( table );
+				for ( int i = 0; i < ROW_COUNT; i++ )
+				{
+					IContent label = report.createLabelContent( );
+					label.setParent( table );
+					label.setInstanceID( new InstanceID( null, i + 2, 11,
+							new DataID( dataSetId, i ) ) );
+					label.setInlineStyle( createStyle( report ) );
+					writer.writeContent( label );
+				}
+			}
+			finally
+			{
+				writer.close( );
+			}
+
+			RAInputStream in = new ArchiveReader( archive )
+					.getStream( CONTENT_STREAM );
+			long length = in.length( );
+			ReportContentReaderV3 reader = new ReportContentReaderV3(
+					new ReportContent( ), in, getClass( ).getClassLoader( ) );
+			try
+			{
+				IContent table = reader.readContent( reader.getRoot( ) );
+				assertEquals( 1, table.getInstanceID( ).getUniqueID( ) );
+				IStyle expected = createStyle( new ReportContent( ) );
+				long offset = getDocumentExtension( table ).getFirstChild( );
+				for ( int i = 0; i < ROW_COUNT; i++ )
+				{
+					IContent label = reader.readContent( offset );
+					InstanceID iid = label.getInstanceID( );
+					assertEquals( i + 2, iid.getUniqueID( ) );
+					assertEquals( 11, iid.getComponentID( ) );
+					assertEquals( i, iid.getDataID( ).getRowID( ) );
+					assertEquals( dataSetId, iid.getDataID( ).getDataSetID( ) );
+					assertEquals( expected, label.getInlineStyle( ) );
+					offset = getDocumentExtension( label ).getNext( );
+				}
+				assertEquals( -1, offset );
+			}
+			finally
+			{
+				reader.close( );
+			}
+			return length;
+		}
+		finally
+		{
+			archive.close( );
+		}
+	}
+
+	protected DocumentExtension getDocumentExtension( IContent content )
+	{
+		return (DocumentExtension) content
+				.getExtension( IContent.DOCUMENT_EXTENSION );
+	}
+
+	protected IStyle createStyle( ReportContent report )
+	{
+		StyleDeclaration style = new StyleDeclaration( report.getCSSEngine( ) );
+		style.setFontFamily( "Arial" );
+		style.setFontWeight( "bold" );
+		style.setColor( "red" );
+		style.setBorderTopStyle( "solid" );
+		style.setPaddingLeft( "2pt" );
+		return style;
+	}
+}
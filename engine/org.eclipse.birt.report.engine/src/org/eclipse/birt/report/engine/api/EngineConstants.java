@@ -75,4 +75,55 @@ public class EngineConstants {
 	 * OOM
 	 */
 	public final static String APPCONTEXT_MAX_PAGE_BREAK_INTERVAL = "MAX_PAGE_BREAK_INTERVAL"; //$NON-NLS-1$
+
+	/**
+	 * this option is used to save the content streams of the report document
+	 * with a style dictionary: each distinct inline style is saved once and
+	 * the contents refer to it by id. The document can't be read by the
+	 * engines before 4.7. The value is Boolean or String, the default value
+	 * is false.
+	 */
+	public final static String APPCONTEXT_COMPACT_CONTENT_STREAM = "COMPACT_CONTENT_STREAM"; //$NON-NLS-1$
+
+	/**
+	 * this option is used to compress the large contents in the compact
+	 * content streams. It is used only if APPCONTEXT_COMPACT_CONTENT_STREAM is
+	 * true. The value is Boolean or String, the default value is false.
+	 */
+	public final static String APPCONTEXT_COMPRESS_CONTENT_STREAM = "COMPRESS_CONTENT_STREAM"; //$NON-NLS-1$
+
+	/**
+	 * this option is used to limit the memory used to cache the contents
+	 * loaded from the report document in rendering, in bytes of the saved
+	 * contents. The value is Number or String, the default value is 4M.
+	 */
+	public final static String APPCONTEXT_CONTENT_CACHE_SIZE = "CONTENT_CACHE_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * this option is used to write the report document in a background thread
+	 * in the run task, so the report execution doesn't wait for the disk I/O.
+	 * The value is the maximum size of the data waiting to be written, in
+	 * bytes. The value is Number or String, the default value is 0, which
+	 * writes the report document synchronously.
+	 */
+	public final static String APPCONTEXT_ASYNC_DOCUMENT_WRITE_SIZE = "ASYNC_DOCUMENT_WRITE_SIZE"; //$NON-NLS-1$
+
+	/**
+	 * this engine configuration property is used to export the metrics of
+	 * BIRT, see org.eclipse.birt.core.metrics.MetricRegistry, as the MBean
+	 * "org.eclipse.birt:type=Metrics" of the platform MBean server. It also
+	 * enables the detailed metrics, such as the timer of the script
+	 * evaluations, which are not recorded otherwise. The value is Boolean or
+	 * String, the default value is false.
+	 */
+	public final static String METRICS_JMX_EXPORT = "METRICS_JMX_EXPORT"; //$NON-NLS-1$
+
+	/**
+	 * this engine configuration property is the maximum memory size, in
+	 * bytes, of the images decoded by the PDF emitter and shared by the
+	 * documents rendered in the JVM, so the same image is decoded once. The
+	 * value is Number or String, the default value is 0, which disables the
+	 * cache.
+	 */
+	public final static String PDF_IMAGE_CACHE_SIZE = "PDF_IMAGE_CACHE_SIZE"; //$NON-NLS-1$
 }
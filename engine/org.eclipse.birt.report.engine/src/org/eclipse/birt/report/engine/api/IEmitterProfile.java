@@ -0,0 +1,40 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api;
+
+/**
+ * The profile of an emitter used by an engine task.
+ */
+public interface IEmitterProfile
+{
+
+	/**
+	 * @return the output format of the emitter.
+	 */
+	String getFormat( );
+
+	/**
+	 * @return the time used by the emitter, including the flush time.
+	 */
+	long getEmitTime( );
+
+	/**
+	 * @return the time used by the emitter to finish and flush the output at
+	 *         the end of the report.
+	 */
+	long getFlushTime( );
+
+	/**
+	 * @return the number of bytes written by the emitter, -1 if it is unknown.
+	 */
+	long getBytesWritten( );
+}
@@ -352,6 +352,25 @@ public interface IEngineTask {
 	 */
 	public void setProgressMonitor( IProgressMonitor monitor );
 
+	/**
+	 * enable or disable the execution profile of the task. The profile records
+	 * the time and the rows of the queries, the time of the report items and
+	 * the emitters, and the script evaluations. A run task also saves the
+	 * profile into the report document. It must be called before the task
+	 * runs.
+	 * 
+	 * @param enabled
+	 *            true to collect the execution profile.
+	 */
+	public void enableExecutionProfile( boolean enabled );
+
+	/**
+	 * get the execution profile collected by the task.
+	 * 
+	 * @return the execution profile, null if it is not enabled.
+	 */
+	public IExecutionProfile getExecutionProfile( );
+
 	/**
 	 * set a task-level status handler, this handler will override the
 	 * engine-level one
@@ -39,6 +39,14 @@ public interface IExcelRenderOption extends IRenderOption
 	 * Excel will ignore all image items when this option is on.
 	 */
 	public static final String IGNORE_IMAGE = "excelRenderOption.ignoreImage";
+
+	/**
+	 * The number of the rows of a sheet kept in memory, the value is an
+	 * Integer. The older rows are written to a temporary file, so a large
+	 * sheet is laid out in a bounded memory. All the rows are kept in memory
+	 * if the option is not set or is 0.
+	 */
+	public static final String CACHED_ROW_COUNT = "excelRenderOption.cachedRowCount";
 	
 	/**
 	 * 
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api;
+
+import java.util.List;
+
+/**
+ * The execution profile of an engine task. The profile is collected when it is
+ * enabled by IEngineTask.enableExecutionProfile() before the task runs, and is
+ * returned by IEngineTask.getExecutionProfile() after run() or render().
+ * <p>
+ * All the times of the profile are in nanoseconds.
+ */
+public interface IExecutionProfile
+{
+
+	/**
+	 * @return the profiles of the queries executed by the task, in the order
+	 *         the queries are first used.
+	 */
+	List<IQueryProfile> getQueryProfiles( );
+
+	/**
+	 * @return the profiles of the report items executed or emitted by the
+	 *         task, one profile for each report item design.
+	 */
+	List<IReportItemProfile> getReportItemProfiles( );
+
+	/**
+	 * @return the profiles of the emitters used by the task.
+	 */
+	List<IEmitterProfile> getEmitterProfiles( );
+
+	/**
+	 * @return the number of the scripts and expressions evaluated by the
+	 *         report engine.
+	 */
+	long getScriptCount( );
+
+	/**
+	 * @return the time used to evaluate the scripts and expressions.
+	 */
+	long getScriptTime( );
+
+	/**
+	 * @return the number of the queries which reuse a cached result.
+	 */
+	long getQueryCacheHits( );
+
+	/**
+	 * @return the number of the queries which could use a cached result but
+	 *         have to be executed.
+	 */
+	long getQueryCacheMisses( );
+}
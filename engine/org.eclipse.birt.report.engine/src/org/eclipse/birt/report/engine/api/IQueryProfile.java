@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api;
+
+/**
+ * The profile of a query executed by an engine task. The sorting, grouping
+ * and aggregations of a query are done by the data engine while the query is
+ * executed, and are part of the execute time.
+ */
+public interface IQueryProfile
+{
+
+	/**
+	 * @return the name of the query, which is the name of the data set, the
+	 *         sub query or the cube.
+	 */
+	String getName( );
+
+	/**
+	 * @return the id of the report item which executes the query, -1 if the
+	 *         query is not executed by a report item.
+	 */
+	long getElementId( );
+
+	/**
+	 * @return the time used to prepare the query.
+	 */
+	long getPrepareTime( );
+
+	/**
+	 * @return how many times the query is executed.
+	 */
+	int getExecuteCount( );
+
+	/**
+	 * @return the time used to execute the query.
+	 */
+	long getExecuteTime( );
+
+	/**
+	 * @return the time used to fetch the rows of the query results.
+	 */
+	long getFetchTime( );
+
+	/**
+	 * @return the number of the rows fetched from the query results.
+	 */
+	long getRowCount( );
+}
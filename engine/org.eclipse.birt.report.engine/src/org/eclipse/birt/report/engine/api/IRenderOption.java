@@ -73,6 +73,15 @@ public interface IRenderOption extends ITaskOption
 	
 	public static final String REPORTLET_SIZE = "reportletSize";
 
+	/**
+	 * The number of workers rendering the pages of a report document at the
+	 * same time, the value is an Integer object, default is 1. Only the PDF
+	 * output of a fixed layout report document file, which is rendered page
+	 * by page, is rendered by several workers. The PDF outline and the links
+	 * between the pages of different workers are not kept.
+	 */
+	public static final String RENDER_WORKER_COUNT = "renderWorkerCount"; //$NON-NLS-1$
+
 	/**
 	 * @return
 	 * @deprecated use getOptions instead
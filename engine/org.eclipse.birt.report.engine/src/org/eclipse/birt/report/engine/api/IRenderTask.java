@@ -175,4 +175,20 @@ public interface IRenderTask extends IEngineTask
 	 *            a callback function that is called after each checkpoint
 	 */
 	public void setPageHandler( IPageHandler callback );
+
+	/**
+	 * Gets how many contents are loaded from the content cache of the report
+	 * document readers by the renders of this task.
+	 * 
+	 * @return the count of the cache hits
+	 */
+	public long getContentCacheHitCount( );
+
+	/**
+	 * Gets how many contents are read from the report document by the
+	 * renders of this task.
+	 * 
+	 * @return the count of the cache misses
+	 */
+	public long getContentCacheMissCount( );
 }
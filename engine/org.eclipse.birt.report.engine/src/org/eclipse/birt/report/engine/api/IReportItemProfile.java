@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api;
+
+/**
+ * The profile of a report item design executed or emitted by an engine task.
+ */
+public interface IReportItemProfile
+{
+
+	/**
+	 * @return the id of the report item design.
+	 */
+	long getElementId( );
+
+	/**
+	 * @return the name of the report item, null if it has no name.
+	 */
+	String getName( );
+
+	/**
+	 * @return how many times the report item is executed.
+	 */
+	int getExecuteCount( );
+
+	/**
+	 * @return the time used to execute the report item, including the time of
+	 *         the report items it contains.
+	 */
+	long getExecuteTime( );
+
+	/**
+	 * @return the time used by the emitters to output the contents of the
+	 *         report item.
+	 */
+	long getEmitTime( );
+}
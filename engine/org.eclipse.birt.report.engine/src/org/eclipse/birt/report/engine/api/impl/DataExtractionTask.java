@@ -23,6 +23,7 @@ import org.eclipse.birt.data.engine.api.IFilterDefinition;
 import org.eclipse.birt.data.engine.api.ISortDefinition;
 import org.eclipse.birt.report.engine.api.EngineException;
 import org.eclipse.birt.report.engine.api.IDataExtractionTask;
+import org.eclipse.birt.report.engine.api.IExecutionProfile;
 import org.eclipse.birt.report.engine.api.IExtractionOption;
 import org.eclipse.birt.report.engine.api.IExtractionResults;
 import org.eclipse.birt.report.engine.api.IProgressMonitor;
@@ -318,6 +319,16 @@ public class DataExtractionTask implements IDataExtractionTask
 		task.setStatusHandler( handler );
 	}
 
+	public void enableExecutionProfile( boolean enabled )
+	{
+		task.enableExecutionProfile( enabled );
+	}
+
+	public IExecutionProfile getExecutionProfile( )
+	{
+		return task.getExecutionProfile( );
+	}
+
 	@Override
 	public void setSorts( ISortDefinition[] simpleSortExpression,
 			boolean overrideExistingSorts )
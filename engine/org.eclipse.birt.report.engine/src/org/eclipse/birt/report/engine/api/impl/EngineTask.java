@@ -32,6 +32,9 @@ import org.eclipse.birt.core.archive.RAInputStream;
 import org.eclipse.birt.core.data.DataTypeUtil;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.framework.Platform;
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.core.metrics.Timer;
 import org.eclipse.birt.core.script.ParameterAttribute;
 import org.eclipse.birt.core.util.LocaleUtil;
 import org.eclipse.birt.data.engine.api.IQueryResults;
@@ -42,6 +45,7 @@ import org.eclipse.birt.report.engine.api.HTMLRenderContext;
 import org.eclipse.birt.report.engine.api.HTMLRenderOption;
 import org.eclipse.birt.report.engine.api.IEngineConfig;
 import org.eclipse.birt.report.engine.api.IEngineTask;
+import org.eclipse.birt.report.engine.api.IExecutionProfile;
 import org.eclipse.birt.report.engine.api.IHTMLRenderOption;
 import org.eclipse.birt.report.engine.api.IPDFRenderOption;
 import org.eclipse.birt.report.engine.api.IPageHandler;
@@ -63,8 +67,10 @@ import org.eclipse.birt.report.engine.css.dom.AbstractStyle;
 import org.eclipse.birt.report.engine.data.dte.DocumentDataSource;
 import org.eclipse.birt.report.engine.emitter.EngineEmitterServices;
 import org.eclipse.birt.report.engine.emitter.IContentEmitter;
+import org.eclipse.birt.report.engine.emitter.ProfileContentEmitter;
 import org.eclipse.birt.report.engine.executor.EngineExtensionManager;
 import org.eclipse.birt.report.engine.executor.ExecutionContext;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile;
 import org.eclipse.birt.report.engine.executor.IReportExecutor;
 import org.eclipse.birt.report.engine.executor.PageVariable;
 import org.eclipse.birt.report.engine.executor.ReportExtensionExecutor;
@@ -133,6 +139,28 @@ public abstract class EngineTask implements IEngineTask
 	
 	protected int runningStatus;
 
+	/**
+	 * the time the task is created and the time it starts running, used by
+	 * the task metrics.
+	 */
+	private final long createTime = System.nanoTime( );
+	private long startTime;
+
+	private static final Counter RUNNING_TASKS = MetricRegistry.getDefault( )
+			.counter( "engine.tasks.running" ); //$NON-NLS-1$
+	private static final Counter FAILED_TASKS = MetricRegistry.getDefault( )
+			.counter( "engine.tasks.failed" ); //$NON-NLS-1$
+	private static final Counter CANCELLED_TASKS = MetricRegistry
+			.getDefault( ).counter( "engine.tasks.cancelled" ); //$NON-NLS-1$
+	/**
+	 * the time from the creation of a task to its run, which includes the time
+	 * the task waits in the queue of the application.
+	 */
+	private static final Timer TASK_WAIT_TIMER = MetricRegistry.getDefault( )
+			.timer( "engine.tasks.wait" ); //$NON-NLS-1$
+	private static final Timer TASK_TIMER = MetricRegistry.getDefault( )
+			.timer( "engine.tasks.time" ); //$NON-NLS-1$
+
 	/**
 	 * a reference to the report engine
 	 */
@@ -206,6 +234,8 @@ public abstract class EngineTask implements IEngineTask
 	
 	protected IProgressMonitor progressMonitor;
 	
+	protected ExecutionProfile executionProfile;
+	
 	protected IStatusHandler statusHandler;
 	
 	protected String[] userAcls;
@@ -1780,7 +1810,7 @@ public abstract class EngineTask implements IEngineTask
 					MessageConstants.CANNOT_CREATE_EMITTER_EXCEPTION, emitterID );
 		}
 
-		return emitter;
+		return profileContentEmitter( emitter );
 	}
 
 	protected IReportLayoutEngine createReportLayoutEngine( String pagination,
@@ -2337,19 +2367,42 @@ public abstract class EngineTask implements IEngineTask
 		return taskType;
 	}
 
-	protected void changeStatusToRunning( )
+	protected synchronized void changeStatusToRunning( )
 	{
+		long now = System.nanoTime( );
+		if ( runningStatus == STATUS_NOT_STARTED )
+		{
+			TASK_WAIT_TIMER.update( now - createTime );
+		}
+		if ( runningStatus != STATUS_RUNNING )
+		{
+			RUNNING_TASKS.inc( );
+		}
+		startTime = now;
 		runningStatus = STATUS_RUNNING;
 	}
 
-	protected void changeStatusToStopped( )
+	protected synchronized void changeStatusToStopped( )
 	{
+		if ( runningStatus == STATUS_RUNNING )
+		{
+			RUNNING_TASKS.dec( );
+			TASK_TIMER.updateSince( startTime );
+		}
 		if ( cancelFlag )
 		{
+			if ( runningStatus != STATUS_CANCELLED )
+			{
+				CANCELLED_TASKS.inc( );
+			}
 			runningStatus = STATUS_CANCELLED;
 		}
 		else if ( fatalError != null || executionContext.hasErrors( ) )
 		{
+			if ( runningStatus == STATUS_RUNNING )
+			{
+				FAILED_TASKS.inc( );
+			}
 			runningStatus = STATUS_FAILED;
 		}
 		else
@@ -2708,6 +2761,30 @@ public abstract class EngineTask implements IEngineTask
 		progressMonitor = monitor;
 		executionContext.setProgressMonitor( monitor );
 	}
+
+	public void enableExecutionProfile( boolean enabled )
+	{
+		executionProfile = enabled ? new ExecutionProfile( ) : null;
+		executionContext.setExecutionProfile( executionProfile );
+	}
+
+	public IExecutionProfile getExecutionProfile( )
+	{
+		return executionProfile;
+	}
+
+	/**
+	 * wraps the emitter to record its time into the execution profile if the
+	 * profile is enabled.
+	 */
+	protected IContentEmitter profileContentEmitter( IContentEmitter emitter )
+	{
+		if ( executionProfile != null && emitter != null )
+		{
+			return new ProfileContentEmitter( emitter, executionProfile );
+		}
+		return emitter;
+	}
 	
 	public void setStatusHandler( IStatusHandler handler )
 	{
@@ -0,0 +1,442 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.report.engine.api.IPDFRenderOption;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.IRenderTask;
+import org.eclipse.birt.report.engine.api.IReportDocument;
+import org.eclipse.birt.report.engine.api.RenderOption;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.pdf.PdfCopy;
+import com.lowagie.text.pdf.PdfReader;
+
+/**
+ * Renders the pages of a report document to PDF by several workers. The
+ * pages are split into continuous ranges, each range is rendered by its own
+ * render task over its own reader of the document to a temporary file, and
+ * the files are then concatenated in the page order.
+ * <p>
+ * The outline and the links between the pages of different ranges are not
+ * kept by the concatenation, so the parallel render must be enabled
+ * explicitly by the IRenderOption.RENDER_WORKER_COUNT option.
+ * <p>
+ * Only the documents of the fixed layout are rendered in parallel, as their
+ * PDF pages are rendered one by one from the pages of the document. The
+ * other documents are paginated again from the whole content, where a page
+ * depends on the pages before it.
+ */
+class ParallelPageRender
+{
+
+	/**
+	 * the ranges shorter than this are not worth a worker.
+	 */
+	static final int MIN_PAGES_PER_WORKER = 20;
+
+	/**
+	 * the number of the workers which have rendered a page range.
+	 */
+	static final Counter RENDER_WORKERS = MetricRegistry.getDefault( )
+			.counter( "engine.render.workers" ); //$NON-NLS-1$
+
+	protected RenderTask task;
+	protected String documentName;
+	protected List<String> pageRanges;
+	protected List<IRenderTask> workers = new ArrayList<IRenderTask>( );
+	protected boolean cancelled;
+
+	ParallelPageRender( RenderTask task, String documentName,
+			List<String> pageRanges )
+	{
+		this.task = task;
+		this.documentName = documentName;
+		this.pageRanges = pageRanges;
+	}
+
+	/**
+	 * Creates the parallel render of the page sequences.
+	 *
+	 * @return the parallel render, null if the pages should be rendered by
+	 *         the task itself.
+	 */
+	static ParallelPageRender create( RenderTask task,
+			List<long[]> pageSequences )
+	{
+		IRenderOption options = task.getRenderOption( );
+		Object count = options.getOption( IRenderOption.RENDER_WORKER_COUNT );
+		int workerCount = 1;
+		if ( count instanceof Number )
+		{
+			workerCount = ( (Number) count ).intValue( );
+		}
+		else if ( count instanceof String )
+		{
+			try
+			{
+				workerCount = Integer.parseInt( (String) count );
+			}
+			catch ( NumberFormatException ex )
+			{
+			}
+		}
+		if ( workerCount <= 1
+				|| !IRenderOption.OUTPUT_FORMAT_PDF.equalsIgnoreCase( options
+						.getOutputFormat( ) ) )
+		{
+			return null;
+		}
+		// the same condition as the page by page render of PageRangeRender
+		if ( !task.executionContext.isFixedLayout( )
+				|| !task.PDFRenderPageByPage
+				|| Boolean.TRUE.equals( options
+						.getOption( IPDFRenderOption.REPAGINATE_FOR_PDF ) ) )
+		{
+			return null;
+		}
+		// each worker opens its own reader of the document
+		String documentName = task.reportDocument.getName( );
+		if ( documentName == null || !new File( documentName ).exists( ) )
+		{
+			return null;
+		}
+
+		long pageCount = 0;
+		for ( long[] sequence : pageSequences )
+		{
+			pageCount += sequence[1] - sequence[0] + 1;
+		}
+		workerCount = (int) Math.min( workerCount, pageCount
+				/ MIN_PAGES_PER_WORKER );
+		if ( workerCount <= 1 )
+		{
+			return null;
+		}
+		return new ParallelPageRender( task, documentName, split(
+				pageSequences, pageCount, workerCount ) );
+	}
+
+	/**
+	 * Splits the page sequences into the page ranges of the workers, the
+	 * ranges are in the page order.
+	 */
+	static List<String> split( List<long[]> pageSequences, long pageCount,
+			int workerCount )
+	{
+		long pagesPerWorker = ( pageCount + workerCount - 1 ) / workerCount;
+		List<String> ranges = new ArrayList<String>( );
+		StringBuilder range = new StringBuilder( );
+		long pages = 0;
+		for ( long[] sequence : pageSequences )
+		{
+			long start = sequence[0];
+			while ( start <= sequence[1] )
+			{
+				long end = Math.min( sequence[1], start + pagesPerWorker
+						- pages - 1 );
+				if ( range.length( ) > 0 )
+				{
+					range.append( ',' );
+				}
+				range.append( start ).append( '-' ).append( end );
+				pages += end - start + 1;
+				if ( pages == pagesPerWorker )
+				{
+					ranges.add( range.toString( ) );
+					range.setLength( 0 );
+					pages = 0;
+				}
+				start = end + 1;
+			}
+		}
+		if ( range.length( ) > 0 )
+		{
+			ranges.add( range.toString( ) );
+		}
+		return ranges;
+	}
+
+	/**
+	 * Renders the pages and writes the result to the output of the task.
+	 *
+	 * @return the number of pages rendered
+	 * @throws Exception
+	 */
+	long render( ) throws Exception
+	{
+		File folder = new File( task.getEngine( ).getConfig( ).getTempDir( ) );
+		folder.mkdirs( );
+		List<File> files = new ArrayList<File>( );
+		ExecutorService executor = Executors.newFixedThreadPool( pageRanges
+				.size( ) );
+		CompletionService<Long> completion = new ExecutorCompletionService<Long>(
+				executor );
+		List<Future<Long>> results = new ArrayList<Future<Long>>( );
+		boolean completed = false;
+		try
+		{
+			for ( final String pageRange : pageRanges )
+			{
+				final File file = File.createTempFile( "render", ".pdf", //$NON-NLS-1$ //$NON-NLS-2$
+						folder );
+				files.add( file );
+				results.add( completion.submit( new Callable<Long>( ) {
+
+					public Long call( ) throws Exception
+					{
+						return Long.valueOf( renderRange( pageRange, file ) );
+					}
+				} ) );
+			}
+
+			// the workers are waited in the order they finish, so a failed
+			// worker stops the others at once
+			long pageCount = 0;
+			for ( int i = 0; i < results.size( ); i++ )
+			{
+				try
+				{
+					pageCount += completion.take( ).get( ).longValue( );
+				}
+				catch ( ExecutionException ex )
+				{
+					Throwable cause = ex.getCause( );
+					if ( cause instanceof Exception )
+					{
+						throw (Exception) cause;
+					}
+					throw ex;
+				}
+			}
+			completed = true;
+			if ( !cancelled )
+			{
+				concatenate( files );
+			}
+			return pageCount;
+		}
+		finally
+		{
+			if ( !completed )
+			{
+				cancel( );
+				for ( Future<Long> result : results )
+				{
+					result.cancel( true );
+				}
+			}
+			executor.shutdownNow( );
+			if ( !completed )
+			{
+				// the running workers close their documents and files
+				awaitWorkers( executor );
+			}
+			for ( File file : files )
+			{
+				file.delete( );
+			}
+		}
+	}
+
+	/**
+	 * Renders a page range in a worker. The worker opens and closes its own
+	 * reader of the document, so a worker which never runs opens nothing.
+	 */
+	protected long renderRange( String pageRange, File file ) throws Exception
+	{
+		IReportDocument document = task.getEngine( ).openReportDocument(
+				documentName );
+		try
+		{
+			IRenderTask worker = createWorker( document, file );
+			RENDER_WORKERS.inc( );
+			try
+			{
+				worker.render( pageRange );
+				return worker.getPageCount( );
+			}
+			finally
+			{
+				worker.close( );
+				task.executionContext.addContentCacheStatistics( worker
+						.getContentCacheHitCount( ), worker
+						.getContentCacheMissCount( ) );
+			}
+		}
+		finally
+		{
+			document.close( );
+		}
+	}
+
+	private void awaitWorkers( ExecutorService executor )
+	{
+		try
+		{
+			executor.awaitTermination( Long.MAX_VALUE, TimeUnit.MILLISECONDS );
+		}
+		catch ( InterruptedException ex )
+		{
+			Thread.currentThread( ).interrupt( );
+		}
+	}
+
+	/**
+	 * Creates the render task of a worker, it renders to the file with the
+	 * options, locale and application context of the task.
+	 */
+	protected synchronized IRenderTask createWorker( IReportDocument document,
+			File file )
+	{
+		IRenderTask worker = task.getEngine( ).createRenderTask( document );
+		RenderOption options = new RenderOption( new HashMap<Object, Object>(
+				task.getRenderOption( ).getOptions( ) ) );
+		options.setOption( IRenderOption.RENDER_WORKER_COUNT,
+				Integer.valueOf( 1 ) );
+		options.setOutputStream( null );
+		options.setOutputFileName( file.getAbsolutePath( ) );
+		worker.setRenderOption( options );
+		worker.setAppContext( task.getAppContext( ) );
+		worker.setLocale( task.getULocale( ) );
+		worker.setTimeZone( task.getTimeZone( ) );
+		workers.add( worker );
+		if ( cancelled )
+		{
+			worker.cancel( );
+		}
+		return worker;
+	}
+
+	protected void concatenate( List<File> files ) throws Exception
+	{
+		IRenderOption options = task.getRenderOption( );
+		OutputStream out = options.getOutputStream( );
+		boolean closeOutput = false;
+		if ( out == null )
+		{
+			File file = new File( options.getOutputFileName( ) );
+			if ( file.getParentFile( ) != null )
+			{
+				file.getParentFile( ).mkdirs( );
+			}
+			out = new BufferedOutputStream( new FileOutputStream( file ) );
+			closeOutput = true;
+		}
+		else
+		{
+			Object close = options
+					.getOption( IRenderOption.CLOSE_OUTPUTSTREAM_ON_EXIT );
+			closeOutput = Boolean.TRUE.equals( close );
+		}
+		try
+		{
+			Document document = null;
+			PdfCopy copy = null;
+			for ( File file : files )
+			{
+				PdfReader reader = new PdfReader( file.getAbsolutePath( ) );
+				try
+				{
+					if ( document == null )
+					{
+						document = new Document( reader.getPageSizeWithRotation( 1 ) );
+						copy = new PdfCopy( document, out );
+						copy.setCloseStream( false );
+						addInfo( document, reader );
+						document.open( );
+					}
+					for ( int i = 1; i <= reader.getNumberOfPages( ); i++ )
+					{
+						copy.addPage( copy.getImportedPage( reader, i ) );
+					}
+					copy.freeReader( reader );
+				}
+				finally
+				{
+					reader.close( );
+				}
+			}
+			if ( document != null )
+			{
+				document.close( );
+			}
+		}
+		finally
+		{
+			if ( closeOutput )
+			{
+				out.close( );
+			}
+			else
+			{
+				out.flush( );
+			}
+		}
+	}
+
+	/**
+	 * Copies the document information written by the PDF emitter.
+	 */
+	private void addInfo( Document document, PdfReader reader )
+	{
+		HashMap<?, ?> info = reader.getInfo( );
+		Object title = info.get( "Title" ); //$NON-NLS-1$
+		if ( title != null )
+		{
+			document.addTitle( title.toString( ) );
+		}
+		Object author = info.get( "Author" ); //$NON-NLS-1$
+		if ( author != null )
+		{
+			document.addAuthor( author.toString( ) );
+		}
+		Object subject = info.get( "Subject" ); //$NON-NLS-1$
+		if ( subject != null )
+		{
+			document.addSubject( subject.toString( ) );
+		}
+		Object keywords = info.get( "Keywords" ); //$NON-NLS-1$
+		if ( keywords != null )
+		{
+			document.addKeywords( keywords.toString( ) );
+		}
+	}
+
+	synchronized void cancel( )
+	{
+		cancelled = true;
+		for ( IRenderTask worker : workers )
+		{
+			worker.cancel( );
+		}
+	}
+}
@@ -87,6 +87,9 @@ public class RenderTask extends EngineTask implements IRenderTask
 	// the html layout engine
 	private IReportLayoutEngine layoutEngine = null;
 
+	// the parallel render of the pages, if any
+	private volatile ParallelPageRender parallelRender = null;
+
 	/**
 	 * @param engine
 	 *            the report engine
@@ -318,7 +321,19 @@ public class RenderTask extends EngineTask implements IRenderTask
 				} );
 			}
 
-			innerRender.render( );
+			if ( innerRender instanceof PageRangeRender )
+			{
+				parallelRender = ParallelPageRender.create( this,
+						( (PageRangeRender) innerRender ).pageSequences );
+			}
+			if ( parallelRender != null )
+			{
+				outputPageCount = parallelRender.render( );
+			}
+			else
+			{
+				innerRender.render( );
+			}
 		}
 		catch ( Throwable t )
 		{
@@ -326,6 +341,7 @@ public class RenderTask extends EngineTask implements IRenderTask
 		}
 		finally
 		{
+			parallelRender = null;
 			changeStatusToStopped( );
 			switchClassLoaderBack( );
 			if ( progressMonitor != null )
@@ -421,6 +437,11 @@ public class RenderTask extends EngineTask implements IRenderTask
 		{
 			layoutEngine.cancel( );
 		}
+		ParallelPageRender render = parallelRender;
+		if ( render != null )
+		{
+			render.cancel( );
+		}
 	}
 
 	private interface InnerRender
@@ -933,6 +954,16 @@ public class RenderTask extends EngineTask implements IRenderTask
 		return tocTree;
 	}
 	
+	public long getContentCacheHitCount( )
+	{
+		return executionContext.getContentCacheHitCount( );
+	}
+
+	public long getContentCacheMissCount( )
+	{
+		return executionContext.getContentCacheMissCount( );
+	}
+
 	public long getTotalPage( ) throws EngineException
 	{
 		LogicalPageSequence visiblePages = loadVisiblePages( );
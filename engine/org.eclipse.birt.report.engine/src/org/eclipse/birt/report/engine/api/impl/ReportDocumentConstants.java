@@ -209,5 +209,11 @@ public interface ReportDocumentConstants
 	 * the run status stream. To save the fatal exception thrown from run task.
 	 */
 	static final String RUN_STATUS_STREAM = "/runStatus"; //$NON-NLS-1$
+
+	/**
+	 * the execution profile stream. To save the text of the execution profile
+	 * of the run task if the profile is enabled.
+	 */
+	static final String EXECUTION_PROFILE_STREAM = "/executionProfile"; //$NON-NLS-1$
 	
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import org.eclipse.birt.core.archive.RAOutputStream;
 import org.eclipse.birt.core.script.ParameterAttribute;
 import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.report.engine.api.EngineException;
+import org.eclipse.birt.report.engine.api.IExecutionProfile;
 import org.eclipse.birt.report.engine.api.IReportEngine;
 import org.eclipse.birt.report.engine.api.InstanceID;
 import org.eclipse.birt.report.engine.content.impl.BookmarkContent;
@@ -401,6 +402,42 @@ public class ReportDocumentWriter implements ReportDocumentConstants
 		}
 	}
 	
+	/**
+	 * save the text of the execution profile, or remove the profile saved by
+	 * a previous run if the profile is not enabled.
+	 */
+	public void saveExecutionProfile( IExecutionProfile profile )
+	{
+		if ( archive.exists( EXECUTION_PROFILE_STREAM ) )
+		{
+			archive.dropStream( EXECUTION_PROFILE_STREAM );
+		}
+		if ( profile == null )
+		{
+			return;
+		}
+		try
+		{
+			RAOutputStream out = archive
+					.createOutputStream( EXECUTION_PROFILE_STREAM );
+			try
+			{
+				DataOutputStream s = new DataOutputStream( out );
+				IOUtil.writeString( s, profile.toString( ) );
+				s.flush( );
+			}
+			finally
+			{
+				out.close( );
+			}
+		}
+		catch ( IOException ex )
+		{
+			logger.log( Level.WARNING, "Failed to save the execution profile", //$NON-NLS-1$
+					ex );
+		}
+	}
+
 	public void setBookmark( String bookmark, BookmarkContent content )
 	{
 		try
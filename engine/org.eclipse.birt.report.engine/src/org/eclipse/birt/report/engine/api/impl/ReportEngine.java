@@ -29,6 +29,8 @@ import java.util.logging.Logger;
 import org.eclipse.birt.core.archive.IDocArchiveReader;
 import org.eclipse.birt.core.archive.compound.IArchiveFile;
 import org.eclipse.birt.core.framework.URLClassLoader;
+import org.eclipse.birt.core.metrics.MetricRegistry;
+import org.eclipse.birt.core.metrics.MetricRegistryMBean;
 import org.eclipse.birt.report.engine.api.DataExtractionFormatInfo;
 import org.eclipse.birt.report.engine.api.EmitterInfo;
 import org.eclipse.birt.report.engine.api.EngineConfig;
@@ -146,6 +148,7 @@ public class ReportEngine implements IReportEngine
 		}
 		
 		registerCustomFontConfig( );
+		registerMetricsMBean( );
 	}
 
 	private void mergeConfigToAppContext( )
@@ -227,6 +230,22 @@ public class ReportEngine implements IReportEngine
 				rollingSize, maxBackupIndex );
 	}
 	
+	/**
+	 * export the metrics to JMX if it is enabled by the engine configuration.
+	 * The MBean is shared by all the engines and is registered once. The
+	 * export enables the detailed metrics too.
+	 */
+	private void registerMetricsMBean( )
+	{
+		Object value = config.getProperty( EngineConstants.METRICS_JMX_EXPORT );
+		if ( value != null
+				&& Boolean.valueOf( value.toString( ) ).booleanValue( ) )
+		{
+			MetricRegistry.getDefault( ).setDetailed( true );
+			MetricRegistryMBean.registerDefault( );
+		}
+	}
+
 	/**
 	 * set custom font configuration file.
 	 */
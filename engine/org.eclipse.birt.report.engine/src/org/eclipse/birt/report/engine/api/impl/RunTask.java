@@ -20,8 +20,10 @@ import org.eclipse.birt.core.archive.FileArchiveWriter;
 import org.eclipse.birt.core.archive.FolderArchive;
 import org.eclipse.birt.core.archive.FolderArchiveWriter;
 import org.eclipse.birt.core.archive.IDocArchiveWriter;
+import org.eclipse.birt.core.archive.compound.ArchiveFile;
 import org.eclipse.birt.core.archive.compound.ArchiveWriter;
 import org.eclipse.birt.core.archive.compound.IArchiveFile;
+import org.eclipse.birt.report.engine.api.EngineConstants;
 import org.eclipse.birt.report.engine.api.EngineException;
 import org.eclipse.birt.report.engine.api.IEngineTask;
 import org.eclipse.birt.report.engine.api.IProgressMonitor;
@@ -151,6 +153,37 @@ public class RunTask extends AbstractRunTask implements IRunTask
 				archiveWriter = new FileArchiveWriter( documentName );
 			}
 		}
+		if ( archiveWriter instanceof FileArchiveWriter )
+		{
+			long asyncWriteSize = getAsyncWriteSize( );
+			IArchiveFile archiveFile = ( (FileArchiveWriter) archiveWriter )
+					.getArchiveFile( );
+			if ( asyncWriteSize > 0 && archiveFile instanceof ArchiveFile )
+			{
+				( (ArchiveFile) archiveFile ).setAsyncWrite( asyncWriteSize );
+			}
+		}
+	}
+
+	private long getAsyncWriteSize( )
+	{
+		Object value = executionContext.getAppContext( ).get(
+				EngineConstants.APPCONTEXT_ASYNC_DOCUMENT_WRITE_SIZE );
+		if ( value instanceof Number )
+		{
+			return ( (Number) value ).longValue( );
+		}
+		if ( value instanceof String )
+		{
+			try
+			{
+				return Long.parseLong( (String) value );
+			}
+			catch ( NumberFormatException ex )
+			{
+			}
+		}
+		return 0;
 	}
 
 	private void openReportDocument( ) throws EngineException
@@ -256,7 +289,8 @@ public class RunTask extends AbstractRunTask implements IRunTask
 					documentBuilder.setPageHandler( pageHandler );
 				}
 
-				IContentEmitter emitter = documentBuilder.getContentEmitter( );
+				IContentEmitter emitter = profileContentEmitter( documentBuilder
+						.getContentEmitter( ) );
 				IReportExecutor executor = new ReportExecutor( executionContext );
 				// prepare the extension executor
 				executor = createReportExtensionExecutor( executor );
@@ -324,6 +358,7 @@ public class RunTask extends AbstractRunTask implements IRunTask
 			}
 
 			writer.savePersistentObjects( executionContext.getGlobalBeans( ) );
+			writer.saveExecutionProfile( executionProfile );
 			writer.finish( );
 
 			// notify that the document has been finished
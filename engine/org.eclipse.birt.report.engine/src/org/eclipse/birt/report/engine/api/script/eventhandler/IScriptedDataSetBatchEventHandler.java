@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.api.script.eventhandler;
+
+import org.eclipse.birt.report.engine.api.script.ScriptException;
+import org.eclipse.birt.report.engine.api.script.instance.IDataSetInstance;
+
+/**
+ * Script event handler interface for a scripted data set which provides its
+ * data rows in batches. If the data set has no fetch script, the rows are
+ * obtained by fetchBatch and the fetch event is not called.
+ */
+public interface IScriptedDataSetBatchEventHandler
+		extends
+			IScriptedDataSetEventHandler
+{
+
+	/**
+	 * Handle the batch fetch event. Implementation should fill in the rows of
+	 * the batch from the first one, a row being the values of the data set
+	 * columns in the order of the columns. The batch is reused by the next
+	 * call, so all the values of a filled row should be set.
+	 *
+	 * @return the number of rows which have been filled; 0 if no more data is
+	 *         available.
+	 */
+	int fetchBatch( IDataSetInstance dataSet, Object[][] rows )
+			throws ScriptException;
+}
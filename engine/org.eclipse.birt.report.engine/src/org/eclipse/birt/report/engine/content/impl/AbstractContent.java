@@ -20,6 +20,8 @@ import java.util.Map;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.api.DataID;
+import org.eclipse.birt.report.engine.api.DataSetID;
 import org.eclipse.birt.report.engine.api.InstanceID;
 import org.eclipse.birt.report.engine.api.impl.QueryUtil;
 import org.eclipse.birt.report.engine.content.IContent;
@@ -337,11 +339,11 @@ abstract public class AbstractContent extends AbstractElement
 			}
 			else
 			{
+				String styleClass = getStyleClass();
+				ComputedStyle pcs = (ComputedStyle) ( (IContent) parent )
+						.getComputedStyle( );
 				if ( inlineStyle == null || inlineStyle.isEmpty( ) )
 				{
-					String styleClass = getStyleClass();
-					ComputedStyle pcs = (ComputedStyle) ( (IContent) parent )
-							.getComputedStyle( );
 					ComputedStyle cs = pcs.getCachedStyle( styleClass );
 					if ( cs == null )
 					{
@@ -352,7 +354,16 @@ abstract public class AbstractContent extends AbstractElement
 				}
 				else
 				{
-					computedStyle = new ComputedStyle( this );
+					// the siblings with the same inline style share the
+					// computed style too
+					ComputedStyle cs = pcs.getCachedStyle( styleClass,
+							inlineStyle );
+					if ( cs == null )
+					{
+						cs = new ComputedStyle( this );
+						pcs.addCachedStyle( styleClass, inlineStyle, cs );
+					}
+					computedStyle = cs;
 				}
 			}
 		}
@@ -641,6 +652,10 @@ abstract public class AbstractContent extends AbstractElement
 	final static short FIELD_EXTENSIONS = 15;
 	final static short FIELD_ALTTEXT = 16;
 	final static short FIELD_ALTTEXTKEY = 17;
+	// the inline style is saved in the content dictionary.
+	final static short FIELD_INLINESTYLE_REF = 18;
+	// the instance id is saved in binary, data set id is in the dictionary.
+	final static short FIELD_INSTANCE_ID_V2 = 19;
 
 	protected void writeFields( DataOutputStream out ) throws IOException
 	{
@@ -698,14 +713,34 @@ abstract public class AbstractContent extends AbstractElement
 		{
 			if( !inlineStyle.isEmpty( ) )
 			{
-				IOUtil.writeShort( out, FIELD_INLINESTYLE_VERSION_1 );
-				inlineStyle.write( out );
+				if ( out instanceof ContentDictionaryOutputStream )
+				{
+					IContentDictionaryWriter dictionary = ( (ContentDictionaryOutputStream) out )
+							.getDictionary( );
+					IOUtil.writeShort( out, FIELD_INLINESTYLE_REF );
+					IOUtil.writeVarLong( out, dictionary
+							.getStyleId( inlineStyle ) );
+				}
+				else
+				{
+					IOUtil.writeShort( out, FIELD_INLINESTYLE_VERSION_1 );
+					inlineStyle.write( out );
+				}
 			}
 		}
 		if ( instanceId != null )
 		{
-			IOUtil.writeShort( out, FIELD_INSTANCE_ID );
-			IOUtil.writeString( out, instanceId.toString( ) );
+			if ( out instanceof ContentDictionaryOutputStream )
+			{
+				IOUtil.writeShort( out, FIELD_INSTANCE_ID_V2 );
+				writeInstanceID( (ContentDictionaryOutputStream) out,
+						instanceId );
+			}
+			else
+			{
+				IOUtil.writeShort( out, FIELD_INSTANCE_ID );
+				IOUtil.writeString( out, instanceId.toString( ) );
+			}
 		}
 		if ( toc != null )
 		{
@@ -821,10 +856,18 @@ abstract public class AbstractContent extends AbstractElement
 					}
 				}
 				break;
+			case FIELD_INLINESTYLE_REF :
+				long styleId = IOUtil.readVarLong( in );
+				inlineStyle = ContentDictionaryInputStream.getDictionary( in )
+						.getStyle( styleId, cssEngine );
+				break;
 			case FIELD_INSTANCE_ID :
 				String value = IOUtil.readString( in );
 				instanceId = InstanceID.parse( value );
 				break;
+			case FIELD_INSTANCE_ID_V2 :
+				instanceId = readInstanceID( in );
+				break;
 			case FIELD_TOC :
 				toc = IOUtil.readObject( in, loader );
 				break;
@@ -870,6 +913,69 @@ abstract public class AbstractContent extends AbstractElement
 		}
 	}
 
+	/**
+	 * save the instance id in binary. Only the id of this content is saved
+	 * (the same as InstanceID.toString()), the numbers are saved in variable
+	 * length and the data set id is saved in the dictionary as all the rows
+	 * of a listing element share the same data set id.
+	 */
+	private void writeInstanceID( ContentDictionaryOutputStream out,
+			InstanceID iid ) throws IOException
+	{
+		IOUtil.writeVarLong( out, iid.getUniqueID( ) + 1 );
+		IOUtil.writeVarLong( out, iid.getComponentID( ) + 1 );
+		DataID dataId = iid.getDataID( );
+		if ( dataId == null )
+		{
+			IOUtil.writeVarLong( out, 0 );
+			return;
+		}
+		DataSetID dataSetId = dataId.getDataSetID( );
+		if ( dataSetId == null )
+		{
+			IOUtil.writeVarLong( out, 1 );
+		}
+		else
+		{
+			IOUtil.writeVarLong( out, out.getDictionary( ).getStringId(
+					dataSetId.toString( ) ) + 2 );
+		}
+		long rowId = dataId.getRowID( );
+		IOUtil.writeVarLong( out, rowId + 1 );
+		if ( rowId == -1 )
+		{
+			IOUtil.writeString( out, dataId.getCellID( ) );
+		}
+	}
+
+	private InstanceID readInstanceID( DataInputStream in ) throws IOException
+	{
+		long uid = IOUtil.readVarLong( in ) - 1;
+		long designId = IOUtil.readVarLong( in ) - 1;
+		DataID dataId = null;
+		long dataSetRef = IOUtil.readVarLong( in );
+		if ( dataSetRef != 0 )
+		{
+			DataSetID dataSetId = null;
+			if ( dataSetRef > 1 )
+			{
+				String value = ContentDictionaryInputStream
+						.getDictionary( in ).getString( dataSetRef - 2 );
+				dataSetId = DataSetID.parse( value );
+			}
+			long rowId = IOUtil.readVarLong( in ) - 1;
+			if ( rowId == -1 )
+			{
+				dataId = new DataID( dataSetId, IOUtil.readString( in ) );
+			}
+			else
+			{
+				dataId = new DataID( dataSetId, rowId );
+			}
+		}
+		return new InstanceID( null, uid, designId, dataId );
+	}
+
 	private DimensionType readDimension( DataInputStream in )
 			throws IOException
 	{
@@ -238,26 +238,26 @@ public class CellContent extends AbstractContent implements ICellContent
 	{
 		if ( computedStyle == null )
 		{
-			if ( inlineStyle == null || inlineStyle.isEmpty( ) )
+			String cacheKey = getStyleClass();
+			ITableContent table = ( (IRowContent) parent ).getTable( );
+			int column = getColumn( );
+			if ( column >= 0 && column < table.getColumnCount( ) )
 			{
-				String cacheKey = getStyleClass();
-				ITableContent table = ( (IRowContent) parent ).getTable( );
-				int column = getColumn( );
-				if ( column >= 0 && column < table.getColumnCount( ) )
+				IColumn tblColumn = table.getColumn( column );
+				if ( tblColumn != null )
 				{
-					IColumn tblColumn = table.getColumn( column );
-					if ( tblColumn != null )
+					String columnStyleClass = tblColumn.getStyleClass( );
+					if ( columnStyleClass != null )
 					{
-						String columnStyleClass = tblColumn.getStyleClass( );
-						if ( columnStyleClass != null )
-						{
-							cacheKey = cacheKey + columnStyleClass;
-						}
+						cacheKey = cacheKey + columnStyleClass;
 					}
 				}
+			}
 
-				ComputedStyle pcs = (ComputedStyle) ( (IContent) parent )
-						.getComputedStyle( );
+			ComputedStyle pcs = (ComputedStyle) ( (IContent) parent )
+					.getComputedStyle( );
+			if ( inlineStyle == null || inlineStyle.isEmpty( ) )
+			{
 				ComputedStyle cs = pcs.getCachedStyle( cacheKey );
 				if ( cs == null )
 				{
@@ -268,7 +268,13 @@ public class CellContent extends AbstractContent implements ICellContent
 			}
 			else
 			{
-				computedStyle = new CellComputedStyle( this );
+				ComputedStyle cs = pcs.getCachedStyle( cacheKey, inlineStyle );
+				if ( cs == null )
+				{
+					cs = new CellComputedStyle( this );
+					pcs.addCachedStyle( cacheKey, inlineStyle, cs );
+				}
+				computedStyle = cs;
 			}
 		}
 		return computedStyle;
@@ -215,6 +215,8 @@ public class Column implements IColumn
 	//change the way of writing and reading the style.
 	final static int FIELD_INLINESTYLE_VERSION_1 = 10;
 	final static int FIELD_ISREPEAT = 11;
+	// the inline style is saved in the content dictionary.
+	final static int FIELD_INLINESTYLE_REF = 12;
 
 	protected void writeFields( DataOutputStream out ) throws IOException
 	{
@@ -242,8 +244,19 @@ public class Column implements IColumn
 		{
 			if( !inlineStyle.isEmpty( ) )
 			{
-				IOUtil.writeInt( out, FIELD_INLINESTYLE_VERSION_1 );
-				inlineStyle.write( out );
+				if ( out instanceof ContentDictionaryOutputStream )
+				{
+					IContentDictionaryWriter dictionary = ( (ContentDictionaryOutputStream) out )
+							.getDictionary( );
+					IOUtil.writeInt( out, FIELD_INLINESTYLE_REF );
+					IOUtil.writeVarLong( out, dictionary
+							.getStyleId( inlineStyle ) );
+				}
+				else
+				{
+					IOUtil.writeInt( out, FIELD_INLINESTYLE_VERSION_1 );
+					inlineStyle.write( out );
+				}
 			}
 		}
 		if ( isColumnHeader != null && isColumnHeader )
@@ -296,6 +309,11 @@ public class Column implements IColumn
 					}
 				}
 				break;
+			case FIELD_INLINESTYLE_REF :
+				long styleId = IOUtil.readVarLong( in );
+				inlineStyle = ContentDictionaryInputStream.getDictionary( in )
+						.getStyle( styleId, cssEngine );
+				break;
 			case FIELD_ISCOLUMNHEADER :
 				isColumnHeader = Boolean.valueOf( IOUtil.readBool( in ) );
 				break;
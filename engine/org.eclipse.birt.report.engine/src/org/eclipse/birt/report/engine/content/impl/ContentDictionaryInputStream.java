@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.content.impl;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * input stream used to load the contents saved with a content dictionary.
+ */
+public class ContentDictionaryInputStream extends DataInputStream
+{
+
+	protected IContentDictionaryReader dictionary;
+
+	public ContentDictionaryInputStream( InputStream in,
+			IContentDictionaryReader dictionary )
+	{
+		super( in );
+		this.dictionary = dictionary;
+	}
+
+	public IContentDictionaryReader getDictionary( )
+	{
+		return dictionary;
+	}
+
+	/**
+	 * get the dictionary used by the input stream
+	 *
+	 * @param in
+	 *            input stream
+	 * @return the dictionary
+	 * @throws IOException
+	 *             the input stream is not a dictionary stream.
+	 */
+	static IContentDictionaryReader getDictionary( DataInputStream in )
+			throws IOException
+	{
+		if ( in instanceof ContentDictionaryInputStream )
+		{
+			return ( (ContentDictionaryInputStream) in ).getDictionary( );
+		}
+		throw new IOException(
+				"The content refers to a dictionary which is not available" );
+	}
+}
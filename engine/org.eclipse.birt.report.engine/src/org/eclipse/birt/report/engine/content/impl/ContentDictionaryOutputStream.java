@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.content.impl;
+
+import java.io.DataOutputStream;
+import java.io.OutputStream;
+
+/**
+ * output stream used to save the contents with a content dictionary.
+ *
+ * The contents check the stream type in writeFields, if it is a dictionary
+ * stream, the shared values are saved as dictionary references.
+ */
+public class ContentDictionaryOutputStream extends DataOutputStream
+{
+
+	protected IContentDictionaryWriter dictionary;
+
+	public ContentDictionaryOutputStream( OutputStream out,
+			IContentDictionaryWriter dictionary )
+	{
+		super( out );
+		this.dictionary = dictionary;
+	}
+
+	public IContentDictionaryWriter getDictionary( )
+	{
+		return dictionary;
+	}
+}
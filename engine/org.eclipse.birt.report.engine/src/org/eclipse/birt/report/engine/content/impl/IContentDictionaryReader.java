@@ -0,0 +1,48 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.content.impl;
+
+import java.io.IOException;
+
+import org.eclipse.birt.report.engine.content.IStyle;
+import org.eclipse.birt.report.engine.css.engine.CSSEngine;
+
+
+/**
+ * Reader side of the dictionary shared by all the contents saved in one
+ * content stream, it returns the values saved by IContentDictionaryWriter.
+ */
+public interface IContentDictionaryReader
+{
+
+	/**
+	 * create a new style from the dictionary.
+	 *
+	 * @param id
+	 *            style id returned by getStyleId.
+	 * @param engine
+	 *            css engine used to create the style.
+	 * @return a new style object, the caller can change it.
+	 * @throws IOException
+	 */
+	IStyle getStyle( long id, CSSEngine engine ) throws IOException;
+
+	/**
+	 * get the string from the dictionary.
+	 *
+	 * @param id
+	 *            string id returned by getStringId
+	 * @return the string value.
+	 * @throws IOException
+	 */
+	String getString( long id ) throws IOException;
+}
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.content.impl;
+
+import java.io.IOException;
+
+import org.eclipse.birt.report.engine.content.IStyle;
+
+
+/**
+ * Writer side of the dictionary shared by all the contents saved in one
+ * content stream.
+ *
+ * Values which repeat in most contents (inline styles, data set ids) are saved
+ * only once and the contents refer to them by id, the ids are resolved by
+ * IContentDictionaryReader when the contents are loaded.
+ */
+public interface IContentDictionaryWriter
+{
+
+	/**
+	 * get the id of the style, the style is added into the dictionary if it
+	 * doesn't exist.
+	 *
+	 * @param style
+	 *            style to be saved, it can't be empty.
+	 * @return the id of the style.
+	 * @throws IOException
+	 */
+	long getStyleId( IStyle style ) throws IOException;
+
+	/**
+	 * get the id of the string, the string is added into the dictionary if it
+	 * doesn't exist.
+	 *
+	 * @param value
+	 *            string value, it can't be null.
+	 * @return the id of the string.
+	 * @throws IOException
+	 */
+	long getStringId( String value ) throws IOException;
+}
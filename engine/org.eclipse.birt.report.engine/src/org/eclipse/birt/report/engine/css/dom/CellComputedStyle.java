@@ -47,7 +47,7 @@ public class CellComputedStyle extends ComputedStyle
 			pcs = parent.getComputedStyle( );
 		}
 		// get the specified style
-		IStyle s = cell.getStyle( );
+		IStyle s = getSpecifiedStyle( );
 
 		Value sv = s == null ? null : (Value) s.getProperty( index );
 		
@@ -11,10 +11,22 @@ import org.w3c.dom.css.CSSValue;
 
 public class ComputedStyle extends AbstractStyle
 {
+	/**
+	 * the max number of the computed styles of the children with inline style
+	 * cached by a computed style.
+	 */
+	static final int MAX_CACHED_INLINE_STYLES = 256;
+
 	Map<String, ComputedStyle> cachedStyles = new HashMap<String, ComputedStyle>( );
+	Map<InlineStyleKey, ComputedStyle> cachedInlineStyles;
 	boolean[] caculated;
 	CSSStylableElement elt;
 	CSSValue[] values;
+	/**
+	 * the copy of the element's specified style if the computed style is
+	 * shared by the elements with inline style.
+	 */
+	IStyle specifiedStyle;
 
 	public ComputedStyle( CSSStylableElement elt )
 	{
@@ -53,7 +65,7 @@ public class ComputedStyle extends AbstractStyle
 		}
 
 		// get the specified style
-		IStyle s = elt.getStyle( );
+		IStyle s = getSpecifiedStyle( );
 
 		Value sv = s != null ? (Value) s.getProperty( index ) : null;
 		Value cv = engine.resolveStyle( elt, index, sv, pcs );
@@ -82,4 +94,125 @@ public class ComputedStyle extends AbstractStyle
 	{
 		return (ComputedStyle) cachedStyles.get( styleClass );
 	}
+
+	/**
+	 * Caches the computed style of a child element with inline style, so the
+	 * children with the same style class and the same inline style share one
+	 * computed style. The computed style is resolved from a copy of the
+	 * specified style of the child from now on, so the later changes to the
+	 * child's style don't leak to the other children.
+	 *
+	 * @param styleClass
+	 *            the style class of the child
+	 * @param inlineStyle
+	 *            the inline style of the child
+	 * @param style
+	 *            the computed style of the child
+	 */
+	public void addCachedStyle( String styleClass, IStyle inlineStyle,
+			ComputedStyle style )
+	{
+		if ( !( inlineStyle instanceof StyleDeclaration ) )
+		{
+			return;
+		}
+		if ( cachedInlineStyles == null )
+		{
+			cachedInlineStyles = new HashMap<InlineStyleKey, ComputedStyle>( );
+		}
+		else if ( cachedInlineStyles.size( ) >= MAX_CACHED_INLINE_STYLES )
+		{
+			// the inline styles are too different to share
+			return;
+		}
+		StyleDeclaration copy = new StyleDeclaration( (StyleDeclaration) inlineStyle );
+		copy.decouple( );
+		style.freezeSpecifiedStyle( );
+		cachedInlineStyles.put( new InlineStyleKey( styleClass, copy ), style );
+	}
+
+	/**
+	 * Returns the cached computed style of the children with the style class
+	 * and the inline style.
+	 *
+	 * @param styleClass
+	 *            the style class of the child
+	 * @param inlineStyle
+	 *            the inline style of the child
+	 * @return the cached style, null if there is no one.
+	 */
+	public ComputedStyle getCachedStyle( String styleClass, IStyle inlineStyle )
+	{
+		if ( cachedInlineStyles == null
+				|| !( inlineStyle instanceof StyleDeclaration ) )
+		{
+			return null;
+		}
+		return cachedInlineStyles.get( new InlineStyleKey( styleClass,
+				(StyleDeclaration) inlineStyle ) );
+	}
+
+	protected IStyle getSpecifiedStyle( )
+	{
+		if ( specifiedStyle != null )
+		{
+			return specifiedStyle;
+		}
+		return elt.getStyle( );
+	}
+
+	private void freezeSpecifiedStyle( )
+	{
+		IStyle s = elt.getStyle( );
+		if ( s == null )
+		{
+			return;
+		}
+		StyleDeclaration copy = new StyleDeclaration( engine );
+		for ( int i = 0; i < NUMBER_OF_STYLE; i++ )
+		{
+			CSSValue value = s.getProperty( i );
+			if ( value != null )
+			{
+				copy.setProperty( i, value );
+			}
+		}
+		specifiedStyle = copy;
+	}
+
+	private static class InlineStyleKey
+	{
+
+		String styleClass;
+		StyleDeclaration inlineStyle;
+		int hash;
+
+		InlineStyleKey( String styleClass, StyleDeclaration inlineStyle )
+		{
+			this.styleClass = styleClass;
+			this.inlineStyle = inlineStyle;
+			this.hash = ( styleClass == null ? 0 : styleClass.hashCode( ) )
+					* 31 + inlineStyle.hashCode( );
+		}
+
+		public int hashCode( )
+		{
+			return hash;
+		}
+
+		public boolean equals( Object obj )
+		{
+			if ( !( obj instanceof InlineStyleKey ) )
+			{
+				return false;
+			}
+			InlineStyleKey key = (InlineStyleKey) obj;
+			if ( styleClass == null ? key.styleClass != null : !styleClass
+					.equals( key.styleClass ) )
+			{
+				return false;
+			}
+			return inlineStyle.equals( key.inlineStyle );
+		}
+	}
 }
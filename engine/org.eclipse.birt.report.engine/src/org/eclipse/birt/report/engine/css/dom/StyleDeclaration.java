@@ -113,7 +113,21 @@ public class StyleDeclaration extends AbstractStyle
 		}
 		return false;
 	}
-	
+
+	public int hashCode( )
+	{
+		int hash = propertyCount;
+		for ( int i = 0; i < NUMBER_OF_STYLE; i++ )
+		{
+			CSSValue value = values[i];
+			if ( value != null )
+			{
+				hash = hash * 31 + i;
+				hash = hash * 31 + value.hashCode( );
+			}
+		}
+		return hash;
+	}
 
 	public void write( DataOutputStream out ) throws IOException
 	{
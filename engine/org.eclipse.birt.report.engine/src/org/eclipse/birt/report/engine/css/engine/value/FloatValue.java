@@ -391,4 +391,11 @@ public class FloatValue extends Value implements CSSPrimitiveValue
 		return false;
 	}
 
+	public int hashCode( )
+	{
+		// 0.0 and -0.0 are equal
+		int bits = floatValue == 0 ? 0 : Float.floatToIntBits( floatValue );
+		return bits * 31 + unitType;
+	}
+
 }
@@ -211,4 +211,14 @@ public class ListValue extends Value implements CSSValueList
 		}
 		return false;
 	}
+
+	public int hashCode( )
+	{
+		int hash = length;
+		for ( int i = 0; i < length; i++ )
+		{
+			hash = hash * 31 + ( items[i] == null ? 0 : items[i].hashCode( ) );
+		}
+		return hash;
+	}
 }
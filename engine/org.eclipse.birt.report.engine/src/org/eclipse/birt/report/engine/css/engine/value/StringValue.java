@@ -81,6 +81,11 @@ public class StringValue extends Value
 
 	}
 
+	public int hashCode( )
+	{
+		return ( value == null ? 0 : value.hashCode( ) ) * 31 + unitType;
+	}
+
 	/**
 	 * A string representation of the current value.
 	 */
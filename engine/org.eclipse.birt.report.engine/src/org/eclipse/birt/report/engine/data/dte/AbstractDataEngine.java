@@ -39,6 +39,7 @@ import org.eclipse.birt.report.engine.data.DataEngineFactory;
 import org.eclipse.birt.report.engine.data.IDataEngine;
 import org.eclipse.birt.report.engine.data.optimize.QueryCache;
 import org.eclipse.birt.report.engine.executor.ExecutionContext;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile;
 import org.eclipse.birt.report.engine.extension.IBaseResultSet;
 import org.eclipse.birt.report.engine.extension.ICubeResultSet;
 import org.eclipse.birt.report.engine.extension.IQueryResultSet;
@@ -234,9 +235,16 @@ public abstract class AbstractDataEngine implements IDataEngine
 		{
 			try
 			{
+				long start = System.nanoTime( );
 				IBasePreparedQuery preparedQuery = dteSession.prepare(
 						queryArray[index], appContext );
 				queryMap.put( queryArray[index], preparedQuery );
+				ExecutionProfile profile = context.getExecutionProfile( );
+				if ( profile != null )
+				{
+					profile.addQueryPrepare( queryArray[index],
+							System.nanoTime( ) - start );
+				}
 			}
 			catch ( BirtException e )
 			{
@@ -262,6 +270,27 @@ public abstract class AbstractDataEngine implements IDataEngine
 	public IBaseResultSet execute( IBaseResultSet parent,
 			IDataQueryDefinition query, Object queryOwner, boolean useCache )
 			throws BirtException
+	{
+		ExecutionProfile profile = context.getExecutionProfile( );
+		if ( profile == null )
+		{
+			return doExecute( parent, query, queryOwner, useCache );
+		}
+		long start = System.nanoTime( );
+		try
+		{
+			return doExecute( parent, query, queryOwner, useCache );
+		}
+		finally
+		{
+			profile.addQueryExecute( query, queryOwner, System.nanoTime( )
+					- start );
+		}
+	}
+
+	private IBaseResultSet doExecute( IBaseResultSet parent,
+			IDataQueryDefinition query, Object queryOwner, boolean useCache )
+			throws BirtException
 	{
 		// FIXME: DTE may provide an API to get the query type.
 		if ( query instanceof ISubqueryDefinition )
@@ -401,6 +430,7 @@ public abstract class AbstractDataEngine implements IDataEngine
 			throws BirtException
 	{
 		Object rsetId = cachedQueryToResults.get( query );
+		profileQueryCache( rsetId != null );
 
 		if ( rsetId != null )
 		{
@@ -431,6 +461,7 @@ public abstract class AbstractDataEngine implements IDataEngine
 			throws BirtException
 	{
 		Object rsetId = queryCache.getCachedQuery( query );
+		profileQueryCache( rsetId != null );
 
 		if ( rsetId != null )
 		{
@@ -445,6 +476,15 @@ public abstract class AbstractDataEngine implements IDataEngine
 		}
 	}
 
+	private void profileQueryCache( boolean hit )
+	{
+		ExecutionProfile profile = context.getExecutionProfile( );
+		if ( profile != null )
+		{
+			profile.addQueryCache( hit );
+		}
+	}
+
 	protected void putCachedQueryResult( IBaseQueryDefinition query, String id )
 	{
 		queryCache.putCachedQuery( query, id );
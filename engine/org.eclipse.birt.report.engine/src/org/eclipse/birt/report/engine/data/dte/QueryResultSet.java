@@ -32,6 +32,7 @@ import org.eclipse.birt.data.engine.api.ISubqueryDefinition;
 import org.eclipse.birt.report.engine.api.DataSetID;
 import org.eclipse.birt.report.engine.data.IDataEngine;
 import org.eclipse.birt.report.engine.executor.ExecutionContext;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile;
 import org.eclipse.birt.report.engine.extension.IBaseResultSet;
 import org.eclipse.birt.report.engine.extension.IQueryResultSet;
 
@@ -188,7 +189,19 @@ public class QueryResultSet implements IQueryResultSet
 	public boolean next( ) throws BirtException
 	{
 		boolean flag;
-		flag = rs == null ? false : rs.next( );
+		ExecutionProfile profile = context == null ? null : context
+				.getExecutionProfile( );
+		if ( profile != null && rs != null )
+		{
+			long start = System.nanoTime( );
+			flag = rs.next( );
+			profile.addQueryFetch( queryDefn, System.nanoTime( ) - start,
+					flag );
+		}
+		else
+		{
+			flag = rs == null ? false : rs.next( );
+		}
 		if ( flag )
 		{
 			rowId++;
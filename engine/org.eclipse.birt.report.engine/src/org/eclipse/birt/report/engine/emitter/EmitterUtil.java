@@ -30,6 +30,8 @@ import java.util.logging.Logger;
 import javax.imageio.ImageIO;
 import javax.swing.ImageIcon;
 
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
 import org.eclipse.birt.report.engine.api.EngineException;
 import org.eclipse.birt.report.engine.api.IHTMLActionHandler;
 import org.eclipse.birt.report.engine.api.IReportRunnable;
@@ -58,6 +60,11 @@ public class EmitterUtil
 	protected static Logger logger = Logger.getLogger( EmitterUtil.class
 			.getName( ) );
 
+	private static final Counter EMITTER_OUTPUTS = MetricRegistry
+			.getDefault( ).counter( "emitter.outputs" ); //$NON-NLS-1$
+	private static final Counter EMITTER_BYTES = MetricRegistry.getDefault( )
+			.counter( "emitter.bytes" ); //$NON-NLS-1$
+
 	public static OutputStream getOuputStream( IEmitterServices services,
 			String defaultOutputFile ) throws EngineException
 	{
@@ -113,7 +120,42 @@ public class EmitterUtil
 				}
 			}
 		}
-		return out;
+		EMITTER_OUTPUTS.inc( );
+		return new CountOutputStream( out );
+	}
+
+	/**
+	 * counts the bytes written by the emitter, the count is published to the
+	 * metrics when the stream is flushed or closed.
+	 */
+	private static class CountOutputStream extends FilterOutputStream
+	{
+
+		private long count;
+
+		CountOutputStream( OutputStream out )
+		{
+			super( out );
+		}
+
+		public void write( int b ) throws IOException
+		{
+			out.write( b );
+			count++;
+		}
+
+		public void write( byte[] b, int off, int len ) throws IOException
+		{
+			out.write( b, off, len );
+			count += len;
+		}
+
+		public void flush( ) throws IOException
+		{
+			out.flush( );
+			EMITTER_BYTES.inc( count );
+			count = 0;
+		}
 	}
 
 	private static class EmitterOutputStream extends FilterOutputStream
@@ -131,11 +131,31 @@ public class HTMLWriter extends XMLWriter
 			bPairedFlag = true;
 		}
 
-		String stringToPrint = HTMLEncodeUtil.encodeText( value, whitespace );
-		print( stringToPrint );
+		if ( whitespace && hasWhitespace( value ) )
+		{
+			print( HTMLEncodeUtil.encodeText( value, whitespace ) );
+		}
+		else
+		{
+			// the same as XML text if there is no white space to convert
+			printEncoded( value, false );
+		}
 		bText = true;
 	}
 
+	private static boolean hasWhitespace( String value )
+	{
+		for ( int i = 0, length = value.length( ); i < length; i++ )
+		{
+			char c = value.charAt( i );
+			if ( c == ' ' || c == '\t' || c == '\r' || c == '\n' )
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
 	protected String encodeText( String text )
 	{
 		return HTMLEncodeUtil.encodeText( text, false );
@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter;
+
+import java.io.File;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+
+import org.eclipse.birt.core.exception.BirtException;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.eclipse.birt.report.engine.api.IReportRunnable;
+import org.eclipse.birt.report.engine.api.RenderOption;
+import org.eclipse.birt.report.engine.api.script.IReportContext;
+import org.eclipse.birt.report.engine.content.IAutoTextContent;
+import org.eclipse.birt.report.engine.content.ICellContent;
+import org.eclipse.birt.report.engine.content.IContainerContent;
+import org.eclipse.birt.report.engine.content.IContent;
+import org.eclipse.birt.report.engine.content.IDataContent;
+import org.eclipse.birt.report.engine.content.IForeignContent;
+import org.eclipse.birt.report.engine.content.IGroupContent;
+import org.eclipse.birt.report.engine.content.IImageContent;
+import org.eclipse.birt.report.engine.content.ILabelContent;
+import org.eclipse.birt.report.engine.content.IListBandContent;
+import org.eclipse.birt.report.engine.content.IListContent;
+import org.eclipse.birt.report.engine.content.IListGroupContent;
+import org.eclipse.birt.report.engine.content.IPageContent;
+import org.eclipse.birt.report.engine.content.IReportContent;
+import org.eclipse.birt.report.engine.content.IRowContent;
+import org.eclipse.birt.report.engine.content.ITableBandContent;
+import org.eclipse.birt.report.engine.content.ITableContent;
+import org.eclipse.birt.report.engine.content.ITableGroupContent;
+import org.eclipse.birt.report.engine.content.ITextContent;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile;
+import org.eclipse.birt.report.engine.executor.ExecutionProfile.EmitterProfile;
+import org.eclipse.birt.report.engine.ir.ReportElementDesign;
+
+/**
+ * Emitter which records the time used by the wrapped emitter into the
+ * execution profile of the task. The time of a content is added to the report
+ * item which generates it. If the output is written to a stream, the stream is
+ * wrapped to count the bytes written by the emitter, otherwise the bytes are
+ * the size of the output file.
+ */
+public class ProfileContentEmitter implements IContentEmitter
+{
+
+	private IContentEmitter emitter;
+	private ExecutionProfile executionProfile;
+	private EmitterProfile profile;
+	private CountOutputStream countStream;
+	private String outputFile;
+
+	public ProfileContentEmitter( IContentEmitter emitter,
+			ExecutionProfile executionProfile )
+	{
+		this.emitter = emitter;
+		this.executionProfile = executionProfile;
+	}
+
+	public String getOutputFormat( )
+	{
+		return emitter.getOutputFormat( );
+	}
+
+	public void initialize( IEmitterServices service ) throws BirtException
+	{
+		IRenderOption options = service.getRenderOption( );
+		if ( options != null )
+		{
+			Object file = options.getOption( IRenderOption.OUTPUT_FILE_NAME );
+			Object out = options.getOption( IRenderOption.OUTPUT_STREAM );
+			if ( file != null )
+			{
+				outputFile = file.toString( );
+			}
+			else if ( out instanceof OutputStream )
+			{
+				// count the bytes on a copy of the options, the options of the
+				// caller are not changed.
+				countStream = new CountOutputStream( (OutputStream) out );
+				IRenderOption countOptions = new RenderOption( new HashMap(
+						options.getOptions( ) ) );
+				countOptions.setOption( IRenderOption.OUTPUT_STREAM,
+						countStream );
+				service = new CountEmitterServices( service, countOptions );
+			}
+		}
+		long start = System.nanoTime( );
+		emitter.initialize( service );
+		profile = executionProfile.createEmitterProfile( emitter
+				.getOutputFormat( ) );
+		profile.addEmitTime( System.nanoTime( ) - start );
+	}
+
+	public void start( IReportContent report ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.start( report );
+		profile.addEmitTime( System.nanoTime( ) - start );
+	}
+
+	public void end( IReportContent report ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.end( report );
+		long time = System.nanoTime( ) - start;
+		profile.addEmitTime( time );
+		profile.addFlushTime( time );
+		if ( countStream != null )
+		{
+			profile.setBytesWritten( countStream.count );
+		}
+		else if ( outputFile != null )
+		{
+			File file = new File( outputFile );
+			if ( file.isFile( ) )
+			{
+				profile.setBytesWritten( file.length( ) );
+			}
+		}
+	}
+
+	public void startPage( IPageContent page ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startPage( page );
+		emitted( page, start );
+	}
+
+	public void endPage( IPageContent page ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endPage( page );
+		emitted( page, start );
+	}
+
+	public void startTable( ITableContent table ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startTable( table );
+		emitted( table, start );
+	}
+
+	public void endTable( ITableContent table ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endTable( table );
+		emitted( table, start );
+	}
+
+	public void startTableBand( ITableBandContent band ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startTableBand( band );
+		emitted( band, start );
+	}
+
+	public void endTableBand( ITableBandContent band ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endTableBand( band );
+		emitted( band, start );
+	}
+
+	public void startRow( IRowContent row ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startRow( row );
+		emitted( row, start );
+	}
+
+	public void endRow( IRowContent row ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endRow( row );
+		emitted( row, start );
+	}
+
+	public void startCell( ICellContent cell ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startCell( cell );
+		emitted( cell, start );
+	}
+
+	public void endCell( ICellContent cell ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endCell( cell );
+		emitted( cell, start );
+	}
+
+	public void startList( IListContent list ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startList( list );
+		emitted( list, start );
+	}
+
+	public void endList( IListContent list ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endList( list );
+		emitted( list, start );
+	}
+
+	public void startListBand( IListBandContent listBand ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startListBand( listBand );
+		emitted( listBand, start );
+	}
+
+	public void endListBand( IListBandContent listBand ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endListBand( listBand );
+		emitted( listBand, start );
+	}
+
+	public void startContainer( IContainerContent container ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startContainer( container );
+		emitted( container, start );
+	}
+
+	public void endContainer( IContainerContent container ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endContainer( container );
+		emitted( container, start );
+	}
+
+	public void startText( ITextContent text ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startText( text );
+		emitted( text, start );
+	}
+
+	public void startData( IDataContent data ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startData( data );
+		emitted( data, start );
+	}
+
+	public void startLabel( ILabelContent label ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startLabel( label );
+		emitted( label, start );
+	}
+
+	public void startAutoText( IAutoTextContent autoText ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startAutoText( autoText );
+		emitted( autoText, start );
+	}
+
+	public void startForeign( IForeignContent foreign ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startForeign( foreign );
+		emitted( foreign, start );
+	}
+
+	public void startImage( IImageContent image ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startImage( image );
+		emitted( image, start );
+	}
+
+	public void startContent( IContent content ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startContent( content );
+		emitted( content, start );
+	}
+
+	public void endContent( IContent content ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endContent( content );
+		emitted( content, start );
+	}
+
+	public void startGroup( IGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startGroup( group );
+		emitted( group, start );
+	}
+
+	public void endGroup( IGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endGroup( group );
+		emitted( group, start );
+	}
+
+	public void startTableGroup( ITableGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startTableGroup( group );
+		emitted( group, start );
+	}
+
+	public void endTableGroup( ITableGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endTableGroup( group );
+		emitted( group, start );
+	}
+
+	public void startListGroup( IListGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.startListGroup( group );
+		emitted( group, start );
+	}
+
+	public void endListGroup( IListGroupContent group ) throws BirtException
+	{
+		long start = System.nanoTime( );
+		emitter.endListGroup( group );
+		emitted( group, start );
+	}
+
+	private void emitted( IContent content, long start )
+	{
+		long time = System.nanoTime( ) - start;
+		profile.addEmitTime( time );
+		Object generateBy = content.getGenerateBy( );
+		if ( generateBy instanceof ReportElementDesign )
+		{
+			executionProfile.addItemEmit( (ReportElementDesign) generateBy,
+					time );
+		}
+	}
+
+	private static class CountOutputStream extends FilterOutputStream
+	{
+
+		long count;
+
+		CountOutputStream( OutputStream out )
+		{
+			super( out );
+		}
+
+		public void write( int b ) throws IOException
+		{
+			out.write( b );
+			count++;
+		}
+
+		public void write( byte[] b, int off, int len ) throws IOException
+		{
+			out.write( b, off, len );
+			count += len;
+		}
+	}
+
+	/**
+	 * the emitter services which use the copied render options.
+	 */
+	private static class CountEmitterServices implements IEmitterServices
+	{
+
+		private final IEmitterServices services;
+		private final IRenderOption options;
+
+		CountEmitterServices( IEmitterServices services, IRenderOption options )
+		{
+			this.services = services;
+			this.options = options;
+		}
+
+		public HashMap getEmitterConfig( )
+		{
+			return services.getEmitterConfig( );
+		}
+
+		public IRenderOption getRenderOption( )
+		{
+			return options;
+		}
+
+		public String getReportName( )
+		{
+			return services.getReportName( );
+		}
+
+		public Object getRenderContext( )
+		{
+			return services.getRenderContext( );
+		}
+
+		public IReportRunnable getReportRunnable( )
+		{
+			return services.getReportRunnable( );
+		}
+
+		public Object getOption( String name )
+		{
+			return options.getOption( name );
+		}
+
+		public IReportContext getReportContext( )
+		{
+			return services.getReportContext( );
+		}
+
+		public IReportEngine getReportEngine( )
+		{
+			return services.getReportEngine( );
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.emitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A writer which encodes the characters in UTF-8 into a reusable byte buffer
+ * and writes the buffer into the output stream when it is full.
+ * <p>
+ * Comparing with OutputStreamWriter, it doesn't lock and doesn't go through
+ * the charset encoder, the ASCII characters are copied directly. The
+ * malformed surrogates are replaced by '?' as OutputStreamWriter does.
+ * <p>
+ * The writer is not thread safe.
+ */
+class UTF8Writer extends Writer
+{
+
+	private static final int BUFFER_SIZE = 32 * 1024;
+
+	private final OutputStream out;
+
+	private final byte[] bytes = new byte[BUFFER_SIZE];
+
+	private int count;
+
+	/**
+	 * the high surrogate waiting for the low surrogate, 0 if there is none.
+	 */
+	private char highSurrogate;
+
+	UTF8Writer( OutputStream out )
+	{
+		this.out = out;
+	}
+
+	public void write( int c ) throws IOException
+	{
+		if ( count + 4 > BUFFER_SIZE )
+		{
+			flushBuffer( );
+		}
+		encode( (char) c );
+	}
+
+	public void write( char[] cbuf, int off, int len ) throws IOException
+	{
+		int end = off + len;
+		while ( off < end )
+		{
+			if ( count + 4 > BUFFER_SIZE )
+			{
+				flushBuffer( );
+			}
+			// each character takes at most 3 bytes, plus one byte for the
+			// pending high surrogate
+			int size = Math.min( end - off, ( BUFFER_SIZE - count - 1 ) / 3 );
+			int limit = off + size;
+			while ( off < limit )
+			{
+				char c = cbuf[off++];
+				if ( c < 0x80 && highSurrogate == 0 )
+				{
+					bytes[count++] = (byte) c;
+				}
+				else
+				{
+					encode( c );
+				}
+			}
+		}
+	}
+
+	public void write( String str, int off, int len ) throws IOException
+	{
+		int end = off + len;
+		while ( off < end )
+		{
+			if ( count + 4 > BUFFER_SIZE )
+			{
+				flushBuffer( );
+			}
+			int size = Math.min( end - off, ( BUFFER_SIZE - count - 1 ) / 3 );
+			int limit = off + size;
+			while ( off < limit )
+			{
+				char c = str.charAt( off++ );
+				if ( c < 0x80 && highSurrogate == 0 )
+				{
+					bytes[count++] = (byte) c;
+				}
+				else
+				{
+					encode( c );
+				}
+			}
+		}
+	}
+
+	public void flush( ) throws IOException
+	{
+		flushBuffer( );
+		out.flush( );
+	}
+
+	public void close( ) throws IOException
+	{
+		if ( highSurrogate != 0 )
+		{
+			highSurrogate = 0;
+			if ( count + 1 > BUFFER_SIZE )
+			{
+				flushBuffer( );
+			}
+			bytes[count++] = '?';
+		}
+		flushBuffer( );
+		out.close( );
+	}
+
+	private void flushBuffer( ) throws IOException
+	{
+		if ( count > 0 )
+		{
+			out.write( bytes, 0, count );
+			count = 0;
+		}
+	}
+
+	/**
+	 * encode the character into the buffer, the buffer must have 4 bytes
+	 * available.
+	 */
+	private void encode( char c )
+	{
+		if ( highSurrogate != 0 )
+		{
+			char high = highSurrogate;
+			highSurrogate = 0;
+			if ( Character.isLowSurrogate( c ) )
+			{
+				int cp = Character.toCodePoint( high, c );
+				bytes[count++] = (byte) ( 0xF0 | ( cp >> 18 ) );
+				bytes[count++] = (byte) ( 0x80 | ( ( cp >> 12 ) & 0x3F ) );
+				bytes[count++] = (byte) ( 0x80 | ( ( cp >> 6 ) & 0x3F ) );
+				bytes[count++] = (byte) ( 0x80 | ( cp & 0x3F ) );
+				return;
+			}
+			bytes[count++] = '?';
+		}
+		if ( c < 0x80 )
+		{
+			bytes[count++] = (byte) c;
+		}
+		else if ( c < 0x800 )
+		{
+			bytes[count++] = (byte) ( 0xC0 | ( c >> 6 ) );
+			bytes[count++] = (byte) ( 0x80 | ( c & 0x3F ) );
+		}
+		else if ( Character.isHighSurrogate( c ) )
+		{
+			highSurrogate = c;
+		}
+		else if ( Character.isLowSurrogate( c ) )
+		{
+			bytes[count++] = '?';
+		}
+		else
+		{
+			bytes[count++] = (byte) ( 0xE0 | ( c >> 12 ) );
+			bytes[count++] = (byte) ( 0x80 | ( ( c >> 6 ) & 0x3F ) );
+			bytes[count++] = (byte) ( 0x80 | ( c & 0x3F ) );
+		}
+	}
+}
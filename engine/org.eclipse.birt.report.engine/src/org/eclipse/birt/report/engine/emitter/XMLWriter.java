@@ -22,6 +22,10 @@ import java.util.logging.Logger;
 /**
  * Output the content following the XML specification. Only when the events of
  * endding the writer, the stream is flushed explictly.
+ * <p>
+ * The text and attribute values are escaped while they are copied into the
+ * buffer, so no string is created for the encoded value. The UTF-8 output is
+ * encoded by UTF8Writer, which writes large blocks into the stream.
  * 
  */
 public class XMLWriter
@@ -30,7 +34,7 @@ public class XMLWriter
 	/** logger */
 	protected static Logger log = Logger.getLogger( XMLWriter.class.getName( ) );
 
-	protected static final int MAX_BUFFER_SIZE = 1024;
+	protected static final int MAX_BUFFER_SIZE = 8192;
 	protected char[] buffer = new char[MAX_BUFFER_SIZE];
 	protected int bufferSize;
 
@@ -81,6 +85,12 @@ public class XMLWriter
 		assert ( outputStream != null );
 
 		this.encoding = encoding;
+		if ( "UTF-8".equalsIgnoreCase( encoding ) //$NON-NLS-1$
+				|| "UTF8".equalsIgnoreCase( encoding ) ) //$NON-NLS-1$
+		{
+			writer = new UTF8Writer( outputStream );
+			return;
+		}
 		try
 		{
 			writer = new OutputStreamWriter( outputStream, encoding );
@@ -220,7 +230,28 @@ public class XMLWriter
 			print( ' ' );
 			print( attrName );
 			print( "=\"" ); //$NON-NLS-1$
-			print( encodeAttr( attrValue ) );
+			printEncoded( attrValue, true );
+			print( '\"' );
+		}
+	}
+
+	/**
+	 * Output the attribute whose value is not null, the value is copied from
+	 * the buffer without creating a string.
+	 * 
+	 * @param attrName
+	 *            attribute name
+	 * @param attrValue
+	 *            attribute value
+	 */
+	public void attribute( String attrName, CharSequence attrValue )
+	{
+		if ( attrValue != null && attrValue.length( ) > 0 )
+		{
+			print( ' ' );
+			print( attrName );
+			print( "=\"" ); //$NON-NLS-1$
+			printEncoded( attrValue, true );
 			print( '\"' );
 		}
 	}
@@ -240,7 +271,7 @@ public class XMLWriter
 			print( ' ' );
 			print( attrName );
 			print( "=\"" ); //$NON-NLS-1$
-			print( encodeAttr( attrValue ) );
+			printEncoded( attrValue, true );
 			print( '\"' );
 		}
 	}
@@ -271,7 +302,7 @@ public class XMLWriter
 	 */
 	public void attribute( String attrName, float attrValue )
 	{
-		print( ' ' + attrName + "=\"" + Float.toString( attrValue ) + '\"' ); //$NON-NLS-1$ 
+		attribute( attrName, Float.toString( attrValue ) );
 	}
 
 	/**
@@ -284,7 +315,7 @@ public class XMLWriter
 	 */
 	public void attribute( String attrName, double attrValue )
 	{
-		print( ' ' + attrName + "=\"" + Double.toString( attrValue ) + '\"' ); //$NON-NLS-1$
+		attribute( attrName, Double.toString( attrValue ) );
 	}
 
 	/**
@@ -297,8 +328,7 @@ public class XMLWriter
 	 */
 	public void attribute( String attrName, int attrValue )
 	{
-		print( ' ' + attrName + "=\"" //$NON-NLS-1$
-				+ Integer.toString( attrValue ) + '\"' ); //$NON-NLS-1$
+		attribute( attrName, Integer.toString( attrValue ) );
 	}
 
 	/**
@@ -322,11 +352,22 @@ public class XMLWriter
 			bPairedFlag = true;
 		}
 
-		String stringToPrint = encodeText( value );
-		print( stringToPrint );
+		printText( value );
 		bText = true;
 	}
 
+	/**
+	 * print the text, the special characters are escaped while the text is
+	 * copied into the buffer.
+	 * 
+	 * @param value
+	 *            the text
+	 */
+	protected void printText( String value )
+	{
+		printEncoded( value, false );
+	}
+
 	public void cdata( String value )
 	{
 		if ( !bPairedFlag )
@@ -501,6 +542,95 @@ public class XMLWriter
 		}
 	}
 
+	/**
+	 * copy the value into the buffer with the special characters escaped, the
+	 * same as XMLEncodeUtil.encodeAttr or XMLEncodeUtil.encodeText.
+	 * 
+	 * @param value
+	 *            the value to be printed.
+	 * @param attr
+	 *            the value is an attribute value or a text.
+	 */
+	protected void printEncoded( CharSequence value, boolean attr )
+	{
+		int length = value.length( );
+		for ( int index = 0; index < length; index++ )
+		{
+			// the longest escape is 5 characters
+			if ( bufferSize + 5 >= MAX_BUFFER_SIZE )
+			{
+				flush( );
+			}
+			char c = value.charAt( index );
+			if ( c >= 0x20 && c < 0xD800 )
+			{
+				if ( c == '&' )
+				{
+					bufferSize = copy( AMP, buffer, bufferSize );
+				}
+				else if ( c == '<' )
+				{
+					bufferSize = copy( LT, buffer, bufferSize );
+				}
+				else if ( c == '"' && attr )
+				{
+					bufferSize = copy( QUOT, buffer, bufferSize );
+				}
+				else
+				{
+					buffer[bufferSize++] = c;
+				}
+			}
+			else if ( c == '\t' || c == '\n' || c == '\r' )
+			{
+				if ( !attr )
+				{
+					buffer[bufferSize++] = c;
+				}
+				else if ( c == '\t' )
+				{
+					bufferSize = copy( TAB, buffer, bufferSize );
+				}
+				else if ( c == '\n' )
+				{
+					bufferSize = copy( LF, buffer, bufferSize );
+				}
+				else
+				{
+					bufferSize = copy( CR, buffer, bufferSize );
+				}
+			}
+			else if ( Character.isHighSurrogate( c ) && index + 1 < length
+					&& Character.isLowSurrogate( value.charAt( index + 1 ) ) )
+			{
+				buffer[bufferSize++] = c;
+				buffer[bufferSize++] = value.charAt( ++index );
+			}
+			else if ( XMLEncodeUtil.isValidCodePoint( c ) )
+			{
+				buffer[bufferSize++] = c;
+			}
+			else
+			{
+				log.log( Level.WARNING, "Invalid XML character:0x{0}", //$NON-NLS-1$
+						Integer.valueOf( c ) );
+			}
+		}
+	}
+
+	private static final char[] AMP = "&amp;".toCharArray( ); //$NON-NLS-1$
+	private static final char[] LT = "&lt;".toCharArray( ); //$NON-NLS-1$
+	private static final char[] QUOT = "&#34;".toCharArray( ); //$NON-NLS-1$
+	private static final char[] TAB = "&#9;".toCharArray( ); //$NON-NLS-1$
+	private static final char[] LF = "&#10;".toCharArray( ); //$NON-NLS-1$
+	private static final char[] CR = "&#13;".toCharArray( ); //$NON-NLS-1$
+
+	private static int copy( char[] src, char[] dest, int offset )
+	{
+		System.arraycopy( src, 0, dest, offset, src.length );
+		return offset + src.length;
+	}
+
 	public void println( )
 	{
 		if ( !enableCompactMode )
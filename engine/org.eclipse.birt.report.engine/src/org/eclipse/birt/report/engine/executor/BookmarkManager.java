@@ -10,12 +10,6 @@
  *******************************************************************************/
 package org.eclipse.birt.report.engine.executor;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInput;
-import java.io.DataInputStream;
-import java.io.DataOutput;
-import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -27,6 +21,7 @@ import java.util.Map.Entry;
 import java.util.UUID;
 
 import org.eclipse.birt.core.btree.BTree;
+import org.eclipse.birt.core.btree.BTreeBuilder;
 import org.eclipse.birt.core.btree.BTreeOption;
 import org.eclipse.birt.core.btree.BTreeSerializer;
 import org.eclipse.birt.core.btree.BTreeUtils;
@@ -84,23 +79,22 @@ public class BookmarkManager
 		return "_recreated__bookmark__" + ( ++sequenceID );
 	}
 
+	/**
+	 * the bytes of the key have no length, so the keys of the similar
+	 * bookmarks share the prefix in the front coded btree node.
+	 */
 	static private class StringSerializer implements BTreeSerializer<String>
 	{
 
 		public byte[] getBytes( String object ) throws IOException
 		{
-			ByteArrayOutputStream out = new ByteArrayOutputStream( 1024 );
-			DataOutput oo = new DataOutputStream( out );
-			oo.writeUTF( object );
-			return out.toByteArray( );
+			return object.getBytes( "UTF-8" ); //$NON-NLS-1$
 		}
 
 		public String getObject( byte[] bytes ) throws IOException,
 				ClassNotFoundException
 		{
-			DataInput input = new DataInputStream( new ByteArrayInputStream(
-					bytes ) );
-			return input.readUTF( );
+			return new String( bytes, "UTF-8" ); //$NON-NLS-1$
 		}
 	}
 
@@ -195,10 +189,14 @@ public class BookmarkManager
 						}
 					} );
 
+			// the btree is empty, so the sorted bookmarks are loaded into
+			// full nodes without splitting them
+			BTreeBuilder<String, Integer> builder = btree.createBuilder( );
 			for ( Map.Entry<String, Integer> entry : entries )
 			{
-				btree.insert( entry.getKey( ), VALUE );
+				builder.add( entry.getKey( ), VALUE );
 			}
+			builder.finish( );
 		}
 
 		protected BTree<String, Integer> createBtree( ) throws IOException
@@ -211,6 +209,7 @@ public class BookmarkManager
 			option.setKeySerializer( new StringSerializer( ) );
 			option.setValueSerializer( new IntegerSerializer( ) );
 			option.setValueSize( 4 );
+			option.setPrefixCompression( true );
 			option.setFile( file );
 			return new BTree<String, Integer>( option );
 		}
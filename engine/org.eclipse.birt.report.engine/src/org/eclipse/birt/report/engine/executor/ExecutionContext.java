@@ -30,6 +30,7 @@ import java.util.logging.Logger;
 
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.format.DateFormatter;
+import org.eclipse.birt.core.format.FormatterCache;
 import org.eclipse.birt.core.format.NumberFormatter;
 import org.eclipse.birt.core.format.StringFormatter;
 import org.eclipse.birt.core.script.BirtHashMap;
@@ -310,6 +311,11 @@ public class ExecutionContext
 
 	private IProgressMonitor progressMonitor;
 
+	/**
+	 * the execution profile, null if the profile is not enabled.
+	 */
+	private ExecutionProfile executionProfile;
+
 	private boolean needOutputResultSet;
 
 	private boolean isFixedLayout = false;
@@ -555,6 +561,7 @@ public class ExecutionContext
 		pageBreakListeners = null;
 		eventHandlerManager = null;
 		progressMonitor = null;
+		executionProfile = null;
 		element = null;
 	}
 
@@ -786,6 +793,18 @@ public class ExecutionContext
 	private Object evaluate( ICompiledScript compiledScript )
 			throws BirtException
 	{
+		if ( executionProfile != null )
+		{
+			long start = System.nanoTime( );
+			try
+			{
+				return getScriptContext( ).evaluate( compiledScript );
+			}
+			finally
+			{
+				executionProfile.addScript( System.nanoTime( ) - start );
+			}
+		}
 		return getScriptContext( ).evaluate( compiledScript );
 	}
 
@@ -808,6 +827,7 @@ public class ExecutionContext
 		ScriptContext scriptContext = getScriptContext( );
 		if ( testExpr == null )
 			return Boolean.FALSE;
+		long start = executionProfile != null ? System.nanoTime( ) : 0;
 		try
 		{
 			return ScriptEvalUtil.evalExpr( expr, scriptContext,
@@ -819,6 +839,13 @@ public class ExecutionContext
 					MessageConstants.INVALID_EXPRESSION_ERROR, testExpr
 							.getText( ), e );
 		}
+		finally
+		{
+			if ( executionProfile != null )
+			{
+				executionProfile.addScript( System.nanoTime( ) - start );
+			}
+		}
 	}
 
 	/**
@@ -834,6 +861,7 @@ public class ExecutionContext
 	 */
 	public void execute( ICompiledScript script )
 	{
+		long start = executionProfile != null ? System.nanoTime( ) : 0;
 		try
 		{
 			scriptContext.evaluate( script );
@@ -842,6 +870,10 @@ public class ExecutionContext
 		{
 			addException( this.design, ex );
 		}
+		if ( executionProfile != null )
+		{
+			executionProfile.addScript( System.nanoTime( ) - start );
+		}
 	}
 
 	/**
@@ -1701,7 +1733,7 @@ public class ExecutionContext
 		if ( fmt == null )
 		{
 			ULocale loc = determineLocale( locale );
-			fmt = new StringFormatter( pattern, loc );
+			fmt = FormatterCache.getStringFormatter( pattern, loc );
 			stringFormatters.put( key, fmt );
 		}
 		return fmt;
@@ -1726,7 +1758,7 @@ public class ExecutionContext
 		if ( fmt == null )
 		{
 			ULocale loc = determineLocale( locale );
-			fmt = new NumberFormatter( pattern, loc );
+			fmt = FormatterCache.getNumberFormatter( pattern, loc );
 			numberFormatters.put( key, fmt );
 		}
 		return fmt;
@@ -1751,7 +1783,7 @@ public class ExecutionContext
 		if ( fmt == null )
 		{
 			ULocale loc = determineLocale( locale );
-			fmt = new DateFormatter( pattern, loc, timeZone );
+			fmt = FormatterCache.getDateFormatter( pattern, loc, timeZone );
 			dateFormatters.put( key, fmt );
 		}
 
@@ -2333,6 +2365,20 @@ public class ExecutionContext
 		return progressMonitor;
 	}
 
+	public void setExecutionProfile( ExecutionProfile profile )
+	{
+		executionProfile = profile;
+	}
+
+	/**
+	 * @return the execution profile of the task, null if the profile is not
+	 *         enabled.
+	 */
+	public ExecutionProfile getExecutionProfile( )
+	{
+		return executionProfile;
+	}
+
 	public boolean needOutputResultSet( )
 	{
 		return needOutputResultSet;
@@ -2470,6 +2516,35 @@ public class ExecutionContext
 		}
 		return false;
 	}
+
+	// statistics of the content cache of the document readers
+	private long contentCacheHitCount;
+	private long contentCacheMissCount;
+
+	/**
+	 * add the statistics of a closed content reader.
+	 * 
+	 * @param hitCount
+	 *            the contents loaded from the cache
+	 * @param missCount
+	 *            the contents loaded from the report document
+	 */
+	public synchronized void addContentCacheStatistics( long hitCount,
+			long missCount )
+	{
+		contentCacheHitCount += hitCount;
+		contentCacheMissCount += missCount;
+	}
+
+	public synchronized long getContentCacheHitCount( )
+	{
+		return contentCacheHitCount;
+	}
+
+	public synchronized long getContentCacheMissCount( )
+	{
+		return contentCacheMissCount;
+	}
 	
 	
 }
\ No newline at end of file
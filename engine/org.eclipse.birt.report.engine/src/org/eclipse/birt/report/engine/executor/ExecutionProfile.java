@@ -0,0 +1,380 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.executor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+import org.eclipse.birt.data.engine.api.IDataQueryDefinition;
+import org.eclipse.birt.data.engine.api.IQueryDefinition;
+import org.eclipse.birt.report.engine.api.IEmitterProfile;
+import org.eclipse.birt.report.engine.api.IExecutionProfile;
+import org.eclipse.birt.report.engine.api.IQueryProfile;
+import org.eclipse.birt.report.engine.api.IReportItemProfile;
+import org.eclipse.birt.report.engine.ir.ReportElementDesign;
+import org.eclipse.birt.report.model.api.DesignElementHandle;
+
+/**
+ * Collects the execution profile of an engine task. The profile is created by
+ * the task if it is enabled, and is updated by the executors, the data engine
+ * and the emitters through the execution context. The query and report item
+ * profiles are keyed by the identity of the query definition and the report
+ * item design.
+ */
+public class ExecutionProfile implements IExecutionProfile
+{
+
+	private IdentityHashMap<IDataQueryDefinition, QueryProfile> queries = new IdentityHashMap<IDataQueryDefinition, QueryProfile>( );
+	private List<IQueryProfile> queryList = new ArrayList<IQueryProfile>( );
+
+	private IdentityHashMap<ReportElementDesign, ReportItemProfile> items = new IdentityHashMap<ReportElementDesign, ReportItemProfile>( );
+	private List<IReportItemProfile> itemList = new ArrayList<IReportItemProfile>( );
+
+	private List<IEmitterProfile> emitterList = new ArrayList<IEmitterProfile>( );
+
+	private long scriptCount;
+	private long scriptTime;
+	private long cacheHits;
+	private long cacheMisses;
+
+	public List<IQueryProfile> getQueryProfiles( )
+	{
+		return Collections.unmodifiableList( queryList );
+	}
+
+	public List<IReportItemProfile> getReportItemProfiles( )
+	{
+		return Collections.unmodifiableList( itemList );
+	}
+
+	public List<IEmitterProfile> getEmitterProfiles( )
+	{
+		return Collections.unmodifiableList( emitterList );
+	}
+
+	public long getScriptCount( )
+	{
+		return scriptCount;
+	}
+
+	public long getScriptTime( )
+	{
+		return scriptTime;
+	}
+
+	public long getQueryCacheHits( )
+	{
+		return cacheHits;
+	}
+
+	public long getQueryCacheMisses( )
+	{
+		return cacheMisses;
+	}
+
+	public void addQueryPrepare( IDataQueryDefinition query, long time )
+	{
+		getQueryProfile( query ).prepareTime += time;
+	}
+
+	/**
+	 * @param owner
+	 *            the handle of the report item which executes the query, may
+	 *            be null.
+	 */
+	public void addQueryExecute( IDataQueryDefinition query, Object owner,
+			long time )
+	{
+		QueryProfile profile = getQueryProfile( query );
+		if ( profile.elementId == -1 && owner instanceof DesignElementHandle )
+		{
+			profile.elementId = ( (DesignElementHandle) owner ).getID( );
+		}
+		profile.executeCount++;
+		profile.executeTime += time;
+	}
+
+	/**
+	 * @param fetched
+	 *            if a row has been fetched.
+	 */
+	public void addQueryFetch( IDataQueryDefinition query, long time,
+			boolean fetched )
+	{
+		QueryProfile profile = getQueryProfile( query );
+		profile.fetchTime += time;
+		if ( fetched )
+		{
+			profile.rowCount++;
+		}
+	}
+
+	public void addQueryCache( boolean hit )
+	{
+		if ( hit )
+		{
+			cacheHits++;
+		}
+		else
+		{
+			cacheMisses++;
+		}
+	}
+
+	public void addScript( long time )
+	{
+		scriptCount++;
+		scriptTime += time;
+	}
+
+	public void addItemExecute( ReportElementDesign design, long time )
+	{
+		ReportItemProfile profile = getItemProfile( design );
+		profile.executeCount++;
+		profile.executeTime += time;
+	}
+
+	public void addItemEmit( ReportElementDesign design, long time )
+	{
+		getItemProfile( design ).emitTime += time;
+	}
+
+	/**
+	 * creates the profile of an emitter. The profile is updated by the
+	 * emitter wrapper directly.
+	 */
+	public EmitterProfile createEmitterProfile( String format )
+	{
+		EmitterProfile profile = new EmitterProfile( format );
+		emitterList.add( profile );
+		return profile;
+	}
+
+	private QueryProfile getQueryProfile( IDataQueryDefinition query )
+	{
+		QueryProfile profile = queries.get( query );
+		if ( profile == null )
+		{
+			String name = query.getName( );
+			if ( name == null && query instanceof IQueryDefinition )
+			{
+				name = ( (IQueryDefinition) query ).getDataSetName( );
+			}
+			profile = new QueryProfile( name );
+			queries.put( query, profile );
+			queryList.add( profile );
+		}
+		return profile;
+	}
+
+	private ReportItemProfile getItemProfile( ReportElementDesign design )
+	{
+		ReportItemProfile profile = items.get( design );
+		if ( profile == null )
+		{
+			profile = new ReportItemProfile( design.getID( ), design
+					.getName( ) );
+			items.put( design, profile );
+			itemList.add( profile );
+		}
+		return profile;
+	}
+
+	/**
+	 * output the profile as text, one line for each query, report item and
+	 * emitter.
+	 */
+	public String toString( )
+	{
+		StringBuilder buffer = new StringBuilder( );
+		buffer.append( "scripts count=" ).append( scriptCount ) //$NON-NLS-1$
+				.append( " time=" ).append( scriptTime ) //$NON-NLS-1$
+				.append( " cacheHits=" ).append( cacheHits ) //$NON-NLS-1$
+				.append( " cacheMisses=" ).append( cacheMisses ) //$NON-NLS-1$
+				.append( '\n' );
+		for ( IQueryProfile query : queryList )
+		{
+			buffer.append( "query name=" ).append( query.getName( ) ) //$NON-NLS-1$
+					.append( " element=" ).append( query.getElementId( ) ) //$NON-NLS-1$
+					.append( " prepare=" ).append( query.getPrepareTime( ) ) //$NON-NLS-1$
+					.append( " executeCount=" ) //$NON-NLS-1$
+					.append( query.getExecuteCount( ) )
+					.append( " execute=" ).append( query.getExecuteTime( ) ) //$NON-NLS-1$
+					.append( " fetch=" ).append( query.getFetchTime( ) ) //$NON-NLS-1$
+					.append( " rows=" ).append( query.getRowCount( ) ) //$NON-NLS-1$
+					.append( '\n' );
+		}
+		for ( IReportItemProfile item : itemList )
+		{
+			buffer.append( "item id=" ).append( item.getElementId( ) ) //$NON-NLS-1$
+					.append( " name=" ).append( item.getName( ) ) //$NON-NLS-1$
+					.append( " executeCount=" ) //$NON-NLS-1$
+					.append( item.getExecuteCount( ) )
+					.append( " execute=" ).append( item.getExecuteTime( ) ) //$NON-NLS-1$
+					.append( " emit=" ).append( item.getEmitTime( ) ) //$NON-NLS-1$
+					.append( '\n' );
+		}
+		for ( IEmitterProfile emitter : emitterList )
+		{
+			buffer.append( "emitter format=" ).append( emitter.getFormat( ) ) //$NON-NLS-1$
+					.append( " emit=" ).append( emitter.getEmitTime( ) ) //$NON-NLS-1$
+					.append( " flush=" ).append( emitter.getFlushTime( ) ) //$NON-NLS-1$
+					.append( " bytes=" ).append( emitter.getBytesWritten( ) ) //$NON-NLS-1$
+					.append( '\n' );
+		}
+		return buffer.toString( );
+	}
+
+	private static class QueryProfile implements IQueryProfile
+	{
+
+		String name;
+		long elementId = -1;
+		long prepareTime;
+		int executeCount;
+		long executeTime;
+		long fetchTime;
+		long rowCount;
+
+		QueryProfile( String name )
+		{
+			this.name = name;
+		}
+
+		public String getName( )
+		{
+			return name;
+		}
+
+		public long getElementId( )
+		{
+			return elementId;
+		}
+
+		public long getPrepareTime( )
+		{
+			return prepareTime;
+		}
+
+		public int getExecuteCount( )
+		{
+			return executeCount;
+		}
+
+		public long getExecuteTime( )
+		{
+			return executeTime;
+		}
+
+		public long getFetchTime( )
+		{
+			return fetchTime;
+		}
+
+		public long getRowCount( )
+		{
+			return rowCount;
+		}
+	}
+
+	private static class ReportItemProfile implements IReportItemProfile
+	{
+
+		long elementId;
+		String name;
+		int executeCount;
+		long executeTime;
+		long emitTime;
+
+		ReportItemProfile( long elementId, String name )
+		{
+			this.elementId = elementId;
+			this.name = name;
+		}
+
+		public long getElementId( )
+		{
+			return elementId;
+		}
+
+		public String getName( )
+		{
+			return name;
+		}
+
+		public int getExecuteCount( )
+		{
+			return executeCount;
+		}
+
+		public long getExecuteTime( )
+		{
+			return executeTime;
+		}
+
+		public long getEmitTime( )
+		{
+			return emitTime;
+		}
+	}
+
+	public static class EmitterProfile implements IEmitterProfile
+	{
+
+		private String format;
+		private long emitTime;
+		private long flushTime;
+		private long bytesWritten = -1;
+
+		EmitterProfile( String format )
+		{
+			this.format = format;
+		}
+
+		public String getFormat( )
+		{
+			return format;
+		}
+
+		public long getEmitTime( )
+		{
+			return emitTime;
+		}
+
+		public long getFlushTime( )
+		{
+			return flushTime;
+		}
+
+		public long getBytesWritten( )
+		{
+			return bytesWritten;
+		}
+
+		public void addEmitTime( long time )
+		{
+			emitTime += time;
+		}
+
+		public void addFlushTime( long time )
+		{
+			flushTime += time;
+		}
+
+		public void setBytesWritten( long bytes )
+		{
+			bytesWritten = bytes;
+		}
+	}
+}
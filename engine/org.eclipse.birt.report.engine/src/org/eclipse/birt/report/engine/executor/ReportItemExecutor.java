@@ -145,6 +145,11 @@ public abstract class ReportItemExecutor implements IReportItemExecutor
 	 */
 	protected IBaseResultSet[] parentRsets;
 
+	/**
+	 * the time the executor is created, used by the execution profile.
+	 */
+	private long startTime;
+
 	/**
 	 * construct a report item executor by giving execution context and report
 	 * executor visitor
@@ -180,6 +185,10 @@ public abstract class ReportItemExecutor implements IReportItemExecutor
 
 	public void setModelObject( Object handle )
 	{
+		if ( context.getExecutionProfile( ) != null )
+		{
+			startTime = System.nanoTime( );
+		}
 		this.handle = handle;
 		if ( handle instanceof ReportItemDesign )
 		{
@@ -239,6 +248,16 @@ public abstract class ReportItemExecutor implements IReportItemExecutor
 	 */
 	public void close( ) throws BirtException
 	{
+		if ( startTime != 0 )
+		{
+			ExecutionProfile profile = context.getExecutionProfile( );
+			if ( profile != null && design != null )
+			{
+				profile.addItemExecute( design, System.nanoTime( )
+						- startTime );
+			}
+			startTime = 0;
+		}
 		this.executorContext = null;
 		this.parent = null;
 		this.handle = null;
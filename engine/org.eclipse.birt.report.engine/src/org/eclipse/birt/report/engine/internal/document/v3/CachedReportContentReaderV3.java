@@ -13,101 +13,304 @@ package org.eclipse.birt.report.engine.internal.document.v3;
 
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.report.engine.api.EngineConstants;
 import org.eclipse.birt.report.engine.content.IContent;
 import org.eclipse.birt.report.engine.content.impl.ReportContent;
 import org.eclipse.birt.report.engine.executor.ExecutionContext;
 import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
 
+/**
+ * Content reader which caches the loaded contents.
+ *
+ * The contents loaded by loadContent are kept until unloadContent is called.
+ * The other contents, such as the parents loaded implicitly and the contents
+ * loaded by prefetch, are kept in a LRU cache whose size is limited by the
+ * total bytes of the contents in the stream.
+ */
 public class CachedReportContentReaderV3
 {
+
+	/**
+	 * default size of the LRU cache, in bytes.
+	 */
+	public static final long DEFAULT_CACHE_SIZE = 4 * 1024 * 1024;
+
 	protected ReportContentReaderV3 reader;
+
+	protected ExecutionContext context;
+
+	/**
+	 * the max bytes of the contents in the LRU cache.
+	 */
+	protected long maxCacheSize;
+
+	/**
+	 * the bytes of the contents in the LRU cache.
+	 */
+	protected long cacheSize;
+
+	protected long hitCount;
+	protected long missCount;
+
 	public CachedReportContentReaderV3( ReportContent reportContent,
 			RAInputStream stream, ExecutionContext context )
 			throws IOException
 	{
-		this.reader = new ReportContentReaderV3( reportContent, stream, context
-				.getApplicationClassLoader( ) );
+		this( reportContent, stream, context.getApplicationClassLoader( ),
+				getCacheSize( context ) );
+		this.context = context;
 	}
-	
+
+	/**
+	 * @param cacheSize
+	 *            the max bytes of the contents in the LRU cache.
+	 */
+	public CachedReportContentReaderV3( ReportContent reportContent,
+			RAInputStream stream, ClassLoader loader, long cacheSize )
+			throws IOException
+	{
+		this.reader = new ReportContentReaderV3( reportContent, stream, loader );
+		this.maxCacheSize = cacheSize;
+	}
+
 	public boolean isEmpty()
 	{
 		return reader.isEmpty();
 	}
-	
+
 	public void close()
 	{
 		if (reader != null)
 		{
 			reader.close( );
 			caches.clear( );
+			lruCaches.clear( );
+			cacheSize = 0;
 			reader = null;
+			if ( context != null )
+			{
+				context.addContentCacheStatistics( hitCount, missCount );
+			}
 		}
 	}
-	
+
+	/**
+	 * @return how many times the content or a parent is loaded from the
+	 *         cache.
+	 */
+	public long getHitCount( )
+	{
+		return hitCount;
+	}
+
+	/**
+	 * @return how many times the content or a parent is loaded from the
+	 *         stream.
+	 */
+	public long getMissCount( )
+	{
+		return missCount;
+	}
+
+	private static long getCacheSize( ExecutionContext context )
+	{
+		Map appContext = context.getAppContext( );
+		if ( appContext != null )
+		{
+			Object value = appContext
+					.get( EngineConstants.APPCONTEXT_CONTENT_CACHE_SIZE );
+			if ( value instanceof Number )
+			{
+				return ( (Number) value ).longValue( );
+			}
+			if ( value instanceof String )
+			{
+				try
+				{
+					return Long.parseLong( (String) value );
+				}
+				catch ( NumberFormatException ex )
+				{
+				}
+			}
+		}
+		return DEFAULT_CACHE_SIZE;
+	}
+
 	protected static class CacheEntry
 	{
 		long offset;
 		IContent content;
-		public CacheEntry(long offset, IContent content)
+		int size;
+		public CacheEntry(long offset, IContent content, int size)
 		{
 			this.offset = offset;
 			this.content = content;
+			this.size = size;
 		}
 	}
-	
-	protected HashMap caches = new HashMap();
 
-	protected void addCache(long offset, IContent content)
+	/**
+	 * contents loaded by loadContent.
+	 */
+	protected HashMap<Long, CacheEntry> caches = new HashMap<Long, CacheEntry>( );
+
+	/**
+	 * contents which is not loaded by loadContent, in access order.
+	 */
+	protected LinkedHashMap<Long, CacheEntry> lruCaches = new LinkedHashMap<Long, CacheEntry>(
+			16, 0.75f, true );
+
+	protected void addCache( CacheEntry entry )
 	{
-		caches.put(new Long(offset), new CacheEntry(offset, content));
+		caches.put( Long.valueOf( entry.offset ), entry );
 	}
-	
+
 	protected void removeCache(long offset)
 	{
-		final Long hashKey = new Long (offset);
-		caches.remove( hashKey );
-		return;
+		caches.remove( Long.valueOf( offset ) );
+	}
+
+	protected void addLRUCache( CacheEntry entry )
+	{
+		lruCaches.put( Long.valueOf( entry.offset ), entry );
+		cacheSize += entry.size;
+		Iterator<CacheEntry> iter = lruCaches.values( ).iterator( );
+		while ( cacheSize > maxCacheSize && iter.hasNext( ) )
+		{
+			CacheEntry eldest = iter.next( );
+			iter.remove( );
+			cacheSize -= eldest.size;
+		}
+	}
+
+	protected CacheEntry removeLRUCache( long offset )
+	{
+		CacheEntry entry = lruCaches.remove( Long.valueOf( offset ) );
+		if ( entry != null )
+		{
+			cacheSize -= entry.size;
+		}
+		return entry;
 	}
 
 	protected IContent findCache(long offset)
 	{
-		final Long hashKey = new Long (offset);
-		final CacheEntry cache = (CacheEntry)caches.get( hashKey );
+		final CacheEntry cache = caches.get( Long.valueOf( offset ) );
 		if ( cache != null )
 			return cache.content;
 		return null;
 	}
-	
+
 	public void unloadContent(long offset)
 	{
 		removeCache( offset );
 	}
-	
+
 	public IContent loadContent( long offset ) throws IOException
 	{
 		IContent content = findCache( offset );
 		if ( content != null )
 		{
+			hitCount++;
 			return content;
 		}
+		CacheEntry entry = removeLRUCache( offset );
+		if ( entry != null )
+		{
+			hitCount++;
+		}
+		else
+		{
+			missCount++;
+			entry = readContent( offset );
+		}
+		addCache( entry );
+		return entry.content;
+	}
 
-		// try to load the content from the stream
+	/**
+	 * get the parent of the content, the parent is not kept after the
+	 * content is unloaded.
+	 */
+	protected IContent loadParent( long offset ) throws IOException
+	{
+		IContent content = findCache( offset );
+		if ( content != null )
+		{
+			hitCount++;
+			return content;
+		}
+		CacheEntry entry = lruCaches.get( Long.valueOf( offset ) );
+		if ( entry != null )
+		{
+			hitCount++;
+		}
+		else
+		{
+			missCount++;
+			entry = readContent( offset );
+			addLRUCache( entry );
+		}
+		return entry.content;
+	}
 
-		content = reader.readContent( offset );
+	protected CacheEntry readContent( long offset ) throws IOException
+	{
+		IContent content = reader.readContent( offset );
+		int size = reader.getContentSize( );
 		DocumentExtension docExt = (DocumentExtension) content
 				.getExtension( IContent.DOCUMENT_EXTENSION );
 		long pOffset = docExt.getParent( );
 		if ( pOffset != -1 )
 		{
-			IContent parent = loadContent( pOffset );
+			IContent parent = loadParent( pOffset );
 			content.setParent( parent );
 		}
-		addCache( offset, content );
-		return content;
+		return new CacheEntry( offset, content, size );
+	}
+
+	/**
+	 * load the contents from the offset in pre-depth order into the cache,
+	 * so the following loadContent needn't access the stream. The contents
+	 * are loaded until the end offset or the half of the cache is used.
+	 *
+	 * @param offset
+	 *            offset of the first content.
+	 * @param endOffset
+	 *            offset of the last content, -1 means no limit.
+	 */
+	public void prefetch( long offset, long endOffset ) throws IOException
+	{
+		long size = 0;
+		while ( offset != -1 && size < maxCacheSize / 2 )
+		{
+			if ( endOffset != -1 && offset > endOffset )
+			{
+				break;
+			}
+			CacheEntry entry = caches.get( Long.valueOf( offset ) );
+			if ( entry == null )
+			{
+				entry = lruCaches.get( Long.valueOf( offset ) );
+				if ( entry == null )
+				{
+					entry = readContent( offset );
+					addLRUCache( entry );
+				}
+			}
+			size += entry.size;
+			DocumentExtension docExt = (DocumentExtension) entry.content
+					.getExtension( IContent.DOCUMENT_EXTENSION );
+			offset = reader.getNextOffset( docExt );
+		}
 	}
-	
+
 	public long getRootOffset()
 	{
 		return reader.getRoot( );
@@ -117,4 +320,4 @@ public class CachedReportContentReaderV3
 	{
 		return reader.getOffset( );
 	}
-}
\ No newline at end of file
+}
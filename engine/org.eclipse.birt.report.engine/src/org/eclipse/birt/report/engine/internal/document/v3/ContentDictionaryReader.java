@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v3;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+import org.eclipse.birt.core.archive.RAInputStream;
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.content.IStyle;
+import org.eclipse.birt.report.engine.content.impl.IContentDictionaryReader;
+import org.eclipse.birt.report.engine.css.dom.StyleDeclaration;
+import org.eclipse.birt.report.engine.css.engine.CSSEngine;
+
+/**
+ * The dictionary used by the content reader. The entries are loaded from the
+ * content stream on demand, see ContentDictionaryWriter for the format.
+ */
+class ContentDictionaryReader implements IContentDictionaryReader
+{
+
+	static final int MAX_CACHED_ENTRIES = 4096;
+
+	protected RAInputStream stream;
+
+	/**
+	 * loaded entries, the key is the entry offset, the value is the style
+	 * bytes or the string.
+	 */
+	protected HashMap<Long, Object> entries = new HashMap<Long, Object>( );
+
+	ContentDictionaryReader( RAInputStream stream )
+	{
+		this.stream = stream;
+	}
+
+	public IStyle getStyle( long id, CSSEngine engine ) throws IOException
+	{
+		Long key = Long.valueOf( id );
+		byte[] value = (byte[]) entries.get( key );
+		if ( value == null )
+		{
+			value = readEntry( id );
+			cacheEntry( key, value );
+		}
+		StyleDeclaration style = new StyleDeclaration( engine );
+		style.read( new DataInputStream( new ByteArrayInputStream( value ) ) );
+		if ( style.isEmpty( ) )
+		{
+			return null;
+		}
+		return style;
+	}
+
+	public String getString( long id ) throws IOException
+	{
+		Long key = Long.valueOf( id );
+		String value = (String) entries.get( key );
+		if ( value == null )
+		{
+			byte[] bytes = readEntry( id );
+			value = IOUtil.readString( new DataInputStream(
+					new ByteArrayInputStream( bytes ) ) );
+			cacheEntry( key, value );
+		}
+		return value;
+	}
+
+	private void cacheEntry( Long key, Object value )
+	{
+		if ( entries.size( ) >= MAX_CACHED_ENTRIES )
+		{
+			entries.clear( );
+		}
+		entries.put( key, value );
+	}
+
+	/**
+	 * the caller has read the whole content into a buffer, so it is safe to
+	 * move the stream pointer here.
+	 */
+	private byte[] readEntry( long id ) throws IOException
+	{
+		if ( id < 0 || id >= stream.length( ) )
+		{
+			throw new IOException( "Invalid dictionary entry:" + id );
+		}
+		stream.seek( ReportContentReaderV3.VERSION_SIZE + id );
+		int size = stream.readInt( );
+		byte[] value = new byte[size];
+		stream.readFully( value, 0, size );
+		return value;
+	}
+}
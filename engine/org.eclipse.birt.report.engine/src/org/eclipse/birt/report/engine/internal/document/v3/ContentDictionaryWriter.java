@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.engine.internal.document.v3;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.content.IStyle;
+import org.eclipse.birt.report.engine.content.impl.IContentDictionaryWriter;
+
+/**
+ * The dictionary used by the content writer.
+ *
+ * A dictionary entry is saved into the content stream just before the first
+ * content which refers to it, the id of the entry is its offset in the content
+ * stream, so the reader can load it on demand:
+ *
+ * <pre>
+ *   [int size][entry value]
+ * </pre>
+ *
+ * The writer remembers at most MAX_ENTRIES values. Once it is full, a new value
+ * is still saved, but it is saved again when another content uses it.
+ */
+class ContentDictionaryWriter implements IContentDictionaryWriter
+{
+
+	static final int MAX_ENTRIES = 4096;
+
+	protected HashMap<ByteBuffer, Long> styles = new HashMap<ByteBuffer, Long>( );
+	protected HashMap<String, Long> strings = new HashMap<String, Long>( );
+
+	/**
+	 * entries added by current content, they are not saved yet.
+	 */
+	protected List<byte[]> pendingEntries = new ArrayList<byte[]>( );
+
+	/**
+	 * offset of the next entry.
+	 */
+	protected long nextOffset;
+
+	private ByteArrayOutputStream buffer = new ByteArrayOutputStream( );
+	private DataOutputStream bufferStream = new DataOutputStream( buffer );
+
+	/**
+	 * start to save a new content, the new entries are saved from the offset.
+	 *
+	 * @param offset
+	 *            current offset of the content stream.
+	 */
+	void startContent( long offset )
+	{
+		nextOffset = offset;
+		pendingEntries.clear( );
+	}
+
+	/**
+	 * @return the entries must be saved before current content.
+	 */
+	List<byte[]> getPendingEntries( )
+	{
+		return pendingEntries;
+	}
+
+	public long getStyleId( IStyle style ) throws IOException
+	{
+		buffer.reset( );
+		style.write( bufferStream );
+		bufferStream.flush( );
+		byte[] value = buffer.toByteArray( );
+		ByteBuffer key = ByteBuffer.wrap( value );
+		Long id = styles.get( key );
+		if ( id != null )
+		{
+			return id.longValue( );
+		}
+		long offset = addEntry( value );
+		if ( styles.size( ) < MAX_ENTRIES )
+		{
+			styles.put( key, Long.valueOf( offset ) );
+		}
+		return offset;
+	}
+
+	public long getStringId( String value ) throws IOException
+	{
+		Long id = strings.get( value );
+		if ( id != null )
+		{
+			return id.longValue( );
+		}
+		buffer.reset( );
+		IOUtil.writeString( bufferStream, value );
+		bufferStream.flush( );
+		long offset = addEntry( buffer.toByteArray( ) );
+		if ( strings.size( ) < MAX_ENTRIES )
+		{
+			strings.put( value, Long.valueOf( offset ) );
+		}
+		return offset;
+	}
+
+	private long addEntry( byte[] value )
+	{
+		long offset = nextOffset;
+		pendingEntries.add( value );
+		nextOffset += 4 + value.length;
+		return offset;
+	}
+}
@@ -16,11 +16,14 @@ import java.io.DataInputStream;
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
 
 import org.eclipse.birt.core.archive.RAInputStream;
 import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.report.engine.content.IContent;
 import org.eclipse.birt.report.engine.content.impl.AbstractContent;
+import org.eclipse.birt.report.engine.content.impl.ContentDictionaryInputStream;
 import org.eclipse.birt.report.engine.content.impl.ReportContent;
 import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
 
@@ -43,6 +46,7 @@ public class ReportContentReaderV3
 
 	protected final static int VERSION_0 = 0;
 	protected final static int VERSION_1 = 1;
+	protected final static int VERSION_2 = 2;
 	protected final static int VERSION_SIZE = 4;
 
 	/**
@@ -55,6 +59,16 @@ public class ReportContentReaderV3
 	protected boolean isEmpty = false;
 
 	protected ClassLoader loader;
+
+	/**
+	 * dictionary of VERSION_2 stream.
+	 */
+	protected ContentDictionaryReader dictionary;
+
+	/**
+	 * size of the last content read out.
+	 */
+	protected int contentSize;
 	
 	public ReportContentReaderV3( ReportContent reportContent,
 			RAInputStream stream, ClassLoader loader ) throws IOException
@@ -71,8 +85,12 @@ public class ReportContentReaderV3
 			{
 				version = VERSION_0;
 			}
-			else if ( version == VERSION_1 )
+			else if ( version == VERSION_1 || version == VERSION_2 )
 			{
+				if ( version == VERSION_2 )
+				{
+					dictionary = new ContentDictionaryReader( stream );
+				}
 				if ( length == 4 )
 				{
 					isEmpty = true;
@@ -155,16 +173,26 @@ public class ReportContentReaderV3
 		{
 			stream.seek( offset );
 		}
-		else if ( VERSION_1 == version )
+		else
 		{
 			stream.seek( VERSION_SIZE + offset );
 		}
 
 		int size = stream.readInt( );
-		byte[] buffer = new byte[size];
-		stream.readFully( buffer, 0, size );
-		DataInputStream oi = new DataInputStream( new ByteArrayInputStream(
-				buffer ) );
+		contentSize = INDEX_ENTRY_SIZE_V1 + 4 + Math.abs( size );
+		DataInputStream oi;
+		if ( VERSION_2 == version )
+		{
+			byte[] buffer = readContentBuffer( size );
+			oi = new ContentDictionaryInputStream( new ByteArrayInputStream(
+					buffer ), dictionary );
+		}
+		else
+		{
+			byte[] buffer = new byte[size];
+			stream.readFully( buffer, 0, size );
+			oi = new DataInputStream( new ByteArrayInputStream( buffer ) );
+		}
 		AbstractContent object = null;
 		int contentType = IOUtil.readInt( oi );
 		switch ( contentType )
@@ -222,11 +250,63 @@ public class ReportContentReaderV3
 				throw new IOException( "Found invalid contentType"
 						+ contentType + " at object offset " + offset );
 		}
-		object.setVersion( version );
+		// VERSION_2 stream uses the same content format as VERSION_1
+		object.setVersion( version == VERSION_2 ? VERSION_1 : version );
 		object.readContent( oi, loader );
 		return object;
 	}
 
+	/**
+	 * read the content bytes of VERSION_2 stream. A negative size means the
+	 * content is saved as [int raw length][deflated data].
+	 */
+	private byte[] readContentBuffer( int size ) throws IOException
+	{
+		if ( size >= 0 )
+		{
+			byte[] buffer = new byte[size];
+			stream.readFully( buffer, 0, size );
+			return buffer;
+		}
+		byte[] compressed = new byte[-size];
+		stream.readFully( compressed, 0, compressed.length );
+		int rawSize = ( ( compressed[0] & 0xFF ) << 24 )
+				| ( ( compressed[1] & 0xFF ) << 16 )
+				| ( ( compressed[2] & 0xFF ) << 8 ) | ( compressed[3] & 0xFF );
+		byte[] buffer = new byte[rawSize];
+		Inflater inflater = new Inflater( );
+		try
+		{
+			inflater.setInput( compressed, 4, compressed.length - 4 );
+			int length = 0;
+			while ( length < rawSize )
+			{
+				int count = inflater.inflate( buffer, length, rawSize - length );
+				if ( count == 0
+						&& ( inflater.finished( ) || inflater.needsInput( ) ) )
+				{
+					break;
+				}
+				length += count;
+			}
+			if ( length != rawSize )
+			{
+				throw new IOException( "Corrupted content at offset "
+						+ offset );
+			}
+		}
+		catch ( DataFormatException ex )
+		{
+			throw new IOException( "Corrupted content at offset " + offset
+					+ ":" + ex.getMessage( ) );
+		}
+		finally
+		{
+			inflater.end( );
+		}
+		return buffer;
+	}
+
 	/**
 	 * read the content object out from the input stream in the curretn offset.
 	 * After call this methods, the offset is position to the next element in
@@ -246,34 +326,53 @@ public class ReportContentReaderV3
 		// try to locate the next element
 		DocumentExtension docExt = (DocumentExtension) content
 				.getExtension( IContent.DOCUMENT_EXTENSION );
+		offset = getNextOffset( docExt );
+
+		return content;
+	}
+
+	/**
+	 * get the offset of the content next to the content in pre-depth order.
+	 * 
+	 * @param docExt
+	 *            the document extension of the content.
+	 * @return the offset of the next content, -1 if it is the last one.
+	 */
+	public long getNextOffset( DocumentExtension docExt ) throws IOException
+	{
 		// the next element is its child if exits
 		if ( docExt.getFirstChild( ) != -1 )
 		{
-			offset = docExt.getFirstChild( );
-			return content;
+			return docExt.getFirstChild( );
 		}
 		// otherise use it's sibling if exists
 		if ( docExt.getNext( ) != -1 )
 		{
-			offset = docExt.getNext( );
-			return content;
+			return docExt.getNext( );
 		}
 		// or use the parent's sibling if exits
-		docExt = readDocumentExtension( docExt.getParent( ) );
-		while ( docExt != null )
+		long parent = docExt.getParent( );
+		while ( parent != -1 )
 		{
-
+			docExt = readDocumentExtension( parent );
 			if ( docExt.getNext( ) != -1 )
 			{
-				offset = docExt.getNext( );
-				return content;
+				return docExt.getNext( );
 			}
-			docExt = readDocumentExtension( docExt.getParent( ) );
+			parent = docExt.getParent( );
 		}
+		return -1;
+	}
 
-		offset = -1;
-
-		return content;
+	/**
+	 * get the bytes used by the last content read out, including the index
+	 * entry.
+	 * 
+	 * @return the size of the last content.
+	 */
+	public int getContentSize( )
+	{
+		return contentSize;
 	}
 
 	public IContent readContent( long index ) throws IOException
@@ -283,7 +382,7 @@ public class ReportContentReaderV3
 		{
 			return readContentV0( index );
 		}
-		else if ( VERSION_1 == version )
+		else if ( VERSION_1 == version || VERSION_2 == version )
 		{
 			return readContentV1( index );
 		}
@@ -326,7 +425,7 @@ public class ReportContentReaderV3
 		{
 			return readDocumentExtensionV0( index );
 		}
-		else if ( VERSION_1 == version )
+		else if ( VERSION_1 == version || VERSION_2 == version )
 		{
 			return readDocumentExtensionV1( index );
 		}
@@ -18,6 +18,8 @@ import java.util.Iterator;
 import java.util.Stack;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
 
 import org.eclipse.birt.core.archive.IDocArchiveWriter;
 import org.eclipse.birt.core.archive.RAOutputStream;
@@ -25,6 +27,7 @@ import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.report.engine.api.impl.ReportDocumentWriter;
 import org.eclipse.birt.report.engine.content.IContent;
 import org.eclipse.birt.report.engine.content.IReportContent;
+import org.eclipse.birt.report.engine.content.impl.ContentDictionaryOutputStream;
 import org.eclipse.birt.report.engine.internal.document.DocumentExtension;
 import org.eclipse.birt.report.engine.internal.document.IReportContentWriter;
 
@@ -49,12 +52,62 @@ public class ReportContentWriterV3 implements IReportContentWriter
 	 */
 	protected long rootOffset;
 
+	/**
+	 * the stream version, VERSION_1 or VERSION_2
+	 */
+	protected int version;
+
+	/**
+	 * dictionary used by VERSION_2 stream.
+	 */
+	protected ContentDictionaryWriter dictionary;
+
+	/**
+	 * compress the large contents, only used by VERSION_2 stream.
+	 */
+	protected boolean compress;
+
+	protected Deflater deflater;
+
 	public ReportContentWriterV3( IDocArchiveWriter writer, String name )
 			throws IOException
 	{
+		this( writer, name, VERSION_1, false );
+	}
+
+	/**
+	 * create the content writer.
+	 * 
+	 * @param writer
+	 *            the document archive.
+	 * @param name
+	 *            stream name
+	 * @param version
+	 *            stream version. VERSION_2 saves the inline styles and data
+	 *            set ids in a dictionary, it can't be read by the engine
+	 *            before 4.7.
+	 * @param compress
+	 *            compress the large contents, only used by VERSION_2.
+	 * @throws IOException
+	 */
+	public ReportContentWriterV3( IDocArchiveWriter writer, String name,
+			int version, boolean compress ) throws IOException
+	{
+		if ( version != VERSION_1 && version != VERSION_2 )
+		{
+			throw new IOException( "unsupported stream version:" + version );
+		}
+		this.version = version;
+		if ( version == VERSION_2 )
+		{
+			dictionary = new ContentDictionaryWriter( );
+			bufferStream = new ContentDictionaryOutputStream( buffer,
+					dictionary );
+			this.compress = compress;
+		}
 		cntStream = writer.createRandomAccessStream( name );
 		// write the version information
-		cntStream.writeInt( VERSION_1 );
+		cntStream.writeInt( version );
 		cntOffset = 0;
 		rootOffset = -1;
 	}
@@ -76,6 +129,11 @@ public class ReportContentWriterV3 implements IReportContentWriter
 			}
 			cntStream = null;
 		}
+		if ( deflater != null )
+		{
+			deflater.end( );
+			deflater = null;
+		}
 	}
 
 	/**
@@ -112,6 +170,10 @@ public class ReportContentWriterV3 implements IReportContentWriter
 	 */
 	public long writeContent( IContent content ) throws IOException
 	{
+		if ( version == VERSION_2 )
+		{
+			return writeContentV2( content );
+		}
 		//write the index into the stream
 		updateIndex(content);
 		
@@ -136,6 +198,96 @@ public class ReportContentWriterV3 implements IReportContentWriter
 		return -1;
 	}
 
+	/**
+	 * write the content into a VERSION_2 stream.
+	 * 
+	 * The content is serialized first to collect the new dictionary entries,
+	 * which are saved before the content, so the content's index is known only
+	 * after that.
+	 */
+	protected long writeContentV2( IContent content ) throws IOException
+	{
+		dictionary.startContent( cntOffset );
+		buffer.reset( );
+		IOUtil.writeInt( bufferStream, content.getContentType( ) );
+		content.writeContent( bufferStream );
+		bufferStream.flush( );
+		byte[] values = buffer.toByteArray( );
+
+		for ( byte[] entry : dictionary.getPendingEntries( ) )
+		{
+			cntStream.seek( cntOffset + VERSION_SIZE );
+			cntStream.writeInt( entry.length );
+			cntStream.write( entry );
+			cntOffset = cntOffset + 4 + entry.length;
+		}
+		dictionary.getPendingEntries( ).clear( );
+
+		updateIndex( content );
+
+		cntStream.seek( cntOffset + VERSION_SIZE );
+		byte[] compressed = compress( values );
+		if ( compressed != null )
+		{
+			// negative size means the content is compressed
+			cntStream.writeInt( -compressed.length );
+			cntStream.write( compressed );
+			cntOffset = cntOffset + 4 + compressed.length;
+		}
+		else
+		{
+			cntStream.writeInt( values.length );
+			cntStream.write( values );
+			cntOffset = cntOffset + 4 + values.length;
+		}
+
+		DocumentExtension docExt = (DocumentExtension) content
+				.getExtension( IContent.DOCUMENT_EXTENSION );
+		if ( docExt != null )
+		{
+			return docExt.getIndex( );
+		}
+		return -1;
+	}
+
+	/**
+	 * the contents smaller than this size are never compressed.
+	 */
+	final static int MIN_COMPRESS_SIZE = 512;
+
+	private ByteArrayOutputStream compressBuffer;
+
+	/**
+	 * compress the content.
+	 * 
+	 * @return the compressed bytes as [int raw length][deflated data], or null
+	 *         if the content needn't be compressed.
+	 */
+	private byte[] compress( byte[] values ) throws IOException
+	{
+		if ( !compress || values.length < MIN_COMPRESS_SIZE )
+		{
+			return null;
+		}
+		if ( deflater == null )
+		{
+			deflater = new Deflater( Deflater.BEST_SPEED );
+			compressBuffer = new ByteArrayOutputStream( );
+		}
+		deflater.reset( );
+		compressBuffer.reset( );
+		IOUtil.writeInt( compressBuffer, values.length );
+		DeflaterOutputStream out = new DeflaterOutputStream( compressBuffer,
+				deflater );
+		out.write( values );
+		out.finish( );
+		if ( compressBuffer.size( ) >= values.length )
+		{
+			return null;
+		}
+		return compressBuffer.toByteArray( );
+	}
+
 	public long writeReport( IReportContent report ) throws IOException
 	{
 		cntStream.seek( VERSION_SIZE );
@@ -144,12 +296,14 @@ public class ReportContentWriterV3 implements IReportContentWriter
 		cntStream.writeLong( -1 ); // first child
 		cntOffset += INDEX_ENTRY_SIZE;
 
-		// get the byte[] of the content
-		buffer.reset( );
-		IOUtil.writeInt( bufferStream, IContent.REPORT_CONTENT );
-		report.writeContent( bufferStream );
-		bufferStream.flush( );
-		byte[] values = buffer.toByteArray( );
+		// get the byte[] of the content, the report content is always saved
+		// without dictionary as it is loaded before others.
+		ByteArrayOutputStream reportBuffer = new ByteArrayOutputStream( );
+		DataOutputStream reportStream = new DataOutputStream( reportBuffer );
+		IOUtil.writeInt( reportStream, IContent.REPORT_CONTENT );
+		report.writeContent( reportStream );
+		reportStream.flush( );
+		byte[] values = reportBuffer.toByteArray( );
 		// write the content out as: length, data
 		cntStream.seek( cntOffset + VERSION_SIZE );
 		cntStream.writeInt( values.length );
@@ -196,7 +350,13 @@ public class ReportContentWriterV3 implements IReportContentWriter
 	
 	final static int VERSION_SIZE = 4;
 	
-	protected final static int VERSION_1 = 1;
+	public final static int VERSION_1 = 1;
+
+	/**
+	 * the inline styles and data set ids are saved in a dictionary, the large
+	 * contents may be compressed.
+	 */
+	public final static int VERSION_2 = 2;
 	
 	/**
 	 * There is a content start from the offset, which parent start from
@@ -84,6 +84,7 @@ public class ReportPageExecutorV4 extends AbstractReportExecutor
 					Collection<PageVariable> vars = pageHint.getPageVariables( );
 					context.addPageVariables( vars );
 
+					prefetch( pageHint );
 					Fragment fragment = createFragment( pageHint );
 					return new ReportBodyExecutor( manager, fragment );
 				}
@@ -160,6 +161,24 @@ public class ReportPageExecutorV4 extends AbstractReportExecutor
 		return fragment;
 	}
 	
+	/**
+	 * load the contents of the page into the content cache, the contents of
+	 * a page are saved continuously in the content stream.
+	 */
+	protected void prefetch( IPageHint pageHint ) throws IOException
+	{
+		int sectCount = pageHint.getSectionCount( );
+		if ( sectCount > 0 )
+		{
+			long offset = pageHint.getSection( 0 ).startOffset;
+			long endOffset = pageHint.getSection( sectCount - 1 ).endOffset;
+			if ( offset != -1 && endOffset >= offset )
+			{
+				reader.prefetch( offset, endOffset );
+			}
+		}
+	}
+
 	public IPageHint getPageHint(long pageNumber) throws IOException
 	{
 		return hintsReader.getPageHint( pageNumber );
@@ -22,6 +22,7 @@ import java.util.Map.Entry;
 
 import org.eclipse.birt.core.archive.IDocArchiveWriter;
 import org.eclipse.birt.core.archive.RAOutputStream;
+import org.eclipse.birt.core.btree.BTreeBuilder;
 import org.eclipse.birt.core.util.IOUtil;
 import org.eclipse.birt.report.engine.content.impl.BookmarkContent;
 
@@ -132,9 +133,11 @@ public class IndexWriter implements IndexConstants
 
 	protected void flushBtree( ) throws IOException
 	{
+		boolean emptyTree = false;
 		if ( btree == null )
 		{
 			btree = BTreeMap.createTreeMap( archive, name, type );
+			emptyTree = true;
 		}
 		ArrayList<Map.Entry<String, Object>> entries = new ArrayList<Map.Entry<String, Object>>(
 				inlineMap.entrySet( ) );
@@ -148,6 +151,18 @@ public class IndexWriter implements IndexConstants
 					}
 				} );
 
+		if ( emptyTree )
+		{
+			// the first entries are loaded into full nodes without splitting
+			// them
+			BTreeBuilder<String, Object> builder = btree.createBuilder( );
+			for ( Map.Entry<String, Object> entry : entries )
+			{
+				builder.add( entry.getKey( ), entry.getValue( ) );
+			}
+			builder.finish( );
+			return;
+		}
 		for ( Map.Entry<String, Object> entry : entries )
 		{
 			btree.insert( entry.getKey( ), entry.getValue( ) );
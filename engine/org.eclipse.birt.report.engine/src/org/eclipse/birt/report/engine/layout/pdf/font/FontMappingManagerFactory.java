@@ -23,6 +23,8 @@ import java.util.Locale;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.eclipse.birt.core.metrics.Counter;
+import org.eclipse.birt.core.metrics.MetricRegistry;
 import org.eclipse.birt.report.engine.util.SecurityUtil;
 import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.Path;
@@ -495,6 +497,11 @@ public class FontMappingManagerFactory
 
 	private HashMap baseFonts = new HashMap( );
 
+	private static final Counter FONT_CACHE_HITS = MetricRegistry
+			.getDefault( ).counter( "engine.fontCache.hits" ); //$NON-NLS-1$
+	private static final Counter FONT_CACHE_MISSES = MetricRegistry
+			.getDefault( ).counter( "engine.fontCache.misses" ); //$NON-NLS-1$
+
 	/**
 	 * Creates iText BaseFont with the given font family name.
 	 * 
@@ -510,10 +517,12 @@ public class FontMappingManagerFactory
 		{
 			if ( baseFonts.containsKey( key ) )
 			{
+				FONT_CACHE_HITS.inc( );
 				bf = (BaseFont) baseFonts.get( key );
 			}
 			else
 			{
+				FONT_CACHE_MISSES.inc( );
 				try
 				{
 					String fontEncoding = (String) fontEncodings
@@ -19,6 +19,7 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -26,6 +27,7 @@ import org.eclipse.birt.core.archive.IDocArchiveWriter;
 import org.eclipse.birt.core.archive.RAOutputStream;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.core.util.IOUtil;
+import org.eclipse.birt.report.engine.api.EngineConstants;
 import org.eclipse.birt.report.engine.api.EngineException;
 import org.eclipse.birt.report.engine.api.IEngineTask;
 import org.eclipse.birt.report.engine.api.IPageHandler;
@@ -363,12 +365,22 @@ public class ReportDocumentBuilder
 		{
 			try
 			{
+				int version = ReportContentWriterV3.VERSION_1;
+				boolean compress = false;
+				if ( getBooleanOption(
+						EngineConstants.APPCONTEXT_COMPACT_CONTENT_STREAM ) )
+				{
+					version = ReportContentWriterV3.VERSION_2;
+					compress = getBooleanOption(
+							EngineConstants.APPCONTEXT_COMPRESS_CONTENT_STREAM );
+				}
 				writer = new ReportContentWriterV3( document.getArchive( ),
-						ReportDocumentConstants.CONTENT_STREAM );
+						ReportDocumentConstants.CONTENT_STREAM, version,
+						compress );
 				writer.writeReport( report );
 
 				pageWriter = new ReportContentWriterV3( document.getArchive( ),
-						ReportDocumentConstants.PAGE_STREAM );
+						ReportDocumentConstants.PAGE_STREAM, version, compress );
 				indexStream = document.getArchive( ).createRandomAccessStream(
 						ReportDocumentConstants.PAGE_INDEX_STREAM );
 			}
@@ -380,6 +392,25 @@ public class ReportDocumentBuilder
 			}
 		}
 
+		private boolean getBooleanOption( String name )
+		{
+			@SuppressWarnings("rawtypes")
+			Map appContext = executionContext.getAppContext( );
+			if ( appContext != null )
+			{
+				Object value = appContext.get( name );
+				if ( value instanceof Boolean )
+				{
+					return ( (Boolean) value ).booleanValue( );
+				}
+				if ( value instanceof String )
+				{
+					return Boolean.valueOf( (String) value ).booleanValue( );
+				}
+			}
+			return false;
+		}
+
 		protected void close( )
 		{
 			if ( writer != null )
@@ -15,10 +15,11 @@ import java.util.HashMap;
 import org.eclipse.birt.core.exception.BirtException;
 import org.eclipse.birt.data.engine.api.script.IDataRow;
 import org.eclipse.birt.data.engine.api.script.IDataSetInstanceHandle;
-import org.eclipse.birt.data.engine.api.script.IScriptDataSetEventHandler;
+import org.eclipse.birt.data.engine.api.script.IScriptDataSetBatchEventHandler;
 import org.eclipse.birt.data.engine.api.script.IScriptDataSetMetaDataDefinition;
 import org.eclipse.birt.data.engine.core.DataException;
 import org.eclipse.birt.data.engine.i18n.ResourceConstants;
+import org.eclipse.birt.report.engine.api.script.eventhandler.IScriptedDataSetBatchEventHandler;
 import org.eclipse.birt.report.engine.api.script.eventhandler.IScriptedDataSetEventHandler;
 import org.eclipse.birt.report.engine.executor.ExecutionContext;
 import org.eclipse.birt.report.engine.script.internal.instance.DataSetInstance;
@@ -29,7 +30,7 @@ import org.mozilla.javascript.Context;
 import org.mozilla.javascript.Scriptable;
 
 public class ScriptDataSetScriptExecutor extends DataSetScriptExecutor
-		implements IScriptDataSetEventHandler
+		implements IScriptDataSetBatchEventHandler
 {
 
 	private static final String OPEN = "OPEN";
@@ -167,6 +168,35 @@ public class ScriptDataSetScriptExecutor extends DataSetScriptExecutor
 		return false;
 	}
 
+	/**
+	 * The rows are fetched in batches by the Java event handler if it
+	 * implements IScriptedDataSetBatchEventHandler and there is no fetch
+	 * script.
+	 */
+	public boolean isBatchFetch( IDataSetInstanceHandle dataSet )
+	{
+		initEventHandler( );
+		return useFetchEventHandler
+				&& scriptedEventHandler instanceof IScriptedDataSetBatchEventHandler;
+	}
+
+	public int handleFetchBatch( IDataSetInstanceHandle dataSet,
+			Object[][] rows )
+	{
+		initEventHandler( );
+		try
+		{
+			if ( scriptedEventHandler instanceof IScriptedDataSetBatchEventHandler )
+				return ( (IScriptedDataSetBatchEventHandler) scriptedEventHandler ).fetchBatch( new DataSetInstance( dataSet ),
+						rows );
+		}
+		catch ( Exception e )
+		{
+			addException( context, e );
+		}
+		return 0;
+	}
+
 	public boolean handleDescribe( IDataSetInstanceHandle dataSet,
 			IScriptDataSetMetaDataDefinition metaData ) throws BirtException
 	{
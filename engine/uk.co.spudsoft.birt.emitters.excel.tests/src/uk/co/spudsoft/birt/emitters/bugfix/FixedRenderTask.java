@@ -885,6 +885,16 @@ public class FixedRenderTask extends EngineTask implements IRenderTask
 		}
 		return reportDocument.getPageCount( );
 	}
+
+	public long getContentCacheHitCount( )
+	{
+		return executionContext.getContentCacheHitCount( );
+	}
+
+	public long getContentCacheMissCount( )
+	{
+		return executionContext.getContentCacheMissCount( );
+	}
 	
 	@SuppressWarnings("rawtypes")
 	public HashMap getParameterValues( )
@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.item.crosstab.core.re.executor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.olap.OLAPException;
+import javax.olap.cursor.CubeCursor;
+import javax.olap.cursor.EdgeCursor;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.report.item.crosstab.core.de.CrosstabReportItemHandle;
+import org.eclipse.birt.report.item.crosstab.core.re.DummyCubeCursor;
+import org.eclipse.birt.report.item.crosstab.core.re.DummyDimensionCursor;
+import org.eclipse.birt.report.item.crosstab.core.re.DummyEdgeCursor;
+import org.eclipse.birt.report.model.api.DesignConfig;
+import org.eclipse.birt.report.model.api.DesignEngine;
+import org.eclipse.birt.report.model.api.ModuleHandle;
+import org.eclipse.birt.report.model.api.SessionHandle;
+import org.eclipse.birt.report.model.i18n.ThreadResources;
+
+import com.ibm.icu.util.ULocale;
+
+/**
+ * Tests the column windows of CachedColumnWalker.
+ */
+
+public class TestCachedColumnWalker extends TestCase
+{
+
+	private ModuleHandle module;
+
+	protected void setUp( ) throws Exception
+	{
+		super.setUp( );
+		ThreadResources.setLocale( ULocale.ENGLISH );
+
+		SessionHandle sh = new DesignEngine( new DesignConfig( ) ).newSessionHandle( ULocale.getDefault( ) );
+		module = sh.createDesign( ).getModuleHandle( );
+	}
+
+	private CubeCursor createSimpleCubeCursor( )
+	{
+		DummyDimensionCursor ddc1 = new DummyDimensionCursor( 2 );
+		DummyDimensionCursor ddc2 = new DummyDimensionCursor( 2 );
+		DummyDimensionCursor ddc3 = new DummyDimensionCursor( 2 );
+
+		DummyEdgeCursor dec = new DummyEdgeCursor( 8 );
+		dec.addDimensionCursor( ddc1 );
+		dec.addDimensionCursor( ddc2 );
+		dec.addDimensionCursor( ddc3 );
+
+		DummyCubeCursor dcc = new DummyCubeCursor( );
+		dcc.addOrdinateEdgeCursor( dec );
+
+		return dcc;
+	}
+
+	private EdgeCursor createColumnEdgeCursor( ) throws OLAPException
+	{
+		return (EdgeCursor) createSimpleCubeCursor( ).getOrdinateEdge( )
+				.get( 0 );
+	}
+
+	/**
+	 * Returns the events of the first walk, the walk from the cache must
+	 * return the same events.
+	 */
+	private List<String> walk( CachedColumnWalker walker ) throws OLAPException
+	{
+		List<ColumnEvent> events = new ArrayList<ColumnEvent>( );
+		while ( walker.hasNext( ) )
+		{
+			events.add( walker.next( ) );
+		}
+
+		walker.reload( );
+		for ( int i = 0; i < events.size( ); i++ )
+		{
+			assertTrue( walker.hasNext( ) );
+			assertSame( events.get( i ), walker.next( ) );
+		}
+		assertFalse( walker.hasNext( ) );
+
+		// the events of different walkers are compared by the content
+		List<String> result = new ArrayList<String>( );
+		for ( int i = 0; i < events.size( ); i++ )
+		{
+			result.add( events.get( i ).toString( ) );
+		}
+		return result;
+	}
+
+	private boolean isRowHeader( String ev )
+	{
+		return ev.indexOf( "ROW_EDGE" ) != -1 //$NON-NLS-1$
+				|| ev.indexOf( "MEASURE_HEADER" ) != -1; //$NON-NLS-1$
+	}
+
+	public void testColumnWindow( ) throws OLAPException
+	{
+		CrosstabReportItemHandle crosstab = CrosstabSamples.createCrosstab5( module );
+
+		List<String> all = walk( new CachedColumnWalker( crosstab,
+				createColumnEdgeCursor( ) ) );
+
+		int count = all.size( );
+		int split = count / 2;
+		assertTrue( isRowHeader( all.get( 0 ) ) );
+
+		// the first window contains the row headers
+		List<String> first = walk( new CachedColumnWalker( crosstab,
+				createColumnEdgeCursor( ),
+				0,
+				split,
+				false ) );
+		assertEquals( all.subList( 0, split ), first );
+
+		// the row headers are repeated in the second window
+		List<String> second = walk( new CachedColumnWalker( crosstab,
+				createColumnEdgeCursor( ),
+				split,
+				count,
+				true ) );
+		List<String> expected = new ArrayList<String>( );
+		for ( int i = 0; i < count; i++ )
+		{
+			String ev = all.get( i );
+			if ( i >= split || isRowHeader( ev ) )
+			{
+				expected.add( ev );
+			}
+		}
+		assertEquals( expected, second );
+		assertTrue( second.size( ) > count - split );
+
+		// without the row headers
+		List<String> last = walk( new CachedColumnWalker( crosstab,
+				createColumnEdgeCursor( ),
+				split,
+				count,
+				false ) );
+		assertEquals( all.subList( split, count ), last );
+
+		// a window in the middle
+		List<String> middle = walk( new CachedColumnWalker( crosstab,
+				createColumnEdgeCursor( ),
+				split - 1,
+				split + 1,
+				false ) );
+		assertEquals( all.subList( split - 1, split + 1 ), middle );
+	}
+}
@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.item.crosstab.core.re.executor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+import org.eclipse.birt.core.framework.Platform;
+import org.eclipse.birt.report.engine.api.EngineConfig;
+import org.eclipse.birt.report.engine.api.HTMLRenderOption;
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.IReportEngine;
+import org.eclipse.birt.report.engine.api.IReportEngineFactory;
+import org.eclipse.birt.report.engine.api.IReportRunnable;
+import org.eclipse.birt.report.engine.api.IRunAndRenderTask;
+import org.eclipse.birt.report.engine.api.RenderOption;
+
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.parser.PdfTextExtractor;
+
+/**
+ * Renders a crosstab of 4 rows and 24 columns, the columns are split by the
+ * column page break interval 8. In the column window mode each window is a
+ * table of its 8 columns and the repeated row header column, in the PDF
+ * output each window starts a new page.
+ */
+public class TestColumnWindowMode extends TestCase
+{
+
+	static final String REPORT_DESIGN = "input/ColumnWindow.rptdesign"; //$NON-NLS-1$
+
+	static final int ROW_COUNT = 4;
+	static final int COLUMN_COUNT = 24;
+	static final int WINDOW_SIZE = 8;
+
+	private static final Pattern TABLE_TAG = Pattern.compile( "<(/?)table[ >]" ); //$NON-NLS-1$
+
+	private IReportEngine engine;
+
+	protected void setUp( ) throws Exception
+	{
+		super.setUp( );
+
+		EngineConfig config = new EngineConfig( );
+		Platform.startup( config );
+		IReportEngineFactory factory = (IReportEngineFactory) Platform.createFactoryObject( IReportEngineFactory.EXTENSION_REPORT_ENGINE_FACTORY );
+		engine = factory.createReportEngine( config );
+	}
+
+	protected void tearDown( ) throws Exception
+	{
+		engine.destroy( );
+		super.tearDown( );
+	}
+
+	public void testColumnWindows( ) throws Exception
+	{
+		List<String> tables = getTables( render( false ) );
+		assertEquals( 1, tables.size( ) );
+		assertEquals( getExpectedTable( 0, COLUMN_COUNT ), tables.get( 0 ) );
+
+		tables = getTables( render( true ) );
+		assertEquals( COLUMN_COUNT / WINDOW_SIZE, tables.size( ) );
+		for ( int i = 0; i < tables.size( ); i++ )
+		{
+			assertEquals( getExpectedTable( i * WINDOW_SIZE, WINDOW_SIZE ),
+					tables.get( i ) );
+		}
+	}
+
+	public void testColumnWindowPages( ) throws Exception
+	{
+		PdfReader reader = new PdfReader( render( true,
+				IRenderOption.OUTPUT_FORMAT_PDF ) );
+		try
+		{
+			assertEquals( COLUMN_COUNT / WINDOW_SIZE,
+					reader.getNumberOfPages( ) );
+			// the extracted text doesn't separate the cells
+			PdfTextExtractor extractor = new PdfTextExtractor( reader );
+			for ( int page = 1; page <= reader.getNumberOfPages( ); page++ )
+			{
+				String expected = getExpectedTable( ( page - 1 ) * WINDOW_SIZE,
+						WINDOW_SIZE );
+				assertEquals( expected.replaceAll( "\\s+", "" ), //$NON-NLS-1$ //$NON-NLS-2$
+						extractor.getTextFromPage( page )
+								.replaceAll( "\\s+", "" ) ); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+		}
+		finally
+		{
+			reader.close( );
+		}
+	}
+
+	private String render( boolean columnWindowMode ) throws Exception
+	{
+		return new String( render( columnWindowMode,
+				IRenderOption.OUTPUT_FORMAT_HTML ), "UTF-8" ); //$NON-NLS-1$
+	}
+
+	private byte[] render( boolean columnWindowMode, String format )
+			throws Exception
+	{
+		InputStream in = getClass( ).getResourceAsStream( REPORT_DESIGN );
+		try
+		{
+			IReportRunnable runnable = engine.openReportDesign( in );
+			IRunAndRenderTask task = engine.createRunAndRenderTask( runnable );
+			try
+			{
+				Map appContext = new HashMap( );
+				appContext.put( CrosstabReportItemExecutor.COLUMN_WINDOW_MODE,
+						Boolean.valueOf( columnWindowMode ) );
+				task.setAppContext( appContext );
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream( );
+				RenderOption options = IRenderOption.OUTPUT_FORMAT_HTML.equals( format ) ? new HTMLRenderOption( )
+						: new RenderOption( );
+				options.setOutputFormat( format );
+				options.setOutputStream( out );
+				task.setRenderOption( options );
+				task.run( );
+				assertTrue( task.getErrors( ).isEmpty( ) );
+
+				return out.toByteArray( );
+			}
+			finally
+			{
+				task.close( );
+			}
+		}
+		finally
+		{
+			in.close( );
+		}
+	}
+
+	/**
+	 * Returns the text of the tables which contain no table, the texts of
+	 * the cells are separated by a space.
+	 */
+	private List<String> getTables( String html )
+	{
+		List<String> tables = new ArrayList<String>( );
+		List<Integer> starts = new ArrayList<Integer>( );
+		boolean hasChild = false;
+
+		Matcher matcher = TABLE_TAG.matcher( html );
+		while ( matcher.find( ) )
+		{
+			if ( matcher.group( 1 ).length( ) == 0 )
+			{
+				starts.add( Integer.valueOf( matcher.start( ) ) );
+				hasChild = false;
+			}
+			else
+			{
+				int start = starts.remove( starts.size( ) - 1 ).intValue( );
+				if ( !hasChild )
+				{
+					tables.add( getText( html.substring( start, matcher.end( ) ) ) );
+				}
+				hasChild = true;
+			}
+		}
+		return tables;
+	}
+
+	private String getText( String html )
+	{
+		return html.replaceAll( "<[^>]*>", " " ) //$NON-NLS-1$ //$NON-NLS-2$
+				.replaceAll( "\\s+", " " ) //$NON-NLS-1$ //$NON-NLS-2$
+				.trim( );
+	}
+
+	/**
+	 * Returns the text of the crosstab columns [start, start + count), the
+	 * data set gives the value 100 * category + column to each cell.
+	 */
+	private String getExpectedTable( int start, int count )
+	{
+		StringBuffer buffer = new StringBuffer( );
+		for ( int i = start; i < start + count; i++ )
+		{
+			buffer.append( 2001 + i ).append( ' ' );
+		}
+		for ( int i = 0; i < count; i++ )
+		{
+			buffer.append( "Value " ); //$NON-NLS-1$
+		}
+		for ( int row = 1; row <= ROW_COUNT; row++ )
+		{
+			buffer.append( 'C' ).append( row );
+			for ( int i = start; i < start + count; i++ )
+			{
+				buffer.append( ' ' ).append( 100 * row + i );
+			}
+			buffer.append( ' ' );
+		}
+		return buffer.toString( ).trim( );
+	}
+}
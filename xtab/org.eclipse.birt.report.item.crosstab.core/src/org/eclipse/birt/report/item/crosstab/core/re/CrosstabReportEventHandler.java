@@ -35,7 +35,10 @@ public class CrosstabReportEventHandler extends ReportEventHandlerBase
 	{
 		DesignElementHandle modelHandle = event.getHandle( );
 
-		if ( !( modelHandle instanceof ExtendedItemHandle ) )
+		// in the column window mode the crosstab is a container of the window
+		// tables, the handler is called for each window table
+		if ( !( modelHandle instanceof ExtendedItemHandle )
+				|| !( event.getContent( ) instanceof ITableContent ) )
 		{
 			return;
 		}
@@ -58,7 +61,8 @@ public class CrosstabReportEventHandler extends ReportEventHandlerBase
 	{
 		DesignElementHandle modelHandle = event.getHandle( );
 
-		if ( !( modelHandle instanceof ExtendedItemHandle ) )
+		if ( !( modelHandle instanceof ExtendedItemHandle )
+				|| !( event.getContent( ) instanceof ITableContent ) )
 		{
 			return;
 		}
@@ -30,6 +30,21 @@ class CachedColumnWalker implements IColumnWalker
 	private List cache;
 	private int pos;
 
+	/**
+	 * the column window, only the columns in [windowStart, windowEnd) and the
+	 * row header columns (if keepRowHeader) are returned. -1 means no window.
+	 */
+	private int windowStart = -1;
+	private int windowEnd = -1;
+	private boolean keepRowHeader;
+
+	/**
+	 * the index of the next event of the worker, and the next event in the
+	 * window.
+	 */
+	private int index;
+	private ColumnEvent pending;
+
 	CachedColumnWalker( CrosstabReportItemHandle item,
 			EdgeCursor columnEdgeCursor )
 	{
@@ -39,6 +54,29 @@ class CachedColumnWalker implements IColumnWalker
 		cacheMode = false;
 	}
 
+	/**
+	 * Creates a walker which returns the columns in the window only. The
+	 * walking stops at the end of the window, and only the columns in the
+	 * window are cached.
+	 * 
+	 * @param windowStart
+	 *            index of the first column event in the window
+	 * @param windowEnd
+	 *            index of the column event after the window
+	 * @param keepRowHeader
+	 *            if the row header columns out of the window are returned
+	 */
+	CachedColumnWalker( CrosstabReportItemHandle item,
+			EdgeCursor columnEdgeCursor, int windowStart, int windowEnd,
+			boolean keepRowHeader )
+	{
+		this( item, columnEdgeCursor );
+
+		this.windowStart = windowStart;
+		this.windowEnd = windowEnd;
+		this.keepRowHeader = keepRowHeader;
+	}
+
 	public void reload( )
 	{
 		cacheMode = true;
@@ -51,6 +89,11 @@ class CachedColumnWalker implements IColumnWalker
 		{
 			return pos < cache.size( );
 		}
+		else if ( windowStart != -1 )
+		{
+			seekWindow( );
+			return pending != null;
+		}
 		else
 		{
 			return worker.hasNext( );
@@ -67,10 +110,33 @@ class CachedColumnWalker implements IColumnWalker
 		}
 		else
 		{
-			ev = worker.next( );
+			if ( windowStart != -1 )
+			{
+				seekWindow( );
+				ev = pending;
+				pending = null;
+			}
+			else
+			{
+				ev = worker.next( );
+			}
 			cache.add( ev );
 		}
 
 		return ev;
 	}
+
+	private void seekWindow( ) throws OLAPException
+	{
+		while ( pending == null && index < windowEnd && worker.hasNext( ) )
+		{
+			ColumnEvent ev = worker.next( );
+
+			if ( index++ >= windowStart
+					|| ( keepRowHeader && ( ev.type == ColumnEvent.ROW_EDGE_CHANGE || ev.type == ColumnEvent.MEASURE_HEADER_CHANGE ) ) )
+			{
+				pending = ev;
+			}
+		}
+	}
 }
@@ -0,0 +1,160 @@
+/*******************************************************************************
+ * Copyright (c) 2017 Actuate Corporation.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *  Actuate Corporation  - initial API and implementation
+ *******************************************************************************/
+
+package org.eclipse.birt.report.item.crosstab.core.re.executor;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.olap.OLAPException;
+
+import org.eclipse.birt.report.engine.api.IRenderOption;
+import org.eclipse.birt.report.engine.api.script.IReportContext;
+import org.eclipse.birt.report.engine.content.IContent;
+import org.eclipse.birt.report.engine.content.IReportContent;
+import org.eclipse.birt.report.engine.content.IStyle;
+import org.eclipse.birt.report.engine.content.ITableContent;
+import org.eclipse.birt.report.item.crosstab.core.i18n.Messages;
+
+/**
+ * Executes a column window of the crosstab. The window is generated as a
+ * separate table which contains the columns of the window only. The rows are
+ * walked again for each window, but only the cells of the window are created.
+ * In the paginated output each window after the first starts a new page.
+ */
+class CrosstabColumnWindowExecutor extends CrosstabReportItemExecutor
+{
+
+	private static Logger logger = Logger.getLogger( CrosstabColumnWindowExecutor.class.getName( ) );
+
+	private ITableContent source;
+	private int[] window;
+	private int windowIndex;
+	private boolean keepRowHeader;
+
+	/**
+	 * @param parent
+	 *            the crosstab executor
+	 * @param source
+	 *            the table generated by the crosstab executor
+	 * @param window
+	 *            int[]{start, end} of the column events in the window
+	 * @param windowIndex
+	 *            the index of the window
+	 * @param keepRowHeader
+	 *            if the row header columns are generated in the window
+	 */
+	CrosstabColumnWindowExecutor( CrosstabReportItemExecutor parent,
+			ITableContent source, int[] window, int windowIndex,
+			boolean keepRowHeader )
+	{
+		super( parent.crosstabItem, parent.context, parent );
+
+		setModelObject( parent.getModelObject( ) );
+
+		this.source = source;
+		this.window = window;
+		this.windowIndex = windowIndex;
+		this.keepRowHeader = keepRowHeader;
+
+		// the query is shared with the crosstab executor
+		this.cubeRset = parent.cubeRset;
+		this.cubeCursor = parent.cubeCursor;
+
+		this.rowGroups = parent.rowGroups;
+		this.columnGroups = parent.columnGroups;
+		this.styleCache = parent.styleCache;
+		this.rowLevelPageBreakIntervals = parent.rowLevelPageBreakIntervals;
+		this.forcedRowLevelPageBreakInterval = parent.forcedRowLevelPageBreakInterval;
+	}
+
+	public void close( )
+	{
+		// the query is closed by the crosstab executor
+		cubeRset = null;
+		cubeCursor = null;
+
+		super.close( );
+	}
+
+	public IContent execute( )
+	{
+		IReportContent report = context.getReportContent( );
+		ITableContent content = report.createTableContent( );
+
+		initializeContent( content, crosstabItem );
+
+		IStyle style = report.createStyle( );
+		if ( source.getInlineStyle( ) != null )
+		{
+			style.setProperties( source.getInlineStyle( ) );
+		}
+		if ( windowIndex > 0 && isPaginated( ) )
+		{
+			style.setProperty( IStyle.STYLE_PAGE_BREAK_BEFORE,
+					IStyle.ALWAYS_VALUE );
+		}
+		content.setInlineStyle( style );
+		content.setStyleClass( source.getStyleClass( ) );
+		content.setHyperlinkAction( source.getHyperlinkAction( ) );
+
+		if ( windowIndex == 0 )
+		{
+			content.setCaption( source.getCaption( ) );
+			content.setCaptionKey( source.getCaptionKey( ) );
+		}
+		content.setSummary( source.getSummary( ) );
+		content.setHeaderRepeat( source.isHeaderRepeat( ) );
+
+		try
+		{
+			// the columns of the window are walked when the window is executed
+			walker = new CachedColumnWalker( crosstabItem,
+					getColumnEdgeCursor( ),
+					window[0],
+					window[1],
+					keepRowHeader );
+
+			new TableColumnGenerator( crosstabItem,
+					walker,
+					getCubeResultSet( ),
+					getColumnEdgeCursor( ),
+					columnGroups ).generateWindowColumns( report, content );
+
+			prepareChildren( );
+		}
+		catch ( OLAPException e )
+		{
+			logger.log( Level.SEVERE,
+					Messages.getString( "CrosstabReportItemExecutor.error.generate.columns" ), //$NON-NLS-1$
+					e );
+		}
+
+		return content;
+	}
+
+	/**
+	 * Checks if the report is rendered to a paginated format, such as PDF,
+	 * PPT or DOC. The windows of the HTML output flow one after another.
+	 */
+	private boolean isPaginated( )
+	{
+		IReportContext reportContext = context.getReportContent( )
+				.getReportContext( );
+
+		if ( reportContext == null )
+		{
+			return false;
+		}
+
+		return !IRenderOption.OUTPUT_FORMAT_HTML.equalsIgnoreCase( reportContext.getOutputFormat( ) );
+	}
+}
@@ -14,12 +14,15 @@ package org.eclipse.birt.report.item.crosstab.core.re.executor;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.olap.OLAPException;
 import javax.olap.cursor.EdgeCursor;
 
+import org.eclipse.birt.report.engine.api.script.IReportContext;
+import org.eclipse.birt.report.engine.content.IContainerContent;
 import org.eclipse.birt.report.engine.content.IContent;
 import org.eclipse.birt.report.engine.content.ITableContent;
 import org.eclipse.birt.report.engine.extension.IExecutorContext;
@@ -38,6 +41,16 @@ public class CrosstabReportItemExecutor extends BaseCrosstabExecutor
 
 	private static Logger logger = Logger.getLogger( CrosstabReportItemExecutor.class.getName( ) );
 
+	/**
+	 * The app context option to execute the crosstab by column windows. If it
+	 * is true, the columns are split into windows by the column page breaks,
+	 * and each window is generated as a separate table which contains the
+	 * columns of the window and the row header columns. The windows follow
+	 * each other, so a row never holds the cells of the other windows. The
+	 * value is Boolean or String, the default value is false.
+	 */
+	public static final String COLUMN_WINDOW_MODE = "CROSSTAB_COLUMN_WINDOW_MODE"; //$NON-NLS-1$
+
 	private List children;
 	private int currentChild;
 	private EdgeCursor rowCursor;
@@ -137,6 +150,12 @@ public class CrosstabReportItemExecutor extends BaseCrosstabExecutor
 
 				forcedRowLevelPageBreakInterval = crosstabItem.getRowPageBreakInterval( );
 
+				List<int[]> windows = getColumnWindows( );
+				if ( windows != null )
+				{
+					return createColumnWindows( content, windows );
+				}
+
 				walker = new CachedColumnWalker( crosstabItem,
 						getColumnEdgeCursor( ) );
 				new TableColumnGenerator( crosstabItem,
@@ -164,7 +183,86 @@ public class CrosstabReportItemExecutor extends BaseCrosstabExecutor
 		return content;
 	}
 
-	private void prepareChildren( ) throws OLAPException
+	/**
+	 * Returns the column windows if the crosstab is executed by column
+	 * windows, else returns null.
+	 */
+	private List<int[]> getColumnWindows( ) throws OLAPException
+	{
+		if ( !isColumnWindowMode( ) )
+		{
+			return null;
+		}
+
+		List<int[]> windows = new TableColumnGenerator( crosstabItem,
+				null,
+				getCubeResultSet( ),
+				getColumnEdgeCursor( ),
+				columnGroups ).getColumnWindows( context.getReportContent( ) );
+
+		return windows.size( ) > 1 ? windows : null;
+	}
+
+	private boolean isColumnWindowMode( )
+	{
+		IReportContext reportContext = context.getReportContent( )
+				.getReportContext( );
+
+		if ( reportContext == null || reportContext.getAppContext( ) == null )
+		{
+			return false;
+		}
+
+		Map appContext = reportContext.getAppContext( );
+		Object value = appContext.get( COLUMN_WINDOW_MODE );
+
+		if ( value instanceof Boolean )
+		{
+			return ( (Boolean) value ).booleanValue( );
+		}
+
+		return value instanceof String
+				&& Boolean.valueOf( (String) value ).booleanValue( );
+	}
+
+	/**
+	 * Creates the container of the column windows, each window is executed by
+	 * a child executor.
+	 */
+	private IContent createColumnWindows( ITableContent table,
+			List<int[]> windows )
+	{
+		IContainerContent container = context.getReportContent( )
+				.createContainerContent( );
+
+		initializeContent( container, crosstabItem );
+
+		// bookmark and toc are for the whole crosstab
+		container.setBookmark( table.getBookmark( ) );
+		container.setTOC( table.getTOC( ) );
+
+		table.setBookmark( null );
+		table.setTOC( null );
+
+		needRowGroups = false;
+		currentChild = 0;
+		children = new ArrayList( );
+
+		boolean repeatRowHeader = crosstabItem.isRepeatRowHeader( );
+
+		for ( int i = 0; i < windows.size( ); i++ )
+		{
+			children.add( new CrosstabColumnWindowExecutor( this,
+					table,
+					windows.get( i ),
+					i,
+					i == 0 || repeatRowHeader ) );
+		}
+
+		return container;
+	}
+
+	void prepareChildren( ) throws OLAPException
 	{
 		needRowGroups = false;
 		measureCount = crosstabItem.getMeasureCount( );
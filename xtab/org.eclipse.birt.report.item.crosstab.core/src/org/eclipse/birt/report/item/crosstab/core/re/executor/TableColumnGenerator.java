@@ -11,6 +11,7 @@
 
 package org.eclipse.birt.report.item.crosstab.core.re.executor;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
@@ -217,6 +218,106 @@ public class TableColumnGenerator implements ICrosstabConstants
 		handlePageBreak( table );
 	}
 
+	/**
+	 * Generates the columns of a column window. The column page breaks are
+	 * not processed as the windows are split at the page breaks.
+	 */
+	void generateWindowColumns( IReportContent report, ITableContent table )
+			throws OLAPException
+	{
+		while ( walker.hasNext( ) )
+		{
+			addColumn( walker.next( ), report, table );
+		}
+	}
+
+	/**
+	 * Returns the column windows split by the column page breaks, each window
+	 * is int[]{start, end} of the indexes of the column events. The events are
+	 * walked once to check the page breaks, no table column is generated.
+	 */
+	List<int[]> getColumnWindows( IReportContent report ) throws OLAPException
+	{
+		List<int[]> windows = new ArrayList<int[]>( );
+
+		ColumnWalker columnWalker = new ColumnWalker( crosstabItem,
+				columnCursor );
+
+		boolean checkPageBreak = columnCursor != null
+				&& columnGroups.size( ) > 0;
+
+		int[] checkPoint = new int[]{
+			-1
+		};
+
+		notifyNextPageBreak = -1;
+
+		int i = 0;
+		int start = 0;
+		boolean pageBreakAfter = false;
+		// a window starts after the window which has some columns
+		boolean hasColumn = false;
+
+		while ( columnWalker.hasNext( ) )
+		{
+			ColumnEvent ce = columnWalker.next( );
+
+			if ( checkPageBreak
+					&& ( ce.type == ColumnEvent.COLUMN_EDGE_CHANGE
+							|| ce.type == ColumnEvent.COLUMN_TOTAL_CHANGE || ce.type == ColumnEvent.GRAND_TOTAL_CHANGE ) )
+			{
+				// the page breaks are set to a scratch column
+				IColumn col = new Column( report );
+
+				// the walker has moved to the next column, restore it after
+				// checking the page breaks of this one
+				long position = columnCursor.getPosition( );
+
+				handleColumnPageBreak( ce, col );
+
+				if ( forcedColumnLevelPageBreakInterval > 0 )
+				{
+					handleForcedColumnPageBreak( checkPoint, i, col );
+				}
+
+				columnCursor.setPosition( position );
+
+				if ( ( pageBreakAfter || isPageBreak( col,
+						IStyle.STYLE_PAGE_BREAK_BEFORE ) )
+						&& hasColumn )
+				{
+					windows.add( new int[]{
+							start, i
+					} );
+					start = i;
+				}
+
+				pageBreakAfter = isPageBreak( col,
+						IStyle.STYLE_PAGE_BREAK_AFTER );
+				hasColumn = true;
+			}
+
+			i++;
+		}
+
+		if ( i > 0 )
+		{
+			windows.add( new int[]{
+					start, i
+			} );
+		}
+
+		return windows;
+	}
+
+	private static boolean isPageBreak( IColumn col, int property )
+	{
+		// the page breaks are always set to the inline style
+		IStyle style = col.getInlineStyle( );
+		return style != null
+				&& IStyle.ALWAYS_VALUE.equals( style.getProperty( property ) );
+	}
+
 	private String getDisplay( CrosstabCellHandle cell )
 	{
 		Object value = cell.getProperty( Style.DISPLAY_PROP );